@@ -38,7 +38,9 @@ import org.adempiere.ad.trx.api.ITrxRunConfig.OnRunnableFail;
 import org.adempiere.ad.trx.api.ITrxRunConfig.OnRunnableSuccess;
 import org.adempiere.ad.trx.api.ITrxRunConfig.TrxPropagation;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.exceptions.DBException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.IPair;
 import org.adempiere.util.lang.ImmutablePair;
 import org.compiere.model.I_C_ElementValue;
@@ -53,6 +55,7 @@ import org.compiere.util.TrxRunnable2;
 
 import de.metas.acct.api.AcctSchemaElementType;
 import de.metas.acct.cube.IFactAcctCubeBL;
+import de.metas.acct.model.I_Fact_Acct_Summary;
 import de.metas.logging.LogManager;
 import de.metas.process.JavaProcess;
 import de.metas.process.ProcessInfoParameter;
@@ -73,6 +76,9 @@ public class FinReport extends JavaProcess
 	// Services
 	private final transient ITrxManager trxManager = Services.get(ITrxManager.class);
 
+	/** If enabled, the values which are computed from the report cube are compared with the values computed from {@code Fact_Acct}; if they differ, a warning is logged and the latter are used */
+	private static final String SYSCONFIG_CheckReportCubeConsistency = "org.compiere.report.FinReport.CheckReportCubeConsistency";
+
 	/** Period Parameter */
 	private int p_C_Period_ID = 0;
 	/** Org Parameter */
@@ -242,9 +248,6 @@ public class FinReport extends JavaProcess
 				.append(" - ").append(m_parameterWhere);
 		//
 
-		if (p_PA_ReportCube_ID > 0)
-			m_parameterWhere.append(" AND PA_ReportCube_ID=").append(p_PA_ReportCube_ID);
-
 		log.info(sb.toString());
 		// m_report.list();
 	}	// prepare
@@ -290,9 +293,22 @@ public class FinReport extends JavaProcess
 	}
 
 	private void appendParametersWhereClause(final StringBuilder sql, final List<Object> sqlParamsOut)
+	{
+		appendParametersWhereClause(sql, sqlParamsOut, p_PA_ReportCube_ID > 0);
+	}
+
+	/**
+	 * @param forReportCube if true, the SQL is for the report cube's {@code Fact_Acct_Summary} records, else it's for {@code Fact_Acct}
+	 */
+	private void appendParametersWhereClause(final StringBuilder sql, final List<Object> sqlParamsOut, final boolean forReportCube)
 	{
 		sql.append(m_parameterWhere);
 		sqlParamsOut.addAll(m_parameterWhereParams);
+
+		if (forReportCube)
+		{
+			sql.append(" AND PA_ReportCube_ID=").append(p_PA_ReportCube_ID);
+		}
 	}
 
 	/**
@@ -437,6 +453,12 @@ public class FinReport extends JavaProcess
 			return;
 		}
 
+		if (p_PA_ReportCube_ID > 0)
+		{
+			insertLineFromReportCube(paReportLineIndex);
+			return;
+		}
+
 		final boolean isSuppressZeroLine = paReportLine.isSuppressZeroLine();	// metas-2009_0021_AP1_CR080
 		boolean isZeroLine = isSuppressZeroLine ? true : false;					// metas-2009_0021_AP1_CR080
 		final StringBuilder update = new StringBuilder();
@@ -457,146 +479,22 @@ public class FinReport extends JavaProcess
 			info.append("Line=").append(paReportLineIndex).append(",Col=").append(paReportColumnIndex);
 
 			// SELECT SUM()
-			final List<Object> selectSqlParams = new ArrayList<>();
-			final StringBuilder select = new StringBuilder("SELECT ");
-			if (paReportLine.getPAAmountType() != null)				// line amount type overwrites column
-			{
-				String sql = paReportLine.getSelectClause(true);
-				select.append(sql);
-				info.append(": LineAmtType=").append(paReportLine.getPAAmountType());
-			}
-			else if (paReportColumn.getPAAmountType() != null)
-			{
-				String sql = paReportColumn.getSelectClause(true);
-				select.append(sql);
-				info.append(": ColumnAmtType=").append(paReportColumn.getPAAmountType());
-			}
-			else
+			final String amountSelectClause = getAmountSelectClause(paReportLine, paReportColumn, info);
+			if (amountSelectClause == null)
 			{
-				log.warn("No Amount Type in line: " + paReportLine + " or column: " + paReportColumn);
 				continue;
 			}
 
+			final List<Object> selectSqlParams = new ArrayList<>();
+			final StringBuilder select = new StringBuilder("SELECT ").append(amountSelectClause);
 			if (isSuppressZeroLine && isZeroLine)
 			{
 				select.append(", COUNT(*) "); // metas-2009_0021_AP1_CR080
 			}
 
-			if (p_PA_ReportCube_ID > 0)
-			{
-				select.append(" FROM Fact_Acct_Summary fa WHERE DateAcct ");
-			}
-			else
-			{
-				// Get Period/Date info
-				select.append(" FROM Fact_Acct fa WHERE TRUNC(DateAcct) ");
-			}
-
-			BigDecimal relativeOffset = null;	// current
-			if (paReportColumn.isColumnTypeRelativePeriod())
-			{
-				relativeOffset = paReportColumn.getRelativePeriod();
-			}
-			final FinReportPeriod frp = getPeriod(relativeOffset);
-			if (paReportLine.getPAPeriodType() != null)			// line amount type overwrites column
-			{
-				info.append(" - LineDateAcct=");
-				if (paReportLine.isPeriod())
-				{
-					final String sql = frp.getPeriodWhere();
-					info.append("Period");
-					select.append(sql);
-				}
-				else if (paReportLine.isYear())
-				{
-					final String sql = frp.getYearWhere();
-					info.append("Year");
-					select.append(sql);
-				}
-				else if (paReportLine.isTotal())
-				{
-					final String sql = frp.getTotalWhere();
-					info.append("Total");
-					select.append(sql);
-				}
-				else if (paReportLine.isNatural())
-				{
-					select.append(frp.getNaturalWhere("fa"));
-				}
-				else
-				{
-					log.error("No valid Line PAPeriodType");
-					select.append("=0");	// valid sql
-				}
-			}
-			else if (paReportColumn.getPAPeriodType() != null)
-			{
-				info.append(" - ColumnDateAcct=");
-				if (paReportColumn.isPeriod())
-				{
-					final String sql = frp.getPeriodWhere();
-					info.append("Period");
-					select.append(sql);
-				}
-				else if (paReportColumn.isYear())
-				{
-					final String sql = frp.getYearWhere();
-					info.append("Year");
-					select.append(sql);
-				}
-				else if (paReportColumn.isTotal())
-				{
-					final String sql = frp.getTotalWhere();
-					info.append("Total");
-					select.append(sql);
-				}
-				else if (paReportColumn.isNatural())
-				{
-					select.append(frp.getNaturalWhere("fa"));
-				}
-				else
-				{
-					log.error("No valid Column PAPeriodType");
-					select.append("=0");	// valid sql
-				}
-			}
-
-			// Line Where
-			final String paReportLineWhereClause = paReportLine.getWhereClause(p_PA_Hierarchy_ID);	// (sources, posting type)
-			if (!Check.isEmpty(paReportLineWhereClause, true))
-			{
-				select.append(" AND ").append(paReportLineWhereClause);
-			}
-
-			// Report Where
-			final String paReportWhereClause = m_report.getWhereClause();
-			if (Check.isEmpty(paReportWhereClause))
-			{
-				select.append(" AND ").append(paReportWhereClause);
-			}
-
-			// PostingType
-			if (!paReportLine.isPostingType())		// only if not defined on line
-			{
-				final String PostingType = paReportColumn.getPostingType();
-				if (!Check.isEmpty(PostingType))
-					select.append(" AND PostingType='").append(PostingType).append("'");
-				// globalqss - CarlosRuiz
-				if (PostingType.equals(MReportColumn.POSTINGTYPE_Budget))
-				{
-					if (paReportColumn.getGL_Budget_ID() > 0)
-						select.append(" AND GL_Budget_ID=" + paReportColumn.getGL_Budget_ID());
-				}
-				// end globalqss
-			}
-
-			if (paReportColumn.isColumnTypeSegmentValue())
-			{
-				select.append(paReportColumn.getWhereClause(p_PA_Hierarchy_ID));
-			}
-
-			// Parameter Where
-			appendParametersWhereClause(select, selectSqlParams);
+			// Get Period/Date info
+			select.append(" FROM Fact_Acct fa WHERE TRUNC(DateAcct) ")
+					.append(createCellWhereClause(paReportLine, paReportColumn, info, selectSqlParams, false));
 			log.trace("Line=" + paReportLineIndex + ",Col=" + paReportLineIndex + ": " + select);
 
 			// metas-2009_0021_AP1_CR080: begin
@@ -622,31 +520,326 @@ public class FinReport extends JavaProcess
 		// (metas-2009_0021_AP1_CR080)
 		if (isZeroLine)
 		{
-			final String sql = "DELETE FROM T_Report WHERE AD_PInstance_ID=? AND PA_ReportLine_ID=?";
-			final int no = DB.executeUpdateEx(sql,
-					new Object[] { getAD_PInstance_ID(), paReportLine.getPA_ReportLine_ID() },
-					get_TrxName());
-			if (no != 1)
-				log.error("#=" + no + " for " + sql);
-			log.trace(sql);
+			deleteZeroLine(paReportLine);
 		}
 		//
 		// Update Line Values
 		else if (update.length() > 0)
 		{
-			update.insert(0, "UPDATE T_Report SET ");
-			update.append(" WHERE AD_PInstance_ID=").append(getAD_PInstance_ID())
-					.append(" AND PA_ReportLine_ID=").append(paReportLine.getPA_ReportLine_ID())
-					.append(" AND ABS(LevelNo)<2");		// 0=Line 1=Acct
-			final int no = DB.executeUpdateEx(update.toString(),
-					updateSqlParams.toArray(),
-					get_TrxName());
-			if (no != 1)
-				log.error("#=" + no + " for " + update);
-			log.trace(update.toString());
+			updateLineValues(paReportLine, update, updateSqlParams);
 		}
 	}	// insertLine
 
+	/**
+	 * Same as {@link #insertLine(int)}, but all columns of the line are computed with one single scan of the report cube's {@link I_Fact_Acct_Summary} records,
+	 * instead of one (sub)select per column.
+	 * 
+	 * @param paReportLineIndex line
+	 */
+	private void insertLineFromReportCube(final int paReportLineIndex)
+	{
+		final MReportLine paReportLine = m_lines[paReportLineIndex];
+
+		final FinReportLineCubeQuery query = new FinReportLineCubeQuery();
+		for (int paReportColumnIndex = 0; paReportColumnIndex < m_columns.length; paReportColumnIndex++)
+		{
+			final MReportColumn paReportColumn = m_columns[paReportColumnIndex];
+			if (paReportColumn.isColumnTypeCalculation())
+			{
+				continue;
+			}
+
+			final StringBuilder info = new StringBuilder();
+			info.append("Line=").append(paReportLineIndex).append(",Col=").append(paReportColumnIndex);
+
+			final String amountSelectClause = getAmountSelectClause(paReportLine, paReportColumn, info);
+			if (amountSelectClause == null)
+			{
+				continue;
+			}
+
+			final List<Object> cellSqlParams = new ArrayList<>();
+			final String cellWhereClause = createCellWhereClause(paReportLine, paReportColumn, info, cellSqlParams, true);
+			query.addCell(paReportColumnIndex, amountSelectClause, cellWhereClause, cellSqlParams);
+			log.trace(info.toString());
+		}
+		if (query.isEmpty())
+		{
+			return;
+		}
+
+		final List<Object> selectSqlParams = new ArrayList<>();
+		final String select = query.buildSql(p_PA_ReportCube_ID, paReportLine.getWhereClause(p_PA_Hierarchy_ID), selectSqlParams);
+
+		final FinReportLineCubeQuery.LineValues lineValues;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(select, get_TrxName());
+			DB.setParameters(pstmt, selectSqlParams);
+			rs = pstmt.executeQuery();
+			if (rs.next())
+			{
+				final ResultSet row = rs;
+				lineValues = query.readValues(new FinReportLineCubeQuery.ResultRow()
+				{
+					@Override
+					public BigDecimal getBigDecimal(final int columnIndex) throws SQLException
+					{
+						return row.getBigDecimal(columnIndex);
+					}
+
+					@Override
+					public int getInt(final int columnIndex) throws SQLException
+					{
+						return row.getInt(columnIndex);
+					}
+				});
+			}
+			else
+			{
+				lineValues = query.readValues(null);
+			}
+		}
+		catch (final SQLException e)
+		{
+			throw new DBException(e, select, selectSqlParams.toArray());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+
+		final List<Integer> paReportColumnIndexes = lineValues.getColumnIndexes();
+		final BigDecimal[] values = lineValues.getValues().toArray(new BigDecimal[0]);
+		final boolean isZeroLine = lineValues.isZeroLine();
+
+		if (Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_CheckReportCubeConsistency, false))
+		{
+			checkReportCubeConsistency(paReportLineIndex, paReportColumnIndexes, values);
+		}
+
+		// Delete ZERO Line (metas-2009_0021_AP1_CR080)
+		if (paReportLine.isSuppressZeroLine() && isZeroLine)
+		{
+			deleteZeroLine(paReportLine);
+			return;
+		}
+
+		// Update Line Values
+		final StringBuilder update = new StringBuilder();
+		final List<Object> updateSqlParams = new ArrayList<>();
+		for (int i = 0; i < values.length; i++)
+		{
+			if (update.length() > 0)
+				update.append(", ");
+			update.append("Col_").append(paReportColumnIndexes.get(i)).append("=?");
+			updateSqlParams.add(values[i]);
+		}
+		updateLineValues(paReportLine, update, updateSqlParams);
+	}	// insertLineFromReportCube
+
+	/**
+	 * Computes the given line's values directly from {@code Fact_Acct} and compares them to the given values, which were computed from the report cube.
+	 * If they differ, a warning is logged and the values from {@code Fact_Acct} are used.
+	 */
+	private void checkReportCubeConsistency(final int paReportLineIndex, final List<Integer> paReportColumnIndexes, final BigDecimal[] values)
+	{
+		final MReportLine paReportLine = m_lines[paReportLineIndex];
+		for (int i = 0; i < values.length; i++)
+		{
+			final MReportColumn paReportColumn = m_columns[paReportColumnIndexes.get(i)];
+			final StringBuilder info = new StringBuilder();
+
+			final List<Object> selectSqlParams = new ArrayList<>();
+			final String select = "SELECT " + getAmountSelectClause(paReportLine, paReportColumn, info)
+					+ " FROM Fact_Acct fa WHERE TRUNC(DateAcct) " + createCellWhereClause(paReportLine, paReportColumn, info, selectSqlParams, false);
+			final BigDecimal valueFromFactAcct = DB.getSQLValueBDEx(get_TrxName(), select, selectSqlParams.toArray());
+
+			final BigDecimal valueFromReportCube = values[i];
+			final BigDecimal valueFromFactAcctOrZero = valueFromFactAcct != null ? valueFromFactAcct : BigDecimal.ZERO;
+			final BigDecimal valueFromReportCubeOrZero = valueFromReportCube != null ? valueFromReportCube : BigDecimal.ZERO;
+			if (valueFromFactAcctOrZero.compareTo(valueFromReportCubeOrZero) != 0)
+			{
+				log.warn("Report cube value {} differs from the Fact_Acct value {} for {}, {}, PA_ReportCube_ID={}; using the Fact_Acct value",
+						valueFromReportCube, valueFromFactAcct, paReportLine, paReportColumn, p_PA_ReportCube_ID);
+				values[i] = valueFromFactAcct;
+			}
+		}
+	}
+
+	/**
+	 * @return the {@code SUM(...)} which shall be selected for the given cell, {@code "NULL"} if the amount type is not supported, or {@code null} if neither the line nor the column have an amount type.
+	 *         Note that {@code "NULL"} is not an aggregate, so it can't be used with a {@code FILTER} clause; see {@link FinReportLineCubeQuery#addCell(int, String, String, List)}.
+	 */
+	@Nullable
+	private String getAmountSelectClause(final MReportLine paReportLine, final MReportColumn paReportColumn, final StringBuilder info)
+	{
+		if (paReportLine.getPAAmountType() != null)				// line amount type overwrites column
+		{
+			info.append(": LineAmtType=").append(paReportLine.getPAAmountType());
+			return paReportLine.getSelectClause(true);
+		}
+		else if (paReportColumn.getPAAmountType() != null)
+		{
+			info.append(": ColumnAmtType=").append(paReportColumn.getPAAmountType());
+			return paReportColumn.getSelectClause(true);
+		}
+		else
+		{
+			log.warn("No Amount Type in line: " + paReportLine + " or column: " + paReportColumn);
+			return null;
+		}
+	}
+
+	/**
+	 * @param forReportCube if true, the where clause is for the report cube's {@code Fact_Acct_Summary}, else it's for {@code Fact_Acct}
+	 * @return the given cell's where clause, starting with the {@code DateAcct} condition (but without the column name)
+	 */
+	private String createCellWhereClause(
+			final MReportLine paReportLine,
+			final MReportColumn paReportColumn,
+			final StringBuilder info,
+			final List<Object> sqlParamsOut,
+			final boolean forReportCube)
+	{
+		final StringBuilder where = new StringBuilder();
+
+		BigDecimal relativeOffset = null;	// current
+		if (paReportColumn.isColumnTypeRelativePeriod())
+		{
+			relativeOffset = paReportColumn.getRelativePeriod();
+		}
+		final FinReportPeriod frp = getPeriod(relativeOffset);
+		if (paReportLine.getPAPeriodType() != null)			// line amount type overwrites column
+		{
+			info.append(" - LineDateAcct=");
+			if (paReportLine.isPeriod())
+			{
+				final String sql = frp.getPeriodWhere();
+				info.append("Period");
+				where.append(sql);
+			}
+			else if (paReportLine.isYear())
+			{
+				final String sql = frp.getYearWhere();
+				info.append("Year");
+				where.append(sql);
+			}
+			else if (paReportLine.isTotal())
+			{
+				final String sql = frp.getTotalWhere();
+				info.append("Total");
+				where.append(sql);
+			}
+			else if (paReportLine.isNatural())
+			{
+				where.append(frp.getNaturalWhere("fa"));
+			}
+			else
+			{
+				log.error("No valid Line PAPeriodType");
+				where.append("=0");	// valid sql
+			}
+		}
+		else if (paReportColumn.getPAPeriodType() != null)
+		{
+			info.append(" - ColumnDateAcct=");
+			if (paReportColumn.isPeriod())
+			{
+				final String sql = frp.getPeriodWhere();
+				info.append("Period");
+				where.append(sql);
+			}
+			else if (paReportColumn.isYear())
+			{
+				final String sql = frp.getYearWhere();
+				info.append("Year");
+				where.append(sql);
+			}
+			else if (paReportColumn.isTotal())
+			{
+				final String sql = frp.getTotalWhere();
+				info.append("Total");
+				where.append(sql);
+			}
+			else if (paReportColumn.isNatural())
+			{
+				where.append(frp.getNaturalWhere("fa"));
+			}
+			else
+			{
+				log.error("No valid Column PAPeriodType");
+				where.append("=0");	// valid sql
+			}
+		}
+
+		// Line Where
+		final String paReportLineWhereClause = paReportLine.getWhereClause(p_PA_Hierarchy_ID);	// (sources, posting type)
+		if (!Check.isEmpty(paReportLineWhereClause, true))
+		{
+			where.append(" AND ").append(paReportLineWhereClause);
+		}
+
+		// Report Where
+		final String paReportWhereClause = m_report.getWhereClause();
+		if (!Check.isEmpty(paReportWhereClause, true))
+		{
+			where.append(" AND ").append(paReportWhereClause);
+		}
+
+		// PostingType
+		if (!paReportLine.isPostingType())		// only if not defined on line
+		{
+			final String PostingType = paReportColumn.getPostingType();
+			if (!Check.isEmpty(PostingType))
+				where.append(" AND PostingType='").append(PostingType).append("'");
+			// globalqss - CarlosRuiz
+			if (PostingType.equals(MReportColumn.POSTINGTYPE_Budget))
+			{
+				if (paReportColumn.getGL_Budget_ID() > 0)
+					where.append(" AND GL_Budget_ID=" + paReportColumn.getGL_Budget_ID());
+			}
+			// end globalqss
+		}
+
+		if (paReportColumn.isColumnTypeSegmentValue())
+		{
+			where.append(paReportColumn.getWhereClause(p_PA_Hierarchy_ID));
+		}
+
+		// Parameter Where
+		appendParametersWhereClause(where, sqlParamsOut, forReportCube);
+
+		return where.toString();
+	}
+
+	private void deleteZeroLine(final MReportLine paReportLine)
+	{
+		final String sql = "DELETE FROM T_Report WHERE AD_PInstance_ID=? AND PA_ReportLine_ID=?";
+		final int no = DB.executeUpdateEx(sql,
+				new Object[] { getAD_PInstance_ID(), paReportLine.getPA_ReportLine_ID() },
+				get_TrxName());
+		if (no != 1)
+			log.error("#=" + no + " for " + sql);
+		log.trace(sql);
+	}
+
+	private void updateLineValues(final MReportLine paReportLine, final StringBuilder update, final List<Object> updateSqlParams)
+	{
+		update.insert(0, "UPDATE T_Report SET ");
+		update.append(" WHERE AD_PInstance_ID=").append(getAD_PInstance_ID())
+				.append(" AND PA_ReportLine_ID=").append(paReportLine.getPA_ReportLine_ID())
+				.append(" AND ABS(LevelNo)<2");		// 0=Line 1=Acct
+		final int no = DB.executeUpdateEx(update.toString(),
+				updateSqlParams.toArray(),
+				get_TrxName());
+		if (no != 1)
+			log.error("#=" + no + " for " + update);
+		log.trace(update.toString());
+	}
+
 	/**
 	 * Checks if given select SQL returns NULL {@link BigDecimal} and if so, replaces the select with "NULL"
 	 * 
@@ -0,0 +1,156 @@
+package org.compiere.report;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.util.Check;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Builds the single SELECT which computes all cells of one {@link FinReport} line from the report cube's {@code Fact_Acct_Summary} records and reads its result.
+ * <p>
+ * Each cell is selected as {@code <amount> FILTER (WHERE DateAcct <cellWhereClause>), COUNT(*) FILTER (WHERE DateAcct <cellWhereClause>)},
+ * which is the same as the cell's own {@code SELECT <amount> FROM Fact_Acct_Summary fa WHERE DateAcct <cellWhereClause>}.
+ * <p>
+ * If the amount is {@value #AMOUNT_SELECT_CLAUSE_NULL}, it's not an aggregate and so it can't be filtered; then it's selected as {@code NULL::numeric}.
+ */
+final class FinReportLineCubeQuery
+{
+	/** Provides the values of the result's only row; like {@link java.sql.ResultSet}, the column indexes start with 1 */
+	interface ResultRow
+	{
+		BigDecimal getBigDecimal(int columnIndex) throws SQLException;
+
+		int getInt(int columnIndex) throws SQLException;
+	}
+
+	@Value
+	static class LineValues
+	{
+		/** The indexes of the report columns which were computed */
+		List<Integer> columnIndexes;
+
+		/** The values of the computed report columns, in the same order as {@link #getColumnIndexes()}; {@code null} if there were no records for a cell */
+		List<BigDecimal> values;
+
+		/** true if there were no records for any cell */
+		boolean zeroLine;
+	}
+
+	/** what {@link org.compiere.report.MReportLine#getSelectClause(boolean)} and {@link org.compiere.report.MReportColumn#getSelectClause(boolean)} return for an unknown amount type */
+	private static final String AMOUNT_SELECT_CLAUSE_NULL = "NULL";
+
+	private final List<Integer> columnIndexes = new ArrayList<>();
+	private final StringBuilder selectList = new StringBuilder();
+	private final List<Object> selectListParams = new ArrayList<>();
+
+	/**
+	 * @param amountSelectClause e.g. {@code SUM(AmtAcctDr-AmtAcctCr)} or {@value #AMOUNT_SELECT_CLAUSE_NULL}
+	 * @param cellWhereClause the cell's where clause, starting with the {@code DateAcct} condition but without the column name
+	 */
+	public void addCell(
+			final int columnIndex,
+			@NonNull final String amountSelectClause,
+			@NonNull final String cellWhereClause,
+			@NonNull final List<Object> cellWhereClauseParams)
+	{
+		final String cellFilter = " FILTER (WHERE DateAcct " + cellWhereClause + ")";
+		if (selectList.length() > 0)
+		{
+			selectList.append(", ");
+		}
+		if (AMOUNT_SELECT_CLAUSE_NULL.equalsIgnoreCase(amountSelectClause.trim()))
+		{
+			selectList.append("NULL::numeric");
+		}
+		else
+		{
+			// the amount and the records count of this cell have the same filter, so they need the same params
+			selectList.append(amountSelectClause).append(cellFilter);
+			selectListParams.addAll(cellWhereClauseParams);
+		}
+		selectList.append(", COUNT(*)").append(cellFilter);
+		selectListParams.addAll(cellWhereClauseParams);
+
+		columnIndexes.add(columnIndex);
+	}
+
+	public boolean isEmpty()
+	{
+		return columnIndexes.isEmpty();
+	}
+
+	/**
+	 * @param lineWhereClause optional; narrows down the scanned records to those which are relevant for the line
+	 */
+	public String buildSql(final int reportCubeId, @Nullable final String lineWhereClause, @NonNull final List<Object> sqlParamsOut)
+	{
+		Check.assume(!isEmpty(), "At least one cell was added");
+
+		final StringBuilder sql = new StringBuilder("SELECT ").append(selectList)
+				.append(" FROM Fact_Acct_Summary fa WHERE PA_ReportCube_ID=?");
+		sqlParamsOut.addAll(selectListParams);
+		sqlParamsOut.add(reportCubeId);
+
+		if (!Check.isEmpty(lineWhereClause, true))
+		{
+			sql.append(" AND ").append(lineWhereClause);
+		}
+
+		return sql.toString();
+	}
+
+	/**
+	 * @param row the result's only row, or {@code null} if there was none
+	 */
+	public LineValues readValues(@Nullable final ResultRow row) throws SQLException
+	{
+		final BigDecimal[] values = new BigDecimal[columnIndexes.size()];
+		boolean zeroLine = true;
+		if (row != null)
+		{
+			for (int i = 0; i < values.length; i++)
+			{
+				final int count = row.getInt(i * 2 + 2);
+				values[i] = count == 0 ? null : row.getBigDecimal(i * 2 + 1);
+				zeroLine = zeroLine && count == 0;
+			}
+		}
+
+		return new LineValues(
+				ImmutableList.copyOf(columnIndexes),
+				Collections.unmodifiableList(Arrays.asList(values)),
+				zeroLine);
+	}
+}
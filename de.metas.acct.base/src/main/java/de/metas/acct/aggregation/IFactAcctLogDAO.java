@@ -1,8 +1,10 @@
 package de.metas.acct.aggregation;
 
 import java.util.Properties;
+import java.util.Set;
 
 import org.adempiere.ad.dao.IQueryBuilder;
+import org.compiere.model.I_PA_ReportCube;
 
 import de.metas.acct.model.I_Fact_Acct_Log;
 import de.metas.acct.model.I_Fact_Acct_Summary;
@@ -70,4 +72,9 @@ public interface IFactAcctLogDAO extends ISingletonService
 	boolean hasLogs(Properties ctx, String processingTag);
 
 	void updateFactAcctEndingBalanceForTag(String processingTag);
+
+	/**
+	 * @return IDs of the active {@link I_PA_ReportCube}s which have a period (of the cube's calendar) containing the <code>DateAcct</code> of a log tagged with given tag; ordered by ID
+	 */
+	Set<Integer> retrieveReportCubeIdsForTag(String processingTag);
 }
@@ -4,12 +4,17 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import org.adempiere.ad.dao.IQueryFilter;
 import org.adempiere.ad.dao.impl.EqualsQueryFilter;
+import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.agg.key.IAggregationKeyBuilder;
+import org.adempiere.util.lang.IContextAware;
+import org.compiere.model.I_PA_ReportCube;
 import org.compiere.util.TimeUtil;
 import org.compiere.util.TrxRunnableAdapter;
 
@@ -17,6 +22,7 @@ import de.metas.acct.aggregation.IFactAcctLogBL;
 import de.metas.acct.aggregation.IFactAcctLogDAO;
 import de.metas.acct.aggregation.IFactAcctLogIterable;
 import de.metas.acct.aggregation.IFactAcctSummaryKey;
+import de.metas.acct.cube.IFactAcctCubeBL;
 import de.metas.acct.model.I_Fact_Acct_Log;
 import de.metas.acct.model.I_Fact_Acct_Summary;
 import de.metas.acct.model.X_Fact_Acct_Log;
@@ -87,6 +93,10 @@ public class FactAcctLogBL implements IFactAcctLogBL
 		// Update Fact_Acct_EndingBalance
 		Services.get(IFactAcctLogDAO.class).updateFactAcctEndingBalanceForTag(logs.getProcessingTag());
 
+		//
+		// Apply the logs to the report cubes (i.e. Fact_Acct_Summary records with PA_ReportCube_ID set)
+		updateReportCubes(logs);
+
 		//
 		// Delete all processed logs
 		logs.deleteAll();
@@ -95,6 +105,32 @@ public class FactAcctLogBL implements IFactAcctLogBL
 		loggable.addLog("Created/Updated {0} {1} records", factAcctSummaryUpdater.getGroupsCount(), I_Fact_Acct_Summary.Table_Name);
 	}
 
+	private void updateReportCubes(final IFactAcctLogIterable logs)
+	{
+		final String processingTag = logs.getProcessingTag();
+		final Set<Integer> reportCubeIds = Services.get(IFactAcctLogDAO.class).retrieveReportCubeIdsForTag(processingTag);
+		if (reportCubeIds.isEmpty())
+		{
+			return;
+		}
+
+		final ILoggable loggable = Loggables.get();
+		final IFactAcctCubeBL factAcctCubeBL = Services.get(IFactAcctCubeBL.class);
+		final IContextAware context = PlainContextAware.newWithThreadInheritedTrx(logs.getCtx());
+
+		for (final Integer reportCubeId : reportCubeIds)
+		{
+			final I_PA_ReportCube reportCube = InterfaceWrapperHelper.create(logs.getCtx(), reportCubeId, I_PA_ReportCube.class, ITrx.TRXNAME_ThreadInherited);
+			final String resultSummary = factAcctCubeBL.createFactAcctCubeUpdater()
+					.setContext(context)
+					.setPA_ReportCube(reportCube)
+					.setFactAcctLogProcessingTag(processingTag)
+					.update()
+					.getResultSummary();
+			loggable.addLog(resultSummary);
+		}
+	}
+
 	private static class FactAcctSummaryUpdater extends MapReduceAggregator<FactAcctGroup, I_Fact_Acct_Log>
 	{
 		public FactAcctSummaryUpdater()
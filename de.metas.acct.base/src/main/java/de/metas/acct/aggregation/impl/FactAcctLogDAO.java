@@ -5,6 +5,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 
 import org.adempiere.ad.dao.IQueryBL;
@@ -19,6 +20,8 @@ import org.adempiere.util.text.annotation.ToStringBuilder;
 import org.compiere.model.IQuery;
 import org.compiere.util.DB;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.acct.aggregation.IFactAcctLogDAO;
 import de.metas.acct.aggregation.IFactAcctLogIterable;
 import de.metas.acct.aggregation.IFactAcctSummaryKey;
@@ -192,6 +195,47 @@ public class FactAcctLogDAO implements IFactAcctLogDAO
 		}
 	}
 
+	@Override
+	public Set<Integer> retrieveReportCubeIdsForTag(final String processingTag)
+	{
+		// NOTE: same as FactAcctCubeUpdater, which aggregates all Fact_Acct records from the periods of the cube's calendar
+		// NOTE: ordered, so that the cubes are always locked in the same order
+		final String sql = "SELECT c.PA_ReportCube_ID"
+				+ " FROM PA_ReportCube c"
+				+ " WHERE c.IsActive='Y'"
+				+ " AND EXISTS (SELECT 1 FROM Fact_Acct_Log l"
+				+ " INNER JOIN C_Period p ON (p.PeriodType='S' AND l.DateAcct BETWEEN p.StartDate AND p.EndDate)"
+				+ " INNER JOIN C_Year y ON (y.C_Year_ID=p.C_Year_ID)"
+				+ " WHERE y.C_Calendar_ID=c.C_Calendar_ID AND l.ProcessingTag=?)"
+				+ " ORDER BY c.PA_ReportCube_ID";
+		final Object[] sqlParams = new Object[] { processingTag };
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final ImmutableSet.Builder<Integer> reportCubeIds = ImmutableSet.builder();
+			while (rs.next())
+			{
+				reportCubeIds.add(rs.getInt("PA_ReportCube_ID"));
+			}
+			return reportCubeIds.build();
+		}
+		catch (SQLException e)
+		{
+			throw DBException.wrapIfNeeded(e).appendParametersToMessage()
+					.setParameter("sql", sql)
+					.setParameter("sqlParams", sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	private final class FactAcctLogIterable implements IFactAcctLogIterable
 	{
 		@ToStringBuilder(skip = true)
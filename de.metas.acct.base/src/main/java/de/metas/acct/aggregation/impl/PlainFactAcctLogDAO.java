@@ -1,6 +1,11 @@
 package de.metas.acct.aggregation.impl;
 
+import java.util.Set;
+
 import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.logging.LogManager;
 
 /*
@@ -34,4 +39,11 @@ public class PlainFactAcctLogDAO extends FactAcctLogDAO
 	{
 		logger.warn("Updating Fact_Acct_EndingBalance not supported. Skipped.");
 	}
+
+	@Override
+	public Set<Integer> retrieveReportCubeIdsForTag(final String processingTag)
+	{
+		logger.warn("Retrieving the report cubes not supported. Skipped.");
+		return ImmutableSet.of();
+	}
 }
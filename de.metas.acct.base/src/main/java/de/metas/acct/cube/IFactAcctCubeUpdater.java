@@ -25,6 +25,12 @@ public interface IFactAcctCubeUpdater
 	 */
 	IFactAcctCubeUpdater setForceUpdate(final boolean forceUpdate);
 
+	/**
+	 * @param processingTag if set, the {@link #update()} does not re-aggregate the cube from {@code Fact_Acct}, but only adds the changes of the {@code Fact_Acct_Log} records with the given tag.
+	 *            This is done only if the cube was already built (i.e. {@link I_PA_ReportCube#getLastRecalculated()} is set), and {@link I_PA_ReportCube#getLastRecalculated()} is not updated.
+	 */
+	IFactAcctCubeUpdater setFactAcctLogProcessingTag(final String processingTag);
+
 	/**
 	 * @return result summary string or null
 	 */
@@ -28,7 +28,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.adempiere.exceptions.AdempiereException;
-import org.adempiere.exceptions.DBException;
 import org.adempiere.util.lang.IContextAware;
 import org.compiere.model.I_PA_ReportCube;
 import org.compiere.util.DB;
@@ -49,6 +48,7 @@ import de.metas.util.Check;
 	private I_PA_ReportCube _reportCube;
 	private boolean _resetCube;
 	private boolean _forceUpdate;
+	private String _factAcctLogProcessingTag;
 
 	// Status
 	private String _resultSummary = null;
@@ -108,6 +108,18 @@ import de.metas.util.Check;
 		return this._forceUpdate;
 	}
 
+	@Override
+	public IFactAcctCubeUpdater setFactAcctLogProcessingTag(final String processingTag)
+	{
+		this._factAcctLogProcessingTag = processingTag;
+		return this;
+	}
+
+	private String getFactAcctLogProcessingTag()
+	{
+		return _factAcctLogProcessingTag;
+	}
+
 	private int getPA_ReportCube_ID()
 	{
 		return getPA_ReportCube().getPA_ReportCube_ID();
@@ -131,11 +143,31 @@ import de.metas.util.Check;
 	@Override
 	public IFactAcctCubeUpdater update()
 	{
+		final String factAcctLogProcessingTag = getFactAcctLogProcessingTag();
+		if (factAcctLogProcessingTag != null)
+		{
+			updateFromFactAcctLog(factAcctLogProcessingTag);
+		}
+		else
+		{
+			updateFromFactAcct();
+		}
+		return this;
+	}
+
+	/**
+	 * Re-aggregates the cube's (changed) periods from {@code Fact_Acct}.
+	 */
+	private void updateFromFactAcct()
+	{
+		//
+		// Lock the report cube, before we look at what was changed
+		final Timestamp lastRecalculated = lockReportCube();
+
 		//
 		// Extract parameters
 		final I_PA_ReportCube paReportCube = getPA_ReportCube();
 		final int paReportCubeId = getPA_ReportCube_ID();
-		final Timestamp lastRecalculated = paReportCube.getLastRecalculated();
 		final String paReportCubeName = paReportCube.getName();
 		final boolean reset = isResetCube();
 		final String trxName = getContext().getTrxName();
@@ -154,7 +186,7 @@ import de.metas.util.Check;
 			if (periodIds.isEmpty())
 			{
 				setResultSummary("Nothing to update in " + paReportCubeName);
-				return this;
+				return;
 			}
 
 			sqlPeriodIn = DB.buildSqlList(periodIds);
@@ -166,85 +198,197 @@ import de.metas.util.Check;
 		}
 
 		//
-		// Lock the report cube
-		lockReportCube();
+		// Delete from Fact_Acct_Summary
+		{
+			final long startMillis = System.currentTimeMillis();
+			final int deleted = deleteFactAcctSummary(where);
+			final long elapsedSec = (System.currentTimeMillis() - startMillis) / 1000;
+			resultSummary.append("Deleted " + deleted + " in " + elapsedSec + " s; ");
+			log.debug(resultSummary.toString());
+		}
+
+		//
+		// Insert into Fact_Acct_Summary
+		final List<String> dimensionColumnNames = getDimensionColumnNames(paReportCube);
+		StringBuilder insert = new StringBuilder("INSERT " +
+				"INTO FACT_ACCT_SUMMARY (PA_ReportCube_ID , AD_Client_ID, " +
+				"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
+				"C_AcctSchema_ID, Account_ID, PostingType, " +
+				"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
+
+		final StringBuilder select = new StringBuilder(" ) SELECT " +
+				"?, f.AD_CLIENT_ID, f.AD_ORG_ID, " +
+				"max(f.Created), max(f.CreatedBy), max(f.Updated), max(f.UpdatedBy), 'Y', " +
+				"f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, f.POSTINGTYPE, GL_Budget_ID, " +
+				"p.c_period_id," +
+				"p.StartDate, " + // DateAcct
+				"COALESCE(SUM(AmtAcctDr),0), COALESCE(SUM(AmtAcctCr),0), " +
+				"COALESCE(SUM(Qty),0)");
+		String from = " FROM (" + buildFactAcctWithoutPendingLogsSql(dimensionColumnNames) + ") f " +
+				" INNER JOIN C_Period p ON ( f.DateAcct BETWEEN p.StartDate AND p.EndDate ) " +
+				" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID ) " +
+				" WHERE p.PeriodType = 'S' " +
+				" AND y.C_Calendar_ID = ? ";
+		if (filterOnlyChangedPeriods)
+		{
+			from += "AND  p.C_Period_ID IN " + sqlPeriodIn;
+		}
 
-		try
+		final StringBuilder groups = new StringBuilder(" GROUP BY " +
+				"f.AD_CLIENT_ID, f.AD_ORG_ID, f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, " +
+				"f.POSTINGTYPE, GL_Budget_ID, p.c_period_id, p.StartDate ");
+
+		for (final String dim : dimensionColumnNames)
 		{
-			//
-			// Delete from Fact_Acct_Summary
-			{
-				final long startMillis = System.currentTimeMillis();
-				final int deleted = deleteFactAcctSummary(where);
-				final long elapsedSec = (System.currentTimeMillis() - startMillis) / 1000;
-				resultSummary.append("Deleted " + deleted + " in " + elapsedSec + " s; ");
-				log.debug(resultSummary.toString());
-			}
+			insert.append(", " + dim);
+			select.append(", f." + dim);
+			groups.append(", f." + dim);
+		}
 
-			//
-			// Insert into Fact_Acct_Summary
-			StringBuilder insert = new StringBuilder("INSERT " +
-					"INTO FACT_ACCT_SUMMARY (PA_ReportCube_ID , AD_Client_ID, " +
-					"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
-					"C_AcctSchema_ID, Account_ID, PostingType, " +
-					"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
-
-			final StringBuilder select = new StringBuilder(" ) SELECT " +
-					"?, f.AD_CLIENT_ID, f.AD_ORG_ID, " +
-					"max(f.Created), max(f.CreatedBy), max(f.Updated), max(f.UpdatedBy), 'Y', " +
-					"f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, f.POSTINGTYPE, GL_Budget_ID, " +
-					"p.c_period_id," +
-					"p.StartDate, " + // DateAcct
-					"COALESCE(SUM(AmtAcctDr),0), COALESCE(SUM(AmtAcctCr),0), " +
-					"COALESCE(SUM(Qty),0)");
-			String from = " FROM fact_acct f " +
-					" INNER JOIN C_Period p ON ( f.DateAcct BETWEEN p.StartDate AND p.EndDate ) " +
-					" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID ) " +
-					" WHERE p.PeriodType = 'S' " +
-					" AND y.C_Calendar_ID = ? ";
-			if (filterOnlyChangedPeriods)
-			{
-				from += "AND  p.C_Period_ID IN " + sqlPeriodIn;
-			}
+		final String sql = insert.append(select.toString()).append(from).append(groups.toString()).toString();
+		log.debug(sql);
+		final Object[] sqlParams = new Object[] { paReportCubeId, paReportCube.getC_Calendar_ID() };
 
-			final StringBuilder groups = new StringBuilder(" GROUP BY " +
-					"f.AD_CLIENT_ID, f.AD_ORG_ID, f.C_ACCTSCHEMA_ID, f.ACCOUNT_ID, " +
-					"f.POSTINGTYPE, GL_Budget_ID, p.c_period_id, p.StartDate ");
+		final long startMillis = System.currentTimeMillis();
+		final int rows = DB.executeUpdateEx(sql, sqlParams, trxName);
+		final long seconds = (System.currentTimeMillis() - startMillis) / 1000;
 
-			final List<String> dimensionColumnNames = getDimensionColumnNames(paReportCube);
-			for (final String dim : dimensionColumnNames)
-			{
-				insert.append(", " + dim);
-				select.append(", f." + dim);
-				groups.append(", f." + dim);
-			}
+		final String insertResult = "Inserted " + rows + " in " + seconds + " s.";
+		log.debug(insertResult);
+		resultSummary.append(insertResult);
 
-			final String sql = insert.append(select.toString()).append(from).append(groups.toString()).toString();
-			log.debug(sql);
-			final Object[] sqlParams = new Object[] { paReportCubeId, paReportCube.getC_Calendar_ID() };
+		//
+		// NOTE: in case of failure we don't get here and the transaction is rolled back, including the Processing flag
+		unlockReportCube();
 
-			final long startMillis = System.currentTimeMillis();
-			final int rows = DB.executeUpdateEx(sql, sqlParams, trxName);
-			final long seconds = (System.currentTimeMillis() - startMillis) / 1000;
+		setResultSummary(resultSummary.toString());
+	}
+
+	/**
+	 * The {@code Fact_Acct} records, minus the changes of the {@code Fact_Acct_Log} records which were not yet processed.
+	 * <p>
+	 * The pending logs will be added to the cube by {@link #updateFromFactAcctLog(String)} when they are processed, so we must not count them twice.
+	 * That's consistent because both are locking the cube.
+	 */
+	private static String buildFactAcctWithoutPendingLogsSql(final List<String> dimensionColumnNames)
+	{
+		final StringBuilder dims = new StringBuilder();
+		for (final String dim : dimensionColumnNames)
+		{
+			dims.append(", " + dim);
+		}
+
+		return "SELECT AD_Client_ID, AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, " +
+				"C_AcctSchema_ID, Account_ID, PostingType, GL_Budget_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty" + dims +
+				" FROM Fact_Acct" +
+				" UNION ALL " +
+				"SELECT AD_Client_ID, AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, " +
+				"C_AcctSchema_ID, C_ElementValue_ID, PostingType, GL_Budget_ID, DateAcct, " +
+				"CASE WHEN Action = 'D' THEN AmtAcctDr ELSE -AmtAcctDr END, " +
+				"CASE WHEN Action = 'D' THEN AmtAcctCr ELSE -AmtAcctCr END, " +
+				"CASE WHEN Action = 'D' THEN Qty ELSE -Qty END" + dims +
+				" FROM Fact_Acct_Log";
+	}
+
+	/**
+	 * Adds the changes of the {@code Fact_Acct_Log} records with the given tag to the cube's already existing {@link I_Fact_Acct_Summary} records
+	 * and creates the missing ones.
+	 */
+	private void updateFromFactAcctLog(final String processingTag)
+	{
+		final Timestamp lastRecalculated = lockReportCube();
 
-			final String insertResult = "Inserted " + rows + " in " + seconds + " s.";
-			log.debug(insertResult);
-			resultSummary.append(insertResult);
+		final I_PA_ReportCube paReportCube = getPA_ReportCube();
+		final int paReportCubeId = getPA_ReportCube_ID();
+		final String paReportCubeName = paReportCube.getName();
+		final String trxName = getContext().getTrxName();
+
+		if (lastRecalculated == null)
+		{
+			// the whole cube will be built from Fact_Acct anyways
+			setResultSummary(paReportCubeName + ": not yet built; skipped adding the " + processingTag + " logs");
+			return;
 		}
-		catch (DBException e)
+
+		final List<String> dimensionColumnNames = getDimensionColumnNames(paReportCube);
+		final String deltasSql = buildFactAcctLogDeltasSql(dimensionColumnNames);
+		final StringBuilder sqlSummaryMatchesDelta = new StringBuilder("fas.PA_ReportCube_ID = ?" +
+				" AND fas.AD_Client_ID = d.AD_Client_ID AND fas.AD_Org_ID = d.AD_Org_ID" +
+				" AND fas.C_AcctSchema_ID = d.C_AcctSchema_ID AND fas.Account_ID = d.Account_ID AND fas.PostingType = d.PostingType" +
+				" AND fas.GL_Budget_ID IS NOT DISTINCT FROM d.GL_Budget_ID" +
+				" AND fas.C_Period_ID = d.C_Period_ID");
+		for (final String dim : dimensionColumnNames)
 		{
-			// failure results in null timestamp => rebuild on next run
-			// nothing else to do
-			log.debug(paReportCubeName + " update failed:" + e.getMessage());
+			sqlSummaryMatchesDelta.append(" AND fas." + dim + " IS NOT DISTINCT FROM d." + dim);
 		}
-		finally
+
+		//
+		// Update the existing Fact_Acct_Summary records
+		final String sqlUpdate = "UPDATE Fact_Acct_Summary fas SET" +
+				" AmtAcctDr = fas.AmtAcctDr + d.AmtAcctDr, AmtAcctCr = fas.AmtAcctCr + d.AmtAcctCr, Qty = fas.Qty + d.Qty" +
+				", Updated = d.Updated, UpdatedBy = d.UpdatedBy" +
+				" FROM (" + deltasSql + ") d" +
+				" WHERE " + sqlSummaryMatchesDelta;
+		final Object[] sqlUpdateParams = new Object[] { paReportCube.getC_Calendar_ID(), processingTag, paReportCubeId };
+		log.debug(sqlUpdate);
+		final int updated = DB.executeUpdateEx(sqlUpdate, sqlUpdateParams, trxName);
+
+		//
+		// Insert the missing Fact_Acct_Summary records
+		final StringBuilder sqlInsert = new StringBuilder("INSERT INTO Fact_Acct_Summary (PA_ReportCube_ID, AD_Client_ID, " +
+				"AD_Org_ID, Created, CreatedBy, Updated, UpdatedBy, IsActive, " +
+				"C_AcctSchema_ID, Account_ID, PostingType, " +
+				"GL_Budget_ID, C_Period_ID, DateAcct, AmtAcctDr, AmtAcctCr, Qty");
+		final StringBuilder sqlInsertSelect = new StringBuilder(") SELECT " +
+				"?, d.AD_Client_ID, d.AD_Org_ID, d.Created, d.CreatedBy, d.Updated, d.UpdatedBy, 'Y', " +
+				"d.C_AcctSchema_ID, d.Account_ID, d.PostingType, " +
+				"d.GL_Budget_ID, d.C_Period_ID, d.StartDate, d.AmtAcctDr, d.AmtAcctCr, d.Qty");
+		for (final String dim : dimensionColumnNames)
 		{
-			unlockReportCube();
+			sqlInsert.append(", " + dim);
+			sqlInsertSelect.append(", d." + dim);
 		}
+		sqlInsert.append(sqlInsertSelect)
+				.append(" FROM (" + deltasSql + ") d")
+				.append(" WHERE NOT EXISTS (SELECT 1 FROM Fact_Acct_Summary fas WHERE " + sqlSummaryMatchesDelta + ")");
+		final Object[] sqlInsertParams = new Object[] { paReportCubeId, paReportCube.getC_Calendar_ID(), processingTag, paReportCubeId };
+		log.debug(sqlInsert.toString());
+		final int inserted = DB.executeUpdateEx(sqlInsert.toString(), sqlInsertParams, trxName);
+
+		setResultSummary(paReportCubeName + ": Added the " + processingTag + " logs; updated " + updated + ", inserted " + inserted);
+	}
 
-		setResultSummary(resultSummary.toString());
+	/**
+	 * @return the sum of the {@code Fact_Acct_Log} changes with a given tag, grouped the same way as in {@link #updateFromFactAcct()}.
+	 *         SQL parameters: C_Calendar_ID, ProcessingTag.
+	 */
+	private static String buildFactAcctLogDeltasSql(final List<String> dimensionColumnNames)
+	{
+		final StringBuilder select = new StringBuilder("SELECT " +
+				"l.AD_Client_ID, l.AD_Org_ID, " +
+				"max(l.Created) AS Created, max(l.CreatedBy) AS CreatedBy, max(l.Updated) AS Updated, max(l.UpdatedBy) AS UpdatedBy, " +
+				"l.C_AcctSchema_ID, l.C_ElementValue_ID AS Account_ID, l.PostingType, l.GL_Budget_ID, " +
+				"p.C_Period_ID, p.StartDate, " +
+				"SUM(CASE WHEN l.Action = 'D' THEN -l.AmtAcctDr ELSE l.AmtAcctDr END) AS AmtAcctDr, " +
+				"SUM(CASE WHEN l.Action = 'D' THEN -l.AmtAcctCr ELSE l.AmtAcctCr END) AS AmtAcctCr, " +
+				"SUM(CASE WHEN l.Action = 'D' THEN -l.Qty ELSE l.Qty END) AS Qty");
+		final StringBuilder groups = new StringBuilder(" GROUP BY " +
+				"l.AD_Client_ID, l.AD_Org_ID, l.C_AcctSchema_ID, l.C_ElementValue_ID, " +
+				"l.PostingType, l.GL_Budget_ID, p.C_Period_ID, p.StartDate");
+		for (final String dim : dimensionColumnNames)
+		{
+			select.append(", l." + dim);
+			groups.append(", l." + dim);
+		}
 
-		return this;
+		return select +
+				" FROM Fact_Acct_Log l" +
+				" INNER JOIN C_Period p ON ( l.DateAcct BETWEEN p.StartDate AND p.EndDate )" +
+				" INNER JOIN C_Year y ON ( p.C_Year_ID = y.C_Year_ID )" +
+				" WHERE p.PeriodType = 'S'" +
+				" AND y.C_Calendar_ID = ?" +
+				" AND l.ProcessingTag = ?" +
+				groups;
 	}
 
 	/**
@@ -333,36 +477,46 @@ import de.metas.util.Check;
 		return lastUpdated;
 	}
 
-	private void lockReportCube()
+	/**
+	 * Locks the report cube's record until the end of the transaction, so that the cube is never updated concurrently.
+	 * 
+	 * @return the cube's <code>LastRecalculated</code>, as it is after we got the lock
+	 */
+	private Timestamp lockReportCube()
 	{
-		final boolean force = isForceUpdate();
-		if (!force)
-		{
-			return;
-		}
-
 		final int paReportCubeId = getPA_ReportCube_ID();
 		final String trxName = getContext().getTrxName();
 
-		final String sql = "UPDATE PA_ReportCube SET Processing = 'Y'"
-				+ " WHERE Processing = 'N' AND PA_ReportCube_ID = ?";
-		final Object[] sqlParams = new Object[] {
-				paReportCubeId,
-		};
+		final Timestamp lastRecalculated = DB.getSQLValueTSEx(trxName,
+				"SELECT LastRecalculated FROM PA_ReportCube WHERE PA_ReportCube_ID = ? FOR UPDATE",
+				paReportCubeId);
 
-		final int locked = DB.executeUpdateEx(sql, sqlParams, trxName);
-		if (locked != 1)
+		final boolean force = isForceUpdate();
+		if (force)
 		{
-			throw new AdempiereException("Unable to lock cube for update:" + getPA_ReportCube().getName());
+			final String sql = "UPDATE PA_ReportCube SET Processing = 'Y'"
+					+ " WHERE Processing = 'N' AND PA_ReportCube_ID = ?";
+			final Object[] sqlParams = new Object[] {
+					paReportCubeId,
+			};
+
+			final int locked = DB.executeUpdateEx(sql, sqlParams, trxName);
+			if (locked != 1)
+			{
+				throw new AdempiereException("Unable to lock cube for update:" + getPA_ReportCube().getName());
+			}
 		}
+
+		return lastRecalculated;
 	}
 
 	private void unlockReportCube()
 	{
-		final Timestamp lastRecalculatedNew = retrieveLastUpdated();
 		final int paReportCubeId = getPA_ReportCube_ID();
 		final String trxName = getContext().getTrxName();
 
+		final Timestamp lastRecalculatedNew = retrieveLastUpdated();
+
 		final String sql = "UPDATE PA_ReportCube SET Processing=?, LastRecalculated=?"
 				+ " WHERE PA_ReportCube_ID=?";
 		final Object[] sqlParams = new Object[] {
@@ -0,0 +1,126 @@
+package de.metas.acct.posting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.util.DB;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Retrieves the IDs of the products whose costs might be changed when posting a given document.
+ * Used by {@link ParallelDocumentPostingService} to find out which documents must not be posted at the same time.
+ */
+@UtilityClass
+class DocumentProductsRetriever
+{
+	private static final int MAX_IDS_PER_QUERY = 1000;
+
+	/**
+	 * SQLs which return the (document ID, M_Product_ID) pairs for a given list of document IDs.
+	 * The {@code %s} placeholder is replaced with the SQL list of document IDs.
+	 */
+	private static final ImmutableMap<String, String> SQL_BY_TABLE_NAME = ImmutableMap.<String, String> builder()
+			.put("C_Invoice", "SELECT C_Invoice_ID, M_Product_ID FROM C_InvoiceLine WHERE M_Product_ID IS NOT NULL AND C_Invoice_ID IN %s")
+			.put("M_InOut", "SELECT M_InOut_ID, M_Product_ID FROM M_InOutLine WHERE M_Product_ID IS NOT NULL AND M_InOut_ID IN %s")
+			.put("M_Inventory", "SELECT M_Inventory_ID, M_Product_ID FROM M_InventoryLine WHERE M_Product_ID IS NOT NULL AND M_Inventory_ID IN %s")
+			.put("M_Movement", "SELECT M_Movement_ID, M_Product_ID FROM M_MovementLine WHERE M_Product_ID IS NOT NULL AND M_Movement_ID IN %s")
+			.put("DD_Order", "SELECT DD_Order_ID, M_Product_ID FROM DD_OrderLine WHERE M_Product_ID IS NOT NULL AND DD_Order_ID IN %s")
+			.put("M_MatchInv", "SELECT M_MatchInv_ID, M_Product_ID FROM M_MatchInv WHERE M_Product_ID IS NOT NULL AND M_MatchInv_ID IN %s")
+			.put("M_MatchPO", "SELECT M_MatchPO_ID, M_Product_ID FROM M_MatchPO WHERE M_Product_ID IS NOT NULL AND M_MatchPO_ID IN %s")
+			.put("C_ProjectIssue", "SELECT C_ProjectIssue_ID, M_Product_ID FROM C_ProjectIssue WHERE M_Product_ID IS NOT NULL AND C_ProjectIssue_ID IN %s")
+			// manufacturing: the finished good and all components of the order are costed together
+			.put("PP_Order", "SELECT o.PP_Order_ID, p.M_Product_ID FROM PP_Order o"
+					+ " JOIN LATERAL (SELECT o.M_Product_ID UNION SELECT bl.M_Product_ID FROM PP_Order_BOMLine bl WHERE bl.PP_Order_ID = o.PP_Order_ID) p ON p.M_Product_ID IS NOT NULL"
+					+ " WHERE o.PP_Order_ID IN %s")
+			.put("PP_Cost_Collector", "SELECT cc.PP_Cost_Collector_ID, p.M_Product_ID FROM PP_Cost_Collector cc"
+					+ " JOIN LATERAL (SELECT cc.M_Product_ID"
+					+ " UNION SELECT o.M_Product_ID FROM PP_Order o WHERE o.PP_Order_ID = cc.PP_Order_ID"
+					+ " UNION SELECT bl.M_Product_ID FROM PP_Order_BOMLine bl WHERE bl.PP_Order_ID = cc.PP_Order_ID) p ON p.M_Product_ID IS NOT NULL"
+					+ " WHERE cc.PP_Cost_Collector_ID IN %s")
+			.build();
+
+	/** Tables of documents which are not changing any product costs */
+	private static final ImmutableSet<String> TABLE_NAMES_WITHOUT_PRODUCTS = ImmutableSet.of(
+			"C_AllocationHdr",
+			"C_BankStatement",
+			"C_Cash",
+			"C_Order",
+			"C_Payment",
+			"GL_Journal",
+			"HR_Process",
+			"M_Requisition");
+
+	/**
+	 * @return product IDs for each given document. Documents of tables for which we don't know the products are not included in the result.
+	 */
+	public static Map<TableRecordReference, Set<Integer>> retrieveProductIds(@NonNull final List<TableRecordReference> documentRefs)
+	{
+		final Map<TableRecordReference, Set<Integer>> result = new HashMap<>();
+
+		final Map<String, List<Integer>> recordIdsByTableName = documentRefs.stream()
+				.collect(Collectors.groupingBy(TableRecordReference::getTableName, Collectors.mapping(TableRecordReference::getRecord_ID, Collectors.toList())));
+		recordIdsByTableName.forEach((tableName, recordIds) -> {
+			if (TABLE_NAMES_WITHOUT_PRODUCTS.contains(tableName))
+			{
+				recordIds.forEach(recordId -> result.put(TableRecordReference.of(tableName, recordId), ImmutableSet.of()));
+				return;
+			}
+
+			final String sqlTemplate = SQL_BY_TABLE_NAME.get(tableName);
+			if (sqlTemplate == null)
+			{
+				return; // unknown
+			}
+
+			// documents without product lines have no products
+			recordIds.forEach(recordId -> result.put(TableRecordReference.of(tableName, recordId), new HashSet<>()));
+
+			for (final List<Integer> recordIdsChunk : Lists.partition(recordIds, MAX_IDS_PER_QUERY))
+			{
+				final List<Object> sqlParams = new ArrayList<>();
+				final String sql = String.format(sqlTemplate, DB.buildSqlList(recordIdsChunk, sqlParams));
+				DB.retrieveRowsOutOfTrx(sql, sqlParams, rs -> {
+					final TableRecordReference documentRef = TableRecordReference.of(tableName, rs.getInt(1));
+					result.get(documentRef).add(rs.getInt(2));
+					return null;
+				});
+			}
+		});
+
+		return result;
+	}
+}
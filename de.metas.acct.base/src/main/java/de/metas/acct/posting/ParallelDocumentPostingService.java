@@ -0,0 +1,373 @@
+package de.metas.acct.posting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ClientId;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.acct.Doc;
+import org.compiere.model.I_C_AllocationHdr;
+import org.compiere.model.I_M_MatchInv;
+import org.compiere.model.I_M_MatchPO;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.acct.api.AcctSchema;
+import de.metas.acct.api.IAcctSchemaDAO;
+import de.metas.acct.doc.AcctDocRegistry;
+import de.metas.logging.LogManager;
+import de.metas.util.Loggables;
+import de.metas.util.Services;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Posts a given set of documents in parallel, on a pool of worker threads.
+ * <p>
+ * Each document is posted by its {@link Doc}, in its own transaction, exactly like when it's posted directly.
+ * The documents are processed in two phases:
+ * <ol>
+ * <li>all documents, except the ones listed below
+ * <li>the documents whose posting relies on the documents they are matching or allocating (i.e. {@code M_MatchInv}, {@code M_MatchPO}, {@code C_AllocationHdr}),
+ * so they are posted only after e.g. their invoices were posted.
+ * </ol>
+ * Within a phase, the documents are ordered by table name and ID. Documents which share a product (directly or via their lines) are in the same group,
+ * and the documents of a group are posted one after the other, in that order. Only the groups are posted in parallel.
+ * This way, two documents never update the costs ({@code M_Cost}) of the same product at the same time,
+ * and the outcome is the same as if all documents were posted sequentially, in that order.
+ * <p>
+ * The number of worker threads can be configured via {@code AD_SysConfig} {@value #SYSCONFIG_ThreadsCount}.
+ */
+@Service
+public class ParallelDocumentPostingService
+{
+	private static final Logger logger = LogManager.getLogger(ParallelDocumentPostingService.class);
+
+	private static final String SYSCONFIG_ThreadsCount = "de.metas.acct.posting.ParallelDocumentPostingService.ThreadsCount";
+	private static final int DEFAULT_ThreadsCount = 4;
+
+	/** Tables of the documents which shall be posted only after all the other documents were posted */
+	private static final ImmutableSet<String> DEPENDENT_DOC_TABLE_NAMES = ImmutableSet.of(
+			I_M_MatchInv.Table_Name,
+			I_M_MatchPO.Table_Name,
+			I_C_AllocationHdr.Table_Name);
+
+	private final AcctDocRegistry acctDocRegistry;
+
+	public ParallelDocumentPostingService(@NonNull final AcctDocRegistry acctDocRegistry)
+	{
+		this.acctDocRegistry = acctDocRegistry;
+	}
+
+	public ParallelPostingResult postAll(
+			@NonNull final ClientId clientId,
+			@NonNull final Collection<TableRecordReference> documentRefs,
+			final boolean force)
+	{
+		final List<AcctSchema> acctSchemas = Services.get(IAcctSchemaDAO.class).getAllByClient(clientId);
+		if (acctSchemas.isEmpty())
+		{
+			throw new AdempiereException("No accounting schemas found for " + clientId);
+		}
+
+		return postAll(
+				documentRefs,
+				DocumentProductsRetriever::retrieveProductIds,
+				documentRef -> postDocument(clientId, acctSchemas, documentRef, force),
+				getThreadsCount());
+	}
+
+	@VisibleForTesting
+	ParallelPostingResult postAll(
+			@NonNull final Collection<TableRecordReference> documentRefs,
+			@NonNull final Function<List<TableRecordReference>, Map<TableRecordReference, ? extends Set<Integer>>> productIdsRetriever,
+			@NonNull final Function<TableRecordReference, String> documentPoster,
+			final int threadsCount)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Map<Boolean, List<TableRecordReference>> documentRefsByDependent = documentRefs.stream()
+				.distinct()
+				.sorted(Comparator.comparing(TableRecordReference::getTableName).thenComparing(TableRecordReference::getRecord_ID))
+				.collect(Collectors.partitioningBy(documentRef -> DEPENDENT_DOC_TABLE_NAMES.contains(documentRef.getTableName())));
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threadsCount, CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(getClass().getSimpleName())
+				.setDaemon(true)
+				.build());
+
+		int countPosted = 0;
+		int countErrors = 0;
+		try
+		{
+			for (final List<TableRecordReference> phaseDocumentRefs : ImmutableList.of(documentRefsByDependent.get(false), documentRefsByDependent.get(true)))
+			{
+				final List<List<TableRecordReference>> groups = groupBySharedProducts(phaseDocumentRefs, productIdsRetriever.apply(phaseDocumentRefs));
+
+				final List<Callable<List<String>>> tasks = new ArrayList<>(groups.size());
+				for (final List<TableRecordReference> group : groups)
+				{
+					tasks.add(() -> postSequentially(group, documentPoster));
+				}
+
+				// NOTE: we log the errors here, because the process log is not available in the worker threads
+				for (final Future<List<String>> future : executor.invokeAll(tasks))
+				{
+					for (final String errorMsg : future.get())
+					{
+						if (errorMsg == null)
+						{
+							countPosted++;
+						}
+						else
+						{
+							countErrors++;
+							Loggables.get().addLog(errorMsg);
+						}
+					}
+				}
+			}
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		stopwatch.stop();
+		final ParallelPostingResult result = ParallelPostingResult.builder()
+				.countPosted(countPosted)
+				.countErrors(countErrors)
+				.threadsCount(threadsCount)
+				.durationMillis(stopwatch.elapsed(TimeUnit.MILLISECONDS))
+				.build();
+		logger.info("Posted documents: {}", result);
+		return result;
+	}
+
+	/**
+	 * @return for each document, {@code null} if it was posted, else the error message
+	 */
+	private static List<String> postSequentially(
+			@NonNull final List<TableRecordReference> documentRefs,
+			@NonNull final Function<TableRecordReference, String> documentPoster)
+	{
+		final List<String> errorMsgs = new ArrayList<>(documentRefs.size());
+		for (final TableRecordReference documentRef : documentRefs)
+		{
+			errorMsgs.add(documentPoster.apply(documentRef));
+		}
+		return errorMsgs;
+	}
+
+	/**
+	 * Groups the given documents, so that all documents which share a product (also transitively) are in the same group.
+	 * <p>
+	 * Documents which are not included in the given {@code productIdsByDocumentRef} map (i.e. we don't know which products they affect),
+	 * are grouped together with all documents that have products.
+	 *
+	 * @param documentRefs the documents, in the order in which they shall be posted
+	 * @return the groups, each one with its documents in the same order as in {@code documentRefs}
+	 */
+	@VisibleForTesting
+	static List<List<TableRecordReference>> groupBySharedProducts(
+			@NonNull final List<TableRecordReference> documentRefs,
+			@NonNull final Map<TableRecordReference, ? extends Set<Integer>> productIdsByDocumentRef)
+	{
+		final int count = documentRefs.size();
+		final int[] parents = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			parents[i] = i;
+		}
+
+		final Map<Integer, Integer> firstDocumentIndexByProductId = new HashMap<>();
+		final List<Integer> documentIndexesWithProducts = new ArrayList<>();
+		final List<Integer> documentIndexesWithUnknownProducts = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			final Set<Integer> productIds = productIdsByDocumentRef.get(documentRefs.get(i));
+			if (productIds == null)
+			{
+				documentIndexesWithUnknownProducts.add(i);
+				continue;
+			}
+
+			for (final Integer productId : productIds)
+			{
+				final Integer firstDocumentIndex = firstDocumentIndexByProductId.putIfAbsent(productId, i);
+				if (firstDocumentIndex != null)
+				{
+					union(parents, firstDocumentIndex, i);
+				}
+			}
+			if (!productIds.isEmpty())
+			{
+				documentIndexesWithProducts.add(i);
+			}
+		}
+
+		if (!documentIndexesWithUnknownProducts.isEmpty())
+		{
+			final int firstUnknownIndex = documentIndexesWithUnknownProducts.get(0);
+			documentIndexesWithUnknownProducts.forEach(i -> union(parents, firstUnknownIndex, i));
+			documentIndexesWithProducts.forEach(i -> union(parents, firstUnknownIndex, i));
+		}
+
+		final Map<Integer, List<TableRecordReference>> groupsByRootIndex = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++)
+		{
+			groupsByRootIndex.computeIfAbsent(find(parents, i), rootIndex -> new ArrayList<>()).add(documentRefs.get(i));
+		}
+		return ImmutableList.copyOf(groupsByRootIndex.values());
+	}
+
+	private static int find(final int[] parents, final int index)
+	{
+		int root = index;
+		while (parents[root] != root)
+		{
+			root = parents[root];
+		}
+
+		// path compression
+		int current = index;
+		while (parents[current] != root)
+		{
+			final int next = parents[current];
+			parents[current] = root;
+			current = next;
+		}
+
+		return root;
+	}
+
+	private static void union(final int[] parents, final int index1, final int index2)
+	{
+		final int root1 = find(parents, index1);
+		final int root2 = find(parents, index2);
+		if (root1 != root2)
+		{
+			// keep the smaller index as root, so the groups are ordered by their first document
+			parents[Math.max(root1, root2)] = Math.min(root1, root2);
+		}
+	}
+
+	/**
+	 * @return {@code null} if the document was posted, else the error message
+	 */
+	private String postDocument(
+			@NonNull final ClientId clientId,
+			@NonNull final List<AcctSchema> acctSchemas,
+			@NonNull final TableRecordReference documentRef,
+			final boolean force)
+	{
+		final Properties ctx = Env.newTemporaryCtx();
+		Env.setClientId(ctx, clientId);
+
+		try (final IAutoCloseable c = Env.switchContext(ctx))
+		{
+			final Doc<?> doc = acctDocRegistry.getOrNull(acctSchemas, documentRef);
+			if (doc == null)
+			{
+				return "No accountable document found for " + documentRef;
+			}
+
+			final boolean repost = true;
+			doc.post(force, repost);
+			return null;
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed posting {}. Skipped.", documentRef, ex);
+			return "Failed posting " + documentRef + ": " + ex.getLocalizedMessage();
+		}
+	}
+
+	private int getThreadsCount()
+	{
+		final int threadsCount = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_ThreadsCount, DEFAULT_ThreadsCount);
+		return Math.max(threadsCount, 1);
+	}
+
+	@Value
+	@Builder
+	public static class ParallelPostingResult
+	{
+		int countPosted;
+		int countErrors;
+		int threadsCount;
+		long durationMillis;
+
+		public double getDocumentsPerSecond()
+		{
+			if (durationMillis <= 0)
+			{
+				return 0;
+			}
+			return (countPosted + countErrors) * 1000d / durationMillis;
+		}
+
+		public String getSummary()
+		{
+			return "Posted " + countPosted + " documents (" + countErrors + " errors) with " + threadsCount + " threads in " + durationMillis + "ms"
+					+ ": " + String.format("%.1f", getDocumentsPerSecond()) + " documents/second";
+		}
+	}
+}
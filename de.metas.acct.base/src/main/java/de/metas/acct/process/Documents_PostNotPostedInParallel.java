@@ -0,0 +1,90 @@
+package de.metas.acct.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ClientId;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.Adempiere;
+import org.compiere.util.DB;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.acct.doc.AcctDocRegistry;
+import de.metas.acct.posting.ParallelDocumentPostingService;
+import de.metas.acct.posting.ParallelDocumentPostingService.ParallelPostingResult;
+import de.metas.process.JavaProcess;
+import de.metas.process.RunOutOfTrx;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Posts all not posted documents right away, in parallel.
+ * <p>
+ * Unlike {@link Documents_EnqueueNotPosted}, the documents are not sent to the accounting service but they are posted by this process, using {@link ParallelDocumentPostingService}.
+ */
+public class Documents_PostNotPostedInParallel extends JavaProcess
+{
+	private final transient AcctDocRegistry docFactory = Adempiere.getBean(AcctDocRegistry.class);
+	private final transient ParallelDocumentPostingService parallelPostingService = Adempiere.getBean(ParallelDocumentPostingService.class);
+
+	@Override
+	@RunOutOfTrx
+	protected String doIt()
+	{
+		final List<TableRecordReference> documentRefs = new ArrayList<>();
+		for (final String docTableName : docFactory.getDocTableNames())
+		{
+			final List<TableRecordReference> tableDocumentRefs = retrieveNotPostedDocuments(docTableName);
+			if (!tableDocumentRefs.isEmpty())
+			{
+				addLog("{}: {} documents to post", docTableName, tableDocumentRefs.size());
+				documentRefs.addAll(tableDocumentRefs);
+			}
+		}
+
+		final boolean force = false;
+		final ParallelPostingResult result = parallelPostingService.postAll(ClientId.ofRepoId(getAD_Client_ID()), documentRefs, force);
+		addLog(result.getSummary());
+
+		return MSG_OK;
+	}
+
+	private List<TableRecordReference> retrieveNotPostedDocuments(final String docTableName)
+	{
+		final String keyColumnName = InterfaceWrapperHelper.getKeyColumnName(docTableName);
+
+		final String sql = new StringBuilder("")
+				.append("SELECT ").append(keyColumnName)
+				.append(" FROM ").append(docTableName)
+				.append(" WHERE AD_Client_ID=?")
+				.append(" AND Processed='Y' AND Posted='N' AND IsActive='Y'")
+				.toString();
+
+		return DB.retrieveRowsOutOfTrx(
+				sql,
+				ImmutableList.<Object> of(getAD_Client_ID()),
+				rs -> TableRecordReference.of(docTableName, rs.getInt(keyColumnName)));
+	}
+}
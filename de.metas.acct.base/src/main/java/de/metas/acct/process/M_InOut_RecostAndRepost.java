@@ -0,0 +1,128 @@
+package de.metas.acct.process;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ClientId;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.Adempiere;
+import org.compiere.acct.Doc;
+import org.compiere.model.I_M_InOut;
+import org.compiere.model.I_M_InOutLine;
+
+import de.metas.acct.api.AcctSchema;
+import de.metas.acct.api.IAcctSchemaDAO;
+import de.metas.acct.doc.AcctDocRegistry;
+import de.metas.costing.CostingDocumentRef;
+import de.metas.costing.ICostingService;
+import de.metas.inout.IInOutDAO;
+import de.metas.process.JavaProcess;
+import de.metas.process.Param;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Re-costs the material receipts and shipments of the given accounting date range: their cost details are voided and deleted, then the documents are reposted, ordered by DateAcct.
+ * <p>
+ * Everything runs in one batch costing run (see {@link ICostingService#runInBatch(Runnable)}) and in the process transaction,
+ * so either all documents are re-costed or none of them.
+ * <p>
+ * NOTE: only the receipts and shipments are re-costed; the costs of other documents (e.g. invoices) of the same period are not touched.
+ */
+public class M_InOut_RecostAndRepost extends JavaProcess
+{
+	private final transient AcctDocRegistry acctDocRegistry = Adempiere.getBean(AcctDocRegistry.class);
+	private final transient ICostingService costingService = Adempiere.getBean(ICostingService.class);
+	private final transient IInOutDAO inoutsRepo = Services.get(IInOutDAO.class);
+
+	@Param(parameterName = "DateAcct", mandatory = true)
+	private Timestamp p_DateAcctFrom;
+
+	@Param(parameterName = "DateAcct", mandatory = true, parameterTo = true)
+	private Timestamp p_DateAcctTo;
+
+	@Override
+	protected String doIt()
+	{
+		final ClientId clientId = ClientId.ofRepoId(getAD_Client_ID());
+		final List<AcctSchema> acctSchemas = Services.get(IAcctSchemaDAO.class).getAllByClient(clientId);
+		if (acctSchemas.isEmpty())
+		{
+			throw new AdempiereException("No accounting schemas found for " + clientId);
+		}
+
+		final List<I_M_InOut> inouts = retrieveInOuts();
+		if (inouts.isEmpty())
+		{
+			return "@NotFound@ @M_InOut_ID@";
+		}
+
+		// NOTE: each line is voided as receipt line and as shipment line, because customer and vendor returns are costed like the opposite document
+		final List<CostingDocumentRef> costingDocumentRefs = new ArrayList<>();
+		for (final I_M_InOutLine inoutLine : inoutsRepo.retrieveLinesForInOuts(inouts))
+		{
+			costingDocumentRefs.add(CostingDocumentRef.ofReceiptLineId(inoutLine.getM_InOutLine_ID()));
+			costingDocumentRefs.add(CostingDocumentRef.ofShipmentLineId(inoutLine.getM_InOutLine_ID()));
+		}
+
+		costingService.runInBatch(() -> {
+			costingService.voidAndDeleteForDocuments(costingDocumentRefs);
+			inouts.forEach(inout -> repost(acctSchemas, inout));
+		});
+
+		addLog("Re-costed and reposted {} documents", inouts.size());
+		return MSG_OK;
+	}
+
+	private List<I_M_InOut> retrieveInOuts()
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_InOut.class)
+				.addOnlyActiveRecordsFilter()
+				.addOnlyContextClient()
+				.addEqualsFilter(I_M_InOut.COLUMNNAME_Processed, true)
+				.addBetweenFilter(I_M_InOut.COLUMN_DateAcct, p_DateAcctFrom, p_DateAcctTo)
+				.orderBy(I_M_InOut.COLUMNNAME_DateAcct)
+				.orderBy(I_M_InOut.COLUMNNAME_M_InOut_ID)
+				.create()
+				.list(I_M_InOut.class);
+	}
+
+	private void repost(final List<AcctSchema> acctSchemas, final I_M_InOut inout)
+	{
+		final TableRecordReference documentRef = TableRecordReference.of(inout);
+		final Doc<?> doc = acctDocRegistry.getOrNull(acctSchemas, documentRef);
+		if (doc == null)
+		{
+			throw new AdempiereException("No accountable document found for " + documentRef);
+		}
+
+		final boolean force = true;
+		final boolean repost = true;
+		doc.post(force, repost);
+	}
+}
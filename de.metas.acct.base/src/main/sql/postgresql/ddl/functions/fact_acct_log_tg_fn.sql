@@ -14,6 +14,25 @@ create table Fact_Acct_Log (
 	, AmtAcctCr numeric not null
 	, Qty numeric not null
 	--
+	-- Report cube dimensions (see FactAcctCubeUpdater)
+	, GL_Budget_ID numeric(10,0)
+	, M_Product_ID numeric(10,0)
+	, C_BPartner_ID numeric(10,0)
+	, C_Project_ID numeric(10,0)
+	, AD_OrgTrx_ID numeric(10,0)
+	, C_SalesRegion_ID numeric(10,0)
+	, C_Activity_ID numeric(10,0)
+	, C_Campaign_ID numeric(10,0)
+	, C_LocTo_ID numeric(10,0)
+	, C_LocFrom_ID numeric(10,0)
+	, User1_ID numeric(10,0)
+	, User2_ID numeric(10,0)
+	, UserElement1_ID numeric(10,0)
+	, UserElement2_ID numeric(10,0)
+	, C_SubAcct_ID numeric(10,0)
+	, C_ProjectPhase_ID numeric(10,0)
+	, C_ProjectTask_ID numeric(10,0)
+	--
 	-- Standard columns
 	, ad_client_id numeric(10,0) NOT NULL
 	, ad_org_id numeric(10,0) NOT NULL
@@ -53,6 +72,10 @@ begin
 			, AmtAcctDr, AmtAcctCr
 			, Qty
 			--
+			, GL_Budget_ID, M_Product_ID, C_BPartner_ID, C_Project_ID, AD_OrgTrx_ID, C_SalesRegion_ID
+			, C_Activity_ID, C_Campaign_ID, C_LocTo_ID, C_LocFrom_ID, User1_ID, User2_ID
+			, UserElement1_ID, UserElement2_ID, C_SubAcct_ID, C_ProjectPhase_ID, C_ProjectTask_ID
+			--
 			, AD_Client_ID, AD_Org_ID, IsActive, Created, CreatedBy, Updated, UpdatedBy
 		)
 		values
@@ -66,6 +89,10 @@ begin
 			, OLD.AmtAcctDr, OLD.AmtAcctCr
 			, OLD.Qty
 			--
+			, OLD.GL_Budget_ID, OLD.M_Product_ID, OLD.C_BPartner_ID, OLD.C_Project_ID, OLD.AD_OrgTrx_ID, OLD.C_SalesRegion_ID
+			, OLD.C_Activity_ID, OLD.C_Campaign_ID, OLD.C_LocTo_ID, OLD.C_LocFrom_ID, OLD.User1_ID, OLD.User2_ID
+			, OLD.UserElement1_ID, OLD.UserElement2_ID, OLD.C_SubAcct_ID, OLD.C_ProjectPhase_ID, OLD.C_ProjectTask_ID
+			--
 			, OLD.AD_Client_ID, OLD.AD_Org_ID, OLD.IsActive, OLD.Created, OLD.CreatedBy, OLD.Updated, OLD.UpdatedBy
 		);
 	end if;
@@ -82,6 +109,10 @@ begin
 			, AmtAcctDr, AmtAcctCr
 			, Qty
 			--
+			, GL_Budget_ID, M_Product_ID, C_BPartner_ID, C_Project_ID, AD_OrgTrx_ID, C_SalesRegion_ID
+			, C_Activity_ID, C_Campaign_ID, C_LocTo_ID, C_LocFrom_ID, User1_ID, User2_ID
+			, UserElement1_ID, UserElement2_ID, C_SubAcct_ID, C_ProjectPhase_ID, C_ProjectTask_ID
+			--
 			, AD_Client_ID, AD_Org_ID, IsActive, Created, CreatedBy, Updated, UpdatedBy
 		)
 		values
@@ -95,6 +126,10 @@ begin
 			, NEW.AmtAcctDr, NEW.AmtAcctCr
 			, NEW.Qty
 			--
+			, NEW.GL_Budget_ID, NEW.M_Product_ID, NEW.C_BPartner_ID, NEW.C_Project_ID, NEW.AD_OrgTrx_ID, NEW.C_SalesRegion_ID
+			, NEW.C_Activity_ID, NEW.C_Campaign_ID, NEW.C_LocTo_ID, NEW.C_LocFrom_ID, NEW.User1_ID, NEW.User2_ID
+			, NEW.UserElement1_ID, NEW.UserElement2_ID, NEW.C_SubAcct_ID, NEW.C_ProjectPhase_ID, NEW.C_ProjectTask_ID
+			--
 			, NEW.AD_Client_ID, NEW.AD_Org_ID, NEW.IsActive, NEW.Created, NEW.CreatedBy, NEW.Updated, NEW.UpdatedBy
 		);
 	end if;
@@ -129,6 +164,23 @@ create trigger fact_acct_log_update_tg
 		or OLD.AmtAcctDr IS DISTINCT FROM NEW.AmtAcctDr
 		or OLD.AmtAcctCr IS DISTINCT FROM NEW.AmtAcctCr
 		or OLD.Qty IS DISTINCT FROM NEW.Qty
+		or OLD.GL_Budget_ID IS DISTINCT FROM NEW.GL_Budget_ID
+		or OLD.M_Product_ID IS DISTINCT FROM NEW.M_Product_ID
+		or OLD.C_BPartner_ID IS DISTINCT FROM NEW.C_BPartner_ID
+		or OLD.C_Project_ID IS DISTINCT FROM NEW.C_Project_ID
+		or OLD.AD_OrgTrx_ID IS DISTINCT FROM NEW.AD_OrgTrx_ID
+		or OLD.C_SalesRegion_ID IS DISTINCT FROM NEW.C_SalesRegion_ID
+		or OLD.C_Activity_ID IS DISTINCT FROM NEW.C_Activity_ID
+		or OLD.C_Campaign_ID IS DISTINCT FROM NEW.C_Campaign_ID
+		or OLD.C_LocTo_ID IS DISTINCT FROM NEW.C_LocTo_ID
+		or OLD.C_LocFrom_ID IS DISTINCT FROM NEW.C_LocFrom_ID
+		or OLD.User1_ID IS DISTINCT FROM NEW.User1_ID
+		or OLD.User2_ID IS DISTINCT FROM NEW.User2_ID
+		or OLD.UserElement1_ID IS DISTINCT FROM NEW.UserElement1_ID
+		or OLD.UserElement2_ID IS DISTINCT FROM NEW.UserElement2_ID
+		or OLD.C_SubAcct_ID IS DISTINCT FROM NEW.C_SubAcct_ID
+		or OLD.C_ProjectPhase_ID IS DISTINCT FROM NEW.C_ProjectPhase_ID
+		or OLD.C_ProjectTask_ID IS DISTINCT FROM NEW.C_ProjectTask_ID
 	)
 	EXECUTE PROCEDURE fact_acct_log_tg_fn()
 ;
@@ -0,0 +1,167 @@
+/*
+Fact_Acct_Log: also log the columns which are needed to add the logs to the report cubes (Fact_Acct_Summary records with PA_ReportCube_ID),
+instead of re-aggregating the affected periods from Fact_Acct.
+*/
+
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS GL_Budget_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS M_Product_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_BPartner_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_Project_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS AD_OrgTrx_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_SalesRegion_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_Activity_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_Campaign_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_LocTo_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_LocFrom_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS User1_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS User2_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS UserElement1_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS UserElement2_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_SubAcct_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_ProjectPhase_ID numeric(10,0);
+ALTER TABLE Fact_Acct_Log ADD COLUMN IF NOT EXISTS C_ProjectTask_ID numeric(10,0);
+
+--
+-- Drop existing triggers
+drop trigger if exists fact_acct_log_tg ON Fact_Acct;
+drop trigger if exists fact_acct_log_insert_or_delete_tg ON Fact_Acct;
+drop trigger if exists fact_acct_log_update_tg ON Fact_Acct;
+drop function if exists fact_acct_log_tg_fn();
+
+--
+-- Trigger function
+create or replace function fact_acct_log_tg_fn()
+returns trigger as
+$BODY$
+begin
+	-- NOTE to developer: if you are adding a new column here, please make sure you also check the fact_acct_log_update_tg's WHEN(...) clause
+	
+	if (TG_OP = 'UPDATE' or TG_OP = 'DELETE') then
+		insert into Fact_Acct_Log
+		(
+			Fact_Acct_ID, Action
+			, C_ElementValue_ID, C_AcctSchema_ID
+			, C_Period_ID
+			, DateAcct
+			, PostingType
+			--
+			, AmtAcctDr, AmtAcctCr
+			, Qty
+			--
+			, GL_Budget_ID, M_Product_ID, C_BPartner_ID, C_Project_ID, AD_OrgTrx_ID, C_SalesRegion_ID
+			, C_Activity_ID, C_Campaign_ID, C_LocTo_ID, C_LocFrom_ID, User1_ID, User2_ID
+			, UserElement1_ID, UserElement2_ID, C_SubAcct_ID, C_ProjectPhase_ID, C_ProjectTask_ID
+			--
+			, AD_Client_ID, AD_Org_ID, IsActive, Created, CreatedBy, Updated, UpdatedBy
+		)
+		values
+		(
+			OLD.Fact_Acct_ID, 'D'
+			, OLD.Account_ID, OLD.C_AcctSchema_ID
+			, OLD.C_Period_ID
+			, OLD.DateAcct
+			, OLD.PostingType
+			--
+			, OLD.AmtAcctDr, OLD.AmtAcctCr
+			, OLD.Qty
+			--
+			, OLD.GL_Budget_ID, OLD.M_Product_ID, OLD.C_BPartner_ID, OLD.C_Project_ID, OLD.AD_OrgTrx_ID, OLD.C_SalesRegion_ID
+			, OLD.C_Activity_ID, OLD.C_Campaign_ID, OLD.C_LocTo_ID, OLD.C_LocFrom_ID, OLD.User1_ID, OLD.User2_ID
+			, OLD.UserElement1_ID, OLD.UserElement2_ID, OLD.C_SubAcct_ID, OLD.C_ProjectPhase_ID, OLD.C_ProjectTask_ID
+			--
+			, OLD.AD_Client_ID, OLD.AD_Org_ID, OLD.IsActive, OLD.Created, OLD.CreatedBy, OLD.Updated, OLD.UpdatedBy
+		);
+	end if;
+	
+	if (TG_OP = 'INSERT' or TG_OP = 'UPDATE') then
+		insert into Fact_Acct_Log
+		(
+			Fact_Acct_ID, Action
+			, C_ElementValue_ID, C_AcctSchema_ID
+			, C_Period_ID
+			, DateAcct
+			, PostingType
+			--
+			, AmtAcctDr, AmtAcctCr
+			, Qty
+			--
+			, GL_Budget_ID, M_Product_ID, C_BPartner_ID, C_Project_ID, AD_OrgTrx_ID, C_SalesRegion_ID
+			, C_Activity_ID, C_Campaign_ID, C_LocTo_ID, C_LocFrom_ID, User1_ID, User2_ID
+			, UserElement1_ID, UserElement2_ID, C_SubAcct_ID, C_ProjectPhase_ID, C_ProjectTask_ID
+			--
+			, AD_Client_ID, AD_Org_ID, IsActive, Created, CreatedBy, Updated, UpdatedBy
+		)
+		values
+		(
+			NEW.Fact_Acct_ID, 'I'
+			, NEW.Account_ID, NEW.C_AcctSchema_ID
+			, NEW.C_Period_ID
+			, NEW.DateAcct
+			, NEW.PostingType
+			--
+			, NEW.AmtAcctDr, NEW.AmtAcctCr
+			, NEW.Qty
+			--
+			, NEW.GL_Budget_ID, NEW.M_Product_ID, NEW.C_BPartner_ID, NEW.C_Project_ID, NEW.AD_OrgTrx_ID, NEW.C_SalesRegion_ID
+			, NEW.C_Activity_ID, NEW.C_Campaign_ID, NEW.C_LocTo_ID, NEW.C_LocFrom_ID, NEW.User1_ID, NEW.User2_ID
+			, NEW.UserElement1_ID, NEW.UserElement2_ID, NEW.C_SubAcct_ID, NEW.C_ProjectPhase_ID, NEW.C_ProjectTask_ID
+			--
+			, NEW.AD_Client_ID, NEW.AD_Org_ID, NEW.IsActive, NEW.Created, NEW.CreatedBy, NEW.Updated, NEW.UpdatedBy
+		);
+	end if;
+
+	return NEW;
+end;
+$BODY$
+LANGUAGE plpgsql
+;
+
+--
+-- Bind the trigger function to Fact_Acct table's events:
+create trigger fact_acct_log_insert_or_delete_tg
+	AFTER INSERT OR DELETE
+	ON Fact_Acct
+	FOR EACH ROW
+	EXECUTE PROCEDURE fact_acct_log_tg_fn()
+;
+create trigger fact_acct_log_update_tg
+	AFTER UPDATE
+	ON Fact_Acct
+	FOR EACH ROW
+	WHEN (
+		OLD.Fact_Acct_ID IS DISTINCT FROM NEW.Fact_Acct_ID
+		or OLD.AD_Client_ID IS DISTINCT FROM NEW.AD_Client_ID
+		or OLD.AD_Org_ID IS DISTINCT FROM NEW.AD_Org_ID
+		or OLD.Account_ID IS DISTINCT FROM NEW.Account_ID
+		or OLD.C_AcctSchema_ID IS DISTINCT FROM NEW.C_AcctSchema_ID
+		or OLD.C_Period_ID IS DISTINCT FROM NEW.C_Period_ID
+		or OLD.DateAcct IS DISTINCT FROM NEW.DateAcct
+		or OLD.PostingType IS DISTINCT FROM NEW.PostingType
+		or OLD.AmtAcctDr IS DISTINCT FROM NEW.AmtAcctDr
+		or OLD.AmtAcctCr IS DISTINCT FROM NEW.AmtAcctCr
+		or OLD.Qty IS DISTINCT FROM NEW.Qty
+		or OLD.GL_Budget_ID IS DISTINCT FROM NEW.GL_Budget_ID
+		or OLD.M_Product_ID IS DISTINCT FROM NEW.M_Product_ID
+		or OLD.C_BPartner_ID IS DISTINCT FROM NEW.C_BPartner_ID
+		or OLD.C_Project_ID IS DISTINCT FROM NEW.C_Project_ID
+		or OLD.AD_OrgTrx_ID IS DISTINCT FROM NEW.AD_OrgTrx_ID
+		or OLD.C_SalesRegion_ID IS DISTINCT FROM NEW.C_SalesRegion_ID
+		or OLD.C_Activity_ID IS DISTINCT FROM NEW.C_Activity_ID
+		or OLD.C_Campaign_ID IS DISTINCT FROM NEW.C_Campaign_ID
+		or OLD.C_LocTo_ID IS DISTINCT FROM NEW.C_LocTo_ID
+		or OLD.C_LocFrom_ID IS DISTINCT FROM NEW.C_LocFrom_ID
+		or OLD.User1_ID IS DISTINCT FROM NEW.User1_ID
+		or OLD.User2_ID IS DISTINCT FROM NEW.User2_ID
+		or OLD.UserElement1_ID IS DISTINCT FROM NEW.UserElement1_ID
+		or OLD.UserElement2_ID IS DISTINCT FROM NEW.UserElement2_ID
+		or OLD.C_SubAcct_ID IS DISTINCT FROM NEW.C_SubAcct_ID
+		or OLD.C_ProjectPhase_ID IS DISTINCT FROM NEW.C_ProjectPhase_ID
+		or OLD.C_ProjectTask_ID IS DISTINCT FROM NEW.C_ProjectTask_ID
+	)
+	EXECUTE PROCEDURE fact_acct_log_tg_fn()
+;
+
+--
+-- The logs which were created until now don't have the dimensions, so the report cubes shall be completely rebuilt from Fact_Acct;
+-- until then, no logs are added to them
+UPDATE PA_ReportCube SET LastRecalculated = NULL;
@@ -0,0 +1,151 @@
+package de.metas.acct.posting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.acct.doc.AcctDocRegistry;
+import de.metas.acct.posting.ParallelDocumentPostingService.ParallelPostingResult;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ParallelDocumentPostingServiceTest
+{
+	private static final TableRecordReference invoice1 = TableRecordReference.of("C_Invoice", 1);
+	private static final TableRecordReference invoice2 = TableRecordReference.of("C_Invoice", 2);
+	private static final TableRecordReference invoice3 = TableRecordReference.of("C_Invoice", 3);
+	private static final TableRecordReference inout1 = TableRecordReference.of("M_InOut", 1);
+	private static final TableRecordReference payment1 = TableRecordReference.of("C_Payment", 1);
+	private static final TableRecordReference inventory1 = TableRecordReference.of("M_Inventory", 1);
+	private static final TableRecordReference unknown1 = TableRecordReference.of("Unknown_Table", 1);
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void groupBySharedProducts()
+	{
+		final List<List<TableRecordReference>> groups = ParallelDocumentPostingService.groupBySharedProducts(
+				ImmutableList.of(invoice1, invoice2, invoice3, inout1, payment1, inventory1),
+				ImmutableMap.<TableRecordReference, Set<Integer>> builder()
+						.put(invoice1, ImmutableSet.of(1))
+						.put(invoice2, ImmutableSet.of(2))
+						.put(invoice3, ImmutableSet.of(1, 3))
+						.put(inout1, ImmutableSet.of(3))
+						.put(payment1, ImmutableSet.of())
+						.put(inventory1, ImmutableSet.of(4))
+						.build());
+
+		assertThat(groups).containsExactly(
+				ImmutableList.of(invoice1, invoice3, inout1),
+				ImmutableList.of(invoice2),
+				ImmutableList.of(payment1),
+				ImmutableList.of(inventory1));
+	}
+
+	@Test
+	public void groupBySharedProducts_unknownProducts()
+	{
+		final List<List<TableRecordReference>> groups = ParallelDocumentPostingService.groupBySharedProducts(
+				ImmutableList.of(invoice1, invoice2, payment1, unknown1),
+				ImmutableMap.of(
+						invoice1, ImmutableSet.of(1),
+						invoice2, ImmutableSet.of(2),
+						payment1, ImmutableSet.of()));
+
+		assertThat(groups).containsExactly(
+				ImmutableList.of(invoice1, invoice2, unknown1),
+				ImmutableList.of(payment1));
+	}
+
+	/**
+	 * Simulates the moving average costing, where each posted document reads and then updates the current costs of its products,
+	 * and verifies that posting in parallel yields the same costs as posting sequentially.
+	 */
+	@Test
+	public void parallelPostingEqualsSequentialPosting()
+	{
+		final Random random = new Random(1234);
+		final List<TableRecordReference> documentRefs = new ArrayList<>();
+		final Map<TableRecordReference, Set<Integer>> productIdsByDocumentRef = new HashMap<>();
+		for (int documentId = 1; documentId <= 200; documentId++)
+		{
+			final TableRecordReference documentRef = TableRecordReference.of(documentId % 3 == 0 ? "M_InOut" : "C_Invoice", documentId);
+			documentRefs.add(documentRef);
+			productIdsByDocumentRef.put(documentRef, ImmutableSet.of(1 + random.nextInt(10), 1 + random.nextInt(10)));
+		}
+
+		final Map<Integer, BigDecimal> sequentialCosts = postAndGetCosts(documentRefs, productIdsByDocumentRef, 1);
+		final Map<Integer, BigDecimal> parallelCosts = postAndGetCosts(documentRefs, productIdsByDocumentRef, 8);
+
+		assertThat(parallelCosts).isEqualTo(sequentialCosts);
+	}
+
+	private static Map<Integer, BigDecimal> postAndGetCosts(
+			final List<TableRecordReference> documentRefs,
+			final Map<TableRecordReference, Set<Integer>> productIdsByDocumentRef,
+			final int threadsCount)
+	{
+		final Map<Integer, BigDecimal> costsByProductId = new ConcurrentHashMap<>();
+		final ParallelDocumentPostingService service = new ParallelDocumentPostingService(new AcctDocRegistry(ImmutableList.of()));
+
+		final ParallelPostingResult result = service.postAll(
+				documentRefs,
+				refs -> productIdsByDocumentRef,
+				documentRef -> {
+					for (final Integer productId : productIdsByDocumentRef.get(documentRef))
+					{
+						final BigDecimal currentCost = costsByProductId.getOrDefault(productId, BigDecimal.ZERO);
+						Thread.yield(); // give the other threads a chance to interfere
+						final BigDecimal newCost = currentCost.add(BigDecimal.valueOf(documentRef.getRecord_ID())).divide(BigDecimal.valueOf(2), 12, RoundingMode.HALF_UP);
+						costsByProductId.put(productId, newCost);
+					}
+					return null;
+				},
+				threadsCount);
+
+		assertThat(result.getCountPosted()).isEqualTo(documentRefs.size());
+		assertThat(result.getCountErrors()).isZero();
+		return costsByProductId;
+	}
+}
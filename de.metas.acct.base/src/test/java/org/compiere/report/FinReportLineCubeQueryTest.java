@@ -0,0 +1,285 @@
+package org.compiere.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.compiere.report.FinReportLineCubeQuery.LineValues;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.acct.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Verifies that the one scan {@link FinReportLineCubeQuery} yields the same values as one {@code SELECT} per cell.
+ * <p>
+ * Both SQLs are evaluated over in-memory {@code Fact_Acct_Summary} rows by a tiny evaluator,
+ * which understands just the SQL this test is using; the parameters are bound by their position, like JDBC does.
+ */
+public class FinReportLineCubeQueryTest
+{
+	private static final int REPORT_CUBE_ID = 7;
+
+	/** DateAcct is the period's number, to keep it simple */
+	private static final List<Map<String, Object>> ROWS = ImmutableList.of(
+			row(REPORT_CUBE_ID, 1, 10, "100", "0"),
+			row(REPORT_CUBE_ID, 2, 10, "20", "5"),
+			row(REPORT_CUBE_ID, 2, 11, "3", "30"),
+			row(REPORT_CUBE_ID, 2, 12, "0", "0"),
+			row(REPORT_CUBE_ID, 3, 10, "1", "2"),
+			row(REPORT_CUBE_ID + 1, 2, 10, "1000", "1000"));
+
+	private static Map<String, Object> row(final int reportCubeId, final int dateAcct, final int accountId, final String amtAcctDr, final String amtAcctCr)
+	{
+		return ImmutableMap.<String, Object> builder()
+				.put("PA_ReportCube_ID", reportCubeId)
+				.put("DateAcct", dateAcct)
+				.put("Account_ID", accountId)
+				.put("AmtAcctDr", new BigDecimal(amtAcctDr))
+				.put("AmtAcctCr", new BigDecimal(amtAcctCr))
+				.build();
+	}
+
+	@Value
+	private static class Cell
+	{
+		int columnIndex;
+		String amountSelectClause;
+		String whereClause;
+		List<Object> params;
+	}
+
+	@Test
+	public void sameAsOneSelectPerCell()
+	{
+		final List<Cell> cells = ImmutableList.of(
+				new Cell(0, "SUM(AmtAcctDr)", "= ?", ImmutableList.of(2)),
+				new Cell(2, "SUM(AmtAcctCr)", "BETWEEN ? AND ? AND Account_ID = ?", ImmutableList.of(1, 2, 10)),
+				new Cell(3, "SUM(AmtAcctDr)", "= ? AND Account_ID = ?", ImmutableList.of(5, 10)), // no records
+				new Cell(4, "SUM(AmtAcctCr)", "= ? AND Account_ID = ?", ImmutableList.of(2, 12))); // only records with zero amounts
+
+		final LineValues lineValues = computeWithOneScan(cells, null);
+
+		assertThat(lineValues).isEqualTo(computeWithOneSelectPerCell(cells, null));
+		assertThat(lineValues.getColumnIndexes()).containsExactly(0, 2, 3, 4);
+		assertThat(lineValues.getValues()).containsExactly(new BigDecimal("23"), new BigDecimal("5"), null, BigDecimal.ZERO);
+		assertThat(lineValues.isZeroLine()).isFalse();
+	}
+
+	@Test
+	public void sameAsOneSelectPerCell_withLineWhereClause()
+	{
+		final List<Cell> cells = ImmutableList.of(
+				new Cell(1, "SUM(AmtAcctDr)", "BETWEEN ? AND ? AND Account_ID = 10", ImmutableList.of(1, 3)),
+				new Cell(5, "SUM(AmtAcctCr)", "= ? AND Account_ID = 10", ImmutableList.of(2)));
+
+		final LineValues lineValues = computeWithOneScan(cells, "Account_ID = 10");
+
+		assertThat(lineValues).isEqualTo(computeWithOneSelectPerCell(cells, "Account_ID = 10"));
+		assertThat(lineValues.getValues()).containsExactly(new BigDecimal("121"), new BigDecimal("5"));
+	}
+
+	@Test
+	public void nullAmountSelectClause()
+	{
+		final List<Cell> cells = ImmutableList.of(
+				new Cell(0, "NULL", "= ?", ImmutableList.of(2)),
+				new Cell(1, "SUM(AmtAcctDr)", "= ?", ImmutableList.of(2)));
+
+		final LineValues lineValues = computeWithOneScan(cells, null);
+
+		assertThat(lineValues).isEqualTo(computeWithOneSelectPerCell(cells, null));
+		assertThat(lineValues.getValues()).containsExactly(null, new BigDecimal("23"));
+		assertThat(lineValues.isZeroLine()).isFalse();
+	}
+
+	@Test
+	public void zeroLine()
+	{
+		final List<Cell> cells = ImmutableList.of(
+				new Cell(0, "SUM(AmtAcctDr)", "= ?", ImmutableList.of(4)),
+				new Cell(1, "SUM(AmtAcctCr)", "= ? AND Account_ID = ?", ImmutableList.of(1, 11)));
+
+		final LineValues lineValues = computeWithOneScan(cells, null);
+
+		assertThat(lineValues).isEqualTo(computeWithOneSelectPerCell(cells, null));
+		assertThat(lineValues.getValues()).containsExactly(null, null);
+		assertThat(lineValues.isZeroLine()).isTrue();
+	}
+
+	private static LineValues computeWithOneScan(final List<Cell> cells, final String lineWhereClause)
+	{
+		final FinReportLineCubeQuery query = new FinReportLineCubeQuery();
+		cells.forEach(cell -> query.addCell(cell.getColumnIndex(), cell.getAmountSelectClause(), cell.getWhereClause(), cell.getParams()));
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sql = query.buildSql(REPORT_CUBE_ID, lineWhereClause, sqlParams);
+		final List<Object> resultRow = executeAggregates(sql, sqlParams);
+
+		try
+		{
+			return query.readValues(new FinReportLineCubeQuery.ResultRow()
+			{
+				@Override
+				public BigDecimal getBigDecimal(final int columnIndex)
+				{
+					return (BigDecimal)resultRow.get(columnIndex - 1);
+				}
+
+				@Override
+				public int getInt(final int columnIndex)
+				{
+					return (Integer)resultRow.get(columnIndex - 1);
+				}
+			});
+		}
+		catch (final SQLException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** Like {@link FinReport} computes the cells without the cube query, but from {@code Fact_Acct_Summary} */
+	private static LineValues computeWithOneSelectPerCell(final List<Cell> cells, final String lineWhereClause)
+	{
+		final List<Integer> columnIndexes = new ArrayList<>();
+		final List<BigDecimal> values = new ArrayList<>();
+		boolean zeroLine = true;
+		for (final Cell cell : cells)
+		{
+			final String where = lineWhereClause != null ? " AND " + lineWhereClause : "";
+			final String sql = "SELECT " + cell.getAmountSelectClause() + ", COUNT(*)"
+					+ " FROM Fact_Acct_Summary fa WHERE PA_ReportCube_ID=?" + where + " AND DateAcct " + cell.getWhereClause();
+			final List<Object> sqlParams = ImmutableList.builder().add(REPORT_CUBE_ID).addAll(cell.getParams()).build();
+			final List<Object> resultRow = executeAggregates(sql, sqlParams);
+
+			final int count = (Integer)resultRow.get(1);
+			columnIndexes.add(cell.getColumnIndex());
+			values.add(count == 0 ? null : (BigDecimal)resultRow.get(0));
+			zeroLine = zeroLine && count == 0;
+		}
+		return new LineValues(columnIndexes, values, zeroLine);
+	}
+
+	//
+	// The tiny SQL evaluator
+	//
+
+	private static final Pattern SELECT = Pattern.compile("SELECT (.*) FROM Fact_Acct_Summary fa WHERE (.*)");
+	private static final Pattern AGGREGATE = Pattern.compile("(?:(SUM\\((\\w+)\\)|COUNT\\(\\*\\))( FILTER \\(WHERE ([^()]*)\\))?|(NULL)(?:::numeric)?)(, |$)");
+	private static final Pattern CONDITION = Pattern.compile("(\\w+) ?(?:= ?(\\?|\\d+)|BETWEEN \\? AND \\?)( AND |$)");
+
+	/**
+	 * @return the only result row of an aggregate {@code SELECT}; {@code SUM}s are {@code null} if there is no record, like in SQL; a {@code NULL} can't have a {@code FILTER}
+	 */
+	private static List<Object> executeAggregates(final String sql, final List<Object> sqlParams)
+	{
+		final Matcher select = SELECT.matcher(sql);
+		assertThat(select.matches()).as("supported SQL: %s", sql).isTrue();
+		final Iterator<Object> params = sqlParams.iterator();
+
+		// bind the parameters in the order of their appearance
+		final List<String> amountColumnNames = new ArrayList<>();
+		final List<Boolean> nullConstants = new ArrayList<>();
+		final List<Predicate<Map<String, Object>>> filters = new ArrayList<>();
+		final Matcher aggregate = AGGREGATE.matcher(select.group(1));
+		int end = 0;
+		while (aggregate.find() && aggregate.start() == end)
+		{
+			amountColumnNames.add(aggregate.group(2)); // null for COUNT(*) and NULL
+			nullConstants.add(aggregate.group(5) != null);
+			filters.add(aggregate.group(4) != null ? bindConditions(aggregate.group(4), params) : r -> true);
+			end = aggregate.end();
+		}
+		assertThat(end).as("supported select list: %s", select.group(1)).isEqualTo(select.group(1).length());
+		final Predicate<Map<String, Object>> where = bindConditions(select.group(2), params);
+		assertThat(params.hasNext()).as("all parameters were bound").isFalse();
+
+		final List<Object> resultRow = new ArrayList<>();
+		for (int i = 0; i < filters.size(); i++)
+		{
+			if (nullConstants.get(i))
+			{
+				resultRow.add(null);
+				continue;
+			}
+
+			final String amountColumnName = amountColumnNames.get(i);
+			BigDecimal sum = null;
+			int count = 0;
+			for (final Map<String, Object> row : ROWS)
+			{
+				if (where.test(row) && filters.get(i).test(row))
+				{
+					count++;
+					if (amountColumnName != null)
+					{
+						final BigDecimal amount = (BigDecimal)row.get(amountColumnName);
+						sum = sum == null ? amount : sum.add(amount);
+					}
+				}
+			}
+			resultRow.add(amountColumnName != null ? sum : Integer.valueOf(count));
+		}
+		return resultRow;
+	}
+
+	private static Predicate<Map<String, Object>> bindConditions(final String conditions, final Iterator<Object> params)
+	{
+		Predicate<Map<String, Object>> result = r -> true;
+		final Matcher condition = CONDITION.matcher(conditions);
+		int end = 0;
+		while (condition.find() && condition.start() == end)
+		{
+			final String columnName = condition.group(1);
+			final Predicate<Map<String, Object>> predicate;
+			if (condition.group(2) == null) // BETWEEN
+			{
+				final int from = (Integer)params.next();
+				final int to = (Integer)params.next();
+				predicate = r -> (Integer)r.get(columnName) >= from && (Integer)r.get(columnName) <= to;
+			}
+			else
+			{
+				final int value = "?".equals(condition.group(2)) ? (Integer)params.next() : Integer.parseInt(condition.group(2));
+				predicate = r -> (Integer)r.get(columnName) == value;
+			}
+			result = result.and(predicate);
+			end = condition.end();
+		}
+		assertThat(end).as("supported conditions: %s", conditions).isEqualTo(conditions.length());
+		return result;
+	}
+}
@@ -14,7 +14,7 @@ public class X_AD_Archive extends org.compiere.model.PO implements I_AD_Archive,
 	/**
 	 *
 	 */
-	private static final long serialVersionUID = -1607210081L;
+	private static final long serialVersionUID = 1126083405L;
 
     /** Standard Constructor */
     public X_AD_Archive (Properties ctx, int AD_Archive_ID, String trxName)
@@ -257,6 +257,25 @@ public class X_AD_Archive extends org.compiere.model.PO implements I_AD_Archive,
 		return ii.intValue();
 	}
 
+	/** Set Content Hash.
+		@param ContentHash 
+		Hash of the content addressed blob which is referenced by this archive
+	  */
+	@Override
+	public void setContentHash (java.lang.String ContentHash)
+	{
+		set_Value (COLUMNNAME_ContentHash, ContentHash);
+	}
+
+	/** Get Content Hash.
+		@return Hash of the content addressed blob which is referenced by this archive
+	  */
+	@Override
+	public java.lang.String getContentHash () 
+	{
+		return (java.lang.String)get_Value(COLUMNNAME_ContentHash);
+	}
+
 	/** Set Beschreibung.
 		@param Description Beschreibung	  */
 	@Override
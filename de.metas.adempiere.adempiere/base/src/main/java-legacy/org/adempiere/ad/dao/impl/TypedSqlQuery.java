@@ -30,6 +30,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 
@@ -924,6 +928,24 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 
 	}
 
+	@Override
+	public <ET extends T> Stream<ET> streamByKeyset(final Class<ET> clazz) throws DBException
+	{
+		Check.assumeNull(postQueryFilter, "No post-filter shall be defined when iterating");
+		Check.assume(unions == null || unions.isEmpty(), "No union queries shall be defined when streaming by keyset");
+
+		final KeysetPOBufferedIterator<T, ET> iterator = new KeysetPOBufferedIterator<>(this, clazz);
+
+		final Integer iteratorBufferSize = getOption(OPTION_IteratorBufferSize);
+		if (iteratorBufferSize != null)
+		{
+			iterator.setBufferSize(iteratorBufferSize);
+		}
+
+		final boolean parallel = false;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), parallel);
+	}
+
 	/**
 	 * Return a simple wrapper over a JDBC {@link ResultSet}. It is the caller responsibility to call the close method to release the underlying database resources.
 	 *
@@ -1226,6 +1248,12 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		final List<Object> parametersEffective = getParametersEffective();
 		DB.setParameters(pstmt, parametersEffective);
 
+		final Integer fetchSize = getOption(OPTION_FetchSize);
+		if (fetchSize != null && fetchSize > 0)
+		{
+			pstmt.setFetchSize(fetchSize);
+		}
+
 		final long ts = System.currentTimeMillis();
 		final ResultSet rs = pstmt.executeQuery();
 
@@ -15,7 +15,6 @@ package org.adempiere.model;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +28,7 @@ import org.adempiere.ad.persistence.TableModelLoader;
 import org.adempiere.ad.persistence.exceptions.ModelClassNotSupportedException;
 import org.adempiere.ad.service.IDeveloperModeBL;
 import org.adempiere.ad.wrapper.IInterfaceWrapper;
+import org.adempiere.ad.wrapper.ModelProxyFactory;
 import org.adempiere.ad.wrapper.POModelInternalAccessor;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.proxy.ProxyMethodsCache;
@@ -148,9 +148,8 @@ public class POWrapper implements InvocationHandler, IInterfaceWrapper
 			}
 		}
 
-		return (T)Proxy.newProxyInstance(cl.getClassLoader(),
-				new Class<?>[] { cl },
-				new POWrapper(cl, po, useOldValuesEffective, trlAdLanguageEffective));
+		final POWrapper wrapper = new POWrapper(cl, po, useOldValuesEffective, trlAdLanguageEffective);
+		return ModelProxyFactory.instance.newModelInstance(cl, wrapper, wrapper.modelInternalAccessor, po.getPOInfo());
 	}
 
 	/**
@@ -318,19 +317,16 @@ public class POWrapper implements InvocationHandler, IInterfaceWrapper
 			return (T)model;
 		}
 
-		if (Proxy.isProxyClass(model.getClass()))
+		final InvocationHandler ih = ModelProxyFactory.getInvocationHandlerOrNull(model);
+		if (ih instanceof POWrapper)
 		{
-			final InvocationHandler ih = Proxy.getInvocationHandler(model);
-			if (ih instanceof POWrapper)
-			{
-				final POWrapper wrapper = (POWrapper)ih;
-				return (T)wrapper.getPO();
-			}
-			if (checkOtherWrapper && ih instanceof GridTabWrapper)
-			{
-				final GridTabWrapper wrapper = (GridTabWrapper)ih;
-				return wrapper.getPO();
-			}
+			final POWrapper wrapper = (POWrapper)ih;
+			return (T)wrapper.getPO();
+		}
+		if (checkOtherWrapper && ih instanceof GridTabWrapper)
+		{
+			final GridTabWrapper wrapper = (GridTabWrapper)ih;
+			return wrapper.getPO();
 		}
 
 		return null;
@@ -338,14 +334,11 @@ public class POWrapper implements InvocationHandler, IInterfaceWrapper
 
 	private static final POWrapper getPOWrapperOrNull(final Object model)
 	{
-		if (Proxy.isProxyClass(model.getClass()))
+		final InvocationHandler ih = ModelProxyFactory.getInvocationHandlerOrNull(model);
+		if (ih instanceof POWrapper)
 		{
-			final InvocationHandler ih = Proxy.getInvocationHandler(model);
-			if (ih instanceof POWrapper)
-			{
-				final POWrapper wrapper = (POWrapper)ih;
-				return wrapper;
-			}
+			final POWrapper wrapper = (POWrapper)ih;
+			return wrapper;
 		}
 
 		return null;
@@ -581,6 +574,29 @@ public class POWrapper implements InvocationHandler, IInterfaceWrapper
 		}
 	}
 
+	protected boolean setValue(final String columnName, final int columnIndex, final Object value)
+	{
+		if (useOldValues)
+		{
+			throw new AdempiereException("Setting values in an old object is not allowed");
+		}
+		else
+		{
+			final Object valueToSet = checkZeroIdValue(columnName, value);
+
+			final POInfo poInfo = po.getPOInfo();
+			if (!poInfo.isColumnUpdateable(columnIndex))
+			{
+				// same as in setValue(String, Object)
+				return po.set_ValueNoCheck(columnIndex, valueToSet);
+			}
+			else
+			{
+				return po.set_ValueOfColumn(columnIndex, valueToSet);
+			}
+		}
+	}
+
 	protected final boolean setValueNoCheck(final String columnName, final Object value)
 	{
 		if (useOldValues)
@@ -1066,6 +1082,12 @@ public class POWrapper implements InvocationHandler, IInterfaceWrapper
 			return POWrapper.this.setValue(columnName, value);
 		}
 
+		@Override
+		public boolean setValue(final String columnName, final int columnIndex, final Object value)
+		{
+			return POWrapper.this.setValue(columnName, columnIndex, value);
+		}
+
 		@Override
 		public boolean setValueNoCheck(final String columnName, final Object value)
 		{
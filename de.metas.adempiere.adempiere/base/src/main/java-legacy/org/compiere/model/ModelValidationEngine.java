@@ -806,6 +806,48 @@ public class ModelValidationEngine implements IModelValidationEngine
 		executeInTrx(trxName, changeType, () -> fireModelChange0(po, changeType, interceptorsSystem, interceptorsClient, scriptValidators));
 	}	// fireModelChange
 
+	/**
+	 * @return {@code true} if {@link #fireModelChange(PO, int)} would invoke any model interceptor or script validator for the given PO and change type
+	 */
+	public boolean hasModelChangeListeners(@NonNull final PO po, final int changeType)
+	{
+		return hasModelChangeListeners(po.getCtx(), po.get_TableName(), po.get_Table_ID(), po.getAD_Client_ID(), changeType);
+	}
+
+	/**
+	 * @return {@code true} if {@link #fireModelChange(PO, int)} would invoke any model interceptor or script validator for a PO of the given table and client and the given change type
+	 */
+	public boolean hasModelChangeListeners(final Properties ctx, @NonNull final String tableName, final int adTableId, final int adClientId, final int changeType)
+	{
+		if (m_modelChangeListeners.isEmpty())
+		{
+			return false;
+		}
+
+		final List<ModelValidator> interceptorsSystem = m_modelChangeListeners.get(getPropertyName(tableName));
+		if (interceptorsSystem != null && !interceptorsSystem.isEmpty())
+		{
+			return true;
+		}
+
+		final List<ModelValidator> interceptorsClient = m_modelChangeListeners.get(getPropertyName(tableName, adClientId));
+		if (interceptorsClient != null && !interceptorsClient.isEmpty())
+		{
+			return true;
+		}
+
+		if (ModelValidator.tableEventValidators.length > changeType)
+		{
+			final List<I_AD_Table_ScriptValidator> scriptValidators = Services.get(IADTableScriptValidatorDAO.class).retrieveTableScriptValidators(
+					ctx,
+					adTableId,
+					ModelValidator.tableEventValidators[changeType]);
+			return scriptValidators != null && !scriptValidators.isEmpty();
+		}
+
+		return false;
+	}
+
 	private final void executeInTrx(final String trxName, final int changeTypeOrDocTiming, @NonNull final Runnable runnable)
 	{
 		final boolean runInTrx = changeTypeOrDocTiming != ModelValidator.TYPE_BEFORE_SAVE_TRX;
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.OverridingMethodsMustInvokeSuper;
@@ -61,6 +62,7 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.adempiere.ad.trx.api.impl.TrxBatchedSaves;
 import org.adempiere.ad.validationRule.IValidationContext;
 import org.adempiere.ad.validationRule.IValidationRuleFactory;
 import org.adempiere.exceptions.AdempiereException;
@@ -86,6 +88,8 @@ import org.slf4j.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import de.metas.cache.model.CacheInvalidateMultiRequest;
 import de.metas.cache.model.IModelCacheInvalidationService;
 import de.metas.cache.model.ModelCacheInvalidationTiming;
@@ -1165,7 +1169,12 @@ public abstract class PO
 		return set_ValueNoCheck(index, value);
 	}
 
-	private final boolean set_ValueNoCheck(final int index, final Object value)
+	/**
+	 * Same as {@link #set_ValueNoCheck(String, Object)}, but for a column index which was already looked up (e.g. by a generated model accessor).
+	 *
+	 * @param index column index; shall be valid
+	 */
+	public final boolean set_ValueNoCheck(final int index, final Object value)
 	{
 		final Object valueToUse = POUtils.stripZerosAndLogIssueIfBigDecimalScaleTooBig(value, this);
 
@@ -1269,6 +1278,16 @@ public abstract class PO
 		return set_ValueReturningBoolean(columnIndex, value);
 	}
 
+	/**
+	 * Same as {@link #set_ValueOfColumn(String, Object)}, but for a column index which was already looked up (e.g. by a generated model accessor).
+	 *
+	 * @param columnIndex column index; shall be valid
+	 */
+	public final boolean set_ValueOfColumn(final int columnIndex, final Object value)
+	{
+		return set_ValueReturningBoolean(columnIndex, value);
+	}
+
 	private final boolean set_ValueReturningBoolean(final int columnIndex, final Object value)
 	{
 		final String columnName = p_info.getColumnName(columnIndex);
@@ -3242,7 +3261,13 @@ public abstract class PO
 			// Execute UPDATE SQL
 			log.trace("Save update: SQL={}", sql);
 			final int no;
-			if (isUseTimeoutForUpdate())
+			final TrxBatchedSaves batchedSaves = getBatchedSavesOrNull(false);
+			if (batchedSaves != null)
+			{
+				batchedSaves.add(p_info.getTableName(), sql.toString());
+				no = 1; // the update count is checked when the batch is executed
+			}
+			else if (isUseTimeoutForUpdate())
 				no = DB.executeUpdateEx(sql.toString(), m_trxName, QUERY_TIME_OUT);
 			else
 				no = DB.executeUpdateEx(sql.toString(), m_trxName);
@@ -3272,6 +3297,79 @@ public abstract class PO
 		return saveFinish(false, true);  // newRecord=false, success=true
 	}   // saveUpdate
 
+	/**
+	 * @return the batched saves of this PO's transaction, if the INSERT/UPDATE of this PO can be queued there instead of being executed right away; {@code null} otherwise
+	 * @see ITrxManager#batchedSaves(String)
+	 */
+	private TrxBatchedSaves getBatchedSavesOrNull(final boolean newRecord)
+	{
+		final TrxBatchedSaves batchedSaves = TrxBatchedSaves.getActiveOrNull(m_trxName);
+		if (batchedSaves == null)
+		{
+			return null;
+		}
+
+		//
+		// The record has to be written right away if something after saving might need it
+		if (m_lobInfo != null && !m_lobInfo.isEmpty())
+		{
+			return null;
+		}
+		if (!newRecord && isUseTimeoutForUpdate())
+		{
+			return null;
+		}
+		if (newRecord && p_info.isLoadAfterSave())
+		{
+			return null;
+		}
+		if (is_Translatable())
+		{
+			return null;
+		}
+		if (getDynAttribute(DYNATTR_CopyRecordSupport) != null)
+		{
+			return null;
+		}
+		if (isOverridingAfterSave(getClass()))
+		{
+			return null;
+		}
+
+		final boolean replication = isReplication();
+		final int changeType = newRecord ? (replication ? ModelValidator.TYPE_AFTER_NEW_REPLICATION : ModelValidator.TYPE_AFTER_NEW)
+				: (replication ? ModelValidator.TYPE_AFTER_CHANGE_REPLICATION : ModelValidator.TYPE_AFTER_CHANGE);
+		if (ModelValidationEngine.get().hasModelChangeListeners(this, changeType))
+		{
+			return null;
+		}
+
+		return batchedSaves;
+	}
+
+	/** Caches if a given PO class overrides {@link #afterSave(boolean, boolean)} */
+	private static final ConcurrentHashMap<Class<?>, Boolean> s_overridingAfterSaveByClass = new ConcurrentHashMap<>();
+
+	@VisibleForTesting
+	static boolean isOverridingAfterSave(final Class<?> poClass)
+	{
+		return s_overridingAfterSaveByClass.computeIfAbsent(poClass, clazz -> {
+			for (Class<?> c = clazz; c != null && c != PO.class; c = c.getSuperclass())
+			{
+				try
+				{
+					c.getDeclaredMethod("afterSave", boolean.class, boolean.class);
+					return true;
+				}
+				catch (final NoSuchMethodException e)
+				{
+					// not declared on this level => check the superclass
+				}
+			}
+			return false;
+		});
+	}
+
 	private final boolean isUseTimeoutForUpdate()
 	{
 		return "true".equalsIgnoreCase(System.getProperty(USE_TIMEOUT_FOR_UPDATE, "false"))
@@ -3633,12 +3731,22 @@ public abstract class PO
 
 		//
 		// Execute actual database INSERT
-		final int no = DB.executeUpdate(sqlInsert.toString(),
-				(Object[])null,  // params,
-				OnFail.ThrowException,  // onFail
-				m_trxName,
-				0,  // timeOut,
-				loadAfterInsertProcessor);
+		final int no;
+		final TrxBatchedSaves batchedSaves = loadAfterInsertProcessor == null ? getBatchedSavesOrNull(true) : null;
+		if (batchedSaves != null)
+		{
+			batchedSaves.add(p_info.getTableName(), sqlInsert.toString());
+			no = 1; // the insert count is checked when the batch is executed
+		}
+		else
+		{
+			no = DB.executeUpdate(sqlInsert.toString(),
+					(Object[])null,  // params,
+					OnFail.ThrowException,  // onFail
+					m_trxName,
+					0,  // timeOut,
+					loadAfterInsertProcessor);
+		}
 		boolean ok = no == 1;
 
 		//
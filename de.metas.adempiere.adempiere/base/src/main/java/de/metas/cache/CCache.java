@@ -78,12 +78,37 @@ public class CCache<K, V> implements CacheInterface
 		return CCache.<K, V> builder()
 				.cacheName(cacheName)
 				// .tableName(null) // auto-detect tableName
-				.initialCapacity(maxSize) // FIXME this is confusing because in case of LRU, initialCapacity is used as maxSize
+				.maximumSize(maxSize)
 				.expireMinutes(expireAfterMinutes)
 				.cacheMapType(CacheMapType.LRU)
 				.build();
 	}
 
+	/**
+	 * Creates a new cache which is bounded by the total weight of its entries.
+	 *
+	 * @param cacheName cache name; shall respect the current naming conventions, see {@link #extractTableNameForCacheName(String)}
+	 * @param maximumWeight maximum total weight of the cached entries, usually the estimated size in bytes
+	 * @param weigher computes the weight of one entry, see {@link CacheWeigher}
+	 * @param expireAfterMinutes if positive, the entries will expire after given number of minutes
+	 * @return new cache instance
+	 */
+	public static final <K, V> CCache<K, V> newWeightedCache(
+			final String cacheName,
+			final long maximumWeight,
+			@NonNull final CacheWeigher<K, V> weigher,
+			final int expireAfterMinutes)
+	{
+		return CCache.<K, V> builder()
+				.cacheName(cacheName)
+				// .tableName(null) // auto-detect tableName
+				.maximumWeight(maximumWeight)
+				.weigher(weigher)
+				.expireMinutes(expireAfterMinutes)
+				.cacheMapType(CacheMapType.Weighted)
+				.build();
+	}
+
 	/**
 	 * Similar to {@link #newLRUCache(String, int, int)}.
 	 *
@@ -112,6 +137,12 @@ public class CCache<K, V> implements CacheInterface
 		 * This means that we can have a have a cache with a defined (limited) size without any expiration time.
 		 */
 		LRU,
+
+		/**
+		 * Data is cached in a map which is bounded by the total weight of its entries (e.g. the estimated size in bytes), as computed by a {@link CacheWeigher}.
+		 * If the maximum weight is reached, then the least recently used entries are removed from cache.
+		 */
+		Weighted,
 	}
 
 	/**
@@ -178,6 +209,9 @@ public class CCache<K, V> implements CacheInterface
 				null, // auto-detect tableName
 				null, // additionalTableNamesToResetFor
 				initialCapacity,
+				null, // maximumSize
+				null, // maximumWeight
+				(CacheWeigher<K, V>)null,
 				expireMinutes,
 				CacheMapType.HashMap,
 				(CachingKeysMapper<K>)null,
@@ -190,6 +224,9 @@ public class CCache<K, V> implements CacheInterface
 			final String tableName,
 			@Singular("additionalTableNameToResetFor") final Set<String> additionalTableNamesToResetFor,
 			final Integer initialCapacity,
+			final Integer maximumSize,
+			final Long maximumWeight,
+			@Nullable final CacheWeigher<K, V> weigher,
 			final Integer expireMinutes,
 			final CacheMapType cacheMapType,
 			@Nullable final CachingKeysMapper<K> invalidationKeysMapper,
@@ -241,6 +278,10 @@ public class CCache<K, V> implements CacheInterface
 		this.cache = buildGuavaCache(
 				cacheMapType != null ? cacheMapType : CacheMapType.HashMap,
 				initialCapacity != null ? initialCapacity : 0,
+				// for backward compatibility, LRU caches without an explicit maximumSize are still bounded by their initialCapacity
+				maximumSize != null ? maximumSize : (initialCapacity != null ? initialCapacity : 0),
+				maximumWeight != null ? maximumWeight : 0,
+				weigher,
 				this.expireMinutes,
 				removalListener);
 
@@ -309,10 +350,14 @@ public class CCache<K, V> implements CacheInterface
 	private static final <K, V> Cache<K, V> buildGuavaCache(
 			@NonNull final CacheMapType cacheMapType,
 			final int initialCapacity,
+			final int maximumSize,
+			final long maximumWeight,
+			@Nullable final CacheWeigher<K, V> weigher,
 			final int expireMinutes,
 			@Nullable final CacheRemovalListener<K, V> removalListener)
 	{
-		CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+		CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+				.recordStats();
 		if (cacheMapType == CacheMapType.HashMap)
 		{
 			cacheBuilder = cacheBuilder
@@ -321,7 +366,26 @@ public class CCache<K, V> implements CacheInterface
 		else if (cacheMapType == CacheMapType.LRU)
 		{
 			cacheBuilder = cacheBuilder
-					.maximumSize(initialCapacity); // FIXME: this is confusing
+					.maximumSize(maximumSize);
+		}
+		else if (cacheMapType == CacheMapType.Weighted)
+		{
+			if (weigher == null)
+			{
+				throw new AdempiereException("A weigher is required for " + cacheMapType + " caches");
+			}
+			if (maximumWeight <= 0)
+			{
+				throw new AdempiereException("maximumWeight > 0 is required for " + cacheMapType + " caches but it was " + maximumWeight);
+			}
+
+			cacheBuilder = cacheBuilder
+					.maximumWeight(maximumWeight)
+					.weigher((key, value) -> {
+						@SuppressWarnings("unchecked")
+						final int weight = weigher.weigh((K)key, (V)value);
+						return Math.max(weight, 0);
+					});
 		}
 		else
 		{
@@ -0,0 +1,315 @@
+package de.metas.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Collects the cache invalidation requests which shall be broadcasted over a short time window and sends them as one compact {@link CacheInvalidateMultiRequest}.
+ * <p>
+ * When a window is flushed, the collected requests are coalesced:
+ * <ul>
+ * <li>if there is a "reset all" request, only that one is sent
+ * <li>duplicate requests are dropped
+ * <li>if there are more than {@link #getMaxRecordsPerTable()} record requests for the same table, they are replaced by one "all records of table" request
+ * <li>record requests which are covered by an "all records of table" request are dropped
+ * </ul>
+ *
+ * If the window is set to zero, each request is coalesced and sent right away.
+ * <p>
+ * The settings are not taken from {@code AD_SysConfig} because the sysconfig itself is cached, but they can be changed at runtime via {@link JMXCacheMgtMBean}.
+ */
+/* package */ final class CacheInvalidationBroadcastCoalescer
+{
+	private static final Logger logger = LogManager.getLogger(CacheInvalidationBroadcastCoalescer.class);
+
+	private static final int DEFAULT_WindowMillis = 100;
+	private static final int DEFAULT_MaxRecordsPerTable = 100;
+
+	/** If there are more pending requests than this, the window is flushed right away, to keep the memory footprint bounded */
+	private static final int MAX_PENDING_REQUESTS = 10000;
+
+	private final Consumer<CacheInvalidateMultiRequest> sender;
+
+	private volatile int windowMillis = DEFAULT_WindowMillis;
+	private volatile int maxRecordsPerTable = DEFAULT_MaxRecordsPerTable;
+
+	private final Object lock = new Object();
+	private final List<CacheInvalidateRequest> pendingRequests = new ArrayList<>();
+	private boolean flushScheduled = false;
+	private ScheduledExecutorService _executor; // lazy
+
+	private final AtomicLong countRequestsReceived = new AtomicLong();
+	private final AtomicLong countEventsSent = new AtomicLong();
+	private final AtomicLong countRequestsMerged = new AtomicLong();
+	private final AtomicLong countRequestsDropped = new AtomicLong();
+
+	/**
+	 * @param sender the function which actually broadcasts the coalesced requests
+	 */
+	public CacheInvalidationBroadcastCoalescer(@NonNull final Consumer<CacheInvalidateMultiRequest> sender)
+	{
+		this.sender = sender;
+	}
+
+	public void add(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		final Set<CacheInvalidateRequest> requests = multiRequest.getRequests();
+		countRequestsReceived.addAndGet(requests.size());
+
+		final int windowMillis = this.windowMillis;
+		if (windowMillis <= 0)
+		{
+			send(coalesce(requests));
+			return;
+		}
+
+		synchronized (lock)
+		{
+			pendingRequests.addAll(requests);
+
+			if (pendingRequests.size() >= MAX_PENDING_REQUESTS)
+			{
+				getExecutor().execute(this::flush);
+				flushScheduled = true;
+			}
+			else if (!flushScheduled)
+			{
+				getExecutor().schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+				flushScheduled = true;
+			}
+		}
+	}
+
+	/**
+	 * Sends all pending requests right away.
+	 */
+	public void flush()
+	{
+		final List<CacheInvalidateRequest> requests;
+		synchronized (lock)
+		{
+			flushScheduled = false;
+			if (pendingRequests.isEmpty())
+			{
+				return;
+			}
+
+			requests = new ArrayList<>(pendingRequests);
+			pendingRequests.clear();
+		}
+
+		send(coalesce(requests));
+	}
+
+	private void send(final CacheInvalidateMultiRequest multiRequest)
+	{
+		if (multiRequest == null)
+		{
+			return;
+		}
+
+		try
+		{
+			sender.accept(multiRequest);
+			countEventsSent.incrementAndGet();
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed broadcasting {}. Ignored.", multiRequest, ex);
+		}
+	}
+
+	private CacheInvalidateMultiRequest coalesce(final Collection<CacheInvalidateRequest> requests)
+	{
+		if (requests.isEmpty())
+		{
+			return null;
+		}
+
+		if (requests.stream().anyMatch(CacheInvalidateRequest::isAll))
+		{
+			countRequestsMerged.addAndGet(requests.size() - 1);
+			return CacheInvalidateMultiRequest.all();
+		}
+
+		//
+		// Drop the duplicates. The requests' IDs are random, so we compare them by what they invalidate.
+		final Map<RequestKey, CacheInvalidateRequest> uniqueRequests = new LinkedHashMap<>();
+		for (final CacheInvalidateRequest request : requests)
+		{
+			if (uniqueRequests.putIfAbsent(RequestKey.of(request), request) != null)
+			{
+				countRequestsDropped.incrementAndGet();
+			}
+		}
+
+		//
+		// Collect the tables which will be fully invalidated
+		final Set<String> allRecordsTableNames = new LinkedHashSet<>();
+		uniqueRequests.values()
+				.stream()
+				.filter(request -> isRootOnly(request) && request.isAllRecords())
+				.map(CacheInvalidateRequest::getRootTableName)
+				.forEach(allRecordsTableNames::add);
+
+		final int maxRecordsPerTable = this.maxRecordsPerTable;
+		if (maxRecordsPerTable > 0)
+		{
+			uniqueRequests.values()
+					.stream()
+					.filter(request -> isRootOnly(request) && !request.isAllRecords())
+					.collect(Collectors.groupingBy(CacheInvalidateRequest::getRootTableName, Collectors.counting()))
+					.forEach((tableName, count) -> {
+						if (count > maxRecordsPerTable)
+						{
+							allRecordsTableNames.add(tableName);
+						}
+					});
+		}
+
+		//
+		// Build the compact request
+		final List<CacheInvalidateRequest> result = new ArrayList<>();
+		allRecordsTableNames.forEach(tableName -> result.add(CacheInvalidateRequest.allRecordsForTable(tableName)));
+		for (final CacheInvalidateRequest request : uniqueRequests.values())
+		{
+			if (isRootOnly(request) && allRecordsTableNames.contains(request.getRootTableName()))
+			{
+				if (!request.isAllRecords())
+				{
+					countRequestsMerged.incrementAndGet();
+				}
+				continue;
+			}
+
+			result.add(request);
+		}
+
+		return CacheInvalidateMultiRequest.of(result);
+	}
+
+	private static boolean isRootOnly(final CacheInvalidateRequest request)
+	{
+		return request.getChildTableName() == null;
+	}
+
+	private synchronized ScheduledExecutorService getExecutor()
+	{
+		if (_executor == null)
+		{
+			_executor = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+					.setThreadNamePrefix(getClass().getName() + "-Flush")
+					.setDaemon(true)
+					.build());
+		}
+		return _executor;
+	}
+
+	public int getWindowMillis()
+	{
+		return windowMillis;
+	}
+
+	public void setWindowMillis(final int windowMillis)
+	{
+		this.windowMillis = Math.max(windowMillis, 0);
+		if (this.windowMillis <= 0)
+		{
+			flush();
+		}
+	}
+
+	public int getMaxRecordsPerTable()
+	{
+		return maxRecordsPerTable;
+	}
+
+	public void setMaxRecordsPerTable(final int maxRecordsPerTable)
+	{
+		this.maxRecordsPerTable = maxRecordsPerTable;
+	}
+
+	public long getCountRequestsReceived()
+	{
+		return countRequestsReceived.get();
+	}
+
+	public long getCountEventsSent()
+	{
+		return countEventsSent.get();
+	}
+
+	public long getCountRequestsMerged()
+	{
+		return countRequestsMerged.get();
+	}
+
+	public long getCountRequestsDropped()
+	{
+		return countRequestsDropped.get();
+	}
+
+	public void resetStatistics()
+	{
+		countRequestsReceived.set(0);
+		countEventsSent.set(0);
+		countRequestsMerged.set(0);
+		countRequestsDropped.set(0);
+	}
+
+	@Value(staticConstructor = "of")
+	private static class RequestKey
+	{
+		String rootTableName;
+		int rootRecordId;
+		String childTableName;
+		int childRecordId;
+
+		public static RequestKey of(final CacheInvalidateRequest request)
+		{
+			return of(request.getRootTableName(), request.getRootRecordId(), request.getChildTableName(), request.getChildRecordId());
+		}
+	}
+}
@@ -63,6 +63,8 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 
 	private final CacheInvalidateMultiRequestSerializer jsonSerializer = new CacheInvalidateMultiRequestSerializer();
 
+	private final CacheInvalidationBroadcastCoalescer coalescer = new CacheInvalidationBroadcastCoalescer(this::postEventNow);
+
 	private CacheInvalidationRemoteHandler()
 	{
 	}
@@ -105,11 +107,17 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 		return ImmutableSet.copyOf(tableNamesToBroadcast);
 	}
 
+	public CacheInvalidationBroadcastCoalescer getCoalescer()
+	{
+		return coalescer;
+	}
+
 	/**
 	 * Broadcast a cache invalidation request.
+	 * <p>
+	 * The request is not sent right away but it's collected and sent together with the other requests of the current time window.
 	 *
-	 * @param tableName
-	 * @param recordId
+	 * @see CacheInvalidationBroadcastCoalescer
 	 */
 	public void postEvent(final CacheInvalidateMultiRequest request)
 	{
@@ -127,7 +135,11 @@ final class CacheInvalidationRemoteHandler implements IEventListener
 			return;
 		}
 
-		// Broadcast the event.
+		coalescer.add(request);
+	}
+
+	private void postEventNow(final CacheInvalidateMultiRequest request)
+	{
 		final Event event = createEventFromRequest(request);
 		Services.get(IEventBusFactory.class)
 				.getEventBus(TOPIC_CacheInvalidation)
@@ -0,0 +1,64 @@
+package de.metas.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheStats;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+
+/**
+ * Aggregated statistics of all {@link CCache}s which have a given {@link CacheLabel}.
+ */
+@Value
+@Builder
+public class CacheLabelStats
+{
+	@NonNull
+	CacheLabel label;
+
+	int cachesCount;
+
+	/** how many entries are currently cached */
+	long size;
+
+	@NonNull
+	CacheStats guavaStats;
+
+	public String toSummaryString()
+	{
+		return label.getName()
+				+ ": caches=" + cachesCount
+				+ ", size=" + size
+				+ ", hits=" + guavaStats.hitCount()
+				+ ", misses=" + guavaStats.missCount()
+				+ ", hitRate=" + String.format("%.2f", guavaStats.hitRate())
+				+ ", loads=" + guavaStats.loadCount()
+				+ ", loadTimeMillis=" + TimeUnit.NANOSECONDS.toMillis(guavaStats.totalLoadTime())
+				+ ", evictions=" + guavaStats.evictionCount();
+	}
+}
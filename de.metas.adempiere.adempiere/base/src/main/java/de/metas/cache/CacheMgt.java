@@ -16,6 +16,7 @@
  *****************************************************************************/
 package de.metas.cache;
 
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,11 +39,13 @@ import org.slf4j.Logger;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicates;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 
+import de.metas.cache.CCache.CCacheStats;
 import de.metas.cache.model.CacheInvalidateMultiRequest;
 import de.metas.cache.model.CacheInvalidateRequest;
 import de.metas.logging.LogManager;
@@ -132,6 +135,18 @@ public final class CacheMgt
 		return ImmutableSet.copyOf(cachesByLabel.keySet());
 	}
 
+	/**
+	 * @return the statistics of the caches, aggregated by {@link CacheLabel} and sorted by label name
+	 */
+	public ImmutableList<CacheLabelStats> getStatsByLabel()
+	{
+		return cachesByLabel.values()
+				.stream()
+				.map(CachesGroup::computeStats)
+				.sorted(Comparator.comparing(stats -> stats.getLabel().getName()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	public Set<String> getTableNamesToBroadcast()
 	{
 		return CacheInvalidationRemoteHandler.instance.getTableNamesToBroadcast();
@@ -582,6 +597,23 @@ public final class CacheMgt
 					.sum();
 		}
 
+		public CacheLabelStats computeStats()
+		{
+			final ImmutableList<CCacheStats> cachesStats = streamCaches()
+					.filter(CCache.class::isInstance)
+					.map(cache -> ((CCache<?, ?>)cache).stats())
+					.collect(ImmutableList.toImmutableList());
+
+			return CacheLabelStats.builder()
+					.label(label)
+					.cachesCount(cachesStats.size())
+					.size(cachesStats.stream().mapToLong(CCacheStats::getSize).sum())
+					.guavaStats(cachesStats.stream()
+							.map(CCacheStats::getGuavaStats)
+							.reduce(new CacheStats(0, 0, 0, 0, 0, 0), CacheStats::plus))
+					.build();
+		}
+
 		public long invalidateAllNoFail()
 		{
 			return streamCaches()
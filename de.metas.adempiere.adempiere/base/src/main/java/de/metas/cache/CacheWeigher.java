@@ -0,0 +1,38 @@
+package de.metas.cache;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Computes the weight of a cache entry, used by {@link CCache.CacheMapType#Weighted} caches.
+ * <p>
+ * The weight is usually the estimated size of the entry in bytes. It is computed once, when the entry is added to cache,
+ * so the weighed values are expected to be immutable.
+ */
+@FunctionalInterface
+public interface CacheWeigher<K, V>
+{
+	/**
+	 * @return the weight of given entry; shall not be negative
+	 */
+	int weigh(K key, V value);
+}
@@ -45,6 +45,9 @@ public class IDCache<V> extends CCache<Object, V>
 				tableName,
 				null, // additionalTableNamesToResetFor
 				initialCapacity,
+				null, // maximumSize
+				null, // maximumWeight
+				(CacheWeigher<Object, V>)null,
 				expireMinutes,
 				cacheMapType,
 				KEYS_MAPPER,
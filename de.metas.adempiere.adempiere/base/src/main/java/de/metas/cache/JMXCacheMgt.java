@@ -68,6 +68,16 @@ public class JMXCacheMgt implements JMXCacheMgtMBean, IJMXNameAware
 				.toArray(size -> new String[size]);
 	}
 
+	@Override
+	public String[] getCacheStatsByLabel()
+	{
+		return getCacheMgt()
+				.getStatsByLabel()
+				.stream()
+				.map(CacheLabelStats::toSummaryString)
+				.toArray(size -> new String[size]);
+	}
+
 	@Override
 	public String[] getTableNamesToBroadcast()
 	{
@@ -101,4 +111,62 @@ public class JMXCacheMgt implements JMXCacheMgtMBean, IJMXNameAware
 		return getCacheMgt().reset(tableName, recordId);
 	}
 
+	private final CacheInvalidationBroadcastCoalescer getRemoteInvalidationCoalescer()
+	{
+		return CacheInvalidationRemoteHandler.instance.getCoalescer();
+	}
+
+	@Override
+	public int getRemoteInvalidationWindowMillis()
+	{
+		return getRemoteInvalidationCoalescer().getWindowMillis();
+	}
+
+	@Override
+	public void setRemoteInvalidationWindowMillis(final int windowMillis)
+	{
+		getRemoteInvalidationCoalescer().setWindowMillis(windowMillis);
+	}
+
+	@Override
+	public int getRemoteInvalidationMaxRecordsPerTable()
+	{
+		return getRemoteInvalidationCoalescer().getMaxRecordsPerTable();
+	}
+
+	@Override
+	public void setRemoteInvalidationMaxRecordsPerTable(final int maxRecordsPerTable)
+	{
+		getRemoteInvalidationCoalescer().setMaxRecordsPerTable(maxRecordsPerTable);
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsReceived()
+	{
+		return getRemoteInvalidationCoalescer().getCountRequestsReceived();
+	}
+
+	@Override
+	public long getRemoteInvalidationEventsSent()
+	{
+		return getRemoteInvalidationCoalescer().getCountEventsSent();
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsMerged()
+	{
+		return getRemoteInvalidationCoalescer().getCountRequestsMerged();
+	}
+
+	@Override
+	public long getRemoteInvalidationRequestsDropped()
+	{
+		return getRemoteInvalidationCoalescer().getCountRequestsDropped();
+	}
+
+	@Override
+	public void resetRemoteInvalidationStatistics()
+	{
+		getRemoteInvalidationCoalescer().resetStatistics();
+	}
 }
@@ -16,6 +16,11 @@ public interface JMXCacheMgtMBean
 
 	String[] getCacheLabels();
 
+	/**
+	 * @return hit, miss, load time and eviction statistics, one line per cache label
+	 */
+	String[] getCacheStatsByLabel();
+
 	String[] getTableNamesToBroadcast();
 
 	void enableRemoteCacheInvalidationForTableName(String tableName);
@@ -25,4 +30,22 @@ public interface JMXCacheMgtMBean
 	long resetForTable(String tableName);
 
 	long resetForRecordId(String tableName, int recordId);
+
+	int getRemoteInvalidationWindowMillis();
+
+	void setRemoteInvalidationWindowMillis(int windowMillis);
+
+	int getRemoteInvalidationMaxRecordsPerTable();
+
+	void setRemoteInvalidationMaxRecordsPerTable(int maxRecordsPerTable);
+
+	long getRemoteInvalidationRequestsReceived();
+
+	long getRemoteInvalidationEventsSent();
+
+	long getRemoteInvalidationRequestsMerged();
+
+	long getRemoteInvalidationRequestsDropped();
+
+	void resetRemoteInvalidationStatistics();
 }
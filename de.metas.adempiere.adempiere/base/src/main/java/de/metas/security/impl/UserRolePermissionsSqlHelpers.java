@@ -5,11 +5,21 @@ import java.util.Set;
 import org.compiere.Adempiere;
 import org.compiere.model.I_AD_PInstance_Log;
 import org.compiere.model.I_AD_Private_Access;
+import org.compiere.model.I_AD_Role;
+import org.compiere.model.I_AD_Role_Record_Access_Config;
+import org.compiere.model.I_AD_Table;
+import org.compiere.model.I_AD_UserGroup_User_Assign;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
 import de.metas.logging.LogManager;
 import de.metas.security.RoleId;
+import de.metas.security.UserRolePermissionsKey;
 import de.metas.security.impl.ParsedSql.SqlSelect;
 import de.metas.security.impl.ParsedSql.TableNameAndAlias;
 import de.metas.security.permissions.Access;
@@ -18,7 +28,9 @@ import de.metas.user.UserGroupId;
 import de.metas.user.UserGroupRepository;
 import de.metas.user.UserId;
 import de.metas.util.Check;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -46,17 +58,59 @@ final class UserRolePermissionsSqlHelpers
 {
 	private static final Logger logger = LogManager.getLogger(UserRolePermissionsSqlHelpers.class);
 
+	/** Parsed SQLs; they don't depend on the permissions, so they are shared by all roles */
+	private static final CCache<String, ParsedSql> parsedSqlsCache = CCache.newLRUCache("ParsedSql", 2000, 0);
+
+	/**
+	 * Access SQL where clauses.
+	 * <p>
+	 * Note that the permissions instance stands for its {@link UserRolePermissionsKey}, because a new instance is created after each permissions change.
+	 * Those changes are also resetting this cache (locally or via {@link de.metas.security.UserRolePermissionsEventBus}), because they are resetting {@link I_AD_Role}.
+	 * <p>
+	 * The user's current groups are part of the key, because the user group assignments have a validity range, so they change over time without any record change.
+	 */
+	private static final CCache<AccessSqlKey, String> accessSqlWhereClausesCache = CCache.<AccessSqlKey, String> builder()
+			.cacheName("UserRolePermissions#AccessSqlWhereClause")
+			.tableName(I_AD_Role.Table_Name)
+			.additionalTableNameToResetFor(I_AD_UserGroup_User_Assign.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Role_Record_Access_Config.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Table.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.maximumSize(10000)
+			.build();
+
 	private final UserRolePermissions _role;
 	private final TablesAccessInfo _tablesAccessInfo = TablesAccessInfo.instance;
 	private RecordAccessService _userGroupRecordAccessService; // lazy
+	private UserGroupRepository _userGroupRepository; // lazy
 
-	private Set<UserGroupId> _userGroupIds; // lazy
+	private ImmutableSet<UserGroupId> _userGroupIds; // lazy
+	private boolean _useCaches = true;
 
 	UserRolePermissionsSqlHelpers(@NonNull final UserRolePermissions role)
 	{
 		_role = role;
 	}
 
+	@VisibleForTesting
+	UserRolePermissionsSqlHelpers(
+			@NonNull final UserRolePermissions role,
+			@NonNull final RecordAccessService userGroupRecordAccessService,
+			@NonNull final UserGroupRepository userGroupRepository)
+	{
+		_role = role;
+		_userGroupRecordAccessService = userGroupRecordAccessService;
+		_userGroupRepository = userGroupRepository;
+	}
+
+	/** Always parse the SQL and build the access SQL where clause, without using the caches. */
+	@VisibleForTesting
+	UserRolePermissionsSqlHelpers disableCaches()
+	{
+		_useCaches = false;
+		return this;
+	}
+
 	private RecordAccessService getUserGroupRecordAccessService()
 	{
 		RecordAccessService result = _userGroupRecordAccessService;
@@ -67,6 +121,16 @@ final class UserRolePermissionsSqlHelpers
 		return result;
 	}
 
+	private UserGroupRepository getUserGroupRepository()
+	{
+		UserGroupRepository result = _userGroupRepository;
+		if (result == null)
+		{
+			result = _userGroupRepository = Adempiere.getBean(UserGroupRepository.class);
+		}
+		return result;
+	}
+
 	private UserId getUserId()
 	{
 		return _role.getUserId();
@@ -82,12 +146,12 @@ final class UserRolePermissionsSqlHelpers
 		return _role.isAccessAllOrgs();
 	}
 
-	private Set<UserGroupId> getUserGroupIds()
+	private ImmutableSet<UserGroupId> getUserGroupIds()
 	{
-		Set<UserGroupId> userGroupIds = this._userGroupIds;
+		ImmutableSet<UserGroupId> userGroupIds = this._userGroupIds;
 		if (userGroupIds == null)
 		{
-			this._userGroupIds = userGroupIds = Adempiere.getBean(UserGroupRepository.class).getAssignedGroupIdsByUserId(getUserId());
+			this._userGroupIds = userGroupIds = ImmutableSet.copyOf(getUserGroupRepository().getAssignedGroupIdsByUserId(getUserId()));
 		}
 		return userGroupIds;
 	}
@@ -151,7 +215,7 @@ final class UserRolePermissionsSqlHelpers
 			sqlOrderByAndOthers = null;
 		}
 
-		final String sqlAccessSqlWhereClause = buildAccessSQL(sqlSelectFromWhere, tableNameIn, fullyQualified, access);
+		final String sqlAccessSqlWhereClause = getAccessSQL(sqlSelectFromWhere, tableNameIn, fullyQualified, access);
 		if (Check.isEmpty(sqlAccessSqlWhereClause, true))
 		{
 			logger.trace("Final SQL (no access sql applied): {}", sql);
@@ -172,13 +236,47 @@ final class UserRolePermissionsSqlHelpers
 		return sqlFinal;
 	}	// addAccessSQL
 
+	private String getAccessSQL(
+			final String sqlSelectFromWhere,
+			final String tableNameIn,
+			final boolean fullyQualified,
+			final Access access)
+	{
+		if (!_useCaches)
+		{
+			return buildAccessSQL(sqlSelectFromWhere, tableNameIn, fullyQualified, access);
+		}
+
+		final AccessSqlKey key = AccessSqlKey.builder()
+				.permissions(_role)
+				.userGroupIds(getUserGroupIds())
+				.sqlSelectFromWhere(sqlSelectFromWhere)
+				.tableName(tableNameIn)
+				.fullyQualified(fullyQualified)
+				.access(access)
+				.build();
+		return accessSqlWhereClausesCache.getOrLoad(key, () -> buildAccessSQL(sqlSelectFromWhere, tableNameIn, fullyQualified, access));
+	}
+
+	@VisibleForTesting
+	static long getAccessSqlWhereClausesCacheSize()
+	{
+		return accessSqlWhereClausesCache.size();
+	}
+
+	@VisibleForTesting
+	static ParsedSql parseSql(@NonNull final String sql)
+	{
+		return parsedSqlsCache.getOrLoad(sql, ParsedSql::parse);
+	}
+
 	private final String buildAccessSQL(
 			final String sqlSelectFromWhere,
 			final String tableNameIn,
 			final boolean fullyQualified,
 			final Access access)
 	{
-		final ParsedSql parsedSql = ParsedSql.parse(sqlSelectFromWhere);
+		final ParsedSql parsedSql = _useCaches ? parseSql(sqlSelectFromWhere) : ParsedSql.parse(sqlSelectFromWhere);
 		final SqlSelect mainSqlSelect = parsedSql.getMainSqlSelect();
 
 		String mainTableName = mainSqlSelect.getFirstTableAliasOrTableName();
@@ -361,4 +459,20 @@ final class UserRolePermissionsSqlHelpers
 		sql.append(")");
 		return sql.toString();
 	}
+
+	@Value
+	@Builder
+	private static class AccessSqlKey
+	{
+		/** compared by identity, see {@link UserRolePermissionsSqlHelpers#accessSqlWhereClausesCache} */
+		@NonNull
+		UserRolePermissions permissions;
+		@NonNull
+		ImmutableSet<UserGroupId> userGroupIds;
+		@NonNull
+		String sqlSelectFromWhere;
+		String tableName;
+		boolean fullyQualified;
+		Access access;
+	}
 }
@@ -0,0 +1,194 @@
+package org.adempiere.ad.dao.impl;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.DBException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.IQuery;
+import org.compiere.util.DB;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import lombok.NonNull;
+
+/**
+ * Iterator which loads the records page by page, where each page is selected by seeking after the last key of the previous page ("keyset pagination").
+ * <p>
+ * Compared to {@link POBufferedIterator}, the pages are not selected by using an offset, so the database doesn't have to skip over all the previous rows when loading a page
+ * and a full table walk takes linear time.
+ * Compared to {@link GuaranteedPOBufferedIterator}, no selection is created upfront.
+ *
+ * @see IQuery#streamByKeyset(Class)
+ */
+/* package */final class KeysetPOBufferedIterator<T, ET extends T> implements Iterator<ET>
+{
+	private static final transient Logger logger = LogManager.getLogger(KeysetPOBufferedIterator.class);
+
+	/**
+	 * Loads the page which starts after the given key.
+	 */
+	@FunctionalInterface
+	/* package */ static interface PageLoader<ET>
+	{
+		/**
+		 * @param lastKey key of the last record of the previous page or {@code null} if the first page shall be loaded
+		 * @return the records ordered by key
+		 */
+		List<ET> loadPage(@Nullable Integer lastKey, int pageSize);
+	}
+
+	private final PageLoader<ET> pageLoader;
+	private final ToIntFunction<ET> keyExtractor;
+	private final Object description;
+
+	private int bufferSize = 1000;
+
+	/** Key of the last loaded record or {@code null} if no page was loaded yet */
+	private Integer lastKey = null;
+	private Iterator<ET> bufferIterator;
+	private boolean bufferFullyLoaded = false;
+
+	/* package */ KeysetPOBufferedIterator(
+			@NonNull final TypedSqlQuery<T> query,
+			@Nullable final Class<ET> clazz)
+	{
+		if (!DB.getDatabase().isPagingSupported())
+		{
+			throw new DBException("Database paging support is required in order to have " + KeysetPOBufferedIterator.class + " working");
+		}
+		if (query.hasLimitOrOffset())
+		{
+			throw new DBException("Queries with limit or offset are not supported by " + KeysetPOBufferedIterator.class + ": " + query);
+		}
+
+		// qualify the key column, so it's not ambiguous if the query's where clause contains joins or subqueries
+		final String keyColumnNameFQ = query.getTableName() + "." + query.getKeyColumnName(); // fails if there is not exactly one key column
+		final TypedSqlQuery<T> orderedQuery = query.copy()
+				.setOrderBy(keyColumnNameFQ);
+
+		this.pageLoader = (lastKey, pageSize) -> {
+			TypedSqlQuery<T> pageQuery = orderedQuery.copy();
+			if (lastKey != null)
+			{
+				// NOTE: addWhereClause is returning a new query
+				pageQuery = pageQuery.addWhereClause(true, keyColumnNameFQ + " > " + lastKey);
+			}
+			return pageQuery
+					.setLimit(pageSize)
+					.list(clazz);
+		};
+		this.keyExtractor = InterfaceWrapperHelper::getId;
+		this.description = orderedQuery;
+	}
+
+	@VisibleForTesting
+	/* package */ KeysetPOBufferedIterator(
+			@NonNull final PageLoader<ET> pageLoader,
+			@NonNull final ToIntFunction<ET> keyExtractor)
+	{
+		this.pageLoader = pageLoader;
+		this.keyExtractor = keyExtractor;
+		this.description = pageLoader;
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		return getBufferIterator().hasNext();
+	}
+
+	@Override
+	public ET next()
+	{
+		final Iterator<ET> it = getBufferIterator();
+		if (!it.hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		return it.next();
+	}
+
+	private Iterator<ET> getBufferIterator()
+	{
+		if (bufferIterator == null)
+		{
+			loadNextPage();
+		}
+		else if (!bufferIterator.hasNext() && bufferFullyLoaded)
+		{
+			// load the next page only if the current one was a full page, else we know there are no more records
+			loadNextPage();
+		}
+
+		return bufferIterator;
+	}
+
+	private void loadNextPage()
+	{
+		final List<ET> buffer = pageLoader.loadPage(lastKey, bufferSize);
+		bufferIterator = buffer.iterator();
+		bufferFullyLoaded = buffer.size() >= bufferSize;
+
+		if (!buffer.isEmpty())
+		{
+			lastKey = keyExtractor.applyAsInt(buffer.get(buffer.size() - 1));
+		}
+		else
+		{
+			bufferIterator = Collections.emptyIterator();
+		}
+
+		logger.debug("Loaded next page: bufferSize={}, lastKey={} => {} records (fullyLoaded={})", bufferSize, lastKey, buffer.size(), bufferFullyLoaded);
+	}
+
+	/**
+	 * Sets buffer/page size, i.e. the number of rows to be loaded by this iterator at a time.
+	 *
+	 * @see IQuery#OPTION_IteratorBufferSize
+	 */
+	public void setBufferSize(final int bufferSize)
+	{
+		Check.assume(bufferSize > 0, "bufferSize > 0");
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "KeysetPOBufferedIterator [bufferSize=" + bufferSize
+				+ ", lastKey=" + lastKey
+				+ ", query=" + description
+				+ "]";
+	}
+}
@@ -8,15 +8,43 @@ import org.compiere.util.Evaluatee;
 
 public abstract class AbstractLogicExpression implements ILogicExpression
 {
+	/**
+	 * If set to <code>true</code>, the expressions are evaluated using their {@link CompiledLogicExpression} instead of {@link LogicExpressionEvaluator}.
+	 */
+	public static final String SYSTEM_PROPERTY_CompiledEvaluation = "org.adempiere.ad.expression.api.impl.CompiledEvaluation";
+	private static final boolean compiledEvaluation = Boolean.getBoolean(SYSTEM_PROPERTY_CompiledEvaluation);
+
+	private transient CompiledLogicExpression _compiled; // lazy
+
 	@Override
 	public final Boolean evaluate(final Evaluatee ctx, final OnVariableNotFound onVariableNotFound)
 	{
+		if (compiledEvaluation)
+		{
+			return compile().evaluate(ctx, onVariableNotFound);
+		}
 		return LogicExpressionEvaluator.instance.evaluate(ctx, this, onVariableNotFound);
 	}
 
 	@Override
 	public LogicExpressionResult evaluateToResult(final Evaluatee ctx, final OnVariableNotFound onVariableNotFound) throws ExpressionEvaluationException
 	{
+		if (compiledEvaluation)
+		{
+			return compile().evaluateToResult(ctx, onVariableNotFound);
+		}
 		return LogicExpressionEvaluator.instance.evaluateToResult(ctx, this, onVariableNotFound);
 	}
+
+	/** @return this expression, compiled (the result is cached) */
+	/* package */ final CompiledLogicExpression compile()
+	{
+		CompiledLogicExpression compiled = _compiled;
+		if (compiled == null)
+		{
+			// NOTE: it's fine if more threads are compiling it at the same time, the outcome is the same
+			compiled = _compiled = CompiledLogicExpression.compile(this);
+		}
+		return compiled;
+	}
 }
@@ -0,0 +1,300 @@
+package org.adempiere.ad.expression.api.impl;
+
+import static org.adempiere.ad.expression.api.impl.LogicExpressionEvaluator.VALUE_NotFound;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.adempiere.ad.expression.api.LogicExpressionResult;
+import org.adempiere.ad.expression.api.impl.LogicExpressionEvaluator.BooleanEvaluator;
+import org.adempiere.ad.expression.exceptions.ExpressionEvaluationException;
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.CtxName;
+import org.compiere.util.Evaluatee;
+
+import com.google.common.base.MoreObjects;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * A logic expression which was compiled to a tree of lambdas.
+ * <p>
+ * Compared to {@link LogicExpressionEvaluator}, the expression tree is not inspected on each evaluation: the node types and operators are resolved once,
+ * constant operands are already trimmed and unquoted and each distinct {@link CtxName} got a slot, so that the context variables are resolved at most once per evaluation without any map lookups.
+ * <p>
+ * The results (including the used parameters and the handling of missing variables) are the same as the ones of {@link LogicExpressionEvaluator}.
+ */
+/* package */final class CompiledLogicExpression
+{
+	public static CompiledLogicExpression compile(@NonNull final ILogicExpression expression)
+	{
+		final CompiledLogicExpressionBuilder builder = new CompiledLogicExpressionBuilder();
+		final Node root = builder.compile(expression);
+		return new CompiledLogicExpression(expression, root, builder.getSlots());
+	}
+
+	@FunctionalInterface
+	private static interface Node
+	{
+		Boolean evaluateOrNull(EvaluationContext ctx);
+	}
+
+	@FunctionalInterface
+	private static interface Operand
+	{
+		/** @return value or {@link LogicExpressionEvaluator#VALUE_NotFound} */
+		String getValue(EvaluationContext ctx);
+	}
+
+	private final ILogicExpression expression;
+	private final Node root;
+	private final CtxName[] slots;
+
+	private CompiledLogicExpression(
+			@NonNull final ILogicExpression expression,
+			@NonNull final Node root,
+			@NonNull final CtxName[] slots)
+	{
+		this.expression = expression;
+		this.root = root;
+		this.slots = slots;
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.addValue(expression)
+				.toString();
+	}
+
+	public Boolean evaluate(final Evaluatee params, final OnVariableNotFound onVariableNotFound)
+	{
+		final EvaluationContext ctx = new EvaluationContext(params, onVariableNotFound);
+		final Boolean value = root.evaluateOrNull(ctx);
+		return value == null ? false : value;
+	}
+
+	public LogicExpressionResult evaluateToResult(final Evaluatee params, final OnVariableNotFound onVariableNotFound)
+	{
+		final EvaluationContext ctx = new EvaluationContext(params, onVariableNotFound);
+		final Boolean value = root.evaluateOrNull(ctx);
+		return LogicExpressionResult.of(value, expression, ctx.getUsedParameters());
+	}
+
+	private static AdempiereException wrapException(final Exception ex, final ILogicExpression expression, final EvaluationContext ctx)
+	{
+		return ExpressionEvaluationException.wrapIfNeeded(ex)
+				.setParameter("expression", expression)
+				.setParameter("context", ctx)
+				.appendParametersToMessage();
+	}
+
+	private static final class CompiledLogicExpressionBuilder
+	{
+		private final Map<CtxName, Integer> slotIndexByCtxName = new HashMap<>();
+		private final List<CtxName> slots = new ArrayList<>();
+
+		public CtxName[] getSlots()
+		{
+			return slots.toArray(new CtxName[slots.size()]);
+		}
+
+		public Node compile(final ILogicExpression expr)
+		{
+			if (expr == null)
+			{
+				throw new ExpressionEvaluationException("Cannot evaluate null expression");
+			}
+			else if (expr.isConstant())
+			{
+				final Boolean constantValue = expr.constantValue();
+				return ctx -> constantValue;
+			}
+			else if (expr instanceof LogicTuple)
+			{
+				return compileTuple((LogicTuple)expr);
+			}
+			else if (expr instanceof LogicExpression)
+			{
+				return compileLogicExpression((LogicExpression)expr);
+			}
+			else
+			{
+				throw new ExpressionEvaluationException("Unsupported ILogicExpression type: " + expr + " (class: " + expr.getClass() + ")");
+			}
+		}
+
+		private Node compileTuple(final LogicTuple tuple)
+		{
+			final Operand operand1 = compileOperand(tuple.getOperand1());
+			final Operand operand2 = compileOperand(tuple.getOperand2());
+			final String operator = tuple.getOperator();
+
+			return ctx -> {
+				try
+				{
+					final String value1 = operand1.getValue(ctx);
+					if (value1 == VALUE_NotFound)
+					{
+						return null;
+					}
+					final String value2 = operand2.getValue(ctx);
+					if (value2 == VALUE_NotFound)
+					{
+						return null;
+					}
+
+					return LogicExpressionEvaluator.evaluateLogicTuple(value1, operator, value2);
+				}
+				catch (final Exception ex)
+				{
+					throw wrapException(ex, tuple, ctx);
+				}
+			};
+		}
+
+		private Operand compileOperand(final Object operand)
+		{
+			if (operand instanceof CtxName)
+			{
+				final int slotIndex = getSlotIndex((CtxName)operand);
+				return ctx -> ctx.getValue(slotIndex);
+			}
+			else
+			{
+				// same as the interpreter does for constant operands
+				final String value = LogicExpressionEvaluator.stripQuotes(operand.toString().trim());
+				return ctx -> value;
+			}
+		}
+
+		private int getSlotIndex(final CtxName ctxName)
+		{
+			return slotIndexByCtxName.computeIfAbsent(ctxName, k -> {
+				slots.add(ctxName);
+				return slots.size() - 1;
+			});
+		}
+
+		private Node compileLogicExpression(final LogicExpression logicExpr)
+		{
+			final ILogicExpression leftExpression = logicExpr.getLeft();
+			if (leftExpression == null)
+			{
+				throw new ExpressionEvaluationException("Invalid compiled expression: " + logicExpr + " (left expression is missing)");
+			}
+			final Node left = compile(leftExpression);
+
+			final ILogicExpression rightExpression = logicExpr.getRight();
+			if (rightExpression == null)
+			{
+				return left;
+			}
+			final Node right = compile(rightExpression);
+
+			final BooleanEvaluator logicExprEvaluator = LogicExpressionEvaluator.getBooleanEvaluatorByOperator(logicExpr.getOperator());
+
+			return ctx -> {
+				try
+				{
+					return logicExprEvaluator.evaluateOrNull(() -> left.evaluateOrNull(ctx), () -> right.evaluateOrNull(ctx));
+				}
+				catch (final Exception ex)
+				{
+					throw wrapException(ex, logicExpr, ctx);
+				}
+			};
+		}
+	}
+
+	private final class EvaluationContext
+	{
+		private final Evaluatee params;
+		private final OnVariableNotFound onVariableNotFound;
+
+		private String[] values; // lazy
+		private int[] resolvedSlotIndexes; // lazy; the slots in the order they were resolved
+		private int resolvedSlotsCount = 0;
+
+		private EvaluationContext(final Evaluatee params, final OnVariableNotFound onVariableNotFound)
+		{
+			// NOTE: null is OK in case we really don't need the params
+			this.params = params;
+			this.onVariableNotFound = onVariableNotFound;
+		}
+
+		@Override
+		public String toString()
+		{
+			return MoreObjects.toStringHelper(this)
+					.add("onVariableNotFound", onVariableNotFound)
+					.add("params", params)
+					.toString();
+		}
+
+		public String getValue(final int slotIndex)
+		{
+			if (values == null)
+			{
+				values = new String[slots.length];
+				resolvedSlotIndexes = new int[slots.length];
+			}
+
+			String value = values[slotIndex];
+			if (value == null)
+			{
+				value = LogicExpressionEvaluator.resolveCtxName(slots[slotIndex], params, onVariableNotFound, this);
+				values[slotIndex] = value;
+				resolvedSlotIndexes[resolvedSlotsCount++] = slotIndex;
+			}
+			return value;
+		}
+
+		@Nullable
+		public Map<CtxName, String> getUsedParameters()
+		{
+			if (resolvedSlotsCount <= 0)
+			{
+				return null;
+			}
+
+			final Map<CtxName, String> usedParameters = new LinkedHashMap<>(resolvedSlotsCount);
+			for (int i = 0; i < resolvedSlotsCount; i++)
+			{
+				final int slotIndex = resolvedSlotIndexes[i];
+				usedParameters.put(slots[slotIndex], values[slotIndex]);
+			}
+			return usedParameters;
+		}
+	}
+}
@@ -515,6 +515,53 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 		}
 	}
 
+	/**
+	 * Gets the value of given context variable.
+	 *
+	 * @param evaluator evaluator description, used for error messages only
+	 * @return value or {@link #VALUE_NotFound}
+	 */
+	/* package */static String resolveCtxName(
+			final CtxName ctxName,
+			final Evaluatee params,
+			final OnVariableNotFound onVariableNotFound,
+			final Object evaluator)
+	{
+		final String value = ctxName.getValueAsString(params);
+		final boolean valueNotFound = Env.isPropertyValueNull(ctxName.getName(), value);
+
+		// Give it another try in case it's and ID (backward compatibility)
+		// Handling of ID compare (null => 0)
+		if (valueNotFound && Env.isNumericPropertyName(ctxName.getName()))
+		{
+			final String defaultValue = "0";
+			logger.trace("Evaluated {}={} (default value)", ctxName, defaultValue);
+			return defaultValue;
+		}
+
+		if (valueNotFound)
+		{
+			if (onVariableNotFound == OnVariableNotFound.ReturnNoResult)
+			{
+				// i.e. !ignoreUnparsable
+				logger.trace("Evaluated {}=<value not found>", ctxName);
+				return VALUE_NotFound;
+			}
+			else if (onVariableNotFound == OnVariableNotFound.Fail)
+			{
+				throw new ExpressionEvaluationException("Parameter '" + ctxName.getName() + "' not found in context"
+						+ "\n Context: " + params
+						+ "\n Evaluator: " + evaluator);
+			}
+			else
+			{
+				throw new ExpressionEvaluationException("Unknown " + OnVariableNotFound.class + " value: " + onVariableNotFound);
+			}
+		}
+
+		return value;
+	}
+
 	//
 	//
 	//
@@ -582,39 +629,7 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 
 		private final String resolveCtxName(final CtxName ctxName)
 		{
-			final String value = ctxName.getValueAsString(params);
-			final boolean valueNotFound = Env.isPropertyValueNull(ctxName.getName(), value);
-
-			// Give it another try in case it's and ID (backward compatibility)
-			// Handling of ID compare (null => 0)
-			if (valueNotFound && Env.isNumericPropertyName(ctxName.getName()))
-			{
-				final String defaultValue = "0";
-				logger.trace("Evaluated {}={} (default value)", ctxName, defaultValue);
-				return defaultValue;
-			}
-
-			if (valueNotFound)
-			{
-				if (onVariableNotFound == OnVariableNotFound.ReturnNoResult)
-				{
-					// i.e. !ignoreUnparsable
-					logger.trace("Evaluated {}=<value not found>", ctxName);
-					return VALUE_NotFound;
-				}
-				else if (onVariableNotFound == OnVariableNotFound.Fail)
-				{
-					throw new ExpressionEvaluationException("Parameter '" + ctxName.getName() + "' not found in context"
-							+ "\n Context: " + params
-							+ "\n Evaluator: " + this);
-				}
-				else
-				{
-					throw new ExpressionEvaluationException("Unknown " + OnVariableNotFound.class + " value: " + onVariableNotFound);
-				}
-			}
-
-			return value;
+			return LogicExpressionEvaluator.resolveCtxName(ctxName, params, onVariableNotFound, this);
 		}
 
 		@Nullable
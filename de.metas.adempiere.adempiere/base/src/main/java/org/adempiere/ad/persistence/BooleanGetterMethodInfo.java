@@ -32,7 +32,7 @@ import java.lang.reflect.Method;
  * @author tsa
  *
  */
-/* package */class BooleanGetterMethodInfo extends AbstractModelMethodInfo
+/* package */class BooleanGetterMethodInfo extends AbstractModelMethodInfo implements IModelColumnMethodInfo
 {
 
 	private final String propertyName;
@@ -46,33 +46,43 @@ import java.lang.reflect.Method;
 	}
 
 	@Override
-	public Object invoke(final IModelInternalAccessor model, final Object[] methodArgs_IGNORED) throws Exception
+	public Object invoke(final IModelInternalAccessor model, final Object[] methodArgs) throws Exception
 	{
-		// TODO: optimization: cache matched PropertyName and ColumnIndex
+		final String columnName = findColumnName(model);
+		return invoke(model, columnName, columnName != null ? model.getColumnIndex(columnName) : -1, methodArgs);
+	}
 
-		String propertyNameToUse = propertyName;
-		int ii = model.getColumnIndex(propertyNameToUse);
-		if (ii >= 0)
+	@Override
+	public String findColumnName(final IModelInternalAccessor model)
+	{
+		if (model.getColumnIndex(propertyName) >= 0)
 		{
-			return model.getValue(propertyNameToUse, ii, returnType);
+			return propertyName;
 		}
 
-		propertyNameToUse = "Is" + propertyName;
-		ii = model.getColumnIndex(propertyNameToUse);
-		if (ii >= 0)
+		final String isPropertyName = "Is" + propertyName;
+		if (model.getColumnIndex(isPropertyName) >= 0)
 		{
-			return model.getValue(propertyNameToUse, ii, returnType);
+			return isPropertyName;
 		}
 
-		propertyNameToUse = "is" + propertyName;
-		ii = model.getColumnIndex(propertyNameToUse);
-		if (ii >= 0)
+		final String isLowercasePropertyName = "is" + propertyName;
+		if (model.getColumnIndex(isLowercasePropertyName) >= 0)
 		{
-			return model.getValue(propertyNameToUse, ii, returnType);
+			return isLowercasePropertyName;
 		}
 
-		//
-		throw new IllegalArgumentException("Method " + getInterfaceMethod() + " is not supported on model " + model);
+		return null;
+	}
+
+	@Override
+	public Object invoke(final IModelInternalAccessor model, final String columnName, final int columnIndex, final Object[] methodArgs_IGNORED)
+	{
+		if (columnIndex < 0)
+		{
+			throw new IllegalArgumentException("Method " + getInterfaceMethod() + " is not supported on model " + model);
+		}
+		return model.getValue(columnName, columnIndex, returnType);
 	}
 
 }
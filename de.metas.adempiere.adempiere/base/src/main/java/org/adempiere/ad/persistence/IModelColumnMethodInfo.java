@@ -0,0 +1,47 @@
+package org.adempiere.ad.persistence;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import javax.annotation.Nullable;
+
+/**
+ * A model method which reads or writes one plain column of the model (e.g. {@code I_C_Invoice.getGrandTotal()}).
+ * <p>
+ * The column can be looked up once per table and then be accessed by its index, see {@link org.adempiere.ad.wrapper.GeneratedModelAccessor}.
+ */
+public interface IModelColumnMethodInfo extends IModelMethodInfo
+{
+	/**
+	 * @return the column which is read or written by this method on the given model or <code>null</code> if the model has no such column
+	 */
+	@Nullable
+	String findColumnName(IModelInternalAccessor model);
+
+	/**
+	 * Same as {@link #invoke(IModelInternalAccessor, Object[])}, but uses the given column, which was found by {@link #findColumnName(IModelInternalAccessor)}.
+	 *
+	 * @param columnName column name or <code>null</code> if no column was found
+	 * @param columnIndex column index of <code>columnName</code> or <code>-1</code> if no column was found
+	 */
+	Object invoke(IModelInternalAccessor model, @Nullable String columnName, int columnIndex, Object[] methodArgs) throws Exception;
+}
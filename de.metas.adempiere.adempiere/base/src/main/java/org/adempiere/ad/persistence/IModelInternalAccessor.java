@@ -74,6 +74,17 @@ public interface IModelInternalAccessor
 	 */
 	boolean setValue(String columnName, Object value);
 
+	/**
+	 * Same as {@link #setValue(String, Object)}, but the <code>columnIndex</code> of <code>columnName</code> was already looked up.
+	 * 
+	 * @param columnIndex column index of <code>columnName</code>; required for optimization purposes.
+	 * @return true if value was set; false if value was not set for different reasons
+	 */
+	default boolean setValue(final String columnName, final int columnIndex, final Object value)
+	{
+		return setValue(columnName, value);
+	}
+
 	/**
 	 * Same as {@link #setValue(String, Object)} but it will not check if the column is readonly or something, it will try to directly set the value.
 	 * 
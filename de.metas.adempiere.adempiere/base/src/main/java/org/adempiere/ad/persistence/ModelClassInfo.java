@@ -27,7 +27,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.reflections.ReflectionUtils;
 
@@ -43,8 +43,7 @@ class ModelClassInfo implements IModelClassInfo
 	private final Class<?> modelClass;
 	private final String tableName;
 
-	private Map<Method, IModelMethodInfo> _modelMethodInfos;
-	private final ReentrantLock modelMethodInfosLock = new ReentrantLock();
+	private volatile ConcurrentHashMap<Method, IModelMethodInfo> _modelMethodInfos;
 
 	private Set<String> _definedColumnNames = null;
 
@@ -83,51 +82,57 @@ class ModelClassInfo implements IModelClassInfo
 		return tableName;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * NOTE: this method is invoked for each getter/setter call on a model interface proxy, so it's lock-free once the method infos were created.
+	 */
 	@Override
 	public final IModelMethodInfo getMethodInfo(final Method method)
 	{
-		modelMethodInfosLock.lock();
-		try
-		{
-			final Map<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
-
-			IModelMethodInfo methodInfo = methodInfos.get(method);
-
-			//
-			// If methodInfo was not found, try to create it now
-			if (methodInfo == null)
-			{
-				methodInfo = introspector.createModelMethodInfo(method);
-				if (methodInfo == null)
-				{
-					throw new IllegalStateException("No method info was found for " + method + " in " + this);
-				}
-
-				methodInfos.put(method, methodInfo);
-			}
+		final Map<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
 
+		final IModelMethodInfo methodInfo = methodInfos.get(method);
+		if (methodInfo != null)
+		{
 			return methodInfo;
 		}
-		finally
+
+		//
+		// If methodInfo was not found, try to create it now
+		return methodInfos.computeIfAbsent(method, this::createModelMethodInfo);
+	}
+
+	private IModelMethodInfo createModelMethodInfo(final Method method)
+	{
+		final IModelMethodInfo methodInfo = introspector.createModelMethodInfo(method);
+		if (methodInfo == null)
 		{
-			modelMethodInfosLock.unlock();
+			throw new IllegalStateException("No method info was found for " + method + " in " + this);
 		}
+		return methodInfo;
 	}
 
 	/**
 	 * Gets the inner map of {@link Method} to {@link IModelMethodInfo}.
-	 * 
-	 * NOTE: this method is not thread safe
-	 * 
+	 *
 	 * @return
 	 */
 	private final Map<Method, IModelMethodInfo> getMethodInfos0()
 	{
-		if (_modelMethodInfos == null)
+		ConcurrentHashMap<Method, IModelMethodInfo> modelMethodInfos = _modelMethodInfos;
+		if (modelMethodInfos == null)
 		{
-			_modelMethodInfos = introspector.createModelMethodInfos(getModelClass());
+			synchronized (this)
+			{
+				modelMethodInfos = _modelMethodInfos;
+				if (modelMethodInfos == null)
+				{
+					modelMethodInfos = _modelMethodInfos = new ConcurrentHashMap<>(introspector.createModelMethodInfos(getModelClass()));
+				}
+			}
 		}
-		return _modelMethodInfos;
+		return modelMethodInfos;
 	}
 
 	@Override
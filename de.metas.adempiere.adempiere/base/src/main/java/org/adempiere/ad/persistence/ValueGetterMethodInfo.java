@@ -36,7 +36,7 @@ import org.compiere.model.PO;
  * @author tsa
  *
  */
-/* package */class ValueGetterMethodInfo extends AbstractModelMethodInfo
+/* package */class ValueGetterMethodInfo extends AbstractModelMethodInfo implements IModelColumnMethodInfo
 {
 	private static final Object DEFAULTVALUE_NotSupported = new Object();
 
@@ -74,11 +74,23 @@ import org.compiere.model.PO;
 	@Override
 	public Object invoke(final IModelInternalAccessor model, final Object[] methodArgs) throws Exception
 	{
-		Object value = null;
 		final int idx = model.getColumnIndex(propertyName);
-		if (idx >= 0)
+		return invoke(model, idx >= 0 ? propertyName : null, idx, methodArgs);
+	}
+
+	@Override
+	public String findColumnName(final IModelInternalAccessor model)
+	{
+		return model.getColumnIndex(propertyName) >= 0 ? propertyName : null;
+	}
+
+	@Override
+	public Object invoke(final IModelInternalAccessor model, final String columnName, final int columnIndex, final Object[] methodArgs_IGNORED)
+	{
+		Object value = null;
+		if (columnIndex >= 0)
 		{
-			value = model.getValue(propertyName, idx, returnType);
+			value = model.getValue(columnName, columnIndex, returnType);
 		}
 
 		if (value != null)
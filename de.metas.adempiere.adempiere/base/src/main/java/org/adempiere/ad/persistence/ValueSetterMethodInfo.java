@@ -33,7 +33,7 @@ import java.lang.reflect.Method;
  * @author tsa
  *
  */
-/* package */class ValueSetterMethodInfo extends AbstractModelMethodInfo
+/* package */class ValueSetterMethodInfo extends AbstractModelMethodInfo implements IModelColumnMethodInfo
 {
 
 	private final String propertyName;
@@ -53,4 +53,24 @@ import java.lang.reflect.Method;
 		return null;
 	}
 
+	@Override
+	public String findColumnName(final IModelInternalAccessor model)
+	{
+		return model.getColumnIndex(propertyName) >= 0 ? propertyName : null;
+	}
+
+	@Override
+	public Object invoke(final IModelInternalAccessor model, final String columnName, final int columnIndex, final Object[] methodArgs)
+	{
+		if (columnIndex < 0)
+		{
+			// let the model decide how to handle the missing column
+			return invoke(model, methodArgs);
+		}
+
+		final Object value = methodArgs[0];
+		model.setValue(columnName, columnIndex, value);
+		return null;
+	}
+
 }
@@ -33,6 +33,7 @@ import org.adempiere.ad.trx.api.ITrxRunConfig.TrxPropagation;
 import org.adempiere.ad.trx.exceptions.TrxException;
 import org.adempiere.ad.trx.exceptions.TrxNotFoundException;
 import org.adempiere.ad.trx.processor.api.ITrxItemProcessorExecutor;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.IContextAware;
 import org.compiere.util.TrxRunnable;
 
@@ -323,6 +324,26 @@ public interface ITrxManager extends ISingletonService
 	/** Run after current transaction is committed. If no transaction, the code is executed right away. */
 	void runAfterCommit(final Runnable runnable);
 
+	/**
+	 * Opens a "batched saves" scope on given transaction.
+	 * <p>
+	 * While the scope is open, the inserts and updates of eligible POs (i.e. no model interceptors, no after-save logic, no LOBs etc) are not executed right away,
+	 * but queued and sent to database in JDBC batches when the scope is closed or before any other statement is executed in that transaction.
+	 * <p>
+	 * Because the statements are executed later, an error caused by such a save is thrown when the queue is flushed.
+	 * Scopes can be nested; the queue is flushed when the outermost one is closed.
+	 *
+	 * <pre>
+	 * try (final IAutoCloseable batchedSaves = trxManager.batchedSaves(trxName))
+	 * {
+	 * 	// save POs
+	 * }
+	 * </pre>
+	 *
+	 * @param trxName transaction name; it's not allowed to be null
+	 */
+	IAutoCloseable batchedSaves(String trxName);
+
 	/**
 	 * Commit transaction for given <code>trxName</code>.
 	 *
@@ -218,6 +218,10 @@ public abstract class AbstractTrx implements ITrx
 	public boolean rollback(final ITrxSavepoint savepoint)
 	{
 		validateTrxSavepoint(savepoint);
+
+		// The pending batched saves were all issued after the savepoint was created
+		TrxBatchedSaves.discardIfAny(this);
+
 		try
 		{
 			return rollbackNative(savepoint);
@@ -283,6 +287,9 @@ public abstract class AbstractTrx implements ITrx
 	@Override
 	public ITrxSavepoint createTrxSavepoint(String name)
 	{
+		// Make sure the batched saves done so far are "before" the savepoint
+		TrxBatchedSaves.flushIfAny(this);
+
 		final ITrxSavepoint savepoint;
 		try
 		{
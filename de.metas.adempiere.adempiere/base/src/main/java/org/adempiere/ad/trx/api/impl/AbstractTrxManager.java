@@ -58,6 +58,7 @@ import org.adempiere.exceptions.DBException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.jmx.JMXRegistry;
 import org.adempiere.util.jmx.JMXRegistry.OnJMXAlreadyExistsPolicy;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.IContextAware;
 import org.adempiere.util.trxConstraints.api.IOpenTrxBL;
 import org.adempiere.util.trxConstraints.api.ITrxConstraints;
@@ -991,6 +992,14 @@ public abstract class AbstractTrxManager implements ITrxManager
 				.registerHandlingMethod(trx -> runnable.run());
 	}
 
+	@Override
+	public IAutoCloseable batchedSaves(final String trxName)
+	{
+		assertTrxNameNotNull(trxName);
+		final ITrx trx = get(trxName, OnTrxMissingPolicy.Fail);
+		return TrxBatchedSaves.openScope(trx);
+	}
+
 	@Override
 	public void commit(final String trxName)
 	{
@@ -0,0 +1,384 @@
+package org.adempiere.ad.trx.api.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.DB;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Queue of INSERT/UPDATE statements which were issued while a {@link ITrxManager#batchedSaves(String)} scope is open on a transaction.
+ * <p>
+ * The statements are kept in the order they were added. Consecutive statements on the same table are grouped and sent to database as one JDBC batch,
+ * so the order in which records are written (and hence the foreign key constraints) is preserved.
+ * <p>
+ * The queue is flushed:
+ * <ul>
+ * <li>when the outermost scope is closed
+ * <li>before any other statement is created in the same transaction (see {@link #flushBeforeStatement(String)}).
+ * We don't try to find out which tables a statement touches, because views, functions, triggers and foreign keys can read the pending records without naming their tables
+ * <li>before a savepoint is created and before the transaction is committed
+ * <li>when there are more than {@value #MAX_PENDING_STATEMENTS} pending statements
+ * </ul>
+ * The pending statements are discarded when the transaction is rolled back or closed.
+ * <p>
+ * Note that because the statements are executed later, a failing INSERT/UPDATE is reported when the queue is flushed and not when the record is saved.
+ */
+public final class TrxBatchedSaves
+{
+	private static final Logger logger = LogManager.getLogger(TrxBatchedSaves.class);
+
+	private static final String TRX_PROPERTY_Name = TrxBatchedSaves.class.getName();
+
+	@VisibleForTesting
+	static final int MAX_PENDING_STATEMENTS = 1000;
+
+	/** How many scopes are open, in all transactions. Used to skip the lookup when no scope is open at all, which is the usual case. */
+	private static final AtomicInteger openScopesCountGlobal = new AtomicInteger(0);
+
+	/* package */ static IAutoCloseable openScope(@NonNull final ITrx trx)
+	{
+		final TrxBatchedSaves batchedSaves = trx.getProperty(TRX_PROPERTY_Name, TrxBatchedSaves::new);
+		batchedSaves.onScopeOpened();
+		openScopesCountGlobal.incrementAndGet();
+
+		return new IAutoCloseable()
+		{
+			private boolean closed = false;
+
+			@Override
+			public void close()
+			{
+				if (closed)
+				{
+					return;
+				}
+				closed = true;
+
+				openScopesCountGlobal.decrementAndGet();
+				batchedSaves.onScopeClosed();
+			}
+		};
+	}
+
+	/**
+	 * @return the batched saves of given transaction if there is an open scope on it; {@code null} otherwise
+	 */
+	@Nullable
+	public static TrxBatchedSaves getActiveOrNull(@Nullable final String trxName)
+	{
+		final TrxBatchedSaves batchedSaves = getOrNull(trxName);
+		return batchedSaves != null && batchedSaves.isActive() ? batchedSaves : null;
+	}
+
+	@Nullable
+	private static TrxBatchedSaves getOrNull(@Nullable final String trxName)
+	{
+		if (openScopesCountGlobal.get() <= 0)
+		{
+			return null;
+		}
+
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		if (trxManager.isNull(trxName))
+		{
+			return null;
+		}
+
+		final ITrx trx = trxManager.getTrxOrNull(trxName);
+		return trx != null ? trx.getProperty(TRX_PROPERTY_Name) : null;
+	}
+
+	/**
+	 * Called right before a statement is created in given transaction. Flushes the pending statements, if any.
+	 */
+	public static void flushBeforeStatement(@Nullable final String trxName)
+	{
+		final TrxBatchedSaves batchedSaves = getOrNull(trxName);
+		if (batchedSaves != null)
+		{
+			batchedSaves.flush();
+		}
+	}
+
+	/* package */ static void flushIfAny(@NonNull final ITrx trx)
+	{
+		final TrxBatchedSaves batchedSaves = trx.getProperty(TRX_PROPERTY_Name);
+		if (batchedSaves != null)
+		{
+			batchedSaves.flush();
+		}
+	}
+
+	/* package */ static void discardIfAny(@NonNull final ITrx trx)
+	{
+		final TrxBatchedSaves batchedSaves = trx.getProperty(TRX_PROPERTY_Name);
+		if (batchedSaves != null)
+		{
+			batchedSaves.discard();
+		}
+	}
+
+	private final String trxName;
+
+	private int openScopesCount = 0;
+	private boolean flushing = false;
+
+	private final List<PendingRun> pendingRuns = new ArrayList<>();
+	private int pendingStatementsCount = 0;
+
+	private BatchExecutor batchExecutor = this::executeBatch;
+
+	private TrxBatchedSaves(@NonNull final ITrx trx)
+	{
+		this.trxName = trx.getTrxName();
+
+		trx.getTrxListenerManager()
+				.newEventListener(TrxEventTiming.BEFORE_COMMIT)
+				.invokeMethodJustOnce(false)
+				.registerHandlingMethod(innerTrx -> flush());
+		trx.getTrxListenerManager()
+				.newEventListener(TrxEventTiming.AFTER_ROLLBACK)
+				.invokeMethodJustOnce(false)
+				.registerHandlingMethod(innerTrx -> discard());
+		trx.getTrxListenerManager()
+				.newEventListener(TrxEventTiming.AFTER_CLOSE)
+				.registerHandlingMethod(innerTrx -> discard());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TrxBatchedSaves[trxName=" + trxName + ", pending=" + pendingStatementsCount + "]";
+	}
+
+	private synchronized void onScopeOpened()
+	{
+		openScopesCount++;
+	}
+
+	private void onScopeClosed()
+	{
+		final boolean lastScopeClosed;
+		synchronized (this)
+		{
+			openScopesCount--;
+			lastScopeClosed = openScopesCount <= 0;
+		}
+
+		if (lastScopeClosed)
+		{
+			flush();
+		}
+	}
+
+	public synchronized boolean isActive()
+	{
+		return openScopesCount > 0;
+	}
+
+	/**
+	 * Enqueues given INSERT/UPDATE statement.
+	 *
+	 * @param sql an SQL statement without parameters, which is expected to insert/update exactly one row
+	 */
+	public void add(@NonNull final String tableName, @NonNull final String sql)
+	{
+		final boolean flushNow;
+		synchronized (this)
+		{
+			final PendingRun lastRun = pendingRuns.isEmpty() ? null : pendingRuns.get(pendingRuns.size() - 1);
+			if (lastRun != null && lastRun.getTableName().equalsIgnoreCase(tableName))
+			{
+				lastRun.add(sql);
+			}
+			else
+			{
+				final PendingRun run = new PendingRun(tableName);
+				run.add(sql);
+				pendingRuns.add(run);
+			}
+			pendingStatementsCount++;
+
+			flushNow = pendingStatementsCount >= MAX_PENDING_STATEMENTS;
+		}
+
+		if (flushNow)
+		{
+			flush();
+		}
+	}
+
+	@VisibleForTesting
+	synchronized int getPendingStatementsCount()
+	{
+		return pendingStatementsCount;
+	}
+
+	@VisibleForTesting
+	synchronized void setBatchExecutor(@NonNull final BatchExecutor batchExecutor)
+	{
+		this.batchExecutor = batchExecutor;
+	}
+
+	/**
+	 * Executes all pending statements.
+	 *
+	 * @throws DBException if any statement failed or did not update exactly one row
+	 */
+	public void flush()
+	{
+		final List<PendingRun> runs;
+		synchronized (this)
+		{
+			if (flushing || pendingRuns.isEmpty())
+			{
+				return;
+			}
+
+			runs = new ArrayList<>(pendingRuns);
+			clearPending();
+			flushing = true;
+		}
+
+		try
+		{
+			for (final PendingRun run : runs)
+			{
+				batchExecutor.execute(run.getTableName(), run.getSqls());
+			}
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				flushing = false;
+			}
+		}
+	}
+
+	private void executeBatch(final String tableName, final List<String> sqls)
+	{
+		Statement stmt = null;
+		try
+		{
+			stmt = DB.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, trxName);
+			for (final String sql : sqls)
+			{
+				stmt.addBatch(sql);
+			}
+
+			final int[] updateCounts = stmt.executeBatch();
+			for (int i = 0; i < updateCounts.length; i++)
+			{
+				final int updateCount = updateCounts[i];
+				if (updateCount != 1 && updateCount != Statement.SUCCESS_NO_INFO)
+				{
+					throw new DBException("Expected one row to be inserted/updated but got " + updateCount + ": " + sqls.get(i));
+				}
+			}
+
+			logger.debug("Executed {} batched statements on {} in {}", sqls.size(), tableName, trxName);
+		}
+		catch (final SQLException ex)
+		{
+			final SQLException nextEx = ex.getNextException();
+			throw new DBException(nextEx != null ? nextEx : ex, "Batch of " + sqls.size() + " statements on " + tableName + ", first one: " + sqls.get(0));
+		}
+		finally
+		{
+			DB.close(stmt);
+		}
+	}
+
+	/**
+	 * Drops all pending statements, without executing them.
+	 */
+	public synchronized void discard()
+	{
+		if (pendingStatementsCount > 0)
+		{
+			logger.debug("Discarding {} pending statements of {}", pendingStatementsCount, trxName);
+		}
+		clearPending();
+	}
+
+	private void clearPending()
+	{
+		pendingRuns.clear();
+		pendingStatementsCount = 0;
+	}
+
+	@FunctionalInterface
+	@VisibleForTesting
+	interface BatchExecutor
+	{
+		/** Executes given statements of given table as one batch */
+		void execute(String tableName, List<String> sqls);
+	}
+
+	private static final class PendingRun
+	{
+		private final String tableName;
+		private final List<String> sqls = new ArrayList<>();
+
+		private PendingRun(final String tableName)
+		{
+			this.tableName = tableName;
+		}
+
+		public String getTableName()
+		{
+			return tableName;
+		}
+
+		public List<String> getSqls()
+		{
+			return sqls;
+		}
+
+		public void add(final String sql)
+		{
+			sqls.add(sql);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.persistence.IModelColumnMethodInfo;
+import org.adempiere.ad.persistence.IModelInternalAccessor;
+import org.adempiere.ad.persistence.IModelMethodInfo;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Base class of the model interface implementations which are generated by {@link ModelAccessorClassGenerator}.
+ * <p>
+ * Unlike a {@link Proxy}, a generated accessor implements each interface method directly, using the method's slot number:
+ * <ul>
+ * <li>plain column getters and setters ({@link IModelColumnMethodInfo}s) read and write their column by the column index which was looked up once per table
+ * <li>all other methods are delegated to their {@link IModelMethodInfo}, without looking it up on each call
+ * </ul>
+ * The methods of this class are named like {@code org.compiere.model.PO}'s, so they don't collide with the model interface's methods.
+ */
+public abstract class GeneratedModelAccessor
+{
+	private final ModelAccessorClass accessorClass;
+	private final InvocationHandler handler;
+	private final IModelInternalAccessor modelAccessor;
+	private final Object columnsKey;
+
+	/** lazy, see {@link #get_Columns()} */
+	private ModelAccessorClass.Columns _columns;
+
+	protected GeneratedModelAccessor(
+			final ModelAccessorClass accessorClass,
+			final InvocationHandler handler,
+			final IModelInternalAccessor modelAccessor,
+			final Object columnsKey)
+	{
+		this.accessorClass = accessorClass;
+		this.handler = handler;
+		this.modelAccessor = modelAccessor;
+		this.columnsKey = columnsKey;
+	}
+
+	/**
+	 * @return the handler of the given generated accessor (i.e. the handler which a {@link Proxy} of the same model would have) or <code>null</code> if the given object is not a generated accessor
+	 */
+	@Nullable
+	public static InvocationHandler getInvocationHandlerOrNull(@Nullable final Object model)
+	{
+		return model instanceof GeneratedModelAccessor ? ((GeneratedModelAccessor)model).handler : null;
+	}
+
+	/**
+	 * Invokes the column getter or setter which has the given slot.
+	 */
+	protected final Object invoke_ColumnMethod(final int slot, final Object[] methodArgs)
+	{
+		final ModelAccessorClass.Columns columns = get_Columns();
+		final IModelColumnMethodInfo methodInfo = (IModelColumnMethodInfo)accessorClass.getMethodInfo(slot);
+		try
+		{
+			return methodInfo.invoke(modelAccessor, columns.getColumnName(slot), columns.getColumnIndex(slot), methodArgs);
+		}
+		catch (final RuntimeException | Error ex)
+		{
+			throw ex;
+		}
+		catch (final Exception ex)
+		{
+			// same as a Proxy does, see Proxy's javadoc
+			throw new UndeclaredThrowableException(ex);
+		}
+	}
+
+	/**
+	 * Invokes the method which has the given slot and which is no plain column getter or setter.
+	 */
+	protected final Object invoke_Method(final int slot, final Object[] methodArgs)
+	{
+		final IModelMethodInfo methodInfo = accessorClass.getMethodInfo(slot);
+		try
+		{
+			return methodInfo.invoke(modelAccessor, methodArgs);
+		}
+		catch (final RuntimeException | Error ex)
+		{
+			throw ex;
+		}
+		catch (final Exception ex)
+		{
+			throw new UndeclaredThrowableException(ex);
+		}
+	}
+
+	private ModelAccessorClass.Columns get_Columns()
+	{
+		ModelAccessorClass.Columns columns = _columns;
+		if (columns == null)
+		{
+			// NOTE: no need to synchronize, Columns is immutable
+			columns = _columns = accessorClass.getColumns(columnsKey, modelAccessor);
+		}
+		return columns;
+	}
+}
@@ -0,0 +1,131 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationHandler;
+import java.util.List;
+
+import org.adempiere.ad.persistence.IModelColumnMethodInfo;
+import org.adempiere.ad.persistence.IModelInternalAccessor;
+import org.adempiere.ad.persistence.IModelMethodInfo;
+import org.adempiere.exceptions.AdempiereException;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * A {@link GeneratedModelAccessor} class, together with the method infos of its slots.
+ */
+final class ModelAccessorClass
+{
+	private final Class<?> interfaceClass;
+	private final IModelMethodInfo[] methodInfos;
+	private final MethodHandle constructor;
+
+	/** the columns which were looked up last; a model interface is usually bound to one table, so that's the only key we get */
+	private volatile Columns lastColumns;
+
+	ModelAccessorClass(
+			@NonNull final Class<?> interfaceClass,
+			@NonNull final List<IModelMethodInfo> methodInfos,
+			@NonNull final MethodHandle constructor)
+	{
+		this.interfaceClass = interfaceClass;
+		this.methodInfos = methodInfos.toArray(new IModelMethodInfo[methodInfos.size()]);
+		this.constructor = constructor;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ModelAccessorClass[" + interfaceClass.getName() + "]";
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T newInstance(final InvocationHandler handler, final IModelInternalAccessor modelAccessor, final Object columnsKey)
+	{
+		try
+		{
+			return (T)constructor.invoke(this, handler, modelAccessor, columnsKey);
+		}
+		catch (final Throwable ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex)
+					.appendParametersToMessage()
+					.setParameter("interfaceClass", interfaceClass);
+		}
+	}
+
+	IModelMethodInfo getMethodInfo(final int slot)
+	{
+		return methodInfos[slot];
+	}
+
+	Columns getColumns(@NonNull final Object columnsKey, final IModelInternalAccessor modelAccessor)
+	{
+		Columns columns = lastColumns;
+		if (columns == null || columns.key != columnsKey)
+		{
+			columns = lastColumns = new Columns(columnsKey, methodInfos, modelAccessor);
+		}
+		return columns;
+	}
+
+	/**
+	 * The column names and indexes of the column getters and setters, for all models with the same columns key.
+	 */
+	static final class Columns
+	{
+		private final Object key;
+		private final String[] columnNames;
+		private final int[] columnIndexes;
+
+		private Columns(final Object key, final IModelMethodInfo[] methodInfos, final IModelInternalAccessor modelAccessor)
+		{
+			this.key = key;
+			this.columnNames = new String[methodInfos.length];
+			this.columnIndexes = new int[methodInfos.length];
+
+			for (int slot = 0; slot < methodInfos.length; slot++)
+			{
+				final IModelMethodInfo methodInfo = methodInfos[slot];
+				final String columnName = methodInfo instanceof IModelColumnMethodInfo
+						? ((IModelColumnMethodInfo)methodInfo).findColumnName(modelAccessor)
+						: null;
+
+				columnNames[slot] = columnName;
+				columnIndexes[slot] = columnName != null ? modelAccessor.getColumnIndex(columnName) : -1;
+			}
+		}
+
+		String getColumnName(final int slot)
+		{
+			return columnNames[slot];
+		}
+
+		int getColumnIndex(final int slot)
+		{
+			return columnIndexes[slot];
+		}
+	}
+}
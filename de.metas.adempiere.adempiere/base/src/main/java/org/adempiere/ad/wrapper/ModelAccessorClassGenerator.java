@@ -0,0 +1,258 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.adempiere.ad.persistence.IModelClassInfo;
+import org.adempiere.ad.persistence.IModelColumnMethodInfo;
+import org.adempiere.ad.persistence.IModelInternalAccessor;
+import org.adempiere.ad.persistence.IModelMethodInfo;
+import org.adempiere.ad.persistence.ModelClassIntrospector;
+import org.adempiere.exceptions.AdempiereException;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Generates a {@link GeneratedModelAccessor} subclass which implements a given model interface.
+ * <p>
+ * Each method of the interface (and {@code equals}, {@code hashCode} and {@code toString}, which a {@link java.lang.reflect.Proxy} also forwards) gets a slot number and is implemented as
+ *
+ * <pre>
+ * return ($r)invoke_ColumnMethod(slot, args); // for an IModelColumnMethodInfo
+ * return ($r)invoke_Method(slot, args); // for all other methods
+ * </pre>
+ *
+ * The generated class is defined in this package and class loader.
+ * If the model interface can't be implemented that way (e.g. because it's not visible from here or its methods declare checked exceptions), an exception is thrown.
+ */
+final class ModelAccessorClassGenerator
+{
+	private static final List<Method> OBJECT_METHODS = findObjectMethods();
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, ModelAccessorClass.class, InvocationHandler.class, IModelInternalAccessor.class, Object.class);
+
+	private static final AtomicInteger nextClassNo = new AtomicInteger(1);
+
+	private ModelAccessorClassGenerator()
+	{
+	}
+
+	private static List<Method> findObjectMethods()
+	{
+		try
+		{
+			return Arrays.asList(
+					Object.class.getMethod("equals", Object.class),
+					Object.class.getMethod("hashCode"),
+					Object.class.getMethod("toString"));
+		}
+		catch (final NoSuchMethodException ex)
+		{
+			throw new AdempiereException("Cannot find java.lang.Object's methods", ex);
+		}
+	}
+
+	static ModelAccessorClass generate(final Class<?> interfaceClass) throws Exception
+	{
+		assertCanBeImplemented(interfaceClass);
+
+		final IModelClassInfo modelClassInfo = ModelClassIntrospector.getInstance().getModelClassInfo(interfaceClass);
+		if (modelClassInfo == null)
+		{
+			throw new AdempiereException("No model class info found for " + interfaceClass);
+		}
+
+		final List<Method> methods = collectMethods(interfaceClass);
+		final List<IModelMethodInfo> methodInfos = new ArrayList<>(methods.size());
+
+		final ClassLoader classLoader = GeneratedModelAccessor.class.getClassLoader();
+		final ClassPool pool = new ClassPool(true);
+		pool.appendClassPath(new LoaderClassPath(classLoader));
+		pool.appendClassPath(new LoaderClassPath(interfaceClass.getClassLoader()));
+
+		final String className = GeneratedModelAccessor.class.getName()
+				+ "$$" + interfaceClass.getName().replace('.', '_')
+				+ "$$" + nextClassNo.getAndIncrement();
+		final CtClass ctClass = pool.makeClass(className, pool.get(GeneratedModelAccessor.class.getName()));
+		try
+		{
+			ctClass.addInterface(pool.get(interfaceClass.getName()));
+
+			final CtConstructor ctConstructor = CtNewConstructor.make(
+					toCtClasses(pool, CONSTRUCTOR_TYPE.parameterArray()),
+					new CtClass[] {},
+					"{ super($$); }",
+					ctClass);
+			ctClass.addConstructor(ctConstructor);
+
+			for (final Method method : methods)
+			{
+				final int slot = methodInfos.size();
+				final IModelMethodInfo methodInfo = modelClassInfo.getMethodInfo(method);
+				methodInfos.add(methodInfo);
+
+				ctClass.addMethod(createMethod(ctClass, pool, method, slot, methodInfo instanceof IModelColumnMethodInfo));
+			}
+
+			final Class<?> generatedClass = ctClass.toClass(classLoader, GeneratedModelAccessor.class.getProtectionDomain());
+			final MethodHandle constructor = MethodHandles.lookup().findConstructor(generatedClass, CONSTRUCTOR_TYPE);
+			return new ModelAccessorClass(interfaceClass, methodInfos, constructor);
+		}
+		finally
+		{
+			ctClass.detach();
+		}
+	}
+
+	private static void assertCanBeImplemented(final Class<?> interfaceClass) throws ClassNotFoundException
+	{
+		if (!interfaceClass.isInterface() || !Modifier.isPublic(interfaceClass.getModifiers()))
+		{
+			throw new AdempiereException("Not a public interface: " + interfaceClass);
+		}
+
+		final Class<?> visibleInterfaceClass = Class.forName(interfaceClass.getName(), false, GeneratedModelAccessor.class.getClassLoader());
+		if (visibleInterfaceClass != interfaceClass)
+		{
+			throw new AdempiereException("Interface " + interfaceClass + " is not visible from the class loader of " + GeneratedModelAccessor.class);
+		}
+	}
+
+	/**
+	 * @return the methods which a {@link java.lang.reflect.Proxy} of the given interface would forward to its handler, one per signature
+	 */
+	private static List<Method> collectMethods(final Class<?> interfaceClass)
+	{
+		final Map<String, Method> methodsBySignature = new LinkedHashMap<>();
+		for (final Method method : OBJECT_METHODS)
+		{
+			methodsBySignature.put(toSignature(method), method);
+		}
+
+		for (final Method method : interfaceClass.getMethods())
+		{
+			if (Modifier.isStatic(method.getModifiers()))
+			{
+				continue;
+			}
+
+			assertAccessibleTypesAndNoCheckedExceptions(method);
+
+			final Method existingMethod = methodsBySignature.putIfAbsent(toSignature(method), method);
+			if (existingMethod != null && existingMethod.getReturnType() != method.getReturnType())
+			{
+				throw new AdempiereException("Methods " + existingMethod + " and " + method + " have different return types");
+			}
+		}
+
+		return new ArrayList<>(methodsBySignature.values());
+	}
+
+	private static String toSignature(final Method method)
+	{
+		return method.getName() + Arrays.toString(method.getParameterTypes());
+	}
+
+	private static void assertAccessibleTypesAndNoCheckedExceptions(final Method method)
+	{
+		for (final Class<?> exceptionType : method.getExceptionTypes())
+		{
+			if (!RuntimeException.class.isAssignableFrom(exceptionType) && !Error.class.isAssignableFrom(exceptionType))
+			{
+				// a Proxy would rethrow it instead of wrapping it into an UndeclaredThrowableException
+				throw new AdempiereException("Method " + method + " declares the checked exception " + exceptionType);
+			}
+		}
+
+		final List<Class<?>> types = new ArrayList<>(Arrays.asList(method.getParameterTypes()));
+		types.add(method.getReturnType());
+		for (Class<?> type : types)
+		{
+			while (type.isArray())
+			{
+				type = type.getComponentType();
+			}
+			if (!type.isPrimitive() && !Modifier.isPublic(type.getModifiers()))
+			{
+				throw new AdempiereException("Method " + method + " uses the non-public type " + type);
+			}
+		}
+	}
+
+	private static CtMethod createMethod(
+			final CtClass ctClass,
+			final ClassPool pool,
+			final Method method,
+			final int slot,
+			final boolean columnMethod) throws Exception
+	{
+		final CtMethod ctMethod = new CtMethod(
+				pool.get(method.getReturnType().getTypeName()),
+				method.getName(),
+				toCtClasses(pool, method.getParameterTypes()),
+				ctClass);
+		ctMethod.setModifiers(Modifier.PUBLIC);
+
+		// NOTE: like a Proxy, pass null instead of an empty array
+		final String methodArgs = method.getParameterCount() > 0 ? "$args" : "null";
+		final String invocation = (columnMethod ? "invoke_ColumnMethod(" : "invoke_Method(") + slot + ", " + methodArgs + ")";
+		if (method.getReturnType() == void.class)
+		{
+			ctMethod.setBody("{ " + invocation + "; }");
+		}
+		else
+		{
+			ctMethod.setBody("{ return ($r)" + invocation + "; }");
+		}
+
+		return ctMethod;
+	}
+
+	private static CtClass[] toCtClasses(final ClassPool pool, final Class<?>[] classes) throws NotFoundException
+	{
+		final CtClass[] ctClasses = new CtClass[classes.length];
+		for (int i = 0; i < classes.length; i++)
+		{
+			ctClasses[i] = pool.get(classes[i].getTypeName());
+		}
+		return ctClasses;
+	}
+}
@@ -0,0 +1,171 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.persistence.IModelInternalAccessor;
+import org.adempiere.exceptions.AdempiereException;
+import org.slf4j.Logger;
+
+import de.metas.logging.LogManager;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Creates the instances of model interfaces (e.g. {@code I_C_Order}).
+ * <p>
+ * {@link #newModelInstance(Class, InvocationHandler, IModelInternalAccessor, Object)} creates a {@link GeneratedModelAccessor} which implements the model interface directly,
+ * so that the getters and setters don't go through {@link InvocationHandler#invoke(Object, java.lang.reflect.Method, Object[])}.
+ * The accessor class is generated once per model interface.
+ * If it can't be generated, a {@link Proxy} is created instead.
+ * <p>
+ * {@link Proxy#newProxyInstance(ClassLoader, Class[], InvocationHandler)} looks up the proxy class and its constructor and then invokes that constructor reflectively, on each call.
+ * This factory resolves the proxy class' constructor once per model interface and keeps it as a {@link MethodHandle},
+ * so creating a wrapper is just a direct constructor invocation.
+ * <p>
+ * Set the system property {@value #SYSTEM_PROPERTY_GeneratedAccessorsDisabled} to {@code true} to always create proxies.
+ * Set the system property {@value #SYSTEM_PROPERTY_Disabled} to {@code true} to fall back to {@link Proxy#newProxyInstance(ClassLoader, Class[], InvocationHandler)}.
+ */
+public final class ModelProxyFactory
+{
+	public static final ModelProxyFactory instance = new ModelProxyFactory();
+
+	public static final String SYSTEM_PROPERTY_Disabled = "org.adempiere.ad.wrapper.ModelProxyFactory.Disabled";
+	public static final String SYSTEM_PROPERTY_GeneratedAccessorsDisabled = "org.adempiere.ad.wrapper.ModelProxyFactory.GeneratedAccessorsDisabled";
+
+	private static final Logger logger = LogManager.getLogger(ModelProxyFactory.class);
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, InvocationHandler.class);
+
+	private final boolean disabled = Boolean.getBoolean(SYSTEM_PROPERTY_Disabled);
+	private final boolean generatedAccessorsDisabled = disabled || Boolean.getBoolean(SYSTEM_PROPERTY_GeneratedAccessorsDisabled);
+	private final ConcurrentHashMap<Class<?>, MethodHandle> constructorsByInterfaceClass = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Class<?>, Optional<ModelAccessorClass>> accessorClassesByInterfaceClass = new ConcurrentHashMap<>();
+
+	private ModelProxyFactory()
+	{
+	}
+
+	/**
+	 * @return the handler of the given proxy or {@link GeneratedModelAccessor} or <code>null</code> if the given object is neither of them
+	 */
+	@Nullable
+	public static InvocationHandler getInvocationHandlerOrNull(@Nullable final Object model)
+	{
+		if (model == null)
+		{
+			return null;
+		}
+		if (Proxy.isProxyClass(model.getClass()))
+		{
+			return Proxy.getInvocationHandler(model);
+		}
+		return GeneratedModelAccessor.getInvocationHandlerOrNull(model);
+	}
+
+	/**
+	 * @param handler the handler of the proxy which is created if no {@link GeneratedModelAccessor} can be generated for <code>interfaceClass</code>.
+	 *            It shall invoke the method infos of <code>interfaceClass</code>' {@link org.adempiere.ad.persistence.IModelClassInfo} with the given <code>modelAccessor</code>.
+	 * @param modelAccessor the model's accessor, used by the generated accessor
+	 * @param columnsKey identifies the model's columns (e.g. the PO's {@code POInfo}); models with the same key shall have the same columns at the same indexes
+	 * @return a new instance of <code>interfaceClass</code> which reads and writes the model via the given <code>modelAccessor</code>
+	 */
+	public <T> T newModelInstance(
+			@NonNull final Class<T> interfaceClass,
+			@NonNull final InvocationHandler handler,
+			@NonNull final IModelInternalAccessor modelAccessor,
+			@NonNull final Object columnsKey)
+	{
+		if (generatedAccessorsDisabled)
+		{
+			return newProxyInstance(interfaceClass, handler);
+		}
+
+		final ModelAccessorClass accessorClass = accessorClassesByInterfaceClass
+				.computeIfAbsent(interfaceClass, ModelProxyFactory::generateAccessorClass)
+				.orElse(null);
+		if (accessorClass == null)
+		{
+			return newProxyInstance(interfaceClass, handler);
+		}
+
+		return accessorClass.newInstance(handler, modelAccessor, columnsKey);
+	}
+
+	private static Optional<ModelAccessorClass> generateAccessorClass(final Class<?> interfaceClass)
+	{
+		try
+		{
+			return Optional.of(ModelAccessorClassGenerator.generate(interfaceClass));
+		}
+		catch (final Exception | LinkageError ex)
+		{
+			logger.warn("Cannot generate the model accessor class for {}. Using proxies instead.", interfaceClass, ex);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @return a new instance of <code>interfaceClass</code> which forwards all method invocations to the given <code>handler</code>
+	 */
+	public <T> T newProxyInstance(@NonNull final Class<T> interfaceClass, @NonNull final InvocationHandler handler)
+	{
+		if (disabled)
+		{
+			return interfaceClass.cast(Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class<?>[] { interfaceClass }, handler));
+		}
+
+		final MethodHandle constructor = constructorsByInterfaceClass.computeIfAbsent(interfaceClass, ModelProxyFactory::findProxyConstructor);
+		try
+		{
+			return interfaceClass.cast(constructor.invoke(handler));
+		}
+		catch (final Throwable ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex)
+					.appendParametersToMessage()
+					.setParameter("interfaceClass", interfaceClass);
+		}
+	}
+
+	private static MethodHandle findProxyConstructor(final Class<?> interfaceClass)
+	{
+		final Class<?> proxyClass = Proxy.getProxyClass(interfaceClass.getClassLoader(), interfaceClass);
+		try
+		{
+			return MethodHandles.publicLookup().findConstructor(proxyClass, CONSTRUCTOR_TYPE);
+		}
+		catch (final NoSuchMethodException | IllegalAccessException ex)
+		{
+			throw new AdempiereException("Cannot access the proxy constructor of " + interfaceClass, ex);
+		}
+	}
+}
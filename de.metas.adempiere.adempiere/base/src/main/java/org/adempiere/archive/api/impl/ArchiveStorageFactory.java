@@ -29,11 +29,13 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.adempiere.archive.api.IArchiveStorageFactory;
 import org.adempiere.archive.spi.IArchiveStorage;
+import org.adempiere.archive.spi.impl.ContentAddressedArchiveStorage;
 import org.adempiere.archive.spi.impl.DBArchiveStorage;
 import org.adempiere.archive.spi.impl.FilesystemArchiveStorage;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.IClientDAO;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.proxy.Cached;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.model.I_AD_Client;
@@ -54,6 +56,7 @@ public class ArchiveStorageFactory implements IArchiveStorageFactory
 		// Register defaults
 		registerArchiveStorage(STORAGETYPE_Database, AccessMode.ALL, DBArchiveStorage.class);
 		registerArchiveStorage(STORAGETYPE_Filesystem, AccessMode.SERVER, FilesystemArchiveStorage.class);
+		registerArchiveStorage(STORAGETYPE_ContentAddressed, AccessMode.SERVER, ContentAddressedArchiveStorage.class);
 	}
 
 	private static final ArrayKey createStorageClassesKey(final String storageType, final AccessMode accessMode)
@@ -100,7 +103,8 @@ public class ArchiveStorageFactory implements IArchiveStorageFactory
 		final I_AD_Client client = Services.get(IClientDAO.class).retriveClient(ctx, adClientId);
 		if (client.isStoreArchiveOnFileSystem())
 		{
-			return STORAGETYPE_Filesystem;
+			final boolean contentAddressed = Services.get(ISysConfigBL.class).getBooleanValue(ContentAddressedArchiveStorage.SYSCONFIG_Enabled, false, adClientId);
+			return contentAddressed ? STORAGETYPE_ContentAddressed : STORAGETYPE_Filesystem;
 		}
 		else
 		{
@@ -112,7 +116,7 @@ public class ArchiveStorageFactory implements IArchiveStorageFactory
 	{
 		if (archive.isFileSystem())
 		{
-			return STORAGETYPE_Filesystem;
+			return ContentAddressedArchiveStorage.isContentAddressed(archive.getBinaryData()) ? STORAGETYPE_ContentAddressed : STORAGETYPE_Filesystem;
 		}
 		else
 		{
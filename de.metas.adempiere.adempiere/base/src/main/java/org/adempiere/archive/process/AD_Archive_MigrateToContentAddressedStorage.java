@@ -0,0 +1,103 @@
+package org.adempiere.archive.process;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.archive.api.IArchiveStorageFactory;
+import org.adempiere.archive.api.IArchiveStorageFactory.AccessMode;
+import org.adempiere.archive.spi.IArchiveStorage;
+import org.adempiere.archive.spi.impl.ContentAddressedArchiveStorage;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.I_AD_Archive;
+
+import com.google.common.base.Stopwatch;
+
+import de.metas.process.JavaProcess;
+import de.metas.process.RunOutOfTrx;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Moves the data of all archives of the current client which are stored in database to the {@link ContentAddressedArchiveStorage}.
+ * <p>
+ * Each archive is migrated in its own transaction, so the process can be interrupted and started again.
+ */
+public class AD_Archive_MigrateToContentAddressedStorage extends JavaProcess
+{
+	private final IQueryBL queryBL = Services.get(IQueryBL.class);
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
+	private final IArchiveStorageFactory archiveStorageFactory = Services.get(IArchiveStorageFactory.class);
+
+	@Override
+	@RunOutOfTrx
+	protected String doIt()
+	{
+		final IArchiveStorage fromStorage = archiveStorageFactory.getArchiveStorage(getCtx(), IArchiveStorageFactory.STORAGETYPE_Database, AccessMode.SERVER);
+		final ContentAddressedArchiveStorage toStorage = (ContentAddressedArchiveStorage)archiveStorageFactory.getArchiveStorage(getCtx(), IArchiveStorageFactory.STORAGETYPE_ContentAddressed, AccessMode.SERVER);
+
+		final List<Integer> archiveIds = queryBL.createQueryBuilder(I_AD_Archive.class)
+				.addOnlyContextClient()
+				.addEqualsFilter(I_AD_Archive.COLUMNNAME_IsFileSystem, false)
+				.orderBy(I_AD_Archive.COLUMNNAME_AD_Archive_ID)
+				.create()
+				.listIds();
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		int countMigrated = 0;
+		int countErrors = 0;
+		for (final int archiveId : archiveIds)
+		{
+			try
+			{
+				trxManager.runInNewTrx(() -> migrate(archiveId, fromStorage, toStorage));
+				countMigrated++;
+			}
+			catch (final Exception ex)
+			{
+				countErrors++;
+				addLog("Failed migrating AD_Archive_ID={}: {}", archiveId, ex.getLocalizedMessage());
+				log.warn("Failed migrating AD_Archive_ID={}", archiveId, ex);
+			}
+		}
+
+		addLog("Migrated {} archives in {} ({} errors)", countMigrated, stopwatch, countErrors);
+		return MSG_OK;
+	}
+
+	private void migrate(final int archiveId, final IArchiveStorage fromStorage, final ContentAddressedArchiveStorage toStorage)
+	{
+		final I_AD_Archive archive = InterfaceWrapperHelper.load(archiveId, I_AD_Archive.class);
+
+		final InputStream data = fromStorage.getBinaryDataAsStream(archive);
+		if (data == null)
+		{
+			return;
+		}
+
+		toStorage.setBinaryData(archive, data);
+		InterfaceWrapperHelper.save(archive);
+	}
+}
@@ -0,0 +1,208 @@
+package org.adempiere.archive.spi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.service.IDeveloperModeBL;
+import org.adempiere.service.IClientDAO;
+import org.compiere.model.I_AD_Archive;
+import org.compiere.model.I_AD_Client;
+import org.compiere.util.Env;
+import org.compiere.util.Ini;
+import org.compiere.util.Util;
+import org.slf4j.Logger;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Stores the archive data in a {@link ContentAddressedBlobStore} below the client's archive path.
+ * <p>
+ * The archive's <code>BinaryData</code> only contains a reference to the blob (see {@link #isContentAddressed(byte[])}),
+ * so archives with the same content (e.g. re-printed documents) share one compressed file on disk.
+ * The blob's hash is also stored in the (indexed) <code>ContentHash</code> column, so the references to a blob can be looked up quickly.
+ * <p>
+ * Blobs are not deleted together with their archives; call {@link #deleteBlobIfUnreferenced(String, String)} after the deletion was committed.
+ */
+public class ContentAddressedArchiveStorage extends AbstractArchiveStorage
+{
+	private static final Logger logger = LogManager.getLogger(ContentAddressedArchiveStorage.class);
+
+	/** Per client sysconfig; if enabled (and the client stores its archives on file system), new archives are stored content-addressed */
+	public static final String SYSCONFIG_Enabled = "org.adempiere.archive.spi.impl.ContentAddressedArchiveStorage.Enabled";
+
+	private static final String BINARYDATA_PREFIX = "CAS:";
+	private static final String BLOBS_FOLDER_NAME = "cas";
+
+	/** Blobs which were (re)stored more recently than this are not deleted, because they might be referenced by a not yet committed archive */
+	private static final Duration DELETE_GRACE_PERIOD = Duration.ofHours(1);
+
+	private ContentAddressedBlobStore blobStore;
+
+	@Override
+	public void init(final Properties ctx, final int adClientId)
+	{
+		final I_AD_Client client = Services.get(IClientDAO.class).retriveClient(ctx, adClientId);
+		final String archivePathRoot = FilesystemArchiveStorage.getArchivePath(client);
+		this.blobStore = new ContentAddressedBlobStore(Paths.get(archivePathRoot, BLOBS_FOLDER_NAME));
+		logger.info("Blob store: {}, Config={}", blobStore, client);
+	}
+
+	private void checkContext()
+	{
+		Check.assume(!Ini.isSwingClient() || Services.get(IDeveloperModeBL.class).isEnabled(), "Server mode required");
+		Check.assumeNotNull(blobStore, "ContentAddressedArchiveStorage is initialized");
+	}
+
+	@Override
+	public I_AD_Archive newArchive(final Properties ctx, final String trxName)
+	{
+		checkContext();
+
+		final I_AD_Archive archive = super.newArchive(ctx, trxName);
+		archive.setIsFileSystem(true);
+		return archive;
+	}
+
+	@Override
+	public byte[] getBinaryData(final I_AD_Archive archive)
+	{
+		final InputStream in = getBinaryDataAsStream(archive);
+		return in != null ? Util.readBytes(in) : null;
+	}
+
+	/**
+	 * @return a stream which decompresses the blob while it's read or <code>null</code> if the archive has no data
+	 */
+	@Override
+	public InputStream getBinaryDataAsStream(final I_AD_Archive archive)
+	{
+		checkContext();
+
+		final String hash = extractHashOrNull(archive.getBinaryData());
+		if (hash == null)
+		{
+			return null;
+		}
+		return blobStore.get(hash);
+	}
+
+	@Override
+	public void setBinaryData(final I_AD_Archive archive, final byte[] data)
+	{
+		if (data == null || data.length == 0)
+		{
+			throw new IllegalArgumentException("data is NULL");
+		}
+
+		setBinaryData(archive, new ByteArrayInputStream(data));
+	}
+
+	/**
+	 * Stores the content of given stream (without loading it into memory) and sets the archive's reference to it. The stream is closed.
+	 */
+	public void setBinaryData(@NonNull final I_AD_Archive archive, @NonNull final InputStream data)
+	{
+		checkContext();
+
+		final String hash = blobStore.put(data);
+		archive.setBinaryData((BINARYDATA_PREFIX + hash).getBytes(StandardCharsets.UTF_8));
+		archive.setContentHash(hash);
+		archive.setIsFileSystem(true);
+	}
+
+	/**
+	 * Deletes the given blob if no archive is referencing it anymore.
+	 * <p>
+	 * The references are checked in the given transaction and once more right before the blob file is deleted
+	 * (see {@link ContentAddressedBlobStore#deleteIfOlderThan(String, Duration, java.util.function.BooleanSupplier)}).
+	 * Call this after the transaction which removed the last reference was committed, so that the blob is not lost if that transaction is rolled back.
+	 */
+	public void deleteBlobIfUnreferenced(@NonNull final String hash, @Nullable final String trxName)
+	{
+		checkContext();
+
+		if (blobStore.deleteIfOlderThan(hash, DELETE_GRACE_PERIOD, () -> isBlobReferenced(hash, trxName)))
+		{
+			logger.debug("Deleted unreferenced blob {}", hash);
+		}
+	}
+
+	/**
+	 * @return true if any archive which is visible in the given transaction references the given blob.
+	 *         NOTE: the archives of <b>all</b> clients are considered, because the archive paths of several clients may point to the same directory and therefore share their blobs.
+	 */
+	public static boolean isBlobReferenced(@NonNull final String hash, @Nullable final String trxName)
+	{
+		// NOTE: AD_Archive.ContentHash is indexed, so we don't have to scan the archives' BinaryData
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_AD_Archive.class, Env.getCtx(), trxName)
+				.addEqualsFilter(I_AD_Archive.COLUMNNAME_ContentHash, hash)
+				.create()
+				.match();
+	}
+
+	/**
+	 * @return true if given archive <code>BinaryData</code> is a reference to a content addressed blob
+	 */
+	public static boolean isContentAddressed(@Nullable final byte[] binaryData)
+	{
+		return extractHashOrNull(binaryData) != null;
+	}
+
+	/**
+	 * @return the hash of the blob referenced by given archive <code>BinaryData</code> or <code>null</code> if it's not such a reference
+	 */
+	@Nullable
+	public static String extractHashOrNull(@Nullable final byte[] binaryData)
+	{
+		if (binaryData == null || binaryData.length <= BINARYDATA_PREFIX.length())
+		{
+			return null;
+		}
+
+		final String binaryDataStr = new String(binaryData, StandardCharsets.UTF_8);
+		if (!binaryDataStr.startsWith(BINARYDATA_PREFIX))
+		{
+			return null;
+		}
+		return binaryDataStr.substring(BINARYDATA_PREFIX.length());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ContentAddressedArchiveStorage [" + blobStore + "]";
+	}
+}
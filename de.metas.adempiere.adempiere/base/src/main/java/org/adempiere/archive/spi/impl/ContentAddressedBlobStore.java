@@ -0,0 +1,269 @@
+package org.adempiere.archive.spi.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import com.google.common.io.BaseEncoding;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Stores blobs in a directory, identified by the SHA-256 hash of their content.
+ * <p>
+ * Layout: {@code <root>/ab/cd/abcd...ef.gz}, i.e. the blobs are sharded by the first two bytes of their hash, so no directory gets too many files.
+ * The blobs are gzip-compressed while they are written and decompressed while they are read, so the content is never held in memory as a whole.
+ * <p>
+ * Storing the same content twice results in the same blob.
+ */
+public final class ContentAddressedBlobStore
+{
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+	private static final String BLOB_FILE_EXTENSION = ".gz";
+	private static final String TRASH_FILE_EXTENSION = ".deleting";
+	private static final String TEMP_DIR_NAME = "tmp";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path rootDir;
+
+	public ContentAddressedBlobStore(@NonNull final Path rootDir)
+	{
+		this.rootDir = rootDir;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ContentAddressedBlobStore[" + rootDir + "]";
+	}
+
+	/**
+	 * Stores the content of given stream and closes the stream.
+	 * <p>
+	 * If there is already a blob with the same content, it is kept (and its last-modified time is updated).
+	 *
+	 * @return the hash of the content, which identifies the blob
+	 */
+	public String put(@NonNull final InputStream in)
+	{
+		Path tempFile = null;
+		try
+		{
+			// NOTE: the temp file is created in our root directory, so it can be moved atomically to its final location
+			final Path tempDir = Files.createDirectories(rootDir.resolve(TEMP_DIR_NAME));
+			tempFile = Files.createTempFile(tempDir, "blob", ".tmp");
+
+			final MessageDigest digest = newMessageDigest();
+			try (final InputStream digestIn = new DigestInputStream(in, digest);
+					final OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE), BUFFER_SIZE))
+			{
+				final byte[] buffer = new byte[BUFFER_SIZE];
+				int length;
+				while ((length = digestIn.read(buffer)) > 0)
+				{
+					out.write(buffer, 0, length);
+				}
+			}
+
+			final String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+			final Path blobFile = getBlobFile(hash);
+			if (!touchIfExists(blobFile))
+			{
+				Files.createDirectories(blobFile.getParent());
+				Files.move(tempFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+			}
+
+			return hash;
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Failed storing blob in " + rootDir, ex);
+		}
+		finally
+		{
+			deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * @return stream which decompresses the blob while it's read; the caller is responsible to close it
+	 * @throws AdempiereException if there is no such blob
+	 */
+	public InputStream get(@NonNull final String hash)
+	{
+		final Path blobFile = getBlobFile(hash);
+		try
+		{
+			return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(blobFile), BUFFER_SIZE), BUFFER_SIZE);
+		}
+		catch (final NoSuchFileException ex)
+		{
+			throw new AdempiereException("No blob found for " + hash + " in " + rootDir, ex);
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Failed reading blob " + hash + " from " + rootDir, ex);
+		}
+	}
+
+	public boolean exists(@NonNull final String hash)
+	{
+		return Files.exists(getBlobFile(hash));
+	}
+
+	/**
+	 * Deletes the given blob, unless it was stored (or re-stored) during the last <code>minAge</code> or the given <code>isReferenced</code> says it's still needed.
+	 * <p>
+	 * The age check protects blobs which were just re-used by a {@link #put(InputStream)} in a not yet committed transaction.
+	 * <p>
+	 * To not race with a concurrent {@link #put(InputStream)} of the same content (also from another process which shares the directory),
+	 * the blob is first moved to the temp directory. Then its age and references are checked again;
+	 * if it's still needed, it's moved back, otherwise the moved file is deleted.
+	 * {@link #put(InputStream)} stores the blob anew if it disappears while being re-used.
+	 *
+	 * @return true if the blob was deleted
+	 */
+	public boolean deleteIfOlderThan(
+			@NonNull final String hash,
+			@NonNull final Duration minAge,
+			@NonNull final BooleanSupplier isReferenced)
+	{
+		final Path blobFile = getBlobFile(hash);
+		try
+		{
+			if (isYoungerThan(blobFile, minAge) || isReferenced.getAsBoolean())
+			{
+				return false;
+			}
+
+			final Path tempDir = Files.createDirectories(rootDir.resolve(TEMP_DIR_NAME));
+			final Path trashFile = tempDir.resolve(hash + "." + UUID.randomUUID() + TRASH_FILE_EXTENSION);
+			Files.move(blobFile, trashFile, StandardCopyOption.ATOMIC_MOVE);
+
+			// NOTE: the blob might have been re-stored in the meantime
+			if (isYoungerThan(trashFile, minAge) || isReferenced.getAsBoolean())
+			{
+				// if a concurrent put() already stored the blob anew, we just replace it by the same content
+				Files.move(trashFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+				return false;
+			}
+
+			Files.delete(trashFile);
+			return true;
+		}
+		catch (final NoSuchFileException ex)
+		{
+			return false;
+		}
+		catch (final IOException ex)
+		{
+			throw new AdempiereException("Failed deleting blob " + hash + " from " + rootDir, ex);
+		}
+	}
+
+	private static boolean isYoungerThan(final Path file, final Duration minAge) throws IOException
+	{
+		final Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+		return lastModified.plus(minAge).isAfter(Instant.now());
+	}
+
+	/* package */ Path getBlobFile(@NonNull final String hash)
+	{
+		if (!HASH_PATTERN.matcher(hash).matches())
+		{
+			throw new AdempiereException("Invalid blob hash: " + hash);
+		}
+
+		return rootDir
+				.resolve(hash.substring(0, 2))
+				.resolve(hash.substring(2, 4))
+				.resolve(hash + BLOB_FILE_EXTENSION);
+	}
+
+	private static MessageDigest newMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException ex)
+		{
+			throw new AdempiereException("Hash algorithm " + HASH_ALGORITHM + " is not available", ex);
+		}
+	}
+
+	/**
+	 * @return false if the file doesn't exist (anymore), e.g. because it was just deleted by {@link #deleteIfOlderThan(String, Duration, BooleanSupplier)}
+	 */
+	private static boolean touchIfExists(final Path file) throws IOException
+	{
+		try
+		{
+			Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+			return true;
+		}
+		catch (final NoSuchFileException ex)
+		{
+			return false;
+		}
+	}
+
+	private static void deleteIfExists(final Path file)
+	{
+		if (file == null)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.deleteIfExists(file);
+		}
+		catch (final IOException ex)
+		{
+			// ignore; it's just a temp file
+		}
+	}
+}
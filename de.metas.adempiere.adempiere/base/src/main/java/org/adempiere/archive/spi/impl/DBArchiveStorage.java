@@ -25,6 +25,7 @@ package org.adempiere.archive.spi.impl;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.Properties;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
@@ -106,6 +107,34 @@ public class DBArchiveStorage extends AbstractArchiveStorage
 		return inflatedData;
 	} // getBinaryData
 
+	/**
+	 * @return a stream which inflates the data while it's read, so only the deflated data is kept in memory
+	 */
+	@Override
+	public InputStream getBinaryDataAsStream(final I_AD_Archive archive)
+	{
+		final byte[] deflatedData = archive.getBinaryData();
+		if (deflatedData == null || deflatedData.length == 0)
+		{
+			return null;
+		}
+
+		try
+		{
+			final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(deflatedData));
+			final ZipEntry entry = zip.getNextEntry();
+			if (entry == null) // no data
+			{
+				return null;
+			}
+			return zip;
+		}
+		catch (Exception e)
+		{
+			throw new AdempiereException(e);
+		}
+	}
+
 	@Override
 	public void setBinaryData(I_AD_Archive archive, byte[] inflatedData)
 	{
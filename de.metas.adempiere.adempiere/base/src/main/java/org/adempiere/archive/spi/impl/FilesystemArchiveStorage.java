@@ -23,10 +23,14 @@ package org.adempiere.archive.spi.impl;
  */
 
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.Properties;
 import org.slf4j.Logger;
 import de.metas.logging.LogManager;
@@ -87,7 +91,7 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 		}
 	}
 
-	private static final String getArchivePath(final I_AD_Client config)
+	/* package */ static String getArchivePath(final I_AD_Client config)
 	{
 		String archivePathRoot;
 		if (File.separatorChar == '\\')
@@ -138,6 +142,43 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 	 */
 	@Override
 	public byte[] getBinaryData(final I_AD_Archive archive)
+	{
+		final File file = getFile(archive);
+		if (file == null)
+		{
+			return null;
+		}
+
+		final byte[] dataEntry = Util.readBytes(file);
+		return dataEntry;
+	}
+
+	/**
+	 * @return a stream which reads the archive file directly, without loading it into memory
+	 */
+	@Override
+	public InputStream getBinaryDataAsStream(final I_AD_Archive archive)
+	{
+		final File file = getFile(archive);
+		if (file == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return new BufferedInputStream(new FileInputStream(file));
+		}
+		catch (IOException ioe)
+		{
+			throw new AdempiereException(ioe.getLocalizedMessage(), ioe);
+		}
+	}
+
+	/**
+	 * @return the file where the archive data is stored or <code>null</code> if the archive has no data
+	 */
+	private File getFile(final I_AD_Archive archive)
 	{
 		checkContext();
 		
@@ -175,16 +216,12 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 				throw new AdempiereException("File not found: " + file.getAbsolutePath());
 			}
 
-			final byte[] dataEntry = Util.readBytes(file);
-			return dataEntry;
+			return file;
 		}
-		catch (IOException ioe)
+		catch (UnsupportedEncodingException uee)
 		{
-			// I/O error
-			// logger.error(ioe.getLocalizedMessage(), ioe);
-			throw new AdempiereException(ioe.getLocalizedMessage(), ioe);
+			throw new AdempiereException(uee.getLocalizedMessage(), uee);
 		}
-		// return null;
 	}
 
 	/**
@@ -28,15 +28,28 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.LoggerLoggable;
 import org.adempiere.util.api.IParams;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.IMutable;
 import org.adempiere.util.lang.Mutable;
 import org.compiere.Adempiere;
@@ -47,6 +60,8 @@ import org.compiere.util.ISqlUpdateReturnProcessor;
 import org.compiere.util.TrxRunnableAdapter;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 
 import ch.qos.logback.classic.Level;
@@ -81,6 +96,10 @@ public abstract class AbstractImportProcess<ImportRecordType> implements IImport
 	public static final String COLUMNNAME_Processing = "Processing";
 	public static final String COLUMNNAME_C_DataImport_ID = "C_DataImport_ID";
 
+	@VisibleForTesting
+	static final String SYSCONFIG_ThreadsCount = "org.adempiere.impexp.AbstractImportProcess.ThreadsCount";
+	private static final int DEFAULT_ThreadsCount = 1;
+
 	// services
 	protected final transient Logger log = LogManager.getLogger(getClass());
 	protected final ITrxManager trxManager = Services.get(ITrxManager.class);
@@ -287,99 +306,270 @@ public abstract class AbstractImportProcess<ImportRecordType> implements IImport
 
 	/**
 	 * Actual data import.
+	 * <p>
+	 * If the {@code AD_SysConfig} {@value #SYSCONFIG_ThreadsCount} is greater than one and this process provides an {@link #getImportGroupKeyColumnName()},
+	 * the import records are imported in parallel (see {@link #importDataInParallel(ImportProcessResult, String, int)}).
 	 *
 	 * @param importResult
 	 */
 	protected final void importData(final ImportProcessResult importResult)
 	{
-		final Properties ctx = getCtx();
-
-		//
-		// Build SQL
-		final String whereClause = getWhereClause();
-		final StringBuilder sql = new StringBuilder("SELECT * FROM " + getImportTableName() + " WHERE " + COLUMNNAME_I_IsImported + "='N' ").append(whereClause);
-		// ORDER BY
-		sql.append(" ORDER BY ");
-		final String sqlOrderBy = getImportOrderBySql();
-		if (!Check.isEmpty(sqlOrderBy, true))
+		final String groupKeyColumnName = getImportGroupKeyColumnName();
+		final int threadsCount = getThreadsCount();
+		try
 		{
-			sql.append(sqlOrderBy);
+			if (threadsCount > 1 && !Check.isEmpty(groupKeyColumnName, true))
+			{
+				importDataInParallel(importResult, groupKeyColumnName, threadsCount);
+			}
+			else
+			{
+				importDataSequentially(importResult);
+			}
+
+			afterImport();
 		}
-		else
+		finally
 		{
-			sql.append(getImportKeyColumnName());
+			final int noErrors = markNotImportedAllWithErrors();
+			importResult.setErrorCount(noErrors);
 		}
+	}
+
+	private void importDataSequentially(final ImportProcessResult importResult)
+	{
+		final IMutable<Object> state = new Mutable<>();
+		forEachRecordToImport(null, importRecord -> importRecordInTrx(state, importRecord, importResult));
+	}
+
+	/**
+	 * Imports the records in parallel.
+	 * <p>
+	 * The records are partitioned in groups of records having the same value in given <code>groupKeyColumnName</code>.
+	 * The groups are imported on a pool of <code>threadsCount</code> worker threads.
+	 * Within a group, the records are imported one after the other, in {@link #getImportOrderBySql()} order and with their own state, each one in its own transaction,
+	 * so the records of a group are imported exactly like in a sequential import.
+	 */
+	private void importDataInParallel(
+			@NonNull final ImportProcessResult importResult,
+			@NonNull final String groupKeyColumnName,
+			final int threadsCount)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threadsCount, CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(getClass().getSimpleName())
+				.setDaemon(true)
+				.build());
+
+		// Don't load more groups than needed to keep the workers busy
+		final Semaphore groupsInProgress = new Semaphore(threadsCount * 2);
+		final List<Future<?>> futures = new ArrayList<>();
 
-		//
-		// Go through Records
-		PreparedStatement pstmt = null;
-		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql.toString(), ITrx.TRXNAME_None); // i.e. out of transaction
-			rs = pstmt.executeQuery();
+			final Mutable<Object> currentGroupKey = new Mutable<>();
+			final Mutable<List<ImportRecordType>> currentGroup = new Mutable<>(new ArrayList<>());
+			forEachRecordToImport(groupKeyColumnName, importRecord -> {
+				final Object groupKey = InterfaceWrapperHelper.getValueOrNull(importRecord, groupKeyColumnName);
+				if (!currentGroup.getValue().isEmpty() && !Objects.equals(groupKey, currentGroupKey.getValue()))
+				{
+					futures.add(submitImportGroup(executor, groupsInProgress, currentGroup.getValue(), importResult));
+					currentGroup.setValue(new ArrayList<>());
+				}
+
+				currentGroupKey.setValue(groupKey);
+				currentGroup.getValue().add(importRecord);
+			});
+			if (!currentGroup.getValue().isEmpty())
+			{
+				futures.add(submitImportGroup(executor, groupsInProgress, currentGroup.getValue(), importResult));
+			}
 
-			final IMutable<Object> state = new Mutable<>();
-			while (rs.next())
+			for (final Future<?> future : futures)
 			{
-				final ImportRecordType importRecord = retrieveImportRecord(ctx, rs);
-				trxManager.run(new TrxRunnableAdapter()
-				{
-					private ImportRecordResult recordImportResult;
-					private Throwable error;
+				future.get();
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+		catch (final ExecutionException e)
+		{
+			throw AdempiereException.wrapIfNeeded(e.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
 
-					@Override
-					public void run(final String localTrxName) throws Exception
-					{
-						this.recordImportResult = importRecord(state, importRecord, isInsertOnly());
-						//
-						markImported(importRecord);
-						//
-						runSQLAfterRowImport(importRecord); // run after markImported because we need the recordId saved
-					}
+		log.info("Imported {} groups of {} using {} threads in {}", futures.size(), getImportTableName(), threadsCount, stopwatch.stop());
+	}
 
-					@Override
-					public boolean doCatch(final Throwable e) throws Throwable
-					{
-						this.error = e;
-						return true; // rollback
-					}
+	private Future<?> submitImportGroup(
+			final ExecutorService executor,
+			final Semaphore groupsInProgress,
+			final List<ImportRecordType> importRecords,
+			final ImportProcessResult importResult)
+	{
+		try
+		{
+			groupsInProgress.acquire();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(e);
+		}
 
-					@Override
-					public void doFinally()
+		try
+		{
+			return executor.submit(() -> {
+				try (final IAutoCloseable c = Env.switchContext(Env.copyCtx(getCtx())))
+				{
+					final IMutable<Object> state = new Mutable<>();
+					for (final ImportRecordType importRecord : importRecords)
 					{
-						if (error != null)
-						{
-							reportError(importRecord, error.getLocalizedMessage());
-						}
-						else if (recordImportResult == ImportRecordResult.Inserted)
-						{
-							importResult.incrementInsertCounter();
-						}
-						else if (recordImportResult == ImportRecordResult.Updated)
-						{
-							importResult.incrementUpdateCounter();
-						}
+						importRecordInTrx(state, importRecord, importResult);
 					}
-				});
-			}
+				}
+				finally
+				{
+					groupsInProgress.release();
+				}
+			});
+		}
+		catch (final RuntimeException e)
+		{
+			groupsInProgress.release();
+			throw e;
+		}
+	}
 
-			afterImport();
+	/**
+	 * Retrieves the not yet imported records (out of transaction) and passes them to the given consumer, one by one, in import order.
+	 *
+	 * @param groupKeyColumnName if not null, the records are ordered by this column first, so that the records of a group are consecutive
+	 */
+	@VisibleForTesting
+	void forEachRecordToImport(@Nullable final String groupKeyColumnName, @NonNull final Consumer<ImportRecordType> consumer)
+	{
+		final Properties ctx = getCtx();
+		final String sql = buildSqlSelectRecordsToImport(groupKeyColumnName);
 
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None); // i.e. out of transaction
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				final ImportRecordType importRecord = retrieveImportRecord(ctx, rs);
+				consumer.accept(importRecord);
+			}
 		}
 		catch (final SQLException e)
 		{
-			throw new DBException(e, sql.toString());
+			throw new DBException(e, sql);
 		}
 		finally
 		{
 			DB.close(rs, pstmt);
-			rs = null;
-			pstmt = null;
+		}
+	}
 
-			final int noErrors = markNotImportedAllWithErrors();
-			importResult.setErrorCount(noErrors);
+	/**
+	 * @param groupKeyColumnName if not null, the records are ordered by this column first, so that the records of a group are consecutive
+	 */
+	private String buildSqlSelectRecordsToImport(@Nullable final String groupKeyColumnName)
+	{
+		final String whereClause = getWhereClause();
+		final StringBuilder sql = new StringBuilder("SELECT * FROM " + getImportTableName() + " WHERE " + COLUMNNAME_I_IsImported + "='N' ").append(whereClause);
+		// ORDER BY
+		sql.append(" ORDER BY ");
+		if (groupKeyColumnName != null)
+		{
+			sql.append(groupKeyColumnName).append(", ");
+		}
+		final String sqlOrderBy = getImportOrderBySql();
+		if (!Check.isEmpty(sqlOrderBy, true))
+		{
+			sql.append(sqlOrderBy);
 		}
+		else
+		{
+			sql.append(getImportKeyColumnName());
+		}
+		return sql.toString();
+	}
+
+	private void importRecordInTrx(
+			final IMutable<Object> state,
+			final ImportRecordType importRecord,
+			final ImportProcessResult importResult)
+	{
+		trxManager.run(new TrxRunnableAdapter()
+		{
+			private ImportRecordResult recordImportResult;
+			private Throwable error;
+
+			@Override
+			public void run(final String localTrxName) throws Exception
+			{
+				this.recordImportResult = importRecord(state, importRecord, isInsertOnly());
+				//
+				markImported(importRecord);
+				//
+				runSQLAfterRowImport(importRecord); // run after markImported because we need the recordId saved
+			}
+
+			@Override
+			public boolean doCatch(final Throwable e) throws Throwable
+			{
+				this.error = e;
+				return true; // rollback
+			}
+
+			@Override
+			public void doFinally()
+			{
+				if (error != null)
+				{
+					reportError(importRecord, error.getLocalizedMessage());
+				}
+				else if (recordImportResult == ImportRecordResult.Inserted)
+				{
+					importResult.incrementInsertCounter();
+				}
+				else if (recordImportResult == ImportRecordResult.Updated)
+				{
+					importResult.incrementUpdateCounter();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Override this method to allow the records to be imported in parallel (see {@link #importData(ImportProcessResult)}).
+	 * <p>
+	 * Records with the same value in this column are imported one after the other, on the same thread.
+	 * So all records which might update the same target record (or which rely on the {@code state} passed to {@link #importRecord(IMutable, Object, boolean)})
+	 * shall have the same value in this column.
+	 *
+	 * @return import table column name or {@code null} if the records cannot be imported in parallel (default)
+	 */
+	protected String getImportGroupKeyColumnName()
+	{
+		return null;
+	}
+
+	private int getThreadsCount()
+	{
+		final int threadsCount = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_ThreadsCount, DEFAULT_ThreadsCount);
+		return Math.max(threadsCount, 1);
 	}
 
 	protected abstract String getImportOrderBySql();
@@ -388,7 +578,8 @@ public abstract class AbstractImportProcess<ImportRecordType> implements IImport
 
 	protected abstract ImportRecordResult importRecord(final IMutable<Object> state, final ImportRecordType importRecord, final boolean isInsertOnly) throws Exception;
 
-	private final void reportError(final ImportRecordType importRecord, final String errorMsg)
+	@VisibleForTesting
+	void reportError(final ImportRecordType importRecord, final String errorMsg)
 	{
 		final String tableName = InterfaceWrapperHelper.getModelTableName(importRecord);
 		final String keyColumnName = InterfaceWrapperHelper.getKeyColumnName(tableName);
@@ -413,7 +604,7 @@ public abstract class AbstractImportProcess<ImportRecordType> implements IImport
 		CacheMgt.get().resetLocalNowAndBroadcastOnTrxCommit(ITrx.TRXNAME_ThreadInherited, CacheInvalidateMultiRequest.fromTableNameAndRecordId(tableName, importRecordId));
 	}
 
-	protected final int markNotImportedAllWithErrors()
+	protected int markNotImportedAllWithErrors()
 	{
 		final StringBuilder sql = new StringBuilder("UPDATE " + getImportTableName()
 				+ " SET " + COLUMNNAME_I_IsImported + "='N', Updated=now() "
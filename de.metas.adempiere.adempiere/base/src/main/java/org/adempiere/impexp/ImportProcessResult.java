@@ -69,7 +69,7 @@ public class ImportProcessResult
 
 	void incrementUpdateCounter()
 	{
-		insertCount.incrementAndGet();
+		updateCount.incrementAndGet();
 	}
 
 	/**
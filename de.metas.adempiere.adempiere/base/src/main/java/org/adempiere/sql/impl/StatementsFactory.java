@@ -1,6 +1,7 @@
 package org.adempiere.sql.impl;
 
 import org.adempiere.ad.dao.IQueryStatisticsCollector;
+import org.adempiere.ad.trx.api.impl.TrxBatchedSaves;
 
 /*
  * #%L
@@ -60,6 +61,7 @@ public final class StatementsFactory implements IStatementsFactory
 	@Override
 	public CStatement newCStatement(final int resultSetType, final int resultSetConcurrency, final String trxName)
 	{
+		TrxBatchedSaves.flushBeforeStatement(trxName);
 		final CStatementProxy stmt = new CStatementProxy(resultSetType, resultSetConcurrency, trxName);
 		if (sqlQueriesTracingEnabled)
 		{
@@ -71,6 +73,7 @@ public final class StatementsFactory implements IStatementsFactory
 	@Override
 	public CPreparedStatement newCPreparedStatement(final int resultSetType, final int resultSetConcurrency, final String sql, final String trxName)
 	{
+		TrxBatchedSaves.flushBeforeStatement(trxName);
 		final CPreparedStatementProxy pstmt = new CPreparedStatementProxy(resultSetType, resultSetConcurrency, sql, trxName);
 		if (sqlQueriesTracingEnabled)
 		{
@@ -82,12 +85,14 @@ public final class StatementsFactory implements IStatementsFactory
 	@Override
 	public CCallableStatement newCCallableStatement(final int resultSetType, final int resultSetConcurrency, final String sql, final String trxName)
 	{
+		TrxBatchedSaves.flushBeforeStatement(trxName);
 		return new CCallableStatementProxy(resultSetType, resultSetConcurrency, sql, trxName);
 	}
 
 	@Override
 	public CStatement newCStatement(final CStatementVO info)
 	{
+		TrxBatchedSaves.flushBeforeStatement(info.getTrxName());
 		final CStatementProxy stmt = new CStatementProxy(info);
 		if (sqlQueriesTracingEnabled)
 		{
@@ -99,6 +104,7 @@ public final class StatementsFactory implements IStatementsFactory
 	@Override
 	public CPreparedStatement newCPreparedStatement(final CStatementVO info)
 	{
+		TrxBatchedSaves.flushBeforeStatement(info.getTrxName());
 		final CPreparedStatementProxy pstmt = new CPreparedStatementProxy(info);
 		if (sqlQueriesTracingEnabled)
 		{
@@ -110,6 +116,7 @@ public final class StatementsFactory implements IStatementsFactory
 	@Override
 	public CCallableStatement newCCallableStatement(final CStatementVO info)
 	{
+		TrxBatchedSaves.flushBeforeStatement(info.getTrxName());
 		return new CCallableStatementProxy(info);
 	}
 }
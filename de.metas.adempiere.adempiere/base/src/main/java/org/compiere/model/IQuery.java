@@ -78,6 +78,12 @@ public interface IQuery<T>
 	 */
 	String OPTION_ReturnReadOnlyRecords = "ReturnReadOnlyRecords";
 
+	/**
+	 * Integer value which is passed to {@link java.sql.Statement#setFetchSize(int)}.
+	 * If the query is executed in a transaction, the JDBC driver will then fetch the rows from a server side cursor, that many rows at a time, instead of loading the whole result at once.
+	 */
+	String OPTION_FetchSize = "FetchSize";
+
 	/**
 	 * Default value for {@link #OPTION_GuaranteedIteratorRequired}.
 	 *
@@ -570,4 +576,27 @@ public interface IQuery<T>
 	{
 		return list(clazz).stream();
 	}
+
+	/**
+	 * Return a lazy stream of all records that match the query criteria, ordered by the table's key column.
+	 * <p>
+	 * The records are loaded page by page, only when the stream's consumer gets to them. Each page is selected by seeking after the last key of the previous page
+	 * (i.e. {@code WHERE KeyColumn > lastKey ORDER BY KeyColumn LIMIT pageSize}) instead of using an offset, so a page at the end of a big table is selected as fast as the first one.
+	 * <p>
+	 * Notes:
+	 * <ul>
+	 * <li>the page size can be set via {@link #OPTION_IteratorBufferSize}
+	 * <li>the query's ORDER BY is ignored
+	 * <li>the table needs to have exactly one numeric key column
+	 * <li>records which are inserted while streaming are returned only if their key is greater than the last returned key
+	 * </ul>
+	 *
+	 * @param clazz all resulting models will be converted to this interface
+	 */
+	default <ET extends T> Stream<ET> streamByKeyset(final Class<ET> clazz) throws DBException
+	{
+		final Iterator<ET> iterator = iterate(clazz);
+		final boolean parallel = false;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), parallel);
+	}
 }
@@ -74,6 +74,7 @@ public class AcctSchemaTestHelper
 		acctSchemaGL.setIntercompanyDueTo_Acct(1);
 		acctSchemaGL.setIncomeSummary_Acct(1);
 		acctSchemaGL.setRetainedEarning_Acct(1);
+		acctSchemaGL.setPPVOffset_Acct(1);
 		saveRecord(acctSchemaGL);
 
 		final I_C_AcctSchema_Default acctSchemaDefault = newInstance(I_C_AcctSchema_Default.class);
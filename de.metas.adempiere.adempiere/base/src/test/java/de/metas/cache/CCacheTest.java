@@ -244,4 +244,32 @@ public class CCacheTest
 		cache.remove("k1");
 		assertThat(removedItems).containsEntry("k1", "v1");
 	}
+
+	@Test
+	public void test_weightedCache_evictsWhenMaximumWeightIsReached()
+	{
+		final CCache<String, String> cache = CCache.newWeightedCache("Test", 10, (key, value) -> value.length(), CCache.EXPIREMINUTES_Never);
+
+		cache.put("k1", "1234");
+		cache.put("k2", "1234");
+		cache.put("k3", "1234");
+		cache.put("k4", "1234");
+
+		assertThat(cache.size()).isLessThanOrEqualTo(2);
+		assertThat(cache.stats().getGuavaStats().evictionCount()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	public void test_stats()
+	{
+		final CCache<String, String> cache = new CCache<>("Test", 10);
+
+		cache.getOrLoad("k1", () -> "v1"); // miss
+		cache.getOrLoad("k1", () -> "v1"); // hit
+		cache.get("k2"); // miss
+
+		assertThat(cache.stats().getGuavaStats().hitCount()).isEqualTo(1);
+		assertThat(cache.stats().getGuavaStats().missCount()).isEqualTo(2);
+		assertThat(cache.stats().getGuavaStats().loadSuccessCount()).isEqualTo(1);
+	}
 }
@@ -0,0 +1,128 @@
+package de.metas.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CacheInvalidationBroadcastCoalescerTest
+{
+	private List<CacheInvalidateMultiRequest> sentRequests;
+	private CacheInvalidationBroadcastCoalescer coalescer;
+
+	@Before
+	public void init()
+	{
+		sentRequests = new ArrayList<>();
+		coalescer = new CacheInvalidationBroadcastCoalescer(sentRequests::add);
+		coalescer.setWindowMillis(0); // send right away
+		coalescer.setMaxRecordsPerTable(2);
+	}
+
+	@Test
+	public void duplicatesAreDropped()
+	{
+		coalescer.add(CacheInvalidateMultiRequest.of(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("Table1", 1),
+				CacheInvalidateRequest.rootRecord("Table1", 1))));
+
+		assertThat(sentRequests).hasSize(1);
+		assertThat(sentRequests.get(0).getRecordsEffective()).containsExactly(TableRecordReference.of("Table1", 1));
+		assertThat(coalescer.getCountRequestsReceived()).isEqualTo(2);
+		assertThat(coalescer.getCountRequestsDropped()).isEqualTo(1);
+		assertThat(coalescer.getCountEventsSent()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordsAboveThresholdAreMergedToTable()
+	{
+		coalescer.add(CacheInvalidateMultiRequest.of(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("Table1", 1),
+				CacheInvalidateRequest.rootRecord("Table1", 2),
+				CacheInvalidateRequest.rootRecord("Table1", 3),
+				CacheInvalidateRequest.rootRecord("Table2", 1))));
+
+		assertThat(sentRequests).hasSize(1);
+		final CacheInvalidateMultiRequest sentRequest = sentRequests.get(0);
+		assertThat(sentRequest.getRequests()).hasSize(2);
+		assertThat(sentRequest.getRequests())
+				.filteredOn(CacheInvalidateRequest::isAllRecords)
+				.extracting(CacheInvalidateRequest::getTableNameEffective)
+				.containsExactly("Table1");
+		assertThat(sentRequest.getRequests())
+				.filteredOn(request -> !request.isAllRecords())
+				.extracting(CacheInvalidateRequest::getRecordEffective)
+				.containsExactly(TableRecordReference.of("Table2", 1));
+		assertThat(coalescer.getCountRequestsMerged()).isEqualTo(3);
+	}
+
+	@Test
+	public void recordsCoveredByTableRequestAreMerged()
+	{
+		coalescer.add(CacheInvalidateMultiRequest.of(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("Table1", 1),
+				CacheInvalidateRequest.allRecordsForTable("Table1"))));
+
+		assertThat(sentRequests).hasSize(1);
+		assertThat(sentRequests.get(0).getRequests())
+				.hasSize(1)
+				.allMatch(CacheInvalidateRequest::isAllRecords);
+		assertThat(coalescer.getCountRequestsMerged()).isEqualTo(1);
+	}
+
+	@Test
+	public void resetAllWins()
+	{
+		coalescer.add(CacheInvalidateMultiRequest.of(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("Table1", 1),
+				CacheInvalidateRequest.all())));
+
+		assertThat(sentRequests).containsExactly(CacheInvalidateMultiRequest.all());
+	}
+
+	@Test
+	public void requestsOfOneWindowAreSentTogether()
+	{
+		coalescer.setWindowMillis(60 * 1000); // long enough to not be flushed by the scheduler during the test
+		coalescer.add(CacheInvalidateMultiRequest.rootRecord("Table1", 1));
+		coalescer.add(CacheInvalidateMultiRequest.rootRecord("Table2", 1));
+		assertThat(sentRequests).isEmpty();
+
+		coalescer.flush();
+
+		assertThat(sentRequests).hasSize(1);
+		assertThat(sentRequests.get(0).getRecordsEffective())
+				.containsExactlyInAnyOrder(TableRecordReference.of("Table1", 1), TableRecordReference.of("Table2", 1));
+	}
+}
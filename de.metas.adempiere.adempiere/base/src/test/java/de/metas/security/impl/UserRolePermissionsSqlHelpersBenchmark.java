@@ -0,0 +1,155 @@
+package de.metas.security.impl;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.service.ClientId;
+import org.compiere.Adempiere.RunMode;
+import org.compiere.util.Env;
+
+import com.google.common.base.Stopwatch;
+
+import de.metas.event.IEventBusFactory;
+import de.metas.security.IUserRolePermissionsDAO;
+import de.metas.security.RoleId;
+import de.metas.security.permissions.Access;
+import de.metas.security.permissions.record_access.RecordAccessConfigService;
+import de.metas.security.permissions.record_access.RecordAccessService;
+import de.metas.security.permissions.record_access.handlers.RecordAccessHandler;
+import de.metas.user.UserGroupRepository;
+import de.metas.user.UserId;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import de.metas.util.time.SystemTime;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Manual test: measures the per-call cost of {@link UserRolePermissionsSqlHelpers#addAccessSQL(String, String, boolean, Access)}, with and without the parsed SQL and access SQL caches.
+ * <p>
+ * Needs a database, because the access SQL is built from the role's permissions and the tables' metadata.
+ * <p>
+ * Usage: <code>UserRolePermissionsSqlHelpersBenchmark [iterations] [AD_Role_ID] [AD_User_ID] [AD_Client_ID]</code>
+ */
+public class UserRolePermissionsSqlHelpersBenchmark
+{
+	public static void main(final String[] args)
+	{
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		final RoleId roleId = RoleId.ofRepoId(args.length > 1 ? Integer.parseInt(args[1]) : 1000000);
+		final UserId userId = UserId.ofRepoId(args.length > 2 ? Integer.parseInt(args[2]) : 100);
+		final ClientId clientId = ClientId.ofRepoId(args.length > 3 ? Integer.parseInt(args[3]) : 1000000);
+
+		setupAdempiere();
+
+		new UserRolePermissionsSqlHelpersBenchmark(iterations, roleId, userId, clientId).run();
+	}
+
+	private static void setupAdempiere()
+	{
+		//
+		// Use hardcoded default PropertyFile if none found
+		if (Check.isEmpty(System.getProperty("PropertyFile"), true))
+		{
+			final String propertyFile = new File(".").getAbsolutePath()
+					+ File.separator + ".." + File.separator + ".."
+					+ File.separator + "de.metas.endcustomer."
+					+ File.separator + "Adempiere.properties_" + System.getProperty("user.name");
+			System.out.println("Set default PropertyFile=" + propertyFile);
+			System.setProperty("PropertyFile", propertyFile);
+		}
+
+		Env.getSingleAdempiereInstance(null).startup(RunMode.SWING_CLIENT);
+	}
+
+	/** A typical lookup SQL, with a subselect and a join */
+	private static final String SQL = "SELECT C_BPartner.C_BPartner_ID, C_BPartner.Value || '_' || C_BPartner.Name, C_BPartner.IsActive"
+			+ " , (SELECT COUNT(1) FROM C_BPartner_Location bpl WHERE bpl.C_BPartner_ID=C_BPartner.C_BPartner_ID AND bpl.IsActive='Y') AS LocationsCount"
+			+ " FROM C_BPartner"
+			+ " LEFT OUTER JOIN C_BP_Group g ON (g.C_BP_Group_ID=C_BPartner.C_BP_Group_ID)"
+			+ " WHERE C_BPartner.IsActive='Y' AND (C_BPartner.IsCustomer='Y' OR g.IsDefault='Y')"
+			+ " ORDER BY C_BPartner.Value";
+
+	private final int iterations;
+	private final UserRolePermissions permissions;
+	private final RecordAccessService recordAccessService;
+	private final UserGroupRepository userGroupRepository;
+
+	private UserRolePermissionsSqlHelpersBenchmark(
+			final int iterations,
+			final RoleId roleId,
+			final UserId userId,
+			final ClientId clientId)
+	{
+		this.iterations = iterations;
+		this.permissions = (UserRolePermissions)Services.get(IUserRolePermissionsDAO.class).getUserRolePermissions(roleId, userId, clientId, SystemTime.asLocalDate());
+
+		this.userGroupRepository = new UserGroupRepository();
+		this.recordAccessService = new RecordAccessService(
+				new RecordAccessConfigService(Optional.<List<RecordAccessHandler>> empty()),
+				userGroupRepository,
+				Services.get(IEventBusFactory.class));
+
+		System.out.println("Iterations: " + iterations);
+		System.out.println("Permissions: " + permissions);
+	}
+
+	private UserRolePermissionsSqlHelpers newSqlHelpers()
+	{
+		return new UserRolePermissionsSqlHelpers(permissions, recordAccessService, userGroupRepository);
+	}
+
+	private void run()
+	{
+		System.out.println("Final SQL: " + newSqlHelpers().addAccessSQL(SQL, "C_BPartner", true, Access.READ));
+
+		// warm up
+		for (int i = 0; i < iterations; i++)
+		{
+			newSqlHelpers().disableCaches().addAccessSQL(SQL, "C_BPartner", true, Access.READ);
+			newSqlHelpers().addAccessSQL(SQL, "C_BPartner", true, Access.READ);
+		}
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		for (int i = 0; i < iterations; i++)
+		{
+			newSqlHelpers().disableCaches().addAccessSQL(SQL, "C_BPartner", true, Access.READ);
+		}
+		printPerCallCost("addAccessSQL", stopwatch);
+
+		stopwatch = Stopwatch.createStarted();
+		for (int i = 0; i < iterations; i++)
+		{
+			newSqlHelpers().addAccessSQL(SQL, "C_BPartner", true, Access.READ);
+		}
+		printPerCallCost("addAccessSQL (cached)", stopwatch);
+	}
+
+	private void printPerCallCost(final String name, final Stopwatch stopwatch)
+	{
+		final long nanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+		System.out.printf("%-24s %10d ms %10.0f ns/call%n", name, nanos / 1_000_000, (double)nanos / iterations);
+	}
+}
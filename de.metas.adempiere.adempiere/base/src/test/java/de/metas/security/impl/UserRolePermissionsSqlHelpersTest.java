@@ -0,0 +1,178 @@
+package de.metas.security.impl;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_AD_Role;
+import org.compiere.model.I_AD_Role_Record_Access_Config;
+import org.compiere.model.I_AD_Table;
+import org.compiere.model.I_AD_UserGroup_User_Assign;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.cache.CacheMgt;
+import de.metas.security.RoleId;
+import de.metas.security.permissions.Access;
+import de.metas.security.permissions.record_access.RecordAccessService;
+import de.metas.user.UserGroupId;
+import de.metas.user.UserGroupRepository;
+import de.metas.user.UserId;
+import de.metas.util.time.FixedTimeSource;
+import de.metas.util.time.SystemTime;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class UserRolePermissionsSqlHelpersTest
+{
+	private static final String SQL = "SELECT C_BPartner_ID FROM C_BPartner WHERE IsActive='Y'";
+	private static final UserId userId = UserId.ofRepoId(100);
+	private static final UserGroupId userGroupId = UserGroupId.ofRepoId(540001);
+
+	@Mocked
+	private UserRolePermissions permissions;
+
+	@Mocked
+	private RecordAccessService recordAccessService;
+
+	private UserGroupRepository userGroupRepository;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		SystemTime.setTimeSource(new FixedTimeSource(2019, 6, 10, 10, 0, 0));
+
+		userGroupRepository = new UserGroupRepository();
+
+		new Expectations()
+		{
+			{
+				permissions.getUserId();
+				minTimes = 0;
+				result = userId;
+
+				permissions.getRoleId();
+				minTimes = 0;
+				result = RoleId.ofRepoId(1000000);
+
+				permissions.isAccessAllOrgs();
+				minTimes = 0;
+				result = true;
+
+				permissions.isPersonalAccess();
+				minTimes = 0;
+				result = false;
+
+				permissions.isTableAccess(anyInt, (Access)any);
+				minTimes = 0;
+				result = true;
+
+				permissions.getClientWhere(anyString, anyString, (Access)any);
+				minTimes = 0;
+				result = "AD_Client_ID IN (0,1000000)";
+			}
+		};
+
+		// table metadata comes from POInfo, i.e. from database
+		final TablesAccessInfo tablesAccessInfo = TablesAccessInfo.instance;
+		new Expectations(tablesAccessInfo)
+		{
+			{
+				tablesAccessInfo.isView("C_BPartner");
+				minTimes = 0;
+				result = false;
+
+				tablesAccessInfo.getAdTableId("C_BPartner");
+				minTimes = 0;
+				result = 291;
+
+				tablesAccessInfo.getSingleKeyColumnNameOrNull("C_BPartner");
+				minTimes = 0;
+				result = "C_BPartner_ID";
+			}
+		};
+	}
+
+	private String addAccessSQL()
+	{
+		return new UserRolePermissionsSqlHelpers(permissions, recordAccessService, userGroupRepository)
+				.addAccessSQL(SQL, "C_BPartner", false, Access.READ);
+	}
+
+	@Test
+	public void userGroupAssignmentExpiresBetweenCalls()
+	{
+		final I_AD_UserGroup_User_Assign assignment = newInstance(I_AD_UserGroup_User_Assign.class);
+		assignment.setAD_User_ID(userId.getRepoId());
+		assignment.setAD_UserGroup_ID(userGroupId.getRepoId());
+		assignment.setValidTo(Timestamp.valueOf(LocalDateTime.of(2019, 6, 10, 11, 0, 0)));
+		assignment.setIsActive(true);
+		saveRecord(assignment);
+
+		final String sqlWhileAssigned = addAccessSQL();
+		assertThat(sqlWhileAssigned).contains("AD_UserGroup_ID");
+
+		SystemTime.setTimeSource(new FixedTimeSource(2019, 6, 10, 12, 0, 0));
+
+		final String sqlAfterExpired = addAccessSQL();
+		assertThat(sqlAfterExpired).doesNotContain("AD_UserGroup_ID");
+		assertThat(sqlAfterExpired).isEqualTo(new UserRolePermissionsSqlHelpers(permissions, recordAccessService, userGroupRepository)
+				.disableCaches()
+				.addAccessSQL(SQL, "C_BPartner", false, Access.READ));
+	}
+
+	@Test
+	public void resetTablesInvalidateCache()
+	{
+		final String[] tableNamesToResetFor = {
+				I_AD_Role.Table_Name,
+				I_AD_UserGroup_User_Assign.Table_Name,
+				I_AD_Role_Record_Access_Config.Table_Name,
+				I_AD_Table.Table_Name };
+
+		for (final String tableName : tableNamesToResetFor)
+		{
+			addAccessSQL();
+			assertThat(UserRolePermissionsSqlHelpers.getAccessSqlWhereClausesCacheSize()).as("cache size before resetting " + tableName).isEqualTo(1);
+
+			CacheMgt.get().reset(tableName);
+			assertThat(UserRolePermissionsSqlHelpers.getAccessSqlWhereClausesCacheSize()).as("cache size after resetting " + tableName).isZero();
+		}
+	}
+
+	@Test
+	public void otherTablesDontInvalidateCache()
+	{
+		addAccessSQL();
+		CacheMgt.get().reset("C_BPartner");
+
+		assertThat(UserRolePermissionsSqlHelpers.getAccessSqlWhereClausesCacheSize()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,144 @@
+package org.adempiere.ad.dao.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class KeysetPOBufferedIteratorTest
+{
+	/** Simulates a table whose records are just their (ordered, not contiguous) keys */
+	private static class TestPageLoader implements KeysetPOBufferedIterator.PageLoader<Integer>
+	{
+		private final List<Integer> keys;
+		private final List<Integer> requestedLastKeys = new ArrayList<>();
+
+		private TestPageLoader(final List<Integer> keys)
+		{
+			this.keys = keys;
+		}
+
+		@Override
+		public List<Integer> loadPage(final Integer lastKey, final int pageSize)
+		{
+			requestedLastKeys.add(lastKey);
+			return keys.stream()
+					.filter(key -> lastKey == null || key > lastKey)
+					.limit(pageSize)
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+
+	private static List<Integer> createKeys(final int count)
+	{
+		return IntStream.rangeClosed(1, count)
+				.map(i -> i * 3)
+				.boxed()
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static List<Integer> iterateAll(final TestPageLoader pageLoader, final int bufferSize)
+	{
+		final KeysetPOBufferedIterator<Integer, Integer> iterator = new KeysetPOBufferedIterator<>(pageLoader, key -> key);
+		iterator.setBufferSize(bufferSize);
+
+		final List<Integer> result = new ArrayList<>();
+		iterator.forEachRemaining(result::add);
+		return result;
+	}
+
+	@Test
+	public void moreThanOnePage()
+	{
+		final List<Integer> keys = createKeys(25);
+		final TestPageLoader pageLoader = new TestPageLoader(keys);
+
+		final List<Integer> result = iterateAll(pageLoader, 10);
+
+		assertThat(result).containsExactlyElementsOf(keys);
+		assertThat(result.stream().distinct().collect(Collectors.toList())).hasSize(25);
+		assertThat(pageLoader.requestedLastKeys).containsExactly(null, 30, 60);
+	}
+
+	@Test
+	public void lastPageIsFull()
+	{
+		final List<Integer> keys = createKeys(20);
+		final TestPageLoader pageLoader = new TestPageLoader(keys);
+
+		final List<Integer> result = iterateAll(pageLoader, 10);
+
+		assertThat(result).containsExactlyElementsOf(keys);
+		// the last page was full, so one more (empty) page was loaded
+		assertThat(pageLoader.requestedLastKeys).containsExactly(null, 30, 60);
+	}
+
+	/**
+	 * Records are deleted while iterating: the consumer deletes each record it processed, and when it gets to the end of the first page,
+	 * some records of the next pages are deleted too.
+	 * Because each page seeks after the last returned key, no record is skipped or returned twice, which would happen with offset paging.
+	 */
+	@Test
+	public void recordsDeletedWhileIterating()
+	{
+		final List<Integer> keys = new ArrayList<>(createKeys(25));
+		final TestPageLoader pageLoader = new TestPageLoader(keys);
+
+		final KeysetPOBufferedIterator<Integer, Integer> iterator = new KeysetPOBufferedIterator<>(pageLoader, key -> key);
+		iterator.setBufferSize(5);
+
+		final List<Integer> result = new ArrayList<>();
+		iterator.forEachRemaining(key -> {
+			result.add(key);
+			keys.remove(key);
+			if (key == 15)
+			{
+				keys.removeAll(ImmutableList.of(18, 21, 60));
+			}
+		});
+
+		final List<Integer> expected = createKeys(25).stream()
+				.filter(key -> key != 18 && key != 21 && key != 60)
+				.collect(ImmutableList.toImmutableList());
+		assertThat(result).containsExactlyElementsOf(expected);
+		assertThat(keys).isEmpty();
+		assertThat(pageLoader.requestedLastKeys).containsExactly(null, 15, 36, 51, 69);
+	}
+
+	@Test
+	public void noRecords()
+	{
+		final TestPageLoader pageLoader = new TestPageLoader(ImmutableList.of());
+
+		assertThat(iterateAll(pageLoader, 10)).isEmpty();
+		assertThat(pageLoader.requestedLastKeys).containsExactly((Integer)null);
+	}
+}
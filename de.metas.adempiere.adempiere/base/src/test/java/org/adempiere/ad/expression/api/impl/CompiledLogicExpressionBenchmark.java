@@ -0,0 +1,130 @@
+package org.adempiere.ad.expression.api.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.compiere.util.CtxName;
+import org.compiere.util.Evaluatee;
+import org.compiere.util.Evaluatees;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Manual test: measures the per-call cost of evaluating the logic expressions from {@link LogicExpressionsDatabase} (i.e. typical AD_Field display and read-only logics),
+ * using {@link LogicExpressionEvaluator} and {@link CompiledLogicExpression}.
+ * <p>
+ * Usage: <code>CompiledLogicExpressionBenchmark [iterations]</code>
+ */
+public class CompiledLogicExpressionBenchmark
+{
+	public static void main(final String[] args)
+	{
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+		new CompiledLogicExpressionBenchmark(iterations).run();
+	}
+
+	private final int iterations;
+	private final List<ILogicExpression> expressions;
+	private final List<CompiledLogicExpression> compiledExpressions;
+	private final Evaluatee params;
+
+	private CompiledLogicExpressionBenchmark(final int iterations)
+	{
+		this.iterations = iterations;
+
+		final ImmutableList.Builder<ILogicExpression> expressions = ImmutableList.builder();
+		final ImmutableList.Builder<CompiledLogicExpression> compiledExpressions = ImmutableList.builder();
+		final Map<String, String> map = new HashMap<>();
+		for (final String expressionStr : LogicExpressionsDatabase.VALID_EXPRESSIONS)
+		{
+			final ILogicExpression expression = LogicExpressionCompiler.instance.compile(expressionStr);
+			expressions.add(expression);
+			compiledExpressions.add(CompiledLogicExpression.compile(expression));
+
+			for (final CtxName parameter : expression.getParameters())
+			{
+				map.put(parameter.getName(), "Y");
+			}
+		}
+		this.expressions = expressions.build();
+		this.compiledExpressions = compiledExpressions.build();
+		this.params = Evaluatees.ofMap(map);
+
+		System.out.println("Iterations: " + iterations + ", expressions: " + this.expressions.size());
+	}
+
+	private void run()
+	{
+		// warm up
+		for (int i = 0; i < iterations; i++)
+		{
+			evaluateInterpreted();
+			evaluateCompiled();
+		}
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		for (int i = 0; i < iterations; i++)
+		{
+			evaluateInterpreted();
+		}
+		printPerCallCost("Interpreted", stopwatch);
+
+		stopwatch = Stopwatch.createStarted();
+		for (int i = 0; i < iterations; i++)
+		{
+			evaluateCompiled();
+		}
+		printPerCallCost("Compiled", stopwatch);
+	}
+
+	private void evaluateInterpreted()
+	{
+		for (final ILogicExpression expression : expressions)
+		{
+			LogicExpressionEvaluator.instance.evaluate(params, expression, OnVariableNotFound.ReturnNoResult);
+		}
+	}
+
+	private void evaluateCompiled()
+	{
+		for (final CompiledLogicExpression compiledExpression : compiledExpressions)
+		{
+			compiledExpression.evaluate(params, OnVariableNotFound.ReturnNoResult);
+		}
+	}
+
+	private void printPerCallCost(final String name, final Stopwatch stopwatch)
+	{
+		final long nanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+		final long calls = (long)iterations * expressions.size();
+		System.out.printf("%-20s %10d ms %10.0f ns/call%n", name, nanos / 1_000_000, (double)nanos / calls);
+	}
+}
@@ -0,0 +1,142 @@
+package org.adempiere.ad.expression.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.adempiere.ad.expression.api.LogicExpressionResult;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.CtxName;
+import org.compiere.util.Evaluatee;
+import org.compiere.util.Evaluatees;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CompiledLogicExpressionTest
+{
+	private static final String[] SAMPLE_VALUES = { "Y", "N", "0", "5", "-1", "SO", "'SO'", "C", "" };
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void sameResultsAsInterpreter()
+	{
+		final Random random = new Random(1234);
+
+		for (final String expressionStr : LogicExpressionsDatabase.VALID_EXPRESSIONS)
+		{
+			final ILogicExpression expression = LogicExpressionCompiler.instance.compile(expressionStr);
+			final CompiledLogicExpression compiled = CompiledLogicExpression.compile(expression);
+
+			for (int i = 0; i < 20; i++)
+			{
+				final Evaluatee params = createRandomParams(expression, random);
+				for (final OnVariableNotFound onVariableNotFound : OnVariableNotFound.values())
+				{
+					assertSameResult(expression, compiled, params, onVariableNotFound);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void usedParameters()
+	{
+		final ILogicExpression expression = LogicExpressionCompiler.instance.compile("@a@=5 & @b@=3 | @a@=4");
+		final CompiledLogicExpression compiled = CompiledLogicExpression.compile(expression);
+
+		final Map<String, String> map = new HashMap<>();
+		map.put("a", "5");
+		map.put("b", "3");
+
+		final LogicExpressionResult result = compiled.evaluateToResult(Evaluatees.ofMap(map), OnVariableNotFound.Fail);
+		assertThat(result.booleanValue()).isTrue();
+		assertThat(result).isEqualTo(LogicExpressionEvaluator.instance.evaluateToResult(Evaluatees.ofMap(map), expression, OnVariableNotFound.Fail));
+	}
+
+	private static Evaluatee createRandomParams(final ILogicExpression expression, final Random random)
+	{
+		final Map<String, String> map = new HashMap<>();
+		for (final CtxName parameter : expression.getParameters())
+		{
+			final int index = random.nextInt(SAMPLE_VALUES.length + 1);
+			if (index < SAMPLE_VALUES.length) // otherwise the parameter is missing
+			{
+				map.put(parameter.getName(), SAMPLE_VALUES[index]);
+			}
+		}
+		return Evaluatees.ofMap(map);
+	}
+
+	private static void assertSameResult(
+			final ILogicExpression expression,
+			final CompiledLogicExpression compiled,
+			final Evaluatee params,
+			final OnVariableNotFound onVariableNotFound)
+	{
+		LogicExpressionResult expectedResult = null;
+		Exception expectedException = null;
+		try
+		{
+			expectedResult = LogicExpressionEvaluator.instance.evaluateToResult(params, expression, onVariableNotFound);
+		}
+		catch (final Exception ex)
+		{
+			expectedException = ex;
+		}
+
+		LogicExpressionResult actualResult = null;
+		Exception actualException = null;
+		try
+		{
+			actualResult = compiled.evaluateToResult(params, onVariableNotFound);
+		}
+		catch (final Exception ex)
+		{
+			actualException = ex;
+		}
+
+		final String description = expression.getExpressionString() + ", params=" + params + ", onVariableNotFound=" + onVariableNotFound;
+		if (expectedException != null)
+		{
+			assertThat(actualException).as(description).isNotNull();
+			assertThat(actualException.getClass()).as(description).isEqualTo(expectedException.getClass());
+		}
+		else
+		{
+			assertThat(actualException).as(description).isNull();
+			assertThat(actualResult).as(description).isEqualTo(expectedResult);
+			assertThat(compiled.evaluate(params, onVariableNotFound)).as(description).isEqualTo(expectedResult.booleanValue());
+		}
+	}
+}
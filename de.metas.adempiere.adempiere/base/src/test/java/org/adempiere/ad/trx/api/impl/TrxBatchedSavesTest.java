@@ -0,0 +1,133 @@
+package org.adempiere.ad.trx.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class TrxBatchedSavesTest
+{
+	private ITrxManager trxManager;
+	private String trxName;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		trxManager = Services.get(ITrxManager.class);
+		trxName = trxManager.createTrxName("TrxBatchedSavesTest", true);
+	}
+
+	@Test
+	public void activeOnlyWithinScope()
+	{
+		assertThat(TrxBatchedSaves.getActiveOrNull(trxName)).isNull();
+
+		try (final IAutoCloseable scope = trxManager.batchedSaves(trxName))
+		{
+			assertThat(TrxBatchedSaves.getActiveOrNull(trxName)).isNotNull();
+			assertThat(TrxBatchedSaves.getActiveOrNull(null)).isNull();
+
+			try (final IAutoCloseable nestedScope = trxManager.batchedSaves(trxName))
+			{
+				assertThat(TrxBatchedSaves.getActiveOrNull(trxName)).isNotNull();
+			}
+
+			assertThat(TrxBatchedSaves.getActiveOrNull(trxName)).isNotNull();
+		}
+
+		assertThat(TrxBatchedSaves.getActiveOrNull(trxName)).isNull();
+	}
+
+	@Test
+	public void savesAreDeferredUntilTheNextStatement()
+	{
+		final List<String> executedSqls = new ArrayList<>();
+		try (final IAutoCloseable scope = trxManager.batchedSaves(trxName))
+		{
+			final TrxBatchedSaves batchedSaves = TrxBatchedSaves.getActiveOrNull(trxName);
+			batchedSaves.setBatchExecutor((tableName, sqls) -> executedSqls.addAll(sqls));
+
+			batchedSaves.add("C_Order", "INSERT INTO C_Order (C_Order_ID) VALUES (1)");
+			batchedSaves.add("C_OrderLine", "INSERT INTO C_OrderLine (C_OrderLine_ID, C_Order_ID) VALUES (10, 1)");
+			assertThat(executedSqls).isEmpty();
+
+			// a statement of another transaction does not flush
+			TrxBatchedSaves.flushBeforeStatement(null);
+			assertThat(executedSqls).isEmpty();
+
+			// any statement of this transaction flushes, even if its SQL does not name the pending tables (e.g. a view or a function)
+			TrxBatchedSaves.flushBeforeStatement(trxName);
+			assertThat(executedSqls).containsExactly(
+					"INSERT INTO C_Order (C_Order_ID) VALUES (1)",
+					"INSERT INTO C_OrderLine (C_OrderLine_ID, C_Order_ID) VALUES (10, 1)");
+			assertThat(batchedSaves.getPendingStatementsCount()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void consecutiveStatementsOfTheSameTableAreOneBatch()
+	{
+		final List<String> executedBatches = new ArrayList<>();
+		try (final IAutoCloseable scope = trxManager.batchedSaves(trxName))
+		{
+			final TrxBatchedSaves batchedSaves = TrxBatchedSaves.getActiveOrNull(trxName);
+			batchedSaves.setBatchExecutor((tableName, sqls) -> executedBatches.add(tableName + "x" + sqls.size()));
+
+			batchedSaves.add("C_Order", "INSERT INTO C_Order (C_Order_ID) VALUES (1)");
+			batchedSaves.add("C_Order", "INSERT INTO C_Order (C_Order_ID) VALUES (2)");
+			batchedSaves.add("C_OrderLine", "INSERT INTO C_OrderLine (C_OrderLine_ID, C_Order_ID) VALUES (10, 1)");
+			batchedSaves.add("C_Order", "UPDATE C_Order SET Description='a' WHERE C_Order_ID=1");
+		}
+
+		// flushed when the scope was closed
+		assertThat(executedBatches).containsExactly("C_Orderx2", "C_OrderLinex1", "C_Orderx1");
+	}
+
+	@Test
+	public void rollbackDiscardsPendingStatements()
+	{
+		final ITrx trx = trxManager.getTrx(trxName);
+		try (final IAutoCloseable scope = trxManager.batchedSaves(trxName))
+		{
+			final TrxBatchedSaves batchedSaves = TrxBatchedSaves.getActiveOrNull(trxName);
+			batchedSaves.add("C_Order", "UPDATE C_Order SET Description='a' WHERE C_Order_ID=1");
+
+			trx.rollback();
+
+			assertThat(batchedSaves.getPendingStatementsCount()).isEqualTo(0);
+		}
+	}
+}
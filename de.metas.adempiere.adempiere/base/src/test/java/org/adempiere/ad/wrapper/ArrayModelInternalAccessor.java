@@ -0,0 +1,162 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.adempiere.ad.persistence.IModelInternalAccessor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * {@link IModelInternalAccessor} which keeps the column values in an array, like a PO does. Counts the column index lookups.
+ */
+class ArrayModelInternalAccessor implements IModelInternalAccessor
+{
+	private final List<String> columnNames;
+	private final Object[] values;
+
+	int columnIndexLookups = 0;
+
+	ArrayModelInternalAccessor(final List<String> columnNames)
+	{
+		this.columnNames = ImmutableList.copyOf(columnNames);
+		this.values = new Object[columnNames.size()];
+	}
+
+	/**
+	 * @return the key of this model's columns, to be used in {@link ModelProxyFactory#newModelInstance(Class, java.lang.reflect.InvocationHandler, IModelInternalAccessor, Object)}
+	 */
+	Object getColumnsKey()
+	{
+		return columnNames;
+	}
+
+	@Override
+	public Set<String> getColumnNames()
+	{
+		return ImmutableSet.copyOf(columnNames);
+	}
+
+	@Override
+	public int getColumnIndex(final String columnName)
+	{
+		columnIndexLookups++;
+		return columnNames.indexOf(columnName);
+	}
+
+	@Override
+	public boolean isVirtualColumn(final String columnName)
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isKeyColumnName(final String columnName)
+	{
+		return false;
+	}
+
+	@Override
+	public boolean isCalculated(final String columnName)
+	{
+		return false;
+	}
+
+	@Override
+	public boolean hasColumnName(final String columnName)
+	{
+		return columnNames.contains(columnName);
+	}
+
+	@Override
+	public Object getValue(final String columnName, final int columnIndex, final Class<?> returnType)
+	{
+		final Object value = values[columnIndex];
+		if (boolean.class.equals(returnType))
+		{
+			return Boolean.TRUE.equals(value);
+		}
+		return value;
+	}
+
+	@Override
+	public Object getValue(final String columnName, final Class<?> returnType)
+	{
+		return getValue(columnName, getColumnIndex(columnName), returnType);
+	}
+
+	@Override
+	public boolean setValue(final String columnName, final Object value)
+	{
+		final int columnIndex = getColumnIndex(columnName);
+		return columnIndex >= 0 && setValue(columnName, columnIndex, value);
+	}
+
+	@Override
+	public boolean setValue(final String columnName, final int columnIndex, final Object value)
+	{
+		values[columnIndex] = value;
+		return true;
+	}
+
+	@Override
+	public boolean setValueNoCheck(final String columnName, final Object value)
+	{
+		return setValue(columnName, value);
+	}
+
+	@Override
+	public Object getReferencedObject(final String columnName, final Method interfaceMethod)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setValueFromPO(final String idColumnName, final Class<?> parameterType, final Object value)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean invokeEquals(final Object[] methodArgs)
+	{
+		return false;
+	}
+
+	@Override
+	public Object invokeParent(final Method method, final Object[] methodArgs) throws Exception
+	{
+		return method.invoke(this, methodArgs);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ArrayModelInternalAccessor" + Arrays.toString(values);
+	}
+}
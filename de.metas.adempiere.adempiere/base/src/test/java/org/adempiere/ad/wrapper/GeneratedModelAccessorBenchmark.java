@@ -0,0 +1,125 @@
+package org.adempiere.ad.wrapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.ad.persistence.IModelClassInfo;
+import org.adempiere.ad.persistence.ModelClassIntrospector;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_C_UOM;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Manual test: measures the per-call cost of model interface getters and setters, using a {@link java.lang.reflect.Proxy} whose handler does what {@code POWrapper.invoke} does,
+ * and using a {@link GeneratedModelAccessor}.
+ * <p>
+ * Both read and write the same {@link ArrayModelInternalAccessor}, so the numbers only show the dispatching overhead; a PO's own column access comes on top.
+ * <p>
+ * Usage: <code>GeneratedModelAccessorBenchmark [iterations]</code> (default: 10000000)
+ */
+public class GeneratedModelAccessorBenchmark
+{
+	public static void main(final String[] args)
+	{
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+		AdempiereTestHelper.get().init();
+		new GeneratedModelAccessorBenchmark(iterations).run();
+	}
+
+	/** getters and setters per {@link #callGettersAndSetters(I_C_UOM, int)} */
+	private static final int CALLS_PER_ITERATION = 6;
+
+	private final int iterations;
+	private final I_C_UOM proxy;
+	private final I_C_UOM generatedAccessor;
+
+	private GeneratedModelAccessorBenchmark(final int iterations)
+	{
+		this.iterations = iterations;
+
+		final IModelClassInfo modelClassInfo = ModelClassIntrospector.getInstance().getModelClassInfo(I_C_UOM.class);
+
+		final ArrayModelInternalAccessor proxyModelAccessor = createModelAccessor();
+		final InvocationHandler handler = (proxy, method, methodArgs) -> modelClassInfo.getMethodInfo(method).invoke(proxyModelAccessor, methodArgs);
+		this.proxy = ModelProxyFactory.instance.newProxyInstance(I_C_UOM.class, handler);
+
+		final ArrayModelInternalAccessor generatedModelAccessor = createModelAccessor();
+		this.generatedAccessor = ModelProxyFactory.instance.newModelInstance(I_C_UOM.class, handler, generatedModelAccessor, generatedModelAccessor.getColumnsKey());
+
+		System.out.println("Iterations: " + iterations + ", generated accessor: " + generatedAccessor.getClass().getName());
+	}
+
+	private static ArrayModelInternalAccessor createModelAccessor()
+	{
+		return new ArrayModelInternalAccessor(ImmutableList.of("AD_Client_ID", "AD_Org_ID", "C_UOM_ID", "Name", "UOMSymbol", "StdPrecision", "CostingPrecision", "IsActive", "IsDefault"));
+	}
+
+	private void run()
+	{
+		// warm up
+		for (int i = 0; i < iterations; i++)
+		{
+			callGettersAndSetters(proxy, i);
+			callGettersAndSetters(generatedAccessor, i);
+		}
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		long checksum = 0;
+		for (int i = 0; i < iterations; i++)
+		{
+			checksum += callGettersAndSetters(proxy, i);
+		}
+		printPerCallCost("Proxy", stopwatch, checksum);
+
+		stopwatch = Stopwatch.createStarted();
+		checksum = 0;
+		for (int i = 0; i < iterations; i++)
+		{
+			checksum += callGettersAndSetters(generatedAccessor, i);
+		}
+		printPerCallCost("Generated accessor", stopwatch, checksum);
+	}
+
+	private static int callGettersAndSetters(final I_C_UOM uom, final int i)
+	{
+		uom.setStdPrecision(i);
+		uom.setIsActive((i & 1) == 0);
+		uom.setName("Name");
+
+		return uom.getStdPrecision()
+				+ (uom.isActive() ? 1 : 0)
+				+ uom.getName().length();
+	}
+
+	private void printPerCallCost(final String name, final Stopwatch stopwatch, final long checksum)
+	{
+		final long nanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+		final long calls = (long)iterations * CALLS_PER_ITERATION;
+		System.out.printf("%-20s %10d ms %10.1f ns/call (checksum %d)%n", name, nanos / 1_000_000, (double)nanos / calls, checksum);
+	}
+}
@@ -0,0 +1,123 @@
+package org.adempiere.ad.wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_C_UOM;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ModelProxyFactoryTest
+{
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void newProxyInstance()
+	{
+		final InvocationHandler handler = (proxy, method, args) -> "getName".equals(method.getName()) ? "name" : null;
+
+		final I_C_UOM uom1 = ModelProxyFactory.instance.newProxyInstance(I_C_UOM.class, handler);
+		final I_C_UOM uom2 = ModelProxyFactory.instance.newProxyInstance(I_C_UOM.class, handler);
+
+		assertThat(uom1).isNotSameAs(uom2);
+		assertThat(uom1.getName()).isEqualTo("name");
+		assertThat(uom1.getClass()).isSameAs(uom2.getClass());
+		assertThat(Proxy.isProxyClass(uom1.getClass())).isTrue();
+		assertThat(Proxy.getInvocationHandler(uom1)).isSameAs(handler);
+	}
+
+	@Test
+	public void newModelInstance()
+	{
+		final ArrayModelInternalAccessor modelAccessor = new ArrayModelInternalAccessor(ImmutableList.of("C_UOM_ID", "Name", "StdPrecision", "IsActive"));
+		final InvocationHandler handler = (proxy, method, args) -> {
+			throw new UnsupportedOperationException();
+		};
+
+		final I_C_UOM uom = ModelProxyFactory.instance.newModelInstance(I_C_UOM.class, handler, modelAccessor, modelAccessor.getColumnsKey());
+		assertThat(uom).isInstanceOf(GeneratedModelAccessor.class);
+		assertThat(ModelProxyFactory.getInvocationHandlerOrNull(uom)).isSameAs(handler);
+
+		uom.setC_UOM_ID(100);
+		uom.setName("name");
+		uom.setStdPrecision(2);
+		uom.setIsActive(true);
+
+		assertThat(modelAccessor.getValue("Name", String.class)).isEqualTo("name");
+		assertThat(uom.getC_UOM_ID()).isEqualTo(100);
+		assertThat(uom.getName()).isEqualTo("name");
+		assertThat(uom.getStdPrecision()).isEqualTo(2);
+		assertThat(uom.isActive()).isTrue();
+
+		// columns which the model does not have
+		assertThat(uom.getCostingPrecision()).isEqualTo(0);
+		assertThat(uom.getDescription()).isNull();
+
+		// methods which are no column getters and setters are delegated to the model
+		assertThat(uom.toString()).isEqualTo(modelAccessor.toString());
+	}
+
+	@Test
+	public void newModelInstance_looksUpColumnIndexesOncePerColumnsKey()
+	{
+		final ArrayModelInternalAccessor modelAccessor1 = new ArrayModelInternalAccessor(ImmutableList.of("C_UOM_ID", "Name"));
+		final I_C_UOM uom1 = ModelProxyFactory.instance.newModelInstance(I_C_UOM.class, (proxy, method, args) -> null, modelAccessor1, modelAccessor1.getColumnsKey());
+		uom1.setName("name1");
+		assertThat(uom1.getName()).isEqualTo("name1");
+
+		final int columnIndexLookups = modelAccessor1.columnIndexLookups;
+		assertThat(columnIndexLookups).isGreaterThan(0);
+
+		uom1.setName("name2");
+		assertThat(uom1.getName()).isEqualTo("name2");
+		assertThat(uom1.getC_UOM_ID()).isEqualTo(0);
+		assertThat(modelAccessor1.columnIndexLookups).isEqualTo(columnIndexLookups);
+
+		// same columns key => no lookups
+		final ArrayModelInternalAccessor modelAccessor2 = new ArrayModelInternalAccessor(ImmutableList.of("C_UOM_ID", "Name"));
+		final I_C_UOM uom2 = ModelProxyFactory.instance.newModelInstance(I_C_UOM.class, (proxy, method, args) -> null, modelAccessor2, modelAccessor1.getColumnsKey());
+		uom2.setName("name3");
+		assertThat(uom2.getName()).isEqualTo("name3");
+		assertThat(uom1.getName()).isEqualTo("name2");
+		assertThat(modelAccessor2.columnIndexLookups).isEqualTo(0);
+
+		// other columns key => other column indexes
+		final ArrayModelInternalAccessor modelAccessor3 = new ArrayModelInternalAccessor(ImmutableList.of("Name", "C_UOM_ID"));
+		final I_C_UOM uom3 = ModelProxyFactory.instance.newModelInstance(I_C_UOM.class, (proxy, method, args) -> null, modelAccessor3, modelAccessor3.getColumnsKey());
+		uom3.setC_UOM_ID(100);
+		uom3.setName("name4");
+		assertThat(uom3.getName()).isEqualTo("name4");
+		assertThat(uom3.getC_UOM_ID()).isEqualTo(100);
+	}
+}
@@ -0,0 +1,135 @@
+package org.adempiere.archive.spi.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_AD_Archive;
+import org.compiere.model.I_AD_Client;
+import org.compiere.util.Env;
+import org.compiere.util.Ini;
+import org.compiere.util.Util;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ContentAddressedArchiveStorageTest
+{
+	@BeforeClass
+	public static void staticInit()
+	{
+		AdempiereTestHelper.get().staticInit();
+	}
+
+	@Rule
+	public TemporaryFolder storageFolder = new TemporaryFolder();
+	private ContentAddressedArchiveStorage storage;
+
+	private final Random random = new Random();
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		Ini.setClient(false);
+
+		final Properties ctx = Env.getCtx();
+		final I_AD_Client client = InterfaceWrapperHelper.create(ctx, I_AD_Client.class, ITrx.TRXNAME_None);
+		client.setWindowsArchivePath(storageFolder.getRoot().getAbsolutePath());
+		client.setUnixArchivePath(client.getWindowsArchivePath());
+		client.setStoreArchiveOnFileSystem(true);
+		InterfaceWrapperHelper.save(client);
+
+		Env.setContext(ctx, "#AD_Client_ID", client.getAD_Client_ID());
+
+		storage = new ContentAddressedArchiveStorage();
+		storage.init(ctx, client.getAD_Client_ID());
+	}
+
+	@Test
+	public void test_set_getBinaryData()
+	{
+		final byte[] data = createTestDataBytes();
+
+		final I_AD_Archive archive = storage.newArchive(Env.getCtx(), ITrx.TRXNAME_None);
+		storage.setBinaryData(archive, data);
+		InterfaceWrapperHelper.save(archive);
+
+		assertThat(archive.isFileSystem()).isTrue();
+		assertThat(ContentAddressedArchiveStorage.isContentAddressed(archive.getBinaryData())).isTrue();
+		assertThat(archive.getContentHash()).isEqualTo(ContentAddressedArchiveStorage.extractHashOrNull(archive.getBinaryData()));
+		assertThat(storage.getBinaryData(archive)).isEqualTo(data);
+		assertThat(Util.readBytes(storage.getBinaryDataAsStream(archive))).isEqualTo(data);
+	}
+
+	@Test
+	public void sameContentIsStoredOnce()
+	{
+		final byte[] data = createTestDataBytes();
+
+		final I_AD_Archive archive1 = storage.newArchive(Env.getCtx(), ITrx.TRXNAME_None);
+		storage.setBinaryData(archive1, data);
+		final I_AD_Archive archive2 = storage.newArchive(Env.getCtx(), ITrx.TRXNAME_None);
+		storage.setBinaryData(archive2, data.clone());
+
+		assertThat(archive2.getBinaryData()).isEqualTo(archive1.getBinaryData());
+	}
+
+	@Test
+	public void isBlobReferenced_acrossClients()
+	{
+		final I_AD_Archive archive = storage.newArchive(Env.getCtx(), ITrx.TRXNAME_None);
+		storage.setBinaryData(archive, createTestDataBytes());
+		InterfaceWrapperHelper.setValue(archive, I_AD_Archive.COLUMNNAME_AD_Client_ID, archive.getAD_Client_ID() + 1);
+		InterfaceWrapperHelper.save(archive);
+
+		final String hash = archive.getContentHash();
+		assertThat(ContentAddressedArchiveStorage.isBlobReferenced(hash, ITrx.TRXNAME_None)).isTrue();
+
+		InterfaceWrapperHelper.delete(archive);
+		assertThat(ContentAddressedArchiveStorage.isBlobReferenced(hash, ITrx.TRXNAME_None)).isFalse();
+	}
+
+	@Test
+	public void isContentAddressed()
+	{
+		assertThat(ContentAddressedArchiveStorage.isContentAddressed(null)).isFalse();
+		assertThat(ContentAddressedArchiveStorage.isContentAddressed("%ARCHIVE_FOLDER%1/0/123.pdf".getBytes())).isFalse();
+		assertThat(ContentAddressedArchiveStorage.isContentAddressed("CAS:".getBytes())).isFalse();
+	}
+
+	private byte[] createTestDataBytes()
+	{
+		final byte[] data = new byte[4096];
+		random.nextBytes(data);
+		return data;
+	}
+}
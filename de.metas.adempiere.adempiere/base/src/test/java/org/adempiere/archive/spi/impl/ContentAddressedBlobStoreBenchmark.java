@@ -0,0 +1,135 @@
+package org.adempiere.archive.spi.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Stopwatch;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Manual test: measures the read/write throughput of {@link ContentAddressedBlobStore}.
+ * <p>
+ * Usage: <code>ContentAddressedBlobStoreBenchmark [rootDir] [blobsCount] [blobSizeKB]</code>
+ */
+public class ContentAddressedBlobStoreBenchmark
+{
+	public static void main(final String[] args) throws Exception
+	{
+		final Path rootDir = args.length > 0 ? Paths.get(args[0]) : Files.createTempDirectory("cas_benchmark_");
+		final int blobsCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		final int blobSizeKB = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+		new ContentAddressedBlobStoreBenchmark(rootDir, blobsCount, blobSizeKB * 1024).run();
+	}
+
+	private final ContentAddressedBlobStore blobStore;
+	private final int blobsCount;
+	private final int blobSize;
+
+	private ContentAddressedBlobStoreBenchmark(final Path rootDir, final int blobsCount, final int blobSize)
+	{
+		this.blobStore = new ContentAddressedBlobStore(rootDir);
+		this.blobsCount = blobsCount;
+		this.blobSize = blobSize;
+
+		System.out.println("Root: " + rootDir + ", blobs: " + blobsCount + ", blob size: " + blobSize + " bytes");
+	}
+
+	private void run() throws IOException
+	{
+		final List<byte[]> blobs = createTestBlobs();
+
+		//
+		// Write new blobs
+		final List<String> hashes = new ArrayList<>(blobsCount);
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		for (final byte[] blob : blobs)
+		{
+			hashes.add(blobStore.put(new ByteArrayInputStream(blob)));
+		}
+		printThroughput("Write", stopwatch);
+
+		//
+		// Write the same blobs again (deduplicated)
+		stopwatch = Stopwatch.createStarted();
+		for (final byte[] blob : blobs)
+		{
+			blobStore.put(new ByteArrayInputStream(blob));
+		}
+		printThroughput("Write duplicates", stopwatch);
+
+		//
+		// Read
+		final byte[] buffer = new byte[64 * 1024];
+		stopwatch = Stopwatch.createStarted();
+		for (final String hash : hashes)
+		{
+			try (final InputStream in = blobStore.get(hash))
+			{
+				while (in.read(buffer) > 0)
+				{
+					// just read it
+				}
+			}
+		}
+		printThroughput("Read", stopwatch);
+	}
+
+	/**
+	 * @return blobs which compress roughly like rendered documents do, i.e. with a lot of repeating content
+	 */
+	private List<byte[]> createTestBlobs()
+	{
+		final Random random = new Random(0);
+		final byte[] dictionary = new byte[1024];
+		random.nextBytes(dictionary);
+
+		final List<byte[]> blobs = new ArrayList<>(blobsCount);
+		for (int i = 0; i < blobsCount; i++)
+		{
+			final byte[] blob = new byte[blobSize];
+			for (int pos = 0; pos < blobSize; pos++)
+			{
+				blob[pos] = random.nextInt(4) == 0 ? (byte)random.nextInt() : dictionary[pos % dictionary.length];
+			}
+			blobs.add(blob);
+		}
+		return blobs;
+	}
+
+	private void printThroughput(final String name, final Stopwatch stopwatch)
+	{
+		final long millis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		final double megabytes = (double)blobsCount * blobSize / (1024 * 1024);
+		System.out.printf("%-20s %8d ms %10.1f MB/s %10.1f blobs/s%n", name, millis, megabytes * 1000 / millis, blobsCount * 1000.0 / millis);
+	}
+}
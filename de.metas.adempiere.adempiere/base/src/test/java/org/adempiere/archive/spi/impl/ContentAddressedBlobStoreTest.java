@@ -0,0 +1,164 @@
+package org.adempiere.archive.spi.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.compiere.util.Util;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ContentAddressedBlobStoreTest
+{
+	@Rule
+	public TemporaryFolder storageFolder = new TemporaryFolder();
+	private ContentAddressedBlobStore blobStore;
+
+	private final Random random = new Random();
+
+	@Before
+	public void init()
+	{
+		blobStore = new ContentAddressedBlobStore(storageFolder.getRoot().toPath());
+	}
+
+	@Test
+	public void put_get()
+	{
+		final byte[] data = createTestDataBytes();
+
+		final String hash = blobStore.put(new ByteArrayInputStream(data));
+
+		assertThat(hash).hasSize(64);
+		assertThat(blobStore.exists(hash)).isTrue();
+		assertThat(blobStore.getBlobFile(hash)).startsWith(storageFolder.getRoot().toPath().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)));
+		assertThat(Util.readBytes(blobStore.get(hash))).isEqualTo(data);
+	}
+
+	@Test
+	public void put_sameContentTwice()
+	{
+		final byte[] data = createTestDataBytes();
+
+		final String hash1 = blobStore.put(new ByteArrayInputStream(data));
+		final String hash2 = blobStore.put(new ByteArrayInputStream(data.clone()));
+		final String hash3 = blobStore.put(new ByteArrayInputStream(createTestDataBytes()));
+
+		assertThat(hash2).isEqualTo(hash1);
+		assertThat(hash3).isNotEqualTo(hash1);
+		assertThat(storageFolder.getRoot().toPath().resolve("tmp").toFile().list()).isEmpty();
+	}
+
+	@Test
+	public void deleteIfOlderThan() throws Exception
+	{
+		final String hash = blobStore.put(new ByteArrayInputStream(createTestDataBytes()));
+
+		assertThat(blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> false)).isFalse();
+		assertThat(blobStore.exists(hash)).isTrue();
+
+		makeOlder(hash);
+
+		assertThat(blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> true)).as("still referenced").isFalse();
+		assertThat(blobStore.exists(hash)).isTrue();
+
+		assertThat(blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> false)).isTrue();
+		assertThat(blobStore.exists(hash)).isFalse();
+		assertThat(blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> false)).isFalse();
+		assertThat(storageFolder.getRoot().toPath().resolve("tmp").toFile().list()).isEmpty();
+	}
+
+	/**
+	 * The same content is stored again right before the blob is moved aside for deletion, so the deletion is rolled back.
+	 */
+	@Test
+	public void deleteIfOlderThan_reStoredBeforeDeletion() throws Exception
+	{
+		final byte[] data = createTestDataBytes();
+		final String hash = blobStore.put(new ByteArrayInputStream(data));
+		makeOlder(hash);
+
+		final AtomicInteger referenceChecks = new AtomicInteger();
+		final boolean deleted = blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> {
+			if (referenceChecks.incrementAndGet() == 1)
+			{
+				blobStore.put(new ByteArrayInputStream(data.clone()));
+			}
+			return false;
+		});
+
+		assertThat(deleted).isFalse();
+		assertThat(Util.readBytes(blobStore.get(hash))).isEqualTo(data);
+		assertThat(storageFolder.getRoot().toPath().resolve("tmp").toFile().list()).isEmpty();
+	}
+
+	/**
+	 * The same content is stored again while the blob is moved aside for deletion, so the put stores it anew.
+	 */
+	@Test
+	public void deleteIfOlderThan_reStoredDuringDeletion() throws Exception
+	{
+		final byte[] data = createTestDataBytes();
+		final String hash = blobStore.put(new ByteArrayInputStream(data));
+		makeOlder(hash);
+
+		final AtomicInteger referenceChecks = new AtomicInteger();
+		final boolean deleted = blobStore.deleteIfOlderThan(hash, Duration.ofHours(1), () -> {
+			if (referenceChecks.incrementAndGet() == 2)
+			{
+				assertThat(blobStore.exists(hash)).as("blob is moved aside").isFalse();
+				blobStore.put(new ByteArrayInputStream(data.clone()));
+			}
+			return false;
+		});
+
+		assertThat(deleted).as("the moved-aside file was deleted").isTrue();
+		assertThat(Util.readBytes(blobStore.get(hash))).isEqualTo(data);
+		assertThat(storageFolder.getRoot().toPath().resolve("tmp").toFile().list()).isEmpty();
+	}
+
+	private void makeOlder(final String hash) throws IOException
+	{
+		final Path blobFile = blobStore.getBlobFile(hash);
+		Files.setLastModifiedTime(blobFile, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+	}
+
+	private byte[] createTestDataBytes()
+	{
+		final byte[] data = new byte[4096];
+		random.nextBytes(data);
+		return data;
+	}
+}
@@ -0,0 +1,279 @@
+package org.adempiere.impexp;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.lang.IMutable;
+import org.compiere.model.I_C_BPartner;
+import org.compiere.model.I_I_BPartner;
+import org.compiere.util.Env;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ShutdownListener;
+import de.metas.StartupListener;
+import de.metas.util.Services;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Verifies that importing in parallel yields the same result as importing sequentially.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { StartupListener.class, ShutdownListener.class, AbstractImportProcessTest.NoDBFunctionsConfiguration.class })
+public class AbstractImportProcessTest
+{
+	@Configuration
+	public static class NoDBFunctionsConfiguration
+	{
+		@Bean
+		public DBFunctionsRepository dbFunctionsRepository()
+		{
+			return new DBFunctionsRepository()
+			{
+				@Override
+				public DBFunctions retrieveByTableName(final String tableName)
+				{
+					return DBFunctions.builder().tableName(tableName).build();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Imports {@link I_I_BPartner}s into {@link I_C_BPartner}s, where each import record with the same BPValue appends its name to the partner's name.
+	 * Records named {@value #NAME_Fail} fail.
+	 * <p>
+	 * The in-memory database is not thread safe, so the access to it is serialized; the groups are still dispatched and counted by the worker threads.
+	 */
+	private static class TestImportProcess extends AbstractImportProcess<I_I_BPartner>
+	{
+		private static final String NAME_Fail = "fail";
+
+		private final Object inMemoryDatabaseLock = new Object();
+		private final Set<Integer> errorImportRecordIds = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public Class<I_I_BPartner> getImportModelClass()
+		{
+			return I_I_BPartner.class;
+		}
+
+		@Override
+		public String getImportTableName()
+		{
+			return I_I_BPartner.Table_Name;
+		}
+
+		@Override
+		protected String getTargetTableName()
+		{
+			return I_C_BPartner.Table_Name;
+		}
+
+		@Override
+		protected void updateAndValidateImportRecords()
+		{
+			// nothing
+		}
+
+		@Override
+		protected String getImportOrderBySql()
+		{
+			return I_I_BPartner.COLUMNNAME_I_BPartner_ID;
+		}
+
+		@Override
+		protected String getImportGroupKeyColumnName()
+		{
+			return I_I_BPartner.COLUMNNAME_BPValue;
+		}
+
+		@Override
+		void forEachRecordToImport(final String groupKeyColumnName, final Consumer<I_I_BPartner> consumer)
+		{
+			final Comparator<I_I_BPartner> importOrder = Comparator.comparing(I_I_BPartner::getI_BPartner_ID);
+			final List<I_I_BPartner> importRecords = new ArrayList<>(Services.get(IQueryBL.class)
+					.createQueryBuilderOutOfTrx(I_I_BPartner.class)
+					.addEqualsFilter(I_I_BPartner.COLUMNNAME_I_IsImported, false)
+					.create()
+					.list());
+			importRecords.sort(groupKeyColumnName != null ? Comparator.comparing(I_I_BPartner::getBPValue).thenComparing(importOrder) : importOrder);
+			importRecords.forEach(consumer);
+		}
+
+		@Override
+		protected I_I_BPartner retrieveImportRecord(final Properties ctx, final ResultSet rs)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected ImportRecordResult importRecord(final IMutable<Object> state, final I_I_BPartner importRecord, final boolean isInsertOnly)
+		{
+			synchronized (inMemoryDatabaseLock)
+			{
+				if (NAME_Fail.equals(importRecord.getName()))
+				{
+					throw new AdempiereException("Failed importing " + importRecord.getBPValue());
+				}
+
+				I_C_BPartner bpartner = Services.get(IQueryBL.class)
+						.createQueryBuilder(I_C_BPartner.class)
+						.addEqualsFilter(I_C_BPartner.COLUMNNAME_Value, importRecord.getBPValue())
+						.create()
+						.firstOnly(I_C_BPartner.class);
+				if (bpartner == null)
+				{
+					bpartner = newInstance(I_C_BPartner.class);
+					bpartner.setValue(importRecord.getBPValue());
+					bpartner.setName(importRecord.getName());
+					save(bpartner);
+					return ImportRecordResult.Inserted;
+				}
+
+				bpartner.setName(bpartner.getName() + "," + importRecord.getName());
+				save(bpartner);
+				return ImportRecordResult.Updated;
+			}
+		}
+
+		@Override
+		protected void markImported(final I_I_BPartner importRecord)
+		{
+			synchronized (inMemoryDatabaseLock)
+			{
+				super.markImported(importRecord);
+			}
+		}
+
+		@Override
+		void reportError(final I_I_BPartner importRecord, final String errorMsg)
+		{
+			errorImportRecordIds.add(importRecord.getI_BPartner_ID());
+		}
+
+		@Override
+		protected int markNotImportedAllWithErrors()
+		{
+			return errorImportRecordIds.size();
+		}
+	}
+
+	@Value
+	private static class ImportOutcome
+	{
+		int insertCount;
+		int updateCount;
+		int errorCount;
+
+		/** BPValue to name */
+		Map<String, String> bpartnerNames;
+
+		/** I_BPartner_ID to I_IsImported */
+		Map<Integer, Boolean> importRecordsImported;
+
+		Set<Integer> errorImportRecordIds;
+	}
+
+	@Test
+	public void parallelImportEqualsSequentialImport()
+	{
+		final ImportOutcome sequentialOutcome = importAll(1);
+		final ImportOutcome parallelOutcome = importAll(4);
+
+		// 200 records with 10 distinct BPValues, every 17th record fails
+		assertThat(sequentialOutcome.getInsertCount()).isEqualTo(10);
+		assertThat(sequentialOutcome.getErrorCount()).isEqualTo(11);
+		assertThat(sequentialOutcome.getUpdateCount()).isEqualTo(179);
+
+		assertThat(parallelOutcome).isEqualTo(sequentialOutcome);
+	}
+
+	private ImportOutcome importAll(final int threadsCount)
+	{
+		AdempiereTestHelper.get().init();
+		Services.get(ISysConfigBL.class).setValue(AbstractImportProcess.SYSCONFIG_ThreadsCount, threadsCount, 0);
+
+		final Random random = new Random(1234);
+		for (int i = 1; i <= 200; i++)
+		{
+			final I_I_BPartner importRecord = newInstance(I_I_BPartner.class);
+			importRecord.setBPValue("BP" + random.nextInt(10));
+			importRecord.setName(i % 17 == 0 ? TestImportProcess.NAME_Fail : "N" + i);
+			importRecord.setI_IsImported(false);
+			save(importRecord);
+		}
+
+		final TestImportProcess importProcess = new TestImportProcess();
+		importProcess.setCtx(Env.getCtx());
+		final ImportProcessResult result = ImportProcessResult.newInstance(I_C_BPartner.Table_Name);
+		importProcess.importData(result);
+
+		final ImmutableMap.Builder<String, String> bpartnerNames = ImmutableMap.builder();
+		Services.get(IQueryBL.class).createQueryBuilderOutOfTrx(I_C_BPartner.class)
+				.create()
+				.list()
+				.stream()
+				.sorted(Comparator.comparing(I_C_BPartner::getValue))
+				.forEach(bpartner -> bpartnerNames.put(bpartner.getValue(), bpartner.getName()));
+
+		final ImmutableMap.Builder<Integer, Boolean> importRecordsImported = ImmutableMap.builder();
+		Services.get(IQueryBL.class).createQueryBuilderOutOfTrx(I_I_BPartner.class)
+				.create()
+				.list()
+				.forEach(importRecord -> importRecordsImported.put(importRecord.getI_BPartner_ID(), importRecord.isI_IsImported()));
+
+		return new ImportOutcome(
+				result.getInsertCount(),
+				result.getUpdateCount(),
+				result.getErrorCount(),
+				bpartnerNames.build(),
+				importRecordsImported.build(),
+				ImmutableSet.copyOf(importProcess.errorImportRecordIds));
+	}
+}
@@ -0,0 +1,111 @@
+package org.compiere.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import org.adempiere.ad.modelvalidator.AbstractModelInterceptor;
+import org.adempiere.ad.modelvalidator.IModelValidationEngine;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Tests the rules by which {@link PO} decides if its INSERT/UPDATE may be queued in {@link org.adempiere.ad.trx.api.impl.TrxBatchedSaves}.
+ * <p>
+ * Note that {@link PO#saveEx()} itself can't be called here, because it needs a database.
+ */
+public class PO_BatchedSavesTest
+{
+	private static final int AD_Client_ID = 1;
+
+	@SuppressWarnings("serial")
+	private static class PO_WithAfterSave extends X_Test
+	{
+		private PO_WithAfterSave(final Properties ctx, final int Test_ID, final String trxName)
+		{
+			super(ctx, Test_ID, trxName);
+		}
+
+		@Override
+		protected boolean afterSave(final boolean newRecord, final boolean success)
+		{
+			return success;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class PO_InheritingAfterSave extends PO_WithAfterSave
+	{
+		private PO_InheritingAfterSave(final Properties ctx, final int Test_ID, final String trxName)
+		{
+			super(ctx, Test_ID, trxName);
+		}
+	}
+
+	private static class TestInterceptor extends AbstractModelInterceptor
+	{
+		@Override
+		protected void onInit(final IModelValidationEngine engine, final I_AD_Client client)
+		{
+			// nothing
+		}
+	}
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void poOverridingAfterSave_isSavedImmediately()
+	{
+		assertThat(PO.isOverridingAfterSave(X_Test.class)).isFalse();
+		assertThat(PO.isOverridingAfterSave(PO_WithAfterSave.class)).isTrue();
+		assertThat(PO.isOverridingAfterSave(PO_InheritingAfterSave.class)).isTrue();
+	}
+
+	@Test
+	public void poWithModelInterceptor_isSavedImmediately()
+	{
+		final Properties ctx = Env.getCtx();
+		final ModelValidationEngine engine = ModelValidationEngine.get();
+		final TestInterceptor interceptor = new TestInterceptor();
+
+		engine.addModelChange(I_Test.Table_Name, interceptor);
+		try
+		{
+			assertThat(engine.hasModelChangeListeners(ctx, I_Test.Table_Name, 0, AD_Client_ID, ModelValidator.TYPE_AFTER_NEW)).isTrue();
+			assertThat(engine.hasModelChangeListeners(ctx, I_Test.Table_Name, 0, AD_Client_ID, ModelValidator.TYPE_AFTER_CHANGE)).isTrue();
+			assertThat(engine.hasModelChangeListeners(ctx, I_AD_Issue.Table_Name, 0, AD_Client_ID, ModelValidator.TYPE_AFTER_NEW)).isFalse();
+		}
+		finally
+		{
+			engine.removeModelChange(I_Test.Table_Name, interceptor);
+		}
+	}
+}
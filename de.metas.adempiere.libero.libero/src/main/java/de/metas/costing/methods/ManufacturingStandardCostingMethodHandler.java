@@ -18,10 +18,8 @@ import com.google.common.collect.ImmutableSet;
 import de.metas.acct.api.AcctSchema;
 import de.metas.acct.api.IAcctSchemaDAO;
 import de.metas.costing.CostAmount;
-import de.metas.costing.CostDetail;
 import de.metas.costing.CostDetailCreateRequest;
 import de.metas.costing.CostDetailCreateResult;
-import de.metas.costing.CostDetailPreviousAmounts;
 import de.metas.costing.CostDetailVoidRequest;
 import de.metas.costing.CostElement;
 import de.metas.costing.CostPrice;
@@ -30,8 +28,6 @@ import de.metas.costing.CostSegmentAndElement;
 import de.metas.costing.CostingDocumentRef;
 import de.metas.costing.CostingMethod;
 import de.metas.costing.CurrentCost;
-import de.metas.costing.ICostDetailRepository;
-import de.metas.costing.ICurrentCostsRepository;
 import de.metas.material.planning.IResourceProductService;
 import de.metas.material.planning.pporder.PPOrderBOMLineId;
 import de.metas.order.OrderLineId;
@@ -75,21 +71,14 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 	private final IProductBL productsService = Services.get(IProductBL.class);
 	private final IResourceProductService resourceProductService = Services.get(IResourceProductService.class);
 	//
-	private final ICurrentCostsRepository currentCostsRepo;
-	private final ICostDetailRepository costDetailsRepo;
 	private final CostingMethodHandlerUtils utils;
 
 	private static final ImmutableSet<String> HANDLED_TABLE_NAMES = ImmutableSet.<String> builder()
 			.add(CostingDocumentRef.TABLE_NAME_PP_Cost_Collector)
 			.build();
 
-	public ManufacturingStandardCostingMethodHandler(
-			@NonNull final ICurrentCostsRepository currentCostsRepo,
-			@NonNull final ICostDetailRepository costDetailsRepo,
-			@NonNull final CostingMethodHandlerUtils utils)
+	public ManufacturingStandardCostingMethodHandler(@NonNull final CostingMethodHandlerUtils utils)
 	{
-		this.currentCostsRepo = currentCostsRepo;
-		this.costDetailsRepo = costDetailsRepo;
 		this.utils = utils;
 	}
 
@@ -162,8 +151,7 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 
 	private CurrentCost getCurrentCost(final CostDetailCreateRequest request)
 	{
-		final CostSegmentAndElement costSegmentAndElement = utils.extractCostSegmentAndElement(request);
-		return currentCostsRepo.getOrCreate(costSegmentAndElement);
+		return utils.getCurrentCost(request);
 	}
 
 	public CostDetailCreateResult createIssueOrReceipt(final CostDetailCreateRequest request)
@@ -174,15 +162,10 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 		final CurrentCost currentCosts = getCurrentCost(request);
 		final CostPrice price = currentCosts.getCostPrice();
 		final CostAmount amt = price.multiply(qty).roundToCostingPrecisionIfNeeded(acctSchema);
-		final CostDetail costDetail = costDetailsRepo.create(request.toCostDetailBuilder()
-				.amt(amt)
-				.changingCosts(true)
-				.previousAmounts(CostDetailPreviousAmounts.of(currentCosts)));
-
-		final CostDetailCreateResult result = utils.createCostDetailCreateResult(costDetail, request);
+		final CostDetailCreateResult result = utils.createCostDetailRecordWithChangedCosts(request.withAmount(amt), currentCosts);
 
 		currentCosts.addToCurrentQtyAndCumulate(qty, amt);
-		currentCostsRepo.save(currentCosts);
+		utils.saveCurrentCost(currentCosts);
 
 		return result;
 	}
@@ -206,15 +189,10 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 		final CostAmount amt = price.multiply(qty).roundToCostingPrecisionIfNeeded(acctSchema);
 
 		final CurrentCost currentCosts = getCurrentCost(request);
-		final CostDetail costDetail = costDetailsRepo.create(request.toCostDetailBuilder()
-				.amt(amt)
-				.changingCosts(true)
-				.previousAmounts(CostDetailPreviousAmounts.of(currentCosts)));
-
-		final CostDetailCreateResult result = utils.createCostDetailCreateResult(costDetail, request);
+		final CostDetailCreateResult result = utils.createCostDetailRecordWithChangedCosts(request.withAmount(amt), currentCosts);
 
 		currentCosts.addToCurrentQtyAndCumulate(qty, amt);
-		currentCostsRepo.save(currentCosts);
+		utils.saveCurrentCost(currentCosts);
 
 		return result;
 	}
@@ -229,15 +207,10 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 		final CostAmount amt = price.multiply(qty).roundToCostingPrecisionIfNeeded(acctSchema);
 
 		final CurrentCost currentCosts = getCurrentCost(request);
-		final CostDetail costDetail = costDetailsRepo.create(request.toCostDetailBuilder()
-				.amt(amt)
-				.changingCosts(true)
-				.previousAmounts(CostDetailPreviousAmounts.of(currentCosts)));
-
-		final CostDetailCreateResult result = utils.createCostDetailCreateResult(costDetail, request);
+		final CostDetailCreateResult result = utils.createCostDetailRecordWithChangedCosts(request.withAmount(amt), currentCosts);
 
 		currentCosts.addToCurrentQtyAndCumulate(qty, amt);
-		currentCostsRepo.save(currentCosts);
+		utils.saveCurrentCost(currentCosts);
 
 		return result;
 	}
@@ -453,7 +426,7 @@ public class ManufacturingStandardCostingMethodHandler implements CostingMethodH
 
 	private CostPrice getProductActualCostPrice(@NonNull final CostSegmentAndElement costSegmentAndElement)
 	{
-		return currentCostsRepo.getOrCreate(costSegmentAndElement)
+		return utils.getCurrentCost(costSegmentAndElement)
 				.getCostPrice();
 	}
 }
@@ -0,0 +1,127 @@
+package de.metas.costing.methods;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.eevolution.api.CostCollectorType;
+import org.eevolution.model.I_PP_Cost_Collector;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.costing.CostDetailCreateRequest;
+import de.metas.costing.CostElement;
+import de.metas.costing.CostingDocumentRef;
+import de.metas.costing.CostingMethod;
+import de.metas.costing.CostingTestHelper;
+import de.metas.costing.CostingTestHelper.CostDetailRow;
+import de.metas.costing.CostingTestHelper.CostRow;
+import de.metas.costing.impl.CostingService;
+import de.metas.product.ProductId;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.libero.libero
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ManufacturingStandardCostingMethodHandlerTest
+{
+	private static final LocalDate DATE = LocalDate.of(2019, 7, 1);
+
+	@Value
+	private static class CostingOutcome
+	{
+		List<CostRow> costs;
+		List<CostDetailRow> costDetails;
+	}
+
+	/**
+	 * Creates a finished good receipt and two component issues in a fresh in-memory database, then calls the given costing code with them.
+	 */
+	private static CostingOutcome runCosting(final BiConsumer<CostingService, List<CostDetailCreateRequest>> costingCode)
+	{
+		AdempiereTestHelper.get().init();
+		final CostingTestHelper helper = new CostingTestHelper();
+
+		final ProductId finishedGoodId = helper.createProduct("FG");
+		final ProductId componentId = helper.createProduct("C1");
+		final CostElement costElement = helper.createMaterialCostElement(CostingMethod.StandardCosting);
+		final CostingService costingService = helper.createCostingService(ImmutableList.of(new ManufacturingStandardCostingMethodHandler(helper.getUtils())));
+
+		final CostDetailCreateRequest receipt = helper.createRequest(finishedGoodId, costElement, createCostCollector(CostCollectorType.MaterialReceipt), "5", "0", DATE);
+		final CostDetailCreateRequest issue1 = helper.createRequest(componentId, costElement, createCostCollector(CostCollectorType.ComponentIssue), "-4", "0", DATE);
+		final CostDetailCreateRequest issue2 = helper.createRequest(componentId, costElement, createCostCollector(CostCollectorType.ComponentIssue), "-2", "0", DATE);
+
+		helper.setCurrentCostPrice(receipt, "10");
+		helper.setCurrentCostPrice(issue1, "3.335");
+
+		costingCode.accept(costingService, ImmutableList.of(receipt, issue1, issue2));
+
+		return new CostingOutcome(helper.getCosts(), helper.getCostDetails());
+	}
+
+	private static CostingDocumentRef createCostCollector(final CostCollectorType costCollectorType)
+	{
+		final I_PP_Cost_Collector cc = newInstance(I_PP_Cost_Collector.class);
+		cc.setCostCollectorType(costCollectorType.getCode());
+		if (costCollectorType.isComponentIssue())
+		{
+			cc.setPP_Order_BOMLine_ID(1);
+		}
+		saveRecord(cc);
+		return CostingDocumentRef.ofCostCollectorId(cc.getPP_Cost_Collector_ID());
+	}
+
+	@Test
+	public void createIssueOrReceipt()
+	{
+		final CostingOutcome outcome = runCosting((costingService, requests) -> requests.forEach(costingService::createCostDetail));
+
+		assertThat(outcome.getCostDetails())
+				.extracting(CostDetailRow::getProductValue, CostDetailRow::getQty, CostDetailRow::getAmt, CostDetailRow::getPrevCurrentCostPrice)
+				.containsExactlyInAnyOrder(
+						tuple("C1", "-4", "-13.34", "3.335"),
+						tuple("C1", "-2", "-6.67", "3.335"),
+						tuple("FG", "5", "50", "10"));
+
+		assertThat(outcome.getCosts())
+				.extracting(CostRow::getProductValue, CostRow::getCurrentCostPrice, CostRow::getCurrentQty, CostRow::getCumulatedAmt, CostRow::getCumulatedQty)
+				.containsExactly(
+						tuple("C1", "3.335", "-6", "-20.01", "-6"),
+						tuple("FG", "10", "5", "50", "5"));
+	}
+
+	@Test
+	public void createCostDetails_sameAsOneByOne()
+	{
+		final CostingOutcome oneByOneOutcome = runCosting((costingService, requests) -> requests.forEach(costingService::createCostDetail));
+		final CostingOutcome batchOutcome = runCosting(CostingService::createCostDetails);
+
+		assertThat(batchOutcome).isEqualTo(oneByOneOutcome);
+	}
+}
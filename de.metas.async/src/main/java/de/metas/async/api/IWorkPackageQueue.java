@@ -105,6 +105,15 @@ public interface IWorkPackageQueue
 	 */
 	boolean unlockNoFail(I_C_Queue_WorkPackage workPackage);
 
+	/**
+	 * Unlocks the workpackages which were claimed in advance by {@link #pollAndLock(long)} (see sysconfig <code>de.metas.async.PollBatchSize</code>) but were not returned yet.
+	 * <p>
+	 * To be called when the queue processor which is polling from this queue is stopping.
+	 *
+	 * @return how many workpackages were released
+	 */
+	int releaseClaimedWorkPackages();
+
 	/**
 	 * Retrieve the global queue size (i.e. number of unprocessed workpackages). This includes a DB query.
 	 * 
@@ -22,8 +22,10 @@ package de.metas.async.api.impl;
  * #L%
  */
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -67,6 +69,7 @@ import de.metas.async.processor.impl.SyncQueueProcessorListener;
 import de.metas.async.spi.IWorkpackagePrioStrategy;
 import de.metas.async.spi.NullWorkpackagePrio;
 import de.metas.lock.api.ILockManager;
+import de.metas.lock.api.LockOwner;
 import de.metas.lock.exceptions.UnlockFailedException;
 import de.metas.logging.LogManager;
 import de.metas.security.IUserRolePermissions;
@@ -82,6 +85,11 @@ public class WorkPackageQueue implements IWorkPackageQueue
 {
 	private final static String SYSCONFIG_POLLINTERVAL = "de.metas.async.PollIntervallMillis";
 
+	/**
+	 * How many workpackages to claim per database roundtrip. The default (1) means that workpackages are claimed one by one, like before.
+	 */
+	private final static String SYSCONFIG_POLL_BATCH_SIZE = "de.metas.async.PollBatchSize";
+
 	private static final transient Logger logger = LogManager.getLogger(WorkPackageQueue.class);
 
 	private final transient IQueueDAO dao;
@@ -113,6 +121,11 @@ public class WorkPackageQueue implements IWorkPackageQueue
 
 	private final ReentrantLock mainLock = new ReentrantLock();
 
+	/**
+	 * IDs of the workpackages which were already claimed (i.e. locked) for us, but not yet returned by {@link #pollAndLock(long)}. Guarded by {@link #mainLock}.
+	 */
+	private final Deque<Integer> claimedWorkPackageIds = new ArrayDeque<>();
+
 	private WorkPackageQueue(final Properties ctx,
 			final List<Integer> packageProcessorIds,
 			final String enquingPackageProcessorInternalName,
@@ -215,7 +228,7 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		final IQuery<I_C_Queue_WorkPackage> query = createQuery(workPackageCtx);
 
 		final long startTS = SystemTime.millis();
-		I_C_Queue_WorkPackage workPackage = retrieveAndLock(query);
+		I_C_Queue_WorkPackage workPackage = retrieveAndLock(query, workPackageCtx);
 		if (timeoutMillis == TIMEOUT_OneTimeOnly && workPackage == null)
 		{
 			// We are running in one time only mode (synchronous mode) and we did not get the package from the first time
@@ -238,22 +251,21 @@ public class WorkPackageQueue implements IWorkPackageQueue
 				}
 			}
 
-			// No workpackages were found. Sleep 1sec and then try again
+			// No workpackages were found. Wait until we get notified about new workpackages or the poll interval elapsed, and then try again
 			try
 			{
-				// note: we always get the new service, because things might have changed since this method started
-				final int pollIntervalMs = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_POLLINTERVAL, 1000);
-				Thread.sleep(pollIntervalMs);
+				waitForNextWorkPackage();
 			}
 			catch (final InterruptedException e)
 			{
 				logger.debug("Got interrupted signal. Returning null", e);
+				Thread.currentThread().interrupt(); // preserve the interrupted status, so that our queue processor can stop
 				return null;
 			}
 
 			// Try fetching the workpackage again
 			logger.trace("Retry retrieving next workpackage");
-			workPackage = retrieveAndLock(query);
+			workPackage = retrieveAndLock(query, workPackageCtx);
 		}
 
 		Check.assumeNotNull(workPackage, "workPackage not null");
@@ -331,6 +343,90 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		Env.setContext(workPackageCtx, Env.CTXNAME_AD_Session_ID, Env.CTXVALUE_AD_SESSION_ID_NONE);
 	}
 
+	private void waitForNextWorkPackage() throws InterruptedException
+	{
+		final WorkPackageReadyNotifier notifier = WorkPackageReadyNotifier.get();
+		if (notifier.isEnabled())
+		{
+			notifier.awaitReadyForProcessing(packageProcessorIds);
+		}
+		else
+		{
+			// note: we always get the new service, because things might have changed since this method started
+			final int pollIntervalMs = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_POLLINTERVAL, 1000);
+			Thread.sleep(pollIntervalMs);
+		}
+	}
+
+	/**
+	 * Retrieves and locks the next workpackage.
+	 * <p>
+	 * If {@value #SYSCONFIG_POLL_BATCH_SIZE} is greater than one, then the workpackages are claimed in batches and the claimed ones are handed out by subsequent calls.
+	 * Only when our batch is drained, we go to the database again.
+	 *
+	 * @param workPackageCtx the context of the returned workpackage
+	 */
+	private I_C_Queue_WorkPackage retrieveAndLock(
+			final IQuery<I_C_Queue_WorkPackage> query,
+			final Properties workPackageCtx)
+	{
+		final I_C_Queue_WorkPackage claimedWorkPackage = pollClaimedWorkPackage(workPackageCtx);
+		if (claimedWorkPackage != null)
+		{
+			return claimedWorkPackage;
+		}
+
+		final int pollBatchSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_POLL_BATCH_SIZE, 1);
+		if (pollBatchSize <= 1)
+		{
+			return retrieveAndLock(query);
+		}
+
+		final List<I_C_Queue_WorkPackage> workPackages = Services.get(ILockManager.class).retrieveAndLockMultipleRecords(query, I_C_Queue_WorkPackage.class, pollBatchSize);
+		if (workPackages.isEmpty())
+		{
+			return null;
+		}
+
+		// the first one was loaded in workPackageCtx, so we can return it right away; the others we remember for the next calls
+		for (final I_C_Queue_WorkPackage claimedWorkPackage : workPackages.subList(1, workPackages.size()))
+		{
+			claimedWorkPackageIds.add(claimedWorkPackage.getC_Queue_WorkPackage_ID());
+		}
+
+		final I_C_Queue_WorkPackage workPackage = workPackages.get(0);
+		if (!isValid(workPackage))
+		{
+			unlockNoFail(workPackage);
+
+			// don't give up, we might have more claimed workpackages
+			return pollClaimedWorkPackage(workPackageCtx);
+		}
+		return workPackage;
+	}
+
+	/**
+	 * @return next valid workpackage which was already claimed by us or <code>null</code> if there are no more claimed workpackages
+	 */
+	private I_C_Queue_WorkPackage pollClaimedWorkPackage(final Properties workPackageCtx)
+	{
+		while (!claimedWorkPackageIds.isEmpty())
+		{
+			final int workPackageId = claimedWorkPackageIds.poll();
+
+			// NOTE: we load it again, because each workpackage shall have its own context
+			final I_C_Queue_WorkPackage workPackage = InterfaceWrapperHelper.create(workPackageCtx, workPackageId, I_C_Queue_WorkPackage.class, ITrx.TRXNAME_None);
+			if (isValid(workPackage))
+			{
+				return workPackage;
+			}
+
+			releaseClaimedWorkPackage(workPackageId);
+		}
+
+		return null;
+	}
+
 	private I_C_Queue_WorkPackage retrieveAndLock(final IQuery<I_C_Queue_WorkPackage> query)
 	{
 		I_C_Queue_WorkPackage workPackage = Services.get(ILockManager.class).retrieveAndLock(query, I_C_Queue_WorkPackage.class);
@@ -347,6 +443,42 @@ public class WorkPackageQueue implements IWorkPackageQueue
 		return workPackage;
 	}
 
+	@Override
+	public int releaseClaimedWorkPackages()
+	{
+		mainLock.lock();
+		try
+		{
+			int countReleased = 0;
+			while (!claimedWorkPackageIds.isEmpty())
+			{
+				releaseClaimedWorkPackage(claimedWorkPackageIds.poll());
+				countReleased++;
+			}
+			return countReleased;
+		}
+		finally
+		{
+			mainLock.unlock();
+		}
+	}
+
+	private void releaseClaimedWorkPackage(final int workPackageId)
+	{
+		try
+		{
+			Services.get(ILockManager.class)
+					.unlock()
+					.setOwner(LockOwner.NONE)
+					.setRecordByTableRecordId(I_C_Queue_WorkPackage.Table_Name, workPackageId)
+					.release();
+		}
+		catch (final Exception e)
+		{
+			logger.warn("Got exception while releasing claimed C_Queue_WorkPackage_ID={}", workPackageId, e);
+		}
+	}
+
 	@Override
 	public int size()
 	{
@@ -755,6 +887,9 @@ public class WorkPackageQueue implements IWorkPackageQueue
 			workPackage.setIsReadyForProcessing(true);
 			dao.save(workPackage);
 
+			// Wake up the queue pollers (on all nodes) as soon as the workpackage is committed
+			WorkPackageReadyNotifier.get().notifyReadyForProcessing(workPackage);
+
 			success = true;
 		}
 		finally
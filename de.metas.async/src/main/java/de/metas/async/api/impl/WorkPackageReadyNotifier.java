@@ -0,0 +1,268 @@
+package de.metas.async.api.impl;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
+import org.compiere.Adempiere;
+import org.compiere.util.DB;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+
+import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.logging.LogManager;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/**
+ * Wakes up the queue pollers as soon as a work package was marked as ready for processing, instead of having them sleep for a fixed poll interval.
+ * <p>
+ * Uses PostgreSQL's <code>LISTEN/NOTIFY</code>:
+ * <ul>
+ * <li>when a work package is marked as ready for processing, we issue a <code>NOTIFY</code> in the same transaction, having the C_Queue_PackageProcessor_ID as payload.
+ * The database delivers it on commit, to all nodes.</li>
+ * <li>one daemon thread per JVM keeps a dedicated connection which is <code>LISTEN</code>ing, and signals the waiting pollers.</li>
+ * </ul>
+ * Notifications are just a hint. The pollers still wake up after {@link #SYSCONFIG_FallbackPollIntervalMillis} at the latest, so a missed notification costs latency but no work packages.
+ */
+final class WorkPackageReadyNotifier
+{
+	public static WorkPackageReadyNotifier get()
+	{
+		return instance;
+	}
+
+	private static final WorkPackageReadyNotifier instance = new WorkPackageReadyNotifier();
+
+	private static final String SYSCONFIG_Enabled = "de.metas.async.ListenNotify.Enabled";
+	private static final String SYSCONFIG_FallbackPollIntervalMillis = "de.metas.async.ListenNotify.FallbackPollIntervalMillis";
+
+	private static final String CHANNEL = "c_queue_workpackage_ready";
+	private static final int LISTENER_GetNotificationsTimeoutMillis = 500;
+	private static final int LISTENER_ReconnectDelayMillis = 5000;
+
+	private static final Logger logger = LogManager.getLogger(WorkPackageReadyNotifier.class);
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notificationReceived = lock.newCondition();
+
+	/** Number of received notifications, by C_Queue_PackageProcessor_ID */
+	private final ConcurrentHashMap<Integer, AtomicLong> notificationsCountByPackageProcessorId = new ConcurrentHashMap<>();
+
+	private Thread listenerThread;
+
+	private WorkPackageReadyNotifier()
+	{
+	}
+
+	public boolean isEnabled()
+	{
+		if (Adempiere.isUnitTestMode())
+		{
+			return false;
+		}
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_Enabled, false);
+	}
+
+	/**
+	 * Publishes a notification for the given work package. If the work package has a transaction, the notification is delivered when that transaction commits.
+	 */
+	public void notifyReadyForProcessing(@NonNull final I_C_Queue_WorkPackage workPackage)
+	{
+		if (!isEnabled())
+		{
+			return;
+		}
+
+		final int packageProcessorId = workPackage.getC_Queue_Block().getC_Queue_PackageProcessor_ID();
+		final String trxName = InterfaceWrapperHelper.getTrxName(workPackage);
+		try
+		{
+			DB.executeFunctionCallEx(trxName, "SELECT pg_notify(?, ?)", new Object[] { CHANNEL, String.valueOf(packageProcessorId) });
+		}
+		catch (final Exception e)
+		{
+			// the notification is just an optimization; the pollers will find the workpackage anyways
+			logger.warn("Failed notifying the queue pollers about {}. Ignored.", workPackage, e);
+		}
+	}
+
+	/**
+	 * Blocks until a notification was received for any of the given package processors, or until the fallback poll interval elapsed.
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public void awaitReadyForProcessing(@NonNull final Collection<Integer> packageProcessorIds) throws InterruptedException
+	{
+		startListenerIfNeeded();
+
+		final long waitMillis = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_FallbackPollIntervalMillis, 10000);
+		long remainingNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+
+		lock.lock();
+		try
+		{
+			final long notificationsCountInitial = getNotificationsCount(packageProcessorIds);
+			while (remainingNanos > 0 && getNotificationsCount(packageProcessorIds) == notificationsCountInitial)
+			{
+				remainingNanos = notificationReceived.awaitNanos(remainingNanos);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private long getNotificationsCount(final Collection<Integer> packageProcessorIds)
+	{
+		long count = 0;
+		for (final Integer packageProcessorId : packageProcessorIds)
+		{
+			final AtomicLong counter = notificationsCountByPackageProcessorId.get(packageProcessorId);
+			count += counter == null ? 0 : counter.get();
+		}
+		return count;
+	}
+
+	private void onNotification(final PGNotification notification)
+	{
+		final int packageProcessorId;
+		try
+		{
+			packageProcessorId = Integer.parseInt(notification.getParameter());
+		}
+		catch (final NumberFormatException e)
+		{
+			logger.warn("Ignoring invalid notification payload: {}", notification.getParameter());
+			return;
+		}
+
+		notificationsCountByPackageProcessorId
+				.computeIfAbsent(packageProcessorId, k -> new AtomicLong())
+				.incrementAndGet();
+
+		lock.lock();
+		try
+		{
+			notificationReceived.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private synchronized void startListenerIfNeeded()
+	{
+		if (listenerThread != null && listenerThread.isAlive())
+		{
+			return;
+		}
+
+		listenerThread = new Thread(this::listenLoop, WorkPackageReadyNotifier.class.getSimpleName());
+		listenerThread.setDaemon(true);
+		listenerThread.start();
+	}
+
+	private void listenLoop()
+	{
+		while (!Thread.currentThread().isInterrupted())
+		{
+			Connection conn = null;
+			try
+			{
+				conn = DB.createConnection(true, Connection.TRANSACTION_READ_COMMITTED);
+				try (final Statement stmt = conn.createStatement())
+				{
+					stmt.execute("LISTEN " + CHANNEL);
+				}
+				logger.info("Listening for notifications on channel {}", CHANNEL);
+
+				final PGConnection pgConn = conn.unwrap(PGConnection.class);
+				while (!Thread.currentThread().isInterrupted())
+				{
+					final PGNotification[] notifications = pgConn.getNotifications(LISTENER_GetNotificationsTimeoutMillis);
+					if (notifications == null)
+					{
+						continue;
+					}
+					for (final PGNotification notification : notifications)
+					{
+						onNotification(notification);
+					}
+				}
+			}
+			catch (final Exception e)
+			{
+				logger.warn("Listening on channel {} failed. Reconnecting in {}ms. Meanwhile, the queue pollers are falling back to polling.", CHANNEL, LISTENER_ReconnectDelayMillis, e);
+				sleepBeforeReconnect();
+			}
+			finally
+			{
+				closeListenerConnection(conn);
+			}
+		}
+	}
+
+	private static void sleepBeforeReconnect()
+	{
+		try
+		{
+			Thread.sleep(LISTENER_ReconnectDelayMillis);
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void closeListenerConnection(final Connection conn)
+	{
+		if (conn == null)
+		{
+			return;
+		}
+
+		// the connection is coming from the pool, so make sure it's not listening anymore when it's reused
+		try (final Statement stmt = conn.createStatement())
+		{
+			stmt.execute("UNLISTEN *");
+		}
+		catch (final Exception e)
+		{
+			logger.debug("Failed executing UNLISTEN on {}. Ignored.", conn, e);
+		}
+		DB.close(conn);
+	}
+}
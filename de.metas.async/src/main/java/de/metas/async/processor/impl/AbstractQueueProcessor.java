@@ -96,6 +96,23 @@ public abstract class AbstractQueueProcessor implements IQueueProcessor
 
 	@Override
 	public void run()
+	{
+		try
+		{
+			run0();
+		}
+		finally
+		{
+			// we are not going to process the workpackages which we claimed in advance, so let others have them
+			final int countReleased = getQueue().releaseClaimedWorkPackages();
+			if (countReleased > 0)
+			{
+				logger.info("Released {} workpackages which were claimed in advance", countReleased);
+			}
+		}
+	}
+
+	private void run0()
 	{
 		while (true)
 		{
@@ -152,13 +169,10 @@ public abstract class AbstractQueueProcessor implements IQueueProcessor
 						break;
 					}
 				}
-				else
+				else if (error != null)
 				{
-					if (error != null)
-					{
-						logger.warn(error.getLocalizedMessage(), error);
-					}
-					logger.info("Previous pollAndSubmit was not successfull. Sleeping 1000ms");
+					logger.warn(error.getLocalizedMessage(), error);
+					logger.info("Previous pollAndSubmit failed. Sleeping 1000ms");
 					try
 					{
 						Thread.sleep(1000);
@@ -170,6 +184,11 @@ public abstract class AbstractQueueProcessor implements IQueueProcessor
 						break;
 					}
 				}
+				else
+				{
+					// the queue already waited for the polling timeout (or we were interrupted), so there is no point to sleep again
+					logger.debug("Previous pollAndSubmit did not return a workpackage. Polling again");
+				}
 			}
 		}
 	}
@@ -23,6 +23,8 @@ package de.metas.lock.api;
  */
 
 
+import java.util.List;
+
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryFilter;
 import org.compiere.model.IQuery;
@@ -94,6 +96,16 @@ public interface ILockManager extends ISingletonService
 	 */
 	<T> T retrieveAndLock(IQuery<T> query, Class<T> clazz);
 
+	/**
+	 * Retrieves up to <code>limit</code> models from query and locks them (using {@link LockOwner#NONE}), in one go.
+	 * <p>
+	 * Unlike calling {@link #retrieveAndLock(IQuery, Class)} in a loop, concurrent callers do not compete for the same records.
+	 * The database implementation skips records which are currently being claimed by somebody else, instead of retrying.
+	 *
+	 * @return retrieved records (already locked); never returns <code>null</code>
+	 */
+	<T> List<T> retrieveAndLockMultipleRecords(IQuery<T> query, Class<T> clazz, int limit);
+
 	/**
 	 * Builds a SQL where clause to be used in other queries to filter the results.
 	 *
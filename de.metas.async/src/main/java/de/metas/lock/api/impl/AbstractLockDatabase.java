@@ -22,7 +22,9 @@ package de.metas.lock.api.impl;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
@@ -311,6 +313,29 @@ public abstract class AbstractLockDatabase implements ILockDatabase
 		return null;
 	}
 
+	/**
+	 * Generic implementation which calls {@link #retrieveAndLock(IQuery, Class)} until the limit is reached or there are no more records.
+	 * Database specific implementations are encouraged to override it and claim all records in one go.
+	 */
+	@Override
+	public <T> List<T> retrieveAndLockMultipleRecords(final IQuery<T> query, final Class<T> clazz, final int limit)
+	{
+		Check.assume(limit > 0, "limit > 0");
+
+		final List<T> result = new ArrayList<>(limit);
+		while (result.size() < limit)
+		{
+			final T model = retrieveAndLock(query, clazz);
+			if (model == null)
+			{
+				break;
+			}
+			result.add(model);
+		}
+
+		return result;
+	}
+
 	@Override
 	public final String getLockedWhereClause(final Class<?> modelClass, final String joinColumnNameFQ, final LockOwner lockOwner)
 	{
@@ -6,6 +6,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.adempiere.ad.dao.IQueryFilter;
 import org.adempiere.ad.dao.ISqlQueryFilter;
@@ -16,10 +17,14 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBUniqueConstraintException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.lang.ITableRecordReference;
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.IQuery;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.lock.api.ILock;
 import de.metas.lock.api.ILockCommand;
 import de.metas.lock.api.IUnlockCommand;
@@ -450,6 +455,117 @@ public class SqlLockDatabase extends AbstractLockDatabase
 		return finalQuery;
 	}
 
+	/**
+	 * Claims the records in one statement: the candidate rows are selected using <code>FOR UPDATE SKIP LOCKED</code>, so concurrent callers (other threads or other nodes) never select the same rows,
+	 * and the lock records are inserted in the same go. Records which got locked by somebody else in the meantime are silently skipped (<code>ON CONFLICT DO NOTHING</code>).
+	 */
+	@Override
+	public <T> List<T> retrieveAndLockMultipleRecords(@NonNull final IQuery<T> query, @NonNull final Class<T> clazz, final int limit)
+	{
+		Check.assume(limit > 0, "limit > 0");
+
+		final TypedSqlQuery<T> sqlQuery = TypedSqlQuery.cast(query);
+		final String tableName = sqlQuery.getTableName();
+		final String keyColumnName = sqlQuery.getKeyColumnName();
+		final String keyColumnNameFQ = tableName + "." + keyColumnName;
+		final int adTableId = Services.get(IADTableDAO.class).retrieveTableId(tableName);
+
+		final TypedSqlQuery<T> notLockedQuery = TypedSqlQuery.cast(retrieveNotLockedQuery(sqlQuery));
+		notLockedQuery.setLimit(limit);
+		final String sqlCandidates = notLockedQuery.buildSQL(
+				new StringBuilder("SELECT ").append(keyColumnNameFQ).append(" AS ").append(keyColumnName),
+				null/* fromClause */,
+				true/* useOrderByClause */)
+				+ "\n FOR UPDATE SKIP LOCKED";
+
+		final List<Object> sqlParams = new ArrayList<>();
+		final String sql = "INSERT INTO " + I_T_Lock.Table_Name + " ("
+				+ I_T_Lock.COLUMNNAME_AD_Table_ID
+				+ ", " + I_T_Lock.COLUMNNAME_Record_ID
+				+ ", " + I_T_Lock.COLUMNNAME_Owner
+				+ ", " + I_T_Lock.COLUMNNAME_IsAutoCleanup
+				+ ", " + I_T_Lock.COLUMNNAME_IsAllowMultipleOwners
+				+ ")"
+				//
+				+ " SELECT "
+				+ toSqlParam(adTableId, sqlParams) // AD_Table_ID
+				+ ", candidates." + keyColumnName // Record_ID
+				+ ", " + toSqlParam(LockOwner.NONE.getOwnerName(), sqlParams) // Owner
+				+ ", " + toSqlParam(true, sqlParams) // IsAutoCleanup (same as retrieveAndLock)
+				+ ", " + toSqlParam(false, sqlParams) // IsAllowMultipleOwners (same as retrieveAndLock)
+				+ " FROM (" + sqlCandidates + ") candidates"
+				//
+				+ " ON CONFLICT DO NOTHING"
+				+ " RETURNING " + I_T_Lock.COLUMNNAME_Record_ID;
+		sqlParams.addAll(notLockedQuery.getParametersEffective());
+
+		final List<Integer> lockedRecordIds = new ArrayList<>();
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				lockedRecordIds.add(rs.getInt(1));
+			}
+		}
+		catch (final SQLException e)
+		{
+			throw new LockFailedException("Failed claiming records of " + tableName, e)
+					.setSql(sql, sqlParams.toArray());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+			rs = null;
+			pstmt = null;
+		}
+
+		if (lockedRecordIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		//
+		// Load the claimed records, keeping the query's ordering.
+		final String loadWhereClause = DB.buildSqlList(keyColumnNameFQ, lockedRecordIds); // embedded params; they are just integers
+		final List<T> models = sqlQuery
+				.addWhereClause(true, loadWhereClause)
+				.list(clazz);
+
+		//
+		// Release the records which we locked but which don't match the query anymore (e.g. processed in the meantime)
+		if (models.size() < lockedRecordIds.size())
+		{
+			final Set<Integer> loadedIds = models.stream().map(InterfaceWrapperHelper::getId).collect(ImmutableSet.toImmutableSet());
+			lockedRecordIds.stream()
+					.filter(recordId -> !loadedIds.contains(recordId))
+					.forEach(recordId -> unlockClaimedRecordNoFail(adTableId, recordId));
+		}
+
+		return models;
+	}
+
+	private void unlockClaimedRecordNoFail(final int adTableId, final int recordId)
+	{
+		final StringBuilder sql = new StringBuilder(SQL_DeleteLock);
+		final List<Object> sqlParams = new ArrayList<>();
+		appendTableRecordWhereClause(TableRecordReference.of(adTableId, recordId), sql, sqlParams);
+		appendLockOwnerWhereClause(LockOwner.NONE, sql, sqlParams);
+
+		try
+		{
+			DB.executeUpdateEx(sql.toString(), sqlParams.toArray(), ITrx.TRXNAME_None);
+		}
+		catch (final Exception e)
+		{
+			logger.warn("Failed releasing claimed record AD_Table_ID={}, Record_ID={}. Ignored.", adTableId, recordId, e);
+		}
+	}
+
 	@Override
 	public final String getNotLockedWhereClause(final String tableName, final String joinColumnNameFQ)
 	{
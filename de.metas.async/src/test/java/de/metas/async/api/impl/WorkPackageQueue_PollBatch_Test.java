@@ -0,0 +1,94 @@
+package de.metas.async.api.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.service.ISysConfigBL;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.async.QueueProcessorTestBase;
+import de.metas.async.api.IWorkPackageQueue;
+import de.metas.async.model.I_C_Queue_Processor;
+import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.async.processor.IWorkPackageQueueFactory;
+import de.metas.async.processor.impl.StaticMockedWorkpackageProcessor;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.async
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class WorkPackageQueue_PollBatch_Test extends QueueProcessorTestBase
+{
+	private IWorkPackageQueue workpackageQueueForProcessing;
+
+	@Override
+	protected void beforeTestCustomized()
+	{
+		Services.get(ISysConfigBL.class).setValue("de.metas.async.PollBatchSize", 3, 0);
+
+		final I_C_Queue_Processor queueProcessorDef = helper.createQueueProcessor("Test_" + testName.getMethodName(), 1, 1, 1000);
+		helper.assignPackageProcessor(queueProcessorDef, StaticMockedWorkpackageProcessor.class);
+		workpackageQueueForProcessing = Services.get(IWorkPackageQueueFactory.class).getQueueForPackageProcessing(queueProcessorDef);
+	}
+
+	@Test
+	public void pollAndLock_returnsEachWorkpackageOnce()
+	{
+		final IWorkPackageQueue workpackageQueueForEnqueuing = Services.get(IWorkPackageQueueFactory.class).getQueueForEnqueuing(ctx, StaticMockedWorkpackageProcessor.class);
+		final List<I_C_Queue_WorkPackage> workpackages = helper.createAndEnqueueWorkpackages(workpackageQueueForEnqueuing, 5, true); // markReadyForProcessing=true
+
+		final List<I_C_Queue_WorkPackage> polledWorkpackages = new ArrayList<>();
+		I_C_Queue_WorkPackage workpackage;
+		while ((workpackage = workpackageQueueForProcessing.pollAndLock(IWorkPackageQueue.TIMEOUT_OneTimeOnly)) != null)
+		{
+			assertThat(lockManager.isLocked(workpackage)).isTrue();
+			polledWorkpackages.add(workpackage);
+		}
+
+		assertThat(polledWorkpackages)
+				.extracting(I_C_Queue_WorkPackage::getC_Queue_WorkPackage_ID)
+				.containsExactlyInAnyOrderElementsOf(workpackages.stream().map(I_C_Queue_WorkPackage::getC_Queue_WorkPackage_ID).collect(ImmutableList.toImmutableList()));
+
+		polledWorkpackages.forEach(workpackageQueueForProcessing::unlock);
+		helper.assertNothingLocked();
+	}
+
+	@Test
+	public void releaseClaimedWorkPackages()
+	{
+		final IWorkPackageQueue workpackageQueueForEnqueuing = Services.get(IWorkPackageQueueFactory.class).getQueueForEnqueuing(ctx, StaticMockedWorkpackageProcessor.class);
+		helper.createAndEnqueueWorkpackages(workpackageQueueForEnqueuing, 5, true); // markReadyForProcessing=true
+
+		// claims the first three workpackages and returns the first one
+		final I_C_Queue_WorkPackage workpackage = workpackageQueueForProcessing.pollAndLock(IWorkPackageQueue.TIMEOUT_OneTimeOnly);
+		assertThat(workpackage).isNotNull();
+
+		assertThat(workpackageQueueForProcessing.releaseClaimedWorkPackages()).isEqualTo(2);
+
+		workpackageQueueForProcessing.unlock(workpackage);
+		helper.assertNothingLocked();
+	}
+}
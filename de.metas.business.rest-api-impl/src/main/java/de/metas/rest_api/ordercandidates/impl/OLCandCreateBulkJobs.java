@@ -0,0 +1,186 @@
+package de.metas.rest_api.ordercandidates.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.logging.LogManager;
+import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkJob;
+import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkJob.Status;
+import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkResponse;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.ordercandidate.rest-api-impl
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Runs bulk order line candidate ingestions in background and keeps their progress, so that the REST client can poll it.
+ * <p>
+ * The jobs are kept in memory (i.e. they are local to this node) and finished jobs are forgotten after {@link #FINISHED_JOBS_TTL}.
+ */
+final class OLCandCreateBulkJobs
+{
+	private static final Logger logger = LogManager.getLogger(OLCandCreateBulkJobs.class);
+
+	private static final int THREADS_COUNT = 2;
+	private static final Duration FINISHED_JOBS_TTL = Duration.ofHours(1);
+
+	private final Executor executor;
+	private final ConcurrentHashMap<String, Job> jobsById = new ConcurrentHashMap<>();
+
+	OLCandCreateBulkJobs()
+	{
+		this(Executors.newFixedThreadPool(THREADS_COUNT, CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(OLCandCreateBulkJobs.class.getSimpleName())
+				.setDaemon(true)
+				.build()));
+	}
+
+	@VisibleForTesting
+	OLCandCreateBulkJobs(@NonNull final Executor executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * @param task creates the order line candidates; it gets a callback to be notified each time some candidates were created
+	 */
+	public JsonOLCandCreateBulkJob submit(
+			final int countTotal,
+			@NonNull final Function<IntConsumer, JsonOLCandCreateBulkResponse> task)
+	{
+		removeExpiredJobs();
+
+		final Job job = new Job(UUID.randomUUID().toString(), countTotal);
+		jobsById.put(job.getJobId(), job);
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		executor.execute(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				job.run(task);
+			}
+		});
+
+		return job.toJson();
+	}
+
+	public Optional<JsonOLCandCreateBulkJob> getJob(@NonNull final String jobId)
+	{
+		return Optional.ofNullable(jobsById.get(jobId)).map(Job::toJson);
+	}
+
+	private void removeExpiredJobs()
+	{
+		final Instant expiredBefore = Instant.now().minus(FINISHED_JOBS_TTL);
+		jobsById.values().removeIf(job -> job.isFinishedBefore(expiredBefore));
+	}
+
+	private static final class Job
+	{
+		private final String jobId;
+		private final int countTotal;
+		private final AtomicInteger countCreated = new AtomicInteger(0);
+
+		private Status status = Status.QUEUED;
+		private String errorMessage;
+		private JsonOLCandCreateBulkResponse result;
+		private Instant finishedAt;
+
+		private Job(final String jobId, final int countTotal)
+		{
+			this.jobId = jobId;
+			this.countTotal = countTotal;
+		}
+
+		public String getJobId()
+		{
+			return jobId;
+		}
+
+		private void run(final Function<IntConsumer, JsonOLCandCreateBulkResponse> task)
+		{
+			setStatus(Status.RUNNING);
+			try
+			{
+				final JsonOLCandCreateBulkResponse result = task.apply(countCreated::addAndGet);
+				onDone(result);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Bulk order line candidates job {} failed", jobId, ex);
+				onFailed(ex);
+			}
+		}
+
+		private synchronized void setStatus(final Status status)
+		{
+			this.status = status;
+		}
+
+		private synchronized void onDone(final JsonOLCandCreateBulkResponse result)
+		{
+			this.status = Status.DONE;
+			this.result = result;
+			this.finishedAt = Instant.now();
+		}
+
+		private synchronized void onFailed(final Exception ex)
+		{
+			this.status = Status.FAILED;
+			this.errorMessage = ex.getLocalizedMessage();
+			this.finishedAt = Instant.now();
+		}
+
+		private synchronized boolean isFinishedBefore(final Instant instant)
+		{
+			return finishedAt != null && finishedAt.isBefore(instant);
+		}
+
+		private synchronized JsonOLCandCreateBulkJob toJson()
+		{
+			return JsonOLCandCreateBulkJob.builder()
+					.jobId(jobId)
+					.status(status)
+					.countTotal(countTotal)
+					.countCreated(countCreated.get())
+					.errorMessage(errorMessage)
+					.result(result)
+					.build();
+		}
+	}
+}
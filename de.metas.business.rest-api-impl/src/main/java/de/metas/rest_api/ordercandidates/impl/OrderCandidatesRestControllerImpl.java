@@ -4,6 +4,7 @@ import static de.metas.util.lang.CoalesceUtil.coalesce;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nullable;
 
@@ -12,6 +13,7 @@ import org.adempiere.service.OrgId;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,6 +25,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 import de.metas.Profiles;
 import de.metas.attachments.AttachmentEntry;
@@ -36,16 +39,21 @@ import de.metas.ordercandidate.api.OLCandQuery;
 import de.metas.ordercandidate.api.OLCandRepository;
 import de.metas.rest_api.attachment.JsonAttachmentType;
 import de.metas.rest_api.ordercandidates.JsonAttachment;
+import de.metas.rest_api.ordercandidates.JsonBPartnerInfo;
 import de.metas.rest_api.ordercandidates.JsonOLCand;
+import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkJob;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkRequest;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkResponse;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateRequest;
+import de.metas.rest_api.ordercandidates.JsonOrganization;
 import de.metas.rest_api.ordercandidates.OrderCandidatesRestEndpoint;
+import de.metas.rest_api.product.JsonProductInfo;
 import de.metas.rest_api.product.impl.ProductMasterDataProvider;
 import de.metas.util.Check;
 import de.metas.util.Services;
 import io.swagger.annotations.ApiParam;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -82,6 +90,14 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 
 	private MasterdataProviderFactory masterdataProviderFactory;
 
+	private OLCandCreateBulkJobs bulkJobs = new OLCandCreateBulkJobs();
+
+	/** How many distinct master data combinations are created/updated in one transaction when ingesting asynchronously */
+	private static final int ASYNC_MASTERDATA_CHUNK_SIZE = 100;
+
+	/** How many order line candidates are created in one transaction when ingesting asynchronously */
+	private static final int ASYNC_OLCANDS_CHUNK_SIZE = 500;
+
 	public OrderCandidatesRestControllerImpl(
 			@NonNull final MasterdataProviderFactory masterdataProviderFactory,
 			@NonNull final JsonConverters jsonConverters,
@@ -93,6 +109,12 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 
 	}
 
+	@VisibleForTesting
+	void setBulkJobs(@NonNull final OLCandCreateBulkJobs bulkJobs)
+	{
+		this.bulkJobs = bulkJobs;
+	}
+
 	@PostMapping
 	@Override
 	public ResponseEntity<JsonOLCand> createOrderLineCandidate(@RequestBody final JsonOLCandCreateRequest request)
@@ -128,6 +150,54 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 		return new ResponseEntity<>(jsonOLCandCreateBulkResponse, HttpStatus.CREATED);
 	}
 
+	@PostMapping(PATH_BULK_ASYNC)
+	@Override
+	public ResponseEntity<JsonOLCandCreateBulkJob> createOrderLineCandidatesAsync(@RequestBody @NonNull final JsonOLCandCreateBulkRequest bulkRequest)
+	{
+		bulkRequest.validate();
+
+		final JsonOLCandCreateBulkJob job = bulkJobs.submit(
+				bulkRequest.getRequests().size(),
+				progressCallback -> createOrderLineCandidatesInChunks(bulkRequest, progressCallback));
+
+		return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+	}
+
+	@GetMapping(PATH_BULK_JOBS + "/{jobId}")
+	@Override
+	public ResponseEntity<JsonOLCandCreateBulkJob> getOrderLineCandidatesBulkJob(@PathVariable("jobId") final String jobId)
+	{
+		return bulkJobs.getJob(jobId)
+				.map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Like {@link #createOrderLineCandidates(JsonOLCandCreateBulkRequest)}, but with short transactions instead of one big transaction.
+	 * Each chunk of master data and of order line candidates is committed on its own, so if one chunk fails, the previous ones remain.
+	 */
+	private JsonOLCandCreateBulkResponse createOrderLineCandidatesInChunks(
+			@NonNull final JsonOLCandCreateBulkRequest bulkRequest,
+			@NonNull final IntConsumer progressCallback)
+	{
+		final MasterdataProvider masterdataProvider = masterdataProviderFactory.createMasterDataProvider();
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+
+		for (final List<MasterdataKey> masterdataKeys : Lists.partition(extractDistinctMasterdataKeys(bulkRequest), ASYNC_MASTERDATA_CHUNK_SIZE))
+		{
+			trxManager.run(() -> masterdataKeys.forEach(masterdataKey -> createOrUpdateMasterdata(masterdataKey, masterdataProvider)));
+		}
+
+		final ImmutableList.Builder<OLCand> olCands = ImmutableList.builder();
+		for (final List<JsonOLCandCreateRequest> requests : Lists.partition(bulkRequest.getRequests(), ASYNC_OLCANDS_CHUNK_SIZE))
+		{
+			olCands.addAll(trxManager.call(() -> createOLCands(requests, masterdataProvider)));
+			progressCallback.accept(requests.size());
+		}
+
+		return jsonConverters.toJson(olCands.build(), masterdataProvider);
+	}
+
 	private void assertCanCreate(
 			@NonNull final JsonOLCandCreateRequest request,
 			@NonNull final MasterdataProvider masterdataProvider)
@@ -140,40 +210,79 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 			@NonNull final JsonOLCandCreateBulkRequest bulkRequest,
 			@NonNull final MasterdataProvider masterdataProvider)
 	{
-		bulkRequest.getRequests()
+		extractDistinctMasterdataKeys(bulkRequest)
+				.forEach(masterdataKey -> createOrUpdateMasterdata(masterdataKey, masterdataProvider));
+	}
+
+	/**
+	 * The lines of a bulk request usually share the same org, bpartners and products, so we create/update each combination just once.
+	 */
+	private static ImmutableList<MasterdataKey> extractDistinctMasterdataKeys(@NonNull final JsonOLCandCreateBulkRequest bulkRequest)
+	{
+		return bulkRequest.getRequests()
 				.stream()
-				.forEach(request -> createOrUpdateMasterdata(request, masterdataProvider));
+				.map(MasterdataKey::of)
+				.distinct()
+				.collect(ImmutableList.toImmutableList());
 	}
 
 	private void createOrUpdateMasterdata(
-			@NonNull final JsonOLCandCreateRequest json,
+			@NonNull final MasterdataKey masterdataKey,
 			@NonNull final MasterdataProvider masterdataProvider)
 	{
-		final OrgId orgId = masterdataProvider.getCreateOrgId(json.getOrg());
+		final OrgId orgId = masterdataProvider.getCreateOrgId(masterdataKey.getOrg());
 
 		final BPartnerMasterDataProvider bpartnerMasterdataProvider = masterdataProvider.getBPartnerMasterDataProvider();
-		bpartnerMasterdataProvider.getCreateBPartnerInfo(json.getBpartner(), orgId);
-		bpartnerMasterdataProvider.getCreateBPartnerInfo(json.getBillBPartner(), orgId);
-		bpartnerMasterdataProvider.getCreateBPartnerInfo(json.getDropShipBPartner(), orgId);
-		bpartnerMasterdataProvider.getCreateBPartnerInfo(json.getHandOverBPartner(), orgId);
+		bpartnerMasterdataProvider.getCreateBPartnerInfo(masterdataKey.getBpartner(), orgId);
+		bpartnerMasterdataProvider.getCreateBPartnerInfo(masterdataKey.getBillBPartner(), orgId);
+		bpartnerMasterdataProvider.getCreateBPartnerInfo(masterdataKey.getDropShipBPartner(), orgId);
+		bpartnerMasterdataProvider.getCreateBPartnerInfo(masterdataKey.getHandOverBPartner(), orgId);
 
 		final ProductMasterDataProvider productMasterDataProvider = masterdataProvider.getProductMasterDataProvider();
-		productMasterDataProvider.getCreateProductInfo(json.getProduct(), orgId);
+		productMasterDataProvider.getCreateProductInfo(masterdataKey.getProduct(), orgId);
+	}
+
+	@Value
+	private static class MasterdataKey
+	{
+		static MasterdataKey of(@NonNull final JsonOLCandCreateRequest request)
+		{
+			return new MasterdataKey(
+					request.getOrg(),
+					request.getBpartner(),
+					request.getBillBPartner(),
+					request.getDropShipBPartner(),
+					request.getHandOverBPartner(),
+					request.getProduct());
+		}
+
+		JsonOrganization org;
+		JsonBPartnerInfo bpartner;
+		JsonBPartnerInfo billBPartner;
+		JsonBPartnerInfo dropShipBPartner;
+		JsonBPartnerInfo handOverBPartner;
+		JsonProductInfo product;
 	}
 
 	private JsonOLCandCreateBulkResponse creatOrderLineCandidates(
 			@NonNull final JsonOLCandCreateBulkRequest bulkRequest,
 			@NonNull final MasterdataProvider masterdataProvider)
 	{
-		final List<OLCandCreateRequest> requests = bulkRequest
-				.getRequests()
+		final List<OLCand> olCands = createOLCands(bulkRequest.getRequests(), masterdataProvider);
+		return jsonConverters.toJson(olCands, masterdataProvider);
+	}
+
+	private List<OLCand> createOLCands(
+			@NonNull final List<JsonOLCandCreateRequest> jsonRequests,
+			@NonNull final MasterdataProvider masterdataProvider)
+	{
+		final List<OLCandCreateRequest> requests = jsonRequests
 				.stream()
 				.peek(request -> assertCanCreate(request, masterdataProvider))
 				.map(request -> fromJson(request, masterdataProvider))
 				.collect(ImmutableList.toImmutableList());
 
-		final List<OLCand> olCands = olCandRepo.create(requests);
-		return jsonConverters.toJson(olCands, masterdataProvider);
+		return olCandRepo.create(requests);
 	}
 
 	private OLCandCreateRequest fromJson(
@@ -16,9 +16,12 @@ import org.compiere.model.I_M_Product;
 import org.compiere.util.MimeType;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import de.metas.attachments.AttachmentEntry;
 import de.metas.attachments.AttachmentEntryId;
@@ -29,6 +32,7 @@ import de.metas.rest_api.SyncAdvise.IfNotExists;
 import de.metas.rest_api.attachment.JsonAttachmentType;
 import de.metas.rest_api.ordercandidates.JsonAttachment;
 import de.metas.rest_api.ordercandidates.JsonOLCand;
+import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkJob;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkRequest;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateBulkResponse;
 import de.metas.rest_api.ordercandidates.JsonOLCandCreateRequest;
@@ -162,6 +166,39 @@ public class OrderCandidatesRestControllerImplTest
 		}
 	}
 
+	@Test
+	public void createOrderLineCandidatesAsync()
+	{
+		orderCandidatesRestControllerImpl.setBulkJobs(new OLCandCreateBulkJobs(MoreExecutors.directExecutor()));
+
+		final SyncAdvise ifNotExistsCreateAdvise = SyncAdvise.builder().ifNotExists(IfNotExists.CREATE).build();
+
+		final JsonOLCandCreateBulkRequest bulkRequest = JsonOLCandUtil.fromResource("/JsonOLCandCreateBulkRequest.json")
+				.withOrgSyncAdvise(ifNotExistsCreateAdvise)
+				.withBPartnersSyncAdvise(ifNotExistsCreateAdvise)
+				.withProductsSyncAdvise(ifNotExistsCreateAdvise);
+
+		// invoke the method under test
+		final ResponseEntity<JsonOLCandCreateBulkJob> submitResponse = orderCandidatesRestControllerImpl.createOrderLineCandidatesAsync(bulkRequest);
+		assertThat(submitResponse.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+		final String jobId = submitResponse.getBody().getJobId();
+		final JsonOLCandCreateBulkJob job = orderCandidatesRestControllerImpl.getOrderLineCandidatesBulkJob(jobId).getBody();
+		assertThat(job.getStatus()).isEqualTo(JsonOLCandCreateBulkJob.Status.DONE);
+		assertThat(job.getCountTotal()).isEqualTo(21);
+		assertThat(job.getCountCreated()).isEqualTo(21);
+
+		final List<JsonOLCand> olCands = job.getResult().getResult();
+		assertThat(olCands).hasSize(21);
+		assertThat(olCands).extracting(JsonOLCand::getExternalLineId).doesNotHaveDuplicates();
+	}
+
+	@Test
+	public void getOrderLineCandidatesBulkJob_unknownJobId()
+	{
+		assertThat(orderCandidatesRestControllerImpl.getOrderLineCandidatesBulkJob("unknown").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
 	/**
 	 * Asserts that every {@link AttachmentEntry.Type} has a matching {@link JsonAttachment.Type} and vice versa
 	 */
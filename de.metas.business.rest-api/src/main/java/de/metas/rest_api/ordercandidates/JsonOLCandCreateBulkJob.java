@@ -0,0 +1,64 @@
+package de.metas.rest_api.ordercandidates;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.ordercandidate.rest-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Progress and (when done) result of a bulk order line candidates ingestion which was started via {@link OrderCandidatesRestEndpoint#PATH_BULK_ASYNC}.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Value
+@Builder
+public class JsonOLCandCreateBulkJob
+{
+	public enum Status
+	{
+		QUEUED, RUNNING, DONE, FAILED
+	}
+
+	@NonNull
+	private String jobId;
+
+	@NonNull
+	private Status status;
+
+	/** Number of requested order line candidates */
+	private int countTotal;
+
+	/** Number of order line candidates which were created so far */
+	private int countCreated;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String errorMessage;
+
+	/** The created order line candidates; only set if the status is {@link Status#DONE} */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private JsonOLCandCreateBulkResponse result;
+}
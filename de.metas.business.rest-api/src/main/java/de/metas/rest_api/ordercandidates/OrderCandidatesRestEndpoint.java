@@ -36,10 +36,20 @@ public interface OrderCandidatesRestEndpoint
 
 	String PATH_BULK = "/bulk";
 
+	/** Creates the order line candidates in background and answers right away with a job; see {@link #PATH_BULK_JOBS}. */
+	String PATH_BULK_ASYNC = PATH_BULK + "/async";
+
+	/** Progress and result of the jobs started via {@link #PATH_BULK_ASYNC}; append <code>/{jobId}</code>. */
+	String PATH_BULK_JOBS = PATH_BULK + "/jobs";
+
 	ResponseEntity<JsonOLCand> createOrderLineCandidate(JsonOLCandCreateRequest request);
 
 	ResponseEntity<JsonOLCandCreateBulkResponse> createOrderLineCandidates(JsonOLCandCreateBulkRequest bulkRequest);
 
+	ResponseEntity<JsonOLCandCreateBulkJob> createOrderLineCandidatesAsync(JsonOLCandCreateBulkRequest bulkRequest);
+
+	ResponseEntity<JsonOLCandCreateBulkJob> getOrderLineCandidatesBulkJob(String jobId);
+
 	ResponseEntity<JsonAttachment> attachFile(
 			String dataSourceName,
 			String externalReference,
@@ -323,6 +323,13 @@ public class BPartnerImportProcess extends AbstractImportProcess<I_I_BPartner>
 				+ ", " + I_I_BPartner.COLUMNNAME_I_BPartner_ID;
 	}
 
+	@Override
+	protected String getImportGroupKeyColumnName()
+	{
+		// the partners are identified by their BPValue
+		return I_I_BPartner.COLUMNNAME_BPValue;
+	}
+
 	@Override
 	protected String getTargetTableName()
 	{
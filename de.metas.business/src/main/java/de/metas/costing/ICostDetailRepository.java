@@ -32,6 +32,9 @@ public interface ICostDetailRepository
 {
 	CostDetail create(CostDetail.CostDetailBuilder costDetailBuilder);
 
+	/** Saves the given new cost details, in the given order. */
+	List<CostDetail> createAll(List<CostDetail> costDetails);
+
 	void delete(CostDetail costDetail);
 
 	CostDetail getCostDetailOrNull(CostDetailQuery query);
@@ -1,5 +1,7 @@
 package de.metas.costing;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import de.metas.order.OrderLineId;
@@ -30,10 +32,39 @@ public interface ICostingService
 {
 	AggregatedCostAmount createCostDetail(CostDetailCreateRequest request);
 
+	/**
+	 * Batch version of {@link #createCostDetail(CostDetailCreateRequest)}.
+	 * <p>
+	 * The requests are processed ordered by product and date, keeping the current costs in memory; the current costs and the cost details are saved at the end.
+	 *
+	 * @return the results, in the same order as the given requests
+	 */
+	List<AggregatedCostAmount> createCostDetails(List<CostDetailCreateRequest> requests);
+
+	/**
+	 * Runs the given code in batch costing mode: the current costs are loaded and saved only once per cost segment
+	 * and the new cost details are saved all together at the end.
+	 * <p>
+	 * Everything which creates or voids costs from within the given code (e.g. document posting) is part of the batch.
+	 * If already running in batch mode, the given code is just joining the running batch.
+	 */
+	void runInBatch(Runnable code);
+
+	/**
+	 * NOTE: when running in batch mode, the cost details created so far in the batch are saved first, so the reversal finds the initial document's cost details.
+	 */
 	AggregatedCostAmount createReversalCostDetails(CostDetailReverseRequest request);
 
+	/**
+	 * NOTE: when running in batch mode, the cost details created so far in the batch are saved first, so they are voided too.
+	 */
 	void voidAndDeleteForDocument(CostingDocumentRef documentRef);
 
+	/**
+	 * Batch version of {@link #voidAndDeleteForDocument(CostingDocumentRef)}; the current costs are loaded and saved only once per cost segment.
+	 */
+	void voidAndDeleteForDocuments(Collection<CostingDocumentRef> documentRefs);
+
 	/** @return seed cost or null */
 	Optional<CostAmount> calculateSeedCosts(CostSegment costSegment, CostingMethod costingMethod, final OrderLineId orderLineId);
 
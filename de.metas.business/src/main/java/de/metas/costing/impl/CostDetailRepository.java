@@ -71,6 +71,37 @@ public class CostDetailRepository implements ICostDetailRepository
 	public CostDetail create(@NonNull final CostDetail.CostDetailBuilder costDetailBuilder)
 	{
 		final CostDetail cd = costDetailBuilder.build();
+		final I_M_CostDetail record = toNewRecord(cd);
+		saveRecord(record);
+		final CostDetailId id = CostDetailId.ofRepoId(record.getM_CostDetail_ID());
+
+		return cd.withId(id);
+	}
+
+	@Override
+	public List<CostDetail> createAll(@NonNull final List<CostDetail> costDetails)
+	{
+		if (costDetails.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final List<I_M_CostDetail> records = costDetails.stream()
+				.map(CostDetailRepository::toNewRecord)
+				.collect(ImmutableList.toImmutableList());
+		InterfaceWrapperHelper.saveAll(records);
+
+		final ImmutableList.Builder<CostDetail> result = ImmutableList.builder();
+		for (int i = 0; i < costDetails.size(); i++)
+		{
+			final CostDetailId id = CostDetailId.ofRepoId(records.get(i).getM_CostDetail_ID());
+			result.add(costDetails.get(i).withId(id));
+		}
+		return result.build();
+	}
+
+	private static I_M_CostDetail toNewRecord(final CostDetail cd)
+	{
 		Check.assumeNull(cd.getId(), "RepoId shall NOT be set for {}", cd);
 
 		final I_M_CostDetail record = newInstance(I_M_CostDetail.class);
@@ -104,10 +135,7 @@ public class CostDetailRepository implements ICostDetailRepository
 		record.setDescription(cd.getDescription());
 
 		record.setProcessed(true); // TODO: get rid of Processed flag, or always set it!
-		saveRecord(record);
-		final CostDetailId id = CostDetailId.ofRepoId(record.getM_CostDetail_ID());
-
-		return cd.withId(id);
+		return record;
 	}
 
 	private static void updateRecordFromDocumentRef(final I_M_CostDetail record, final CostingDocumentRef documentRef)
@@ -1,11 +1,14 @@
 package de.metas.costing.impl;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.adempiere.exceptions.AdempiereException;
@@ -44,6 +47,7 @@ import de.metas.costing.ICostingService;
 import de.metas.costing.ICurrentCostsRepository;
 import de.metas.costing.IProductCostingBL;
 import de.metas.costing.methods.CostingMethodHandler;
+import de.metas.costing.methods.CostingMethodHandlerUtils;
 import de.metas.currency.CurrencyConversionContext;
 import de.metas.currency.CurrencyConversionResult;
 import de.metas.currency.ICurrencyBL;
@@ -88,6 +92,7 @@ public class CostingService implements ICostingService
 	private final ICostDetailRepository costDetailsRepo;
 	private final ICostElementRepository costElementsRepo;
 	private final ICurrentCostsRepository currentCostsRepo;
+	private final CostingMethodHandlerUtils costingMethodHandlerUtils;
 
 	private final ImmutableSetMultimap<CostingMethod, CostingMethodHandler> costingMethodHandlers;
 
@@ -95,11 +100,13 @@ public class CostingService implements ICostingService
 			@NonNull final ICostDetailRepository costDetailsRepo,
 			@NonNull final ICostElementRepository costElementsRepo,
 			@NonNull final ICurrentCostsRepository currentCostsRepo,
+			@NonNull final CostingMethodHandlerUtils costingMethodHandlerUtils,
 			@NonNull final List<CostingMethodHandler> costingMethodHandlers)
 	{
 		this.costDetailsRepo = costDetailsRepo;
 		this.costElementsRepo = costElementsRepo;
 		this.currentCostsRepo = currentCostsRepo;
+		this.costingMethodHandlerUtils = costingMethodHandlerUtils;
 		this.costingMethodHandlers = costingMethodHandlers.stream()
 				.collect(ImmutableSetMultimap.toImmutableSetMultimap(CostingMethodHandler::getCostingMethod, Function.identity()));
 		logger.info("Costing method handlers: {}", this.costingMethodHandlers);
@@ -135,6 +142,38 @@ public class CostingService implements ICostingService
 		return createCostResult(costElementResults);
 	}
 
+	@Override
+	public List<AggregatedCostAmount> createCostDetails(@NonNull final List<CostDetailCreateRequest> requests)
+	{
+		if (requests.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		// NOTE: the cost segment always includes the product, so processing the requests of each product ordered by date
+		// gives the same current costs as processing them all ordered by date.
+		// The sorting is stable, so requests with the same product and date are processed in the given order.
+		final List<Integer> requestIndexesSorted = IntStream.range(0, requests.size())
+				.boxed()
+				.sorted(Comparator.<Integer, Integer> comparing(index -> requests.get(index).getProductId().getRepoId())
+						.thenComparing(index -> requests.get(index).getDate()))
+				.collect(ImmutableList.toImmutableList());
+
+		final AggregatedCostAmount[] results = new AggregatedCostAmount[requests.size()];
+		runInBatch(() -> requestIndexesSorted.forEach(index -> results[index] = createCostDetail(requests.get(index))));
+
+		return ImmutableList.copyOf(results);
+	}
+
+	@Override
+	public void runInBatch(@NonNull final Runnable code)
+	{
+		costingMethodHandlerUtils.runInBatch(() -> {
+			code.run();
+			return null;
+		});
+	}
+
 	private AggregatedCostAmount createCostResult(final ImmutableList<CostDetailCreateResult> costElementResults)
 	{
 		Check.assumeNotEmpty(costElementResults, "costElementResults is not empty");
@@ -202,10 +241,19 @@ public class CostingService implements ICostingService
 	@Override
 	public void voidAndDeleteForDocument(final CostingDocumentRef documentRef)
 	{
+		// make sure the cost details which were created in the running batch (if any) are voided too
+		costingMethodHandlerUtils.flushBatchCostDetails();
+
 		costDetailsRepo.getAllForDocument(documentRef)
 				.forEach(costDetail -> voidAndDelete(costDetail, documentRef));
 	}
 
+	@Override
+	public void voidAndDeleteForDocuments(@NonNull final Collection<CostingDocumentRef> documentRefs)
+	{
+		runInBatch(() -> documentRefs.forEach(this::voidAndDeleteForDocument));
+	}
+
 	private void voidAndDelete(final CostDetail costDetail, final CostingDocumentRef documentRef)
 	{
 		if (costDetail.isChangingCosts())
@@ -345,6 +393,9 @@ public class CostingService implements ICostingService
 	@Override
 	public AggregatedCostAmount createReversalCostDetails(@NonNull final CostDetailReverseRequest request)
 	{
+		// make sure we see the initial document's cost details, also if they were created in the running batch
+		costingMethodHandlerUtils.flushBatchCostDetails();
+
 		final Set<CostElementId> costElementIdsWithExistingCostDetails = costDetailsRepo
 				.getAllForDocumentAndAcctSchemaId(request.getReversalDocumentRef(), request.getAcctSchemaId())
 				.stream()
@@ -398,6 +449,9 @@ public class CostingService implements ICostingService
 	@Override
 	public Optional<CostPrice> getCurrentCostPrice(final CostSegment costSegment, final CostingMethod costingMethod)
 	{
+		// make sure we see the current costs which were changed in the running batch (if any)
+		costingMethodHandlerUtils.flushBatchCurrentCosts();
+
 		return currentCostsRepo.getAggregatedCostPriceByCostSegmentAndCostingMethod(costSegment, costingMethod)
 				.map(AggregatedCostPrice::getTotalPrice);
 	}
@@ -21,7 +21,6 @@ import org.compiere.model.I_M_Product;
 import org.compiere.model.MOrg;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.ImmutableList;
@@ -80,8 +79,12 @@ import lombok.NonNull;
 public class CurrentCostsRepository implements ICurrentCostsRepository
 {
 	private static final Logger logger = LogManager.getLogger(CurrentCostsRepository.class);
-	@Autowired
-	private ICostElementRepository costElementRepo;
+	private final ICostElementRepository costElementRepo;
+
+	public CurrentCostsRepository(@NonNull final ICostElementRepository costElementRepo)
+	{
+		this.costElementRepo = costElementRepo;
+	}
 
 	@Override
 	public List<CurrentCost> getByIds(@NonNull final Set<CurrentCostId> ids)
@@ -0,0 +1,122 @@
+package de.metas.costing.methods;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.metas.costing.CostDetail;
+import de.metas.costing.CostDetailQuery;
+import de.metas.costing.CostSegmentAndElement;
+import de.metas.costing.CurrentCost;
+import de.metas.costing.ICostDetailRepository;
+import de.metas.costing.ICurrentCostsRepository;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps the {@link CurrentCost}s and the new {@link CostDetail}s of a batch costing run in memory.
+ * <p>
+ * Each {@link CurrentCost} is loaded once and saved once (on {@link #flush()}), no matter how many cost details are changing it.
+ *
+ * @see CostingMethodHandlerUtils#runInBatch(java.util.function.Supplier)
+ */
+final class CostingBatch
+{
+	private final ICurrentCostsRepository currentCostsRepo;
+	private final ICostDetailRepository costDetailsRepo;
+
+	private final Map<CostSegmentAndElement, CurrentCost> currentCosts = new HashMap<>();
+	private final Set<CurrentCost> changedCurrentCosts = new LinkedHashSet<>(); // NOTE: CurrentCost is compared by identity
+
+	private final List<CostDetail> costDetailsToCreate = new ArrayList<>();
+	private final Map<CostDetailQuery, CostDetail> costDetailsToCreateByQuery = new HashMap<>();
+
+	CostingBatch(
+			@NonNull final ICurrentCostsRepository currentCostsRepo,
+			@NonNull final ICostDetailRepository costDetailsRepo)
+	{
+		this.currentCostsRepo = currentCostsRepo;
+		this.costDetailsRepo = costDetailsRepo;
+	}
+
+	public CurrentCost getCurrentCost(@NonNull final CostSegmentAndElement costSegmentAndElement)
+	{
+		return currentCosts.computeIfAbsent(costSegmentAndElement, currentCostsRepo::getOrCreate);
+	}
+
+	public void saveCurrentCost(@NonNull final CurrentCost currentCost)
+	{
+		changedCurrentCosts.add(currentCost);
+	}
+
+	/**
+	 * @param query the query which would find the given cost detail after it was saved
+	 */
+	public void createCostDetail(@NonNull final CostDetail costDetail, @NonNull final CostDetailQuery query)
+	{
+		costDetailsToCreate.add(costDetail);
+		costDetailsToCreateByQuery.putIfAbsent(query, costDetail);
+	}
+
+	/** @return the cost detail which was created in this batch but not saved yet */
+	public CostDetail getCostDetailToCreateOrNull(@NonNull final CostDetailQuery query)
+	{
+		return costDetailsToCreateByQuery.get(query);
+	}
+
+	public void flush()
+	{
+		flushCurrentCosts();
+		flushCostDetails();
+	}
+
+	/**
+	 * Saves just the current costs which were changed so far, so that they can be found by the {@link ICurrentCostsRepository}'s queries.
+	 * They are still kept in memory; if they are changed again, they are saved again on {@link #flush()}.
+	 */
+	public void flushCurrentCosts()
+	{
+		changedCurrentCosts.forEach(currentCostsRepo::save);
+		changedCurrentCosts.clear();
+	}
+
+	/**
+	 * Saves just the new cost details, so that they can be found by the {@link ICostDetailRepository}.
+	 * The current costs are still kept in memory and are saved on {@link #flush()}.
+	 */
+	public void flushCostDetails()
+	{
+		if (costDetailsToCreate.isEmpty())
+		{
+			return;
+		}
+
+		costDetailsRepo.createAll(costDetailsToCreate);
+		costDetailsToCreate.clear();
+		costDetailsToCreateByQuery.clear();
+	}
+}
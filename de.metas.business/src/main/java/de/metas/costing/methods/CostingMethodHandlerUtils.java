@@ -1,5 +1,6 @@
 package de.metas.costing.methods;
 
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
@@ -59,6 +60,8 @@ public class CostingMethodHandlerUtils
 	private final ICostDetailRepository costDetailsRepo;
 	private final ICurrentCostsRepository currentCostsRepo;
 
+	private final ThreadLocal<CostingBatch> currentBatch = new ThreadLocal<>();
+
 	public CostingMethodHandlerUtils(
 			@NonNull final ICurrentCostsRepository currentCostsRepo,
 			@NonNull final ICostDetailRepository costDetailsRepo)
@@ -108,9 +111,67 @@ public class CostingMethodHandlerUtils
 				.build();
 	}
 
+	/**
+	 * Runs given code in batch costing mode.
+	 * <p>
+	 * While in batch mode, the current costs are loaded once per cost segment and kept in memory and the new cost details are not saved right away.
+	 * At the end, the final current costs and all the new cost details are saved in one go.
+	 * The outcome is the same as running the same code without batch mode.
+	 * <p>
+	 * Code which reads cost details from the {@link ICostDetailRepository} (e.g. reversals and voids) has to call {@link #flushBatchCostDetails()} first,
+	 * else it would not see the cost details which were created in the running batch.
+	 * Likewise, code which queries the current costs directly from the {@link ICurrentCostsRepository} has to call {@link #flushBatchCurrentCosts()} first.
+	 */
+	public <T> T runInBatch(@NonNull final Supplier<T> code)
+	{
+		if (currentBatch.get() != null)
+		{
+			// already running in batch mode
+			return code.get();
+		}
+
+		final CostingBatch batch = new CostingBatch(currentCostsRepo, costDetailsRepo);
+		currentBatch.set(batch);
+		try
+		{
+			final T result = code.get();
+			batch.flush();
+			return result;
+		}
+		finally
+		{
+			currentBatch.remove();
+		}
+	}
+
+	/**
+	 * If running in batch mode, saves the cost details which were created so far, so that they can be found by the {@link ICostDetailRepository}.
+	 * The current costs are still kept in memory until the batch ends.
+	 */
+	public void flushBatchCostDetails()
+	{
+		final CostingBatch batch = currentBatch.get();
+		if (batch != null)
+		{
+			batch.flushCostDetails();
+		}
+	}
+
+	/**
+	 * If running in batch mode, saves the current costs which were changed so far, so that they can be found by the {@link ICurrentCostsRepository}'s queries.
+	 */
+	public void flushBatchCurrentCosts()
+	{
+		final CostingBatch batch = currentBatch.get();
+		if (batch != null)
+		{
+			batch.flushCurrentCosts();
+		}
+	}
+
 	public final CostDetailCreateResult createCostDetailRecordWithChangedCosts(@NonNull final CostDetailCreateRequest request, @NonNull final CurrentCost previousCosts)
 	{
-		final CostDetail costDetail = costDetailsRepo.create(request.toCostDetailBuilder()
+		final CostDetail costDetail = createCostDetail(request, request.toCostDetailBuilder()
 				.changingCosts(true)
 				.previousAmounts(CostDetailPreviousAmounts.of(previousCosts)));
 
@@ -119,12 +180,27 @@ public class CostingMethodHandlerUtils
 
 	public CostDetailCreateResult createCostDetailRecordNoCostsChanged(@NonNull final CostDetailCreateRequest request)
 	{
-		final CostDetail costDetail = costDetailsRepo.create(request.toCostDetailBuilder()
+		final CostDetail costDetail = createCostDetail(request, request.toCostDetailBuilder()
 				.changingCosts(false));
 
 		return createCostDetailCreateResult(costDetail, request);
 	}
 
+	private CostDetail createCostDetail(final CostDetailCreateRequest request, final CostDetail.CostDetailBuilder costDetailBuilder)
+	{
+		final CostingBatch batch = currentBatch.get();
+		if (batch != null)
+		{
+			final CostDetail costDetail = costDetailBuilder.build();
+			batch.createCostDetail(costDetail, extractCostDetailQuery(request));
+			return costDetail;
+		}
+		else
+		{
+			return costDetailsRepo.create(costDetailBuilder);
+		}
+	}
+
 	public CostDetailCreateResult createCostDetailCreateResult(final CostDetail costDetail, final CostDetailCreateRequest request)
 	{
 		return CostDetailCreateResult.builder()
@@ -138,6 +214,14 @@ public class CostingMethodHandlerUtils
 	protected final CostDetail getExistingCostDetailOrNull(final CostDetailCreateRequest request)
 	{
 		final CostDetailQuery costDetailQuery = extractCostDetailQuery(request);
+
+		final CostingBatch batch = currentBatch.get();
+		final CostDetail costDetailToCreate = batch != null ? batch.getCostDetailToCreateOrNull(costDetailQuery) : null;
+		if (costDetailToCreate != null)
+		{
+			return costDetailToCreate;
+		}
+
 		return costDetailsRepo.getCostDetailOrNull(costDetailQuery);
 	}
 
@@ -166,6 +250,12 @@ public class CostingMethodHandlerUtils
 
 	public final CurrentCost getCurrentCost(final CostSegmentAndElement costSegmentAndElement)
 	{
+		final CostingBatch batch = currentBatch.get();
+		if (batch != null)
+		{
+			return batch.getCurrentCost(costSegmentAndElement);
+		}
+
 		return currentCostsRepo.getOrCreate(costSegmentAndElement);
 	}
 
@@ -176,6 +266,13 @@ public class CostingMethodHandlerUtils
 
 	public final void saveCurrentCost(final CurrentCost currentCost)
 	{
+		final CostingBatch batch = currentBatch.get();
+		if (batch != null)
+		{
+			batch.saveCurrentCost(currentCost);
+			return;
+		}
+
 		currentCostsRepo.save(currentCost);
 	}
 
@@ -211,6 +308,8 @@ public class CostingMethodHandlerUtils
 
 	public Stream<CostDetail> streamAllCostDetailsAfter(final CostDetail costDetail)
 	{
+		flushBatchCostDetails();
+
 		final CostingLevel costingLevel = productCostingBL.getCostingLevel(costDetail.getProductId(), costDetail.getAcctSchemaId());
 		return costDetailsRepo.streamOrderedById(CostDetailQuery.builder()
 				.acctSchemaId(costDetail.getAcctSchemaId())
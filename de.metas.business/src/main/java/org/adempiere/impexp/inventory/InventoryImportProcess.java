@@ -97,6 +97,13 @@ public class InventoryImportProcess extends AbstractImportProcess<I_I_Inventory>
 		return I_I_Inventory.COLUMNNAME_WarehouseValue;
 	}
 
+	@Override
+	protected String getImportGroupKeyColumnName()
+	{
+		// one inventory is created per warehouse
+		return I_I_Inventory.COLUMNNAME_WarehouseValue;
+	}
+
 	@Override
 	protected I_I_Inventory retrieveImportRecord(final Properties ctx, final ResultSet rs) throws SQLException
 	{
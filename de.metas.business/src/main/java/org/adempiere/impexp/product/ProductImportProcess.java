@@ -106,6 +106,13 @@ public class ProductImportProcess extends AbstractImportProcess<I_I_Product>
 		return I_I_Product.COLUMNNAME_ProductCategory_Value;
 	}
 
+	@Override
+	protected String getImportGroupKeyColumnName()
+	{
+		// the products are identified by their Value
+		return I_I_Product.COLUMNNAME_Value;
+	}
+
 	@Override
 	protected I_I_Product retrieveImportRecord(final Properties ctx, final ResultSet rs) throws SQLException
 	{
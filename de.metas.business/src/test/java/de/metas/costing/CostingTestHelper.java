@@ -0,0 +1,261 @@
+package de.metas.costing;
+
+import static org.adempiere.model.InterfaceWrapperHelper.load;
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.mm.attributes.AttributeSetInstanceId;
+import org.adempiere.service.ClientId;
+import org.adempiere.service.OrgId;
+import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_Cost;
+import org.compiere.model.I_M_CostDetail;
+import org.compiere.model.I_M_CostElement;
+import org.compiere.model.I_M_Product;
+import org.compiere.model.I_M_Product_Category;
+import org.compiere.model.I_M_Product_Category_Acct;
+import org.compiere.util.Env;
+import org.junit.Ignore;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.acct.AcctSchemaTestHelper;
+import de.metas.acct.api.AcctSchemaId;
+import de.metas.acct.api.IAcctSchemaDAO;
+import de.metas.costing.impl.CostDetailRepository;
+import de.metas.costing.impl.CostElementRepository;
+import de.metas.costing.impl.CostingService;
+import de.metas.costing.impl.CurrentCostsRepository;
+import de.metas.costing.methods.CostingMethodHandler;
+import de.metas.costing.methods.CostingMethodHandlerUtils;
+import de.metas.money.CurrencyId;
+import de.metas.product.ProductId;
+import de.metas.quantity.Quantity;
+import de.metas.util.Services;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Creates the master data and the services which are needed to create costs in the in-memory database.
+ * <p>
+ * Shall be created after {@code AdempiereTestHelper.get().init()}. The accounting schema is costing on client level.
+ */
+@Ignore
+public class CostingTestHelper
+{
+	private final ICostElementRepository costElementRepo = new CostElementRepository();
+	private final ICurrentCostsRepository currentCostsRepo = new CurrentCostsRepository(costElementRepo);
+	private final ICostDetailRepository costDetailsRepo = new CostDetailRepository();
+	@Getter
+	private final CostingMethodHandlerUtils utils = new CostingMethodHandlerUtils(currentCostsRepo, costDetailsRepo);
+
+	@Getter
+	private final ClientId clientId = ClientId.ofRepoId(Env.getAD_Client_ID(Env.getCtx()));
+	@Getter
+	private final AcctSchemaId acctSchemaId;
+	@Getter
+	private final CurrencyId currencyId;
+	@Getter
+	private final I_C_UOM uom;
+	private final int productCategoryId;
+
+	public CostingTestHelper()
+	{
+		acctSchemaId = AcctSchemaTestHelper.newAcctSchema().build();
+		currencyId = Services.get(IAcctSchemaDAO.class).getById(acctSchemaId).getCurrencyId();
+
+		uom = newInstance(I_C_UOM.class);
+		uom.setName("Each");
+		uom.setUOMSymbol("Ea");
+		uom.setStdPrecision(2);
+		saveRecord(uom);
+
+		final I_M_Product_Category productCategory = newInstance(I_M_Product_Category.class);
+		productCategory.setName("Standard");
+		saveRecord(productCategory);
+		productCategoryId = productCategory.getM_Product_Category_ID();
+
+		// NOTE: we need to create it, else it would be created by SQL
+		final I_M_Product_Category_Acct productCategoryAcct = newInstance(I_M_Product_Category_Acct.class);
+		productCategoryAcct.setM_Product_Category_ID(productCategoryId);
+		productCategoryAcct.setC_AcctSchema_ID(acctSchemaId.getRepoId());
+		saveRecord(productCategoryAcct);
+	}
+
+	public ProductId createProduct(@NonNull final String value)
+	{
+		final I_M_Product product = newInstance(I_M_Product.class);
+		product.setValue(value);
+		product.setName(value);
+		product.setM_Product_Category_ID(productCategoryId);
+		product.setC_UOM_ID(uom.getC_UOM_ID());
+		saveRecord(product);
+		return ProductId.ofRepoId(product.getM_Product_ID());
+	}
+
+	public CostElement createMaterialCostElement(@NonNull final CostingMethod costingMethod)
+	{
+		final I_M_CostElement costElement = newInstance(I_M_CostElement.class);
+		costElement.setName(costingMethod.name());
+		costElement.setCostElementType(CostElementType.Material.getCode());
+		costElement.setCostingMethod(costingMethod.getCode());
+		costElement.setIsCalculated(false);
+		saveRecord(costElement);
+		return costElementRepo.getById(CostElementId.ofRepoId(costElement.getM_CostElement_ID()));
+	}
+
+	public CostingService createCostingService(@NonNull final List<CostingMethodHandler> costingMethodHandlers)
+	{
+		return new CostingService(costDetailsRepo, costElementRepo, currentCostsRepo, utils, costingMethodHandlers);
+	}
+
+	public CostDetailCreateRequest createRequest(
+			@NonNull final ProductId productId,
+			@NonNull final CostElement costElement,
+			@NonNull final CostingDocumentRef documentRef,
+			@NonNull final String qty,
+			@NonNull final String amt,
+			@NonNull final LocalDate date)
+	{
+		return CostDetailCreateRequest.builder()
+				.acctSchemaId(acctSchemaId)
+				.clientId(clientId)
+				.orgId(OrgId.ANY)
+				.productId(productId)
+				.attributeSetInstanceId(AttributeSetInstanceId.NONE)
+				.documentRef(documentRef)
+				.costElement(costElement)
+				.qty(Quantity.of(qty, uom))
+				.amt(CostAmount.of(new BigDecimal(amt), currencyId))
+				.date(date)
+				.build();
+	}
+
+	public void setCurrentCostPrice(@NonNull final CostDetailCreateRequest request, @NonNull final String costPrice)
+	{
+		final CurrentCost currentCost = utils.getCurrentCost(request);
+		currentCost.setCostPrice(CostPrice.ownCostPrice(CostAmount.of(new BigDecimal(costPrice), currencyId)));
+		utils.saveCurrentCost(currentCost);
+	}
+
+	/** @return the {@code M_Cost} records, ordered by product and costing method */
+	public List<CostRow> getCosts()
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_Cost.class)
+				.create()
+				.list(I_M_Cost.class)
+				.stream()
+				.map(record -> new CostRow(
+						load(record.getM_Product_ID(), I_M_Product.class).getValue(),
+						load(record.getM_CostElement_ID(), I_M_CostElement.class).getCostingMethod(),
+						normalize(record.getCurrentCostPrice()),
+						normalize(record.getCurrentQty()),
+						normalize(record.getCumulatedAmt()),
+						normalize(record.getCumulatedQty())))
+				.sorted(Comparator.comparing(CostRow::getProductValue).thenComparing(CostRow::getCostingMethod))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/** @return the {@code M_CostDetail} records, ordered by product and document */
+	public List<CostDetailRow> getCostDetails()
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_CostDetail.class)
+				.create()
+				.list(I_M_CostDetail.class)
+				.stream()
+				.map(record -> new CostDetailRow(
+						load(record.getM_Product_ID(), I_M_Product.class).getValue(),
+						extractDocument(record),
+						normalize(record.getQty()),
+						normalize(record.getAmt()),
+						record.isChangingCosts(),
+						normalize(record.getPrev_CurrentCostPrice()),
+						normalize(record.getPrev_CurrentQty()),
+						normalize(record.getPrev_CumulatedAmt()),
+						normalize(record.getPrev_CumulatedQty())))
+				.sorted(Comparator.comparing(CostDetailRow::getProductValue).thenComparing(CostDetailRow::getDocument))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static String extractDocument(final I_M_CostDetail record)
+	{
+		final String outbound = record.isSOTrx() ? "-out" : "-in";
+		if (record.getM_MatchPO_ID() > 0)
+		{
+			return "M_MatchPO-" + record.getM_MatchPO_ID() + outbound;
+		}
+		else if (record.getM_MovementLine_ID() > 0)
+		{
+			return "M_MovementLine-" + record.getM_MovementLine_ID() + outbound;
+		}
+		else if (record.getPP_Cost_Collector_ID() > 0)
+		{
+			return "PP_Cost_Collector-" + record.getPP_Cost_Collector_ID() + outbound;
+		}
+		else
+		{
+			return "M_InOutLine-" + record.getM_InOutLine_ID() + outbound;
+		}
+	}
+
+	private static String normalize(final BigDecimal value)
+	{
+		return value != null ? value.stripTrailingZeros().toPlainString() : null;
+	}
+
+	@Value
+	public static class CostRow
+	{
+		String productValue;
+		String costingMethod;
+		String currentCostPrice;
+		String currentQty;
+		String cumulatedAmt;
+		String cumulatedQty;
+	}
+
+	@Value
+	public static class CostDetailRow
+	{
+		String productValue;
+		String document;
+		String qty;
+		String amt;
+		boolean changingCosts;
+		String prevCurrentCostPrice;
+		String prevCurrentQty;
+		String prevCumulatedAmt;
+		String prevCumulatedQty;
+	}
+}
@@ -0,0 +1,216 @@
+package de.metas.costing.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.costing.CostDetailCreateRequest;
+import de.metas.costing.CostDetailReverseRequest;
+import de.metas.costing.CostElement;
+import de.metas.costing.CostingDocumentRef;
+import de.metas.costing.CostingMethod;
+import de.metas.costing.CostingTestHelper;
+import de.metas.costing.CostingTestHelper.CostDetailRow;
+import de.metas.costing.CostingTestHelper.CostRow;
+import de.metas.costing.methods.AveragePOCostingMethodHandler;
+import de.metas.product.ProductId;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Verifies that the batch costing mode yields the same {@code M_Cost} and {@code M_CostDetail} records as creating the costs one by one.
+ * <p>
+ * The costs are created with the moving average costing method: the receipts ({@code M_MatchPO}) are changing the average cost price
+ * and the outbound movements are costed with the current average cost price.
+ */
+public class CostingServiceBatchTest
+{
+	private static final LocalDate DAY0 = LocalDate.of(2019, 7, 1);
+	private static final List<String> PRODUCT_VALUES = ImmutableList.of("P1", "P2", "P3");
+
+	/** A cost to be created, independent of the IDs of the master data */
+	@Value
+	private static class CostSpec
+	{
+		int productIndex;
+		CostingDocumentRef documentRef;
+		String qty;
+		String amt;
+		LocalDate date;
+	}
+
+	@Value
+	private static class CostingOutcome
+	{
+		List<CostRow> costs;
+		List<CostDetailRow> costDetails;
+	}
+
+	private static List<CostSpec> createCostSpecs()
+	{
+		final Random random = new Random(1234);
+		final List<CostSpec> costSpecs = new ArrayList<>();
+		for (int i = 1; i <= 60; i++)
+		{
+			final int productIndex = random.nextInt(PRODUCT_VALUES.size());
+			final LocalDate date = DAY0.plusDays(i / 3);
+			if (i <= 3 || random.nextInt(10) < 6)
+			{
+				final int qty = 1 + random.nextInt(10);
+				final int price = 1 + random.nextInt(20);
+				costSpecs.add(new CostSpec(productIndex, CostingDocumentRef.ofMatchPOId(1000 + i), String.valueOf(qty), String.valueOf(qty * price), date));
+			}
+			else
+			{
+				final int qty = 1 + random.nextInt(5);
+				costSpecs.add(new CostSpec(productIndex, CostingDocumentRef.ofOutboundMovementLineId(2000 + i), String.valueOf(-qty), "0", date));
+			}
+		}
+		return costSpecs;
+	}
+
+	/**
+	 * Creates the master data in a fresh in-memory database, then calls the given costing code with the costs to be created.
+	 */
+	private static CostingOutcome runCosting(final BiConsumer<CostingService, List<CostDetailCreateRequest>> costingCode)
+	{
+		AdempiereTestHelper.get().init();
+		final CostingTestHelper helper = new CostingTestHelper();
+
+		final List<ProductId> productIds = PRODUCT_VALUES.stream()
+				.map(helper::createProduct)
+				.collect(ImmutableList.toImmutableList());
+		final CostElement costElement = helper.createMaterialCostElement(CostingMethod.AveragePO);
+		final CostingService costingService = helper.createCostingService(ImmutableList.of(new AveragePOCostingMethodHandler(helper.getUtils())));
+
+		final List<CostDetailCreateRequest> requests = createCostSpecs()
+				.stream()
+				.map(spec -> helper.createRequest(productIds.get(spec.getProductIndex()), costElement, spec.getDocumentRef(), spec.getQty(), spec.getAmt(), spec.getDate()))
+				.collect(ImmutableList.toImmutableList());
+
+		costingCode.accept(costingService, requests);
+
+		return new CostingOutcome(helper.getCosts(), helper.getCostDetails());
+	}
+
+	@Test
+	public void createCostDetails_sameAsOneByOne()
+	{
+		final CostingOutcome oneByOneOutcome = runCosting((costingService, requests) -> requests.forEach(costingService::createCostDetail));
+		final CostingOutcome batchOutcome = runCosting(CostingService::createCostDetails);
+
+		assertThat(oneByOneOutcome.getCosts()).hasSize(PRODUCT_VALUES.size());
+		assertThat(oneByOneOutcome.getCostDetails()).hasSize(60);
+
+		assertThat(batchOutcome).isEqualTo(oneByOneOutcome);
+	}
+
+	@Test
+	public void voidAndDeleteForDocuments_sameAsOneByOne()
+	{
+		final CostingOutcome oneByOneOutcome = runCosting((costingService, requests) -> {
+			requests.forEach(costingService::createCostDetail);
+			extractDocumentRefsToVoid(extractDocumentRefs(requests)).forEach(costingService::voidAndDeleteForDocument);
+		});
+		final CostingOutcome batchOutcome = runCosting((costingService, requests) -> {
+			requests.forEach(costingService::createCostDetail);
+			costingService.voidAndDeleteForDocuments(extractDocumentRefsToVoid(extractDocumentRefs(requests)));
+		});
+
+		final List<CostingDocumentRef> documentRefs = createCostSpecs().stream()
+				.map(CostSpec::getDocumentRef)
+				.collect(ImmutableList.toImmutableList());
+		assertThat(oneByOneOutcome.getCostDetails()).hasSize(60 - extractDocumentRefsToVoid(documentRefs).size());
+
+		assertThat(batchOutcome).isEqualTo(oneByOneOutcome);
+	}
+
+	/** @return each fourth document, the newest first */
+	private static List<CostingDocumentRef> extractDocumentRefsToVoid(final List<CostingDocumentRef> documentRefs)
+	{
+		final List<CostingDocumentRef> documentRefsToVoid = new ArrayList<>();
+		for (int i = documentRefs.size() - 1; i >= 0; i -= 4)
+		{
+			documentRefsToVoid.add(documentRefs.get(i));
+		}
+		return documentRefsToVoid;
+	}
+
+	private static List<CostingDocumentRef> extractDocumentRefs(final List<CostDetailCreateRequest> requests)
+	{
+		return requests.stream()
+				.map(CostDetailCreateRequest::getDocumentRef)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * Creates some costs and the reversals of all outbound movements in the same batch.
+	 * The reversals have to find the cost details of the outbound movements although they were not saved yet by the batch.
+	 */
+	@Test
+	public void runInBatch_reversalsOfCostDetailsCreatedInTheSameBatch()
+	{
+		final BiConsumer<CostingService, List<CostDetailCreateRequest>> createCostsAndReversals = (costingService, requests) -> {
+			for (final CostDetailCreateRequest request : requests)
+			{
+				costingService.createCostDetail(request);
+
+				final CostingDocumentRef documentRef = request.getDocumentRef();
+				if (documentRef.isTableName(CostingDocumentRef.TABLE_NAME_M_MovementLine))
+				{
+					costingService.createReversalCostDetails(CostDetailReverseRequest.builder()
+							.acctSchemaId(request.getAcctSchemaId())
+							.reversalDocumentRef(CostingDocumentRef.ofOutboundMovementLineId(documentRef.getRecordId() + 1000))
+							.initialDocumentRef(documentRef)
+							.date(request.getDate())
+							.description("reversal")
+							.build());
+				}
+			}
+		};
+
+		final CostingOutcome oneByOneOutcome = runCosting(createCostsAndReversals);
+		final CostingOutcome batchOutcome = runCosting((costingService, requests) -> costingService.runInBatch(() -> createCostsAndReversals.accept(costingService, requests)));
+
+		final long movementsCount = createCostSpecs().stream()
+				.filter(spec -> spec.getDocumentRef().isTableName(CostingDocumentRef.TABLE_NAME_M_MovementLine))
+				.count();
+		assertThat(movementsCount).isGreaterThan(0);
+		assertThat(oneByOneOutcome.getCostDetails()).hasSize((int)(60 + movementsCount));
+
+		assertThat(batchOutcome).isEqualTo(oneByOneOutcome);
+		assertThat(batchOutcome.getCostDetails().stream().map(CostDetailRow::getDocument).collect(Collectors.toSet()))
+				.hasSize(batchOutcome.getCostDetails().size());
+	}
+}
@@ -3,21 +3,28 @@ package de.metas.datev;
 import static org.adempiere.model.InterfaceWrapperHelper.load;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryInsertExecutor.QueryInsertExecutorResult;
 import org.adempiere.ad.dao.impl.CompareQueryFilter.Operator;
+import org.adempiere.ad.dao.impl.TypedSqlQuery;
 import org.compiere.model.IQuery;
+import org.compiere.model.POInfo;
 import org.compiere.util.Env;
 import org.springframework.stereotype.Component;
 
+import de.metas.data.export.api.IExportDataSource;
+import de.metas.data.export.api.impl.JdbcExportDataSource;
 import de.metas.datev.model.I_DATEV_Export;
 import de.metas.datev.model.I_DATEV_ExportLine;
 import de.metas.datev.model.I_RV_DATEV_Export_Fact_Acct_Invoice;
 import de.metas.util.Check;
 import de.metas.util.Services;
 import de.metas.util.time.SystemTime;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -90,7 +97,9 @@ public class DATEVExportLinesRepository
 		}
 		if (datevExport.isExcludeAlreadyExported())
 		{
+			// NOTE: the lines of this export are not considered, because they are about to be (re)created
 			final IQuery<I_DATEV_ExportLine> exportLinesQuery = queryBL.createQueryBuilder(I_DATEV_ExportLine.class)
+					.addNotEqualsFilter(I_DATEV_ExportLine.COLUMN_DATEV_Export_ID, datevExport.getDATEV_Export_ID())
 					.create();
 			queryBuilder.addNotInSubQueryFilter(
 					I_RV_DATEV_Export_Fact_Acct_Invoice.COLUMN_C_Invoice_ID,
@@ -98,7 +107,62 @@ public class DATEVExportLinesRepository
 					exportLinesQuery);
 		}
 
-		return queryBuilder.create();
+		return queryBuilder
+				.orderBy(I_RV_DATEV_Export_Fact_Acct_Invoice.COLUMNNAME_RV_DATEV_Export_Fact_Acct_Invoice_ID)
+				.create();
 	}
 
+	/**
+	 * Creates a data source which is selecting the export rows directly from {@link I_RV_DATEV_Export_Fact_Acct_Invoice}, using the same query as {@link #createLinesFromConfig(int)},
+	 * so no {@link I_DATEV_ExportLine}s are required.
+	 * <p>
+	 * The rows are fetched using a server-side cursor, so the data source can be streamed no matter how many rows are exported.
+	 * Format columns which are not available in the view (e.g. <code>DATEV_ExportLine_ID</code> or <code>Created</code>) are exported as empty.
+	 */
+	public IExportDataSource createDataSourceFromConfig(final int datevExportId, @NonNull final DATEVExportFormat exportFormat)
+	{
+		Check.assume(datevExportId > 0, "datevExportId > 0");
+		final I_DATEV_Export datevExport = load(datevExportId, I_DATEV_Export.class);
+
+		final POInfo sourcePOInfo = POInfo.getPOInfo(I_RV_DATEV_Export_Fact_Acct_Invoice.Table_Name);
+		final List<String> fieldNames = new ArrayList<>();
+		final List<String> sqlFieldNames = new ArrayList<>();
+		final StringBuilder sqlSelect = new StringBuilder("SELECT ");
+		for (final DATEVExportFormatColumn formatColumn : exportFormat.getColumns())
+		{
+			final String columnName = formatColumn.getColumnName();
+			final String sqlFieldName = "f" + (sqlFieldNames.size() + 1);
+
+			if (!sqlFieldNames.isEmpty())
+			{
+				sqlSelect.append(", ");
+			}
+			if (I_DATEV_ExportLine.COLUMNNAME_DATEV_Export_ID.equals(columnName))
+			{
+				sqlSelect.append(datevExportId);
+			}
+			else if (sourcePOInfo.hasColumnName(columnName))
+			{
+				sqlSelect.append(I_RV_DATEV_Export_Fact_Acct_Invoice.Table_Name).append(".").append(columnName);
+			}
+			else
+			{
+				sqlSelect.append("NULL");
+			}
+			sqlSelect.append(" AS ").append(sqlFieldName);
+
+			fieldNames.add(formatColumn.getCsvHeaderName());
+			sqlFieldNames.add(sqlFieldName);
+		}
+
+		final TypedSqlQuery<I_RV_DATEV_Export_Fact_Acct_Invoice> sourceQuery = TypedSqlQuery.cast(createSourceQuery(datevExport));
+		final String sql = sourceQuery.buildSQL(sqlSelect, null, true); // useOrderByClause=true
+		return new JdbcExportDataSource(
+				fieldNames,
+				sqlFieldNames,
+				sql,
+				null, // sqlCount: counting is not supported
+				sourceQuery.getWhereClause(),
+				sourceQuery.getParametersEffective());
+	}
 }
@@ -1,11 +1,28 @@
 package de.metas.datev.process;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.Adempiere;
+import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
+import org.compiere.util.Util;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.google.common.base.Joiner;
@@ -15,6 +32,7 @@ import de.metas.data.export.api.impl.JdbcExporterBuilder;
 import de.metas.datev.DATEVCsvExporter;
 import de.metas.datev.DATEVExportFormat;
 import de.metas.datev.DATEVExportFormatRepository;
+import de.metas.datev.DATEVExportLinesRepository;
 import de.metas.datev.model.I_DATEV_Export;
 import de.metas.datev.model.I_DATEV_ExportFormat;
 import de.metas.datev.model.I_DATEV_ExportLine;
@@ -24,6 +42,8 @@ import de.metas.process.JavaProcess;
 import de.metas.process.Param;
 import de.metas.process.ProcessPreconditionsResolution;
 import de.metas.util.Check;
+import de.metas.util.FileUtil;
+import de.metas.util.Services;
 import lombok.NonNull;
 
 /*
@@ -50,8 +70,20 @@ import lombok.NonNull;
 
 public class DATEV_ExportFile extends JavaProcess implements IProcessPrecondition
 {
+	/**
+	 * If <code>true</code>, the file is exported directly from the posted invoice accounting facts (see {@link DATEVExportLinesRepository#createDataSourceFromConfig(int, DATEVExportFormat)})
+	 * instead of the previously created export lines.
+	 */
+	private static final String SYSCONFIG_StreamingMode = "de.metas.datev.process.DATEV_ExportFile.StreamingMode";
+	/**
+	 * If <code>true</code> and we are in streaming mode, the export lines are (re)created in parallel with exporting the file.
+	 */
+	private static final String SYSCONFIG_StreamingMode_PersistExportLines = "de.metas.datev.process.DATEV_ExportFile.StreamingMode.PersistExportLines";
+
 	@Autowired
 	private DATEVExportFormatRepository exportFormatRepo;
+	@Autowired
+	private DATEVExportLinesRepository exportLinesRepo;
 
 	@Param(parameterName = I_DATEV_ExportFormat.COLUMNNAME_DATEV_ExportFormat_ID, mandatory = true)
 	private int datevExportFormatId;
@@ -82,6 +114,11 @@ public class DATEV_ExportFile extends JavaProcess implements IProcessPreconditio
 		final DATEVExportFormat exportFormat = exportFormatRepo.getById(datevExportFormatId);
 		final I_DATEV_Export datevExport = getRecord(I_DATEV_Export.class);
 
+		if (isStreamingMode())
+		{
+			return exportStreaming(exportFormat, datevExport);
+		}
+
 		final IExportDataSource dataSource = createDataSource(exportFormat, datevExport.getDATEV_Export_ID());
 
 		final ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -114,6 +151,99 @@ public class DATEV_ExportFile extends JavaProcess implements IProcessPreconditio
 		return builder.createDataSource();
 	}
 
+	private boolean isStreamingMode()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_StreamingMode, false);
+	}
+
+	private boolean isPersistExportLinesInStreamingMode()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_StreamingMode_PersistExportLines, true);
+	}
+
+	/**
+	 * Exports the file directly from the posted invoice accounting facts, row by row, into a temporary file.
+	 * Optionally, the export lines are (re)created in parallel, in a separate transaction, using one server-side <code>INSERT ... SELECT</code>.
+	 * <p>
+	 * NOTE: both the file and the lines are selected by the same query, but with separate statements;
+	 * they only differ if the matching accounting facts are changed while exporting.
+	 */
+	private String exportStreaming(@NonNull final DATEVExportFormat exportFormat, @NonNull final I_DATEV_Export datevExport) throws Exception
+	{
+		final int datevExportId = datevExport.getDATEV_Export_ID();
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor(CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(DATEV_ExportFile.class.getSimpleName())
+				.setDaemon(true)
+				.build());
+		final File tempFile = FileUtil.createTempFile("csv", "datev");
+		try
+		{
+			final CompletableFuture<Integer> exportLinesCreatedFuture = isPersistExportLinesInStreamingMode()
+					? createExportLinesAsync(datevExportId, executor)
+					: CompletableFuture.completedFuture(null);
+
+			final IExportDataSource dataSource = exportLinesRepo.createDataSourceFromConfig(datevExportId, exportFormat);
+			try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile)))
+			{
+				DATEVCsvExporter.builder()
+						.exportFormat(exportFormat)
+						.dataSource(dataSource)
+						.build()
+						.export(out);
+			}
+
+			final Integer exportLinesCreated = joinAndUnwrap(exportLinesCreatedFuture);
+			if (exportLinesCreated != null)
+			{
+				addLog("@Created@ #{}", exportLinesCreated);
+			}
+
+			getResult().setReportData(
+					Util.readBytes(tempFile), // data
+					buildFilename(datevExport), // filename
+					"text/csv"); // content type
+
+			return MSG_OK;
+		}
+		finally
+		{
+			executor.shutdown();
+			if (!tempFile.delete())
+			{
+				tempFile.deleteOnExit();
+			}
+		}
+	}
+
+	private CompletableFuture<Integer> createExportLinesAsync(final int datevExportId, final ExecutorService executor)
+	{
+		final Properties ctx = Env.copyCtx(getCtx());
+		return CompletableFuture.supplyAsync(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				final AtomicInteger created = new AtomicInteger();
+				Services.get(ITrxManager.class).runInNewTrx(() -> {
+					exportLinesRepo.deleteAllByExportId(datevExportId);
+					created.set(exportLinesRepo.createLinesFromConfig(datevExportId));
+				});
+				return created.get();
+			}
+		}, executor);
+	}
+
+	private static <T> T joinAndUnwrap(final CompletableFuture<T> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (final CompletionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+		}
+	}
+
 	private static String buildFilename(final I_DATEV_Export datevExport)
 	{
 		final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyyMMdd");
@@ -0,0 +1,126 @@
+package de.metas.datev;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.TimeUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.datev.model.I_DATEV_Export;
+import de.metas.datev.model.I_DATEV_ExportLine;
+import de.metas.datev.model.I_RV_DATEV_Export_Fact_Acct_Invoice;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * metasfresh-datev
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DATEVExportLinesRepositoryTest
+{
+	private DATEVExportLinesRepository exportLinesRepo;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		exportLinesRepo = new DATEVExportLinesRepository();
+
+		createSourceRow(1, "INV-1", LocalDate.of(2019, 6, 30), "10");
+		createSourceRow(2, "INV-2", LocalDate.of(2019, 7, 1), "20.5");
+		createSourceRow(3, "INV-3", LocalDate.of(2019, 7, 2), "-3");
+		createSourceRow(4, "INV-4", LocalDate.of(2019, 7, 15), "100");
+		createSourceRow(5, "INV-5", LocalDate.of(2019, 7, 31), "7.25");
+		createSourceRow(6, "INV-6", LocalDate.of(2019, 8, 1), "1");
+	}
+
+	private static void createSourceRow(final int invoiceId, final String documentNo, final LocalDate dateAcct, final String amt)
+	{
+		final I_RV_DATEV_Export_Fact_Acct_Invoice sourceRow = newInstance(I_RV_DATEV_Export_Fact_Acct_Invoice.class);
+		sourceRow.setC_Invoice_ID(invoiceId);
+		sourceRow.setDocumentNo(documentNo);
+		sourceRow.setDateAcct(TimeUtil.asTimestamp(dateAcct));
+		sourceRow.setAmt(new BigDecimal(amt));
+		sourceRow.setDR_Account("1400");
+		saveRecord(sourceRow);
+	}
+
+	private static int createExport(final LocalDate dateAcctFrom, final LocalDate dateAcctTo, final boolean excludeAlreadyExported)
+	{
+		final I_DATEV_Export datevExport = newInstance(I_DATEV_Export.class);
+		datevExport.setDateAcctFrom(TimeUtil.asTimestamp(dateAcctFrom));
+		datevExport.setDateAcctTo(TimeUtil.asTimestamp(dateAcctTo));
+		datevExport.setIsExcludeAlreadyExported(excludeAlreadyExported);
+		saveRecord(datevExport);
+		return datevExport.getDATEV_Export_ID();
+	}
+
+	@Test
+	public void createLinesFromConfig()
+	{
+		final int datevExportId = createExport(LocalDate.of(2019, 7, 1), LocalDate.of(2019, 7, 31), false);
+
+		final int linesCreated = exportLinesRepo.createLinesFromConfig(datevExportId);
+
+		assertThat(linesCreated).isEqualTo(4);
+		assertThat(retrieveDocumentNos(datevExportId)).containsExactlyInAnyOrder("INV-2", "INV-3", "INV-4", "INV-5");
+	}
+
+	@Test
+	public void createLinesFromConfig_excludeAlreadyExported()
+	{
+		final int firstExportId = createExport(LocalDate.of(2019, 7, 1), LocalDate.of(2019, 7, 15), false);
+		exportLinesRepo.createLinesFromConfig(firstExportId);
+
+		final int secondExportId = createExport(LocalDate.of(2019, 7, 1), LocalDate.of(2019, 7, 31), true);
+		exportLinesRepo.createLinesFromConfig(secondExportId);
+		assertThat(retrieveDocumentNos(secondExportId)).containsExactly("INV-5");
+
+		// the lines of the export itself are not considered as "already exported"
+		exportLinesRepo.createLinesFromConfig(secondExportId);
+		assertThat(retrieveDocumentNos(secondExportId)).containsExactly("INV-5", "INV-5");
+
+		assertThat(exportLinesRepo.deleteAllByExportId(secondExportId)).isEqualTo(2);
+		assertThat(retrieveDocumentNos(firstExportId)).hasSize(3);
+	}
+
+	private static List<String> retrieveDocumentNos(final int datevExportId)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_DATEV_ExportLine.class)
+				.addEqualsFilter(I_DATEV_ExportLine.COLUMN_DATEV_Export_ID, datevExportId)
+				.orderBy(I_DATEV_ExportLine.COLUMNNAME_DATEV_ExportLine_ID)
+				.create()
+				.list()
+				.stream()
+				.map(I_DATEV_ExportLine::getDocumentNo)
+				.collect(ImmutableList.toImmutableList());
+	}
+}
@@ -27,7 +27,6 @@ import de.metas.dlm.partitioner.PartitionRequestFactory.CreatePartitionAsyncRequ
 import de.metas.dlm.partitioner.async.DLMPartitionerWorkpackageProcessor;
 import de.metas.dlm.partitioner.config.PartitionConfig;
 import de.metas.dlm.partitioner.config.PartitionerConfigLine;
-import de.metas.process.PInstanceId;
 import de.metas.util.Services;
 
 /*
@@ -156,10 +155,8 @@ public class PartitionerInterceptor extends AbstractModelInterceptor
 
 			final CreatePartitionAsyncRequest request = PartitionRequestFactory.asyncBuilder()
 					.setConfig(config)
-					.setRecordToAttach(TableRecordReference.ofOrNull(model))
 					.build();
-			final PInstanceId pinstanceId = null;
-			DLMPartitionerWorkpackageProcessor.schedule(request, pinstanceId);
+			DLMPartitionerWorkpackageProcessor.scheduleOnTrxCommit(request, model);
 		}
 	}
 
@@ -221,10 +218,8 @@ public class PartitionerInterceptor extends AbstractModelInterceptor
 			// however, for the current 'model', we need to enqueue it ourselves
 			final CreatePartitionAsyncRequest request = PartitionRequestFactory.asyncBuilder()
 					.setConfig(config)
-					.setRecordToAttach(TableRecordReference.ofOrNull(model))
 					.build();
-			final PInstanceId pinstanceId = null;
-			DLMPartitionerWorkpackageProcessor.schedule(request, pinstanceId);
+			DLMPartitionerWorkpackageProcessor.scheduleOnTrxCommit(request, model);
 		}
 	}
 }
@@ -1,16 +1,23 @@
 package de.metas.dlm.partitioner.async;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.spi.TrxOnCommitCollectorFactory;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.api.IParams;
 import org.adempiere.util.lang.ITableRecordReference;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.util.Env;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import de.metas.async.api.IQueueDAO;
@@ -33,6 +40,7 @@ import de.metas.util.ILoggable;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
 import de.metas.util.time.SystemTime;
+import lombok.Value;
 
 /*
  * #%L
@@ -72,13 +80,134 @@ public class DLMPartitionerWorkpackageProcessor extends WorkpackageProcessorAdap
 	 */
 	public static I_C_Queue_WorkPackage schedule(final CreatePartitionAsyncRequest request, final PInstanceId adPInstanceId)
 	{
-		final Properties ctx = Env.getCtx();
+		final IWorkPackageBuilder wpBuilder = newBlock(adPInstanceId)
+				.newWorkpackage()
+
+				// Workpackage Parameters
+				.parameters()
+				.setParameters(createParameters(request))
+				.end();
+
+		// Workpackage element
+		if (request.getRecordToAttach() != null)
+		{
+			wpBuilder.addElement(request.getRecordToAttach());
+		}
+
+		// Build & enqueue
+		return wpBuilder.build();
+	}
+
+	/**
+	 * Enqueues one work package per given seed record, all within the same block.
+	 * That way, the partitions of independent seed records can be created in parallel, as far as the async queue processor's pool size allows.
+	 * The <code>request</code>'s own <code>recordToAttach</code> is ignored.
+	 *
+	 * @param adPInstanceId <code>AD_Pisntance_ID</code> from which the packages were scheduled. Optional, can be <code>null</code>
+	 */
+	public static List<I_C_Queue_WorkPackage> scheduleForEachRecord(
+			final CreatePartitionAsyncRequest request,
+			final Collection<ITableRecordReference> recordsToAttach,
+			final PInstanceId adPInstanceId)
+	{
+		final ImmutableMap<String, ? extends Object> parameters = createParameters(request);
+		final IWorkPackageBlockBuilder blockBuilder = newBlock(adPInstanceId);
+
+		final ImmutableList.Builder<I_C_Queue_WorkPackage> workpackages = ImmutableList.builder();
+		for (final ITableRecordReference recordToAttach : recordsToAttach)
+		{
+			final I_C_Queue_WorkPackage workpackage = blockBuilder.newWorkpackage()
+					.parameters()
+					.setParameters(parameters)
+					.end()
+					.addElement(recordToAttach)
+					.build();
+			workpackages.add(workpackage);
+		}
+		return workpackages.build();
+	}
+
+	/**
+	 * Collects the given model and, when the model's transaction is committed, enqueues one work package for it, using {@link #scheduleForEachRecord(CreatePartitionAsyncRequest, Collection, PInstanceId)}.
+	 * All models which are collected within the same transaction and with the same request parameters end up in the same block.
+	 * The <code>request</code>'s own <code>recordToAttach</code> is ignored.
+	 */
+	public static void scheduleOnTrxCommit(final CreatePartitionAsyncRequest request, final Object model)
+	{
+		OnTrxCommitScheduler.INSTANCE.collect(new OnTrxCommitScheduler.Item(
+				request,
+				TableRecordReference.of(model),
+				InterfaceWrapperHelper.getTrxName(model)));
+	}
+
+	private static class OnTrxCommitScheduler extends TrxOnCommitCollectorFactory<Map<ImmutableMap<String, ? extends Object>, OnTrxCommitScheduler.Collector>, OnTrxCommitScheduler.Item>
+	{
+		private static final OnTrxCommitScheduler INSTANCE = new OnTrxCommitScheduler();
+
+		@Value
+		private static class Item
+		{
+			CreatePartitionAsyncRequest request;
+			ITableRecordReference record;
+			String trxName;
+		}
+
+		@Value
+		private static class Collector
+		{
+			CreatePartitionAsyncRequest request;
+			Set<ITableRecordReference> records = new LinkedHashSet<>();
+		}
+
+		@Override
+		protected String getTrxProperyName()
+		{
+			return DLMPartitionerWorkpackageProcessor.class.getName() + ".OnTrxCommitScheduler";
+		}
+
+		@Override
+		protected String extractTrxNameFromItem(final Item item)
+		{
+			return item.getTrxName();
+		}
+
+		@Override
+		protected Map<ImmutableMap<String, ? extends Object>, Collector> newCollector(final Item firstItem)
+		{
+			return new LinkedHashMap<>();
+		}
 
-		final ImmutableMap<String, ? extends Object> parameters = ImmutableMap.of(
+		@Override
+		protected void collectItem(final Map<ImmutableMap<String, ? extends Object>, Collector> collectors, final Item item)
+		{
+			collectors.computeIfAbsent(createParameters(item.getRequest()), parameters -> new Collector(item.getRequest()))
+					.getRecords()
+					.add(item.getRecord());
+		}
+
+		@Override
+		protected void processCollector(final Map<ImmutableMap<String, ? extends Object>, Collector> collectors)
+		{
+			final PInstanceId adPInstanceId = null;
+			for (final Collector collector : collectors.values())
+			{
+				scheduleForEachRecord(collector.getRequest(), collector.getRecords(), adPInstanceId);
+			}
+		}
+	}
+
+	private static ImmutableMap<String, ? extends Object> createParameters(final CreatePartitionAsyncRequest request)
+	{
+		return ImmutableMap.of(
 				PARAM_OLDEST_FIRST, request.isOldestFirst(),
 				PARAM_COUNT, request.getCount(),
 				PARAM_DONT_REENQUEUE_AFTER, request.getDontReEnqueueAfter(),
 				PARAM_DLM_PARTITION_CONFIG_ID, request.getConfig().getDLM_Partition_Config_ID());
+	}
+
+	private static IWorkPackageBlockBuilder newBlock(final PInstanceId adPInstanceId)
+	{
+		final Properties ctx = Env.getCtx();
 
 		final IWorkPackageBlockBuilder blockBuilder = Services.get(IWorkPackageQueueFactory.class)
 				.getQueueForEnqueuing(ctx, DLMPartitionerWorkpackageProcessor.class)
@@ -89,22 +218,7 @@ public class DLMPartitionerWorkpackageProcessor extends WorkpackageProcessorAdap
 		{
 			blockBuilder.setAD_PInstance_Creator_ID(adPInstanceId);
 		}
-
-		final IWorkPackageBuilder wpBuilder = blockBuilder.newWorkpackage()
-
-				// Workpackage Parameters
-				.parameters()
-				.setParameters(parameters)
-				.end();
-
-		// Workpackage element
-		if (request.getRecordToAttach() != null)
-		{
-			wpBuilder.addElement(request.getRecordToAttach());
-		}
-
-		// Build & enqueue
-		return wpBuilder.build();
+		return blockBuilder;
 	}
 
 	@Override
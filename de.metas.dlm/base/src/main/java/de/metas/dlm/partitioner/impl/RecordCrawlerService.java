@@ -1,7 +1,10 @@
 package de.metas.dlm.partitioner.impl;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,6 +16,7 @@ import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.IContextAware;
 import org.adempiere.util.lang.ITableRecordReference;
 import org.adempiere.util.lang.Mutable;
@@ -21,6 +25,8 @@ import org.compiere.util.TrxRunnable;
 import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import ch.qos.logback.classic.Level;
 import de.metas.adempiere.service.IColumnBL;
@@ -67,21 +73,47 @@ public class RecordCrawlerService implements IRecordCrawlerService
 {
 	private final transient Logger logger = LogManager.getLogger(getClass());
 
+	@VisibleForTesting
+	static final String SYSCONFIG_BatchSize = "de.metas.dlm.partitioner.impl.RecordCrawlerService.BatchSize";
+	private static final int DEFAULT_BatchSize = 1;
+
+	private static final String SYSCONFIG_StoreResultThreshold = "de.metas.dlm.partitioner.impl.RecordCrawlerService.StoreResultThreshold";
+	private static final int DEFAULT_StoreResultThreshold = 100000;
+
 	@Override
 	public IIterateResult crawl(
 			final PartitionConfig config,
 			final IContextAware ctxAware,
 			final IIterateResult result)
 	{
-
-		final IColumnBL columnBL = Services.get(IColumnBL.class);
-		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
-
 		// store what we are setting out to do here. E.g. if we are called from a DLMException, we want the situation such as
 		// "partition is not complete because testMigrate failed, and there are e.g. 20 orderlines to backtrack from" to be stored here.
 		// otherwise, the partiton we are in truth working on just now would be flagged as "completed" in the DB until further notice
 		storeIterateResult(config, result, ctxAware);
 
+		final int batchSize = getBatchSize();
+		if (batchSize > 1)
+		{
+			crawlInBatches(config, ctxAware, result, batchSize);
+		}
+		else
+		{
+			crawlRecordByRecord(config, ctxAware, result);
+		}
+
+		logger.info("Found {} records via config.name={}", result.size(), config.getName());
+		storeIterateResult(config, result, ctxAware);
+		return result;
+	}
+
+	private void crawlRecordByRecord(
+			final PartitionConfig config,
+			final IContextAware ctxAware,
+			final IIterateResult result)
+	{
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+
 		mainLoop: while (!result.isQueueEmpty())
 		{
 			final ITableRecordReference currentReference = result.nextFromQueue();
@@ -287,16 +319,254 @@ public class RecordCrawlerService implements IRecordCrawlerService
 				}
 			}
 		}
+	}
 
-		logger.info("Found {} records via config.name={}", result.size(), config.getName());
-		storeIterateResult(config, result, ctxAware);
-		return result;
+	/**
+	 * Takes up to <code>batchSize</code> records from the queue at a time, groups them by table and follows their references with one <code>IN (...)</code> query per table and {@link PartitionerConfigReference},
+	 * instead of one query per record and reference.
+	 * <p>
+	 * Note that if the result signals {@link AddResult#STOP}, then the remaining records of the current batch are not crawled anymore, same as the remaining references of the current record in {@link #crawlRecordByRecord(PartitionConfig, IContextAware, IIterateResult)}.
+	 */
+	private void crawlInBatches(
+			final PartitionConfig config,
+			final IContextAware ctxAware,
+			final IIterateResult result,
+			final int batchSize)
+	{
+		while (!result.isQueueEmpty())
+		{
+			if (shallStoreResult(result))
+			{
+				storeIterateResult(config, result, ctxAware);
+			}
+
+			final Map<String, Set<Integer>> tableName2RecordIds = new LinkedHashMap<>();
+			for (int i = 0; i < batchSize && !result.isQueueEmpty(); i++)
+			{
+				final ITableRecordReference reference = result.nextFromQueue();
+				tableName2RecordIds
+						.computeIfAbsent(reference.getTableName(), k -> new LinkedHashSet<>())
+						.add(reference.getRecord_ID());
+			}
+
+			for (final Map.Entry<String, Set<Integer>> entry : tableName2RecordIds.entrySet())
+			{
+				final String currentTableName = entry.getKey();
+				final List<IDLMAware> currentRecords = retrieveRecords(currentTableName, entry.getValue(), ctxAware);
+				if (currentRecords.isEmpty())
+				{
+					continue;
+				}
+
+				if (!crawlForward(config, ctxAware, result, currentTableName, currentRecords))
+				{
+					return;
+				}
+
+				final Set<Integer> currentRecordIds = currentRecords.stream()
+						.map(InterfaceWrapperHelper::getId)
+						.collect(ImmutableSet.toImmutableSet());
+				if (!crawlBackward(config, ctxAware, result, currentTableName, currentRecordIds))
+				{
+					return;
+				}
+			}
+		}
 	}
 
+	/**
+	 * Loads and adds the not-yet-added records that are referenced by the given <code>currentRecords</code>.
+	 *
+	 * @return <code>false</code> if the crawler was signaled to stop
+	 */
+	private boolean crawlForward(
+			final PartitionConfig config,
+			final IContextAware ctxAware,
+			final IIterateResult result,
+			final String currentTableName,
+			final List<IDLMAware> currentRecords)
+	{
+		final Optional<PartitionerConfigLine> currentLineOrNull = config.getLine(currentTableName);
+		if (!currentLineOrNull.isPresent())
+		{
+			return true; // we can only search "backward"
+		}
+
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+
+		for (final PartitionerConfigReference forwardRef : currentLineOrNull.get().getReferences())
+		{
+			if (forwardRef.isPartitionBoundary())
+			{
+				continue; // don't follow it
+			}
+
+			final String forwardTableName = forwardRef.getReferencedTableName();
+			final String forwardColumnName = forwardRef.getReferencingColumnName();
+
+			// in case of a Record_ID/AD_Table_ID reference, we only follow those records whose AD_Table_ID actually points to the table named 'forwardTableName'
+			final String tableColumnName;
+			final int forwardTableId;
+			if (columnBL.isRecordIdColumnName(forwardColumnName))
+			{
+				tableColumnName = columnBL.getTableIdColumnName(currentTableName, forwardColumnName)
+						.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", currentTableName, forwardColumnName));
+				forwardTableId = adTableDAO.retrieveTableId(forwardTableName);
+			}
+			else
+			{
+				tableColumnName = null;
+				forwardTableId = -1;
+			}
+
+			// collect the foreign keys we did not yet see, together with the record that references them
+			final Map<Integer, ITableRecordReference> forwardKey2currentReference = new LinkedHashMap<>();
+			for (final IDLMAware currentRecord : currentRecords)
+			{
+				if (tableColumnName != null)
+				{
+					final Integer tableId = InterfaceWrapperHelper.getValueOrNull(currentRecord, tableColumnName);
+					if (tableId == null || tableId != forwardTableId)
+					{
+						continue;
+					}
+				}
+
+				final Integer forwardKey = InterfaceWrapperHelper.getValueOrNull(currentRecord, forwardColumnName);
+				if (forwardKey == null || forwardKey <= 0)
+				{
+					continue;
+				}
+
+				if (result.contains(TableRecordReference.of(forwardTableName, forwardKey)))
+				{
+					continue; // avoid circles and also avoid loading the whole PO again
+				}
+				forwardKey2currentReference.putIfAbsent(forwardKey, TableRecordReference.of(currentTableName, InterfaceWrapperHelper.getId(currentRecord)));
+			}
+
+			final List<IDLMAware> forwardRecords = retrieveRecords(forwardTableName, forwardKey2currentReference.keySet(), ctxAware);
+			if (forwardRecords.size() < forwardKey2currentReference.size())
+			{
+				// this happens with our "minidump" where we left out the HUs
+				Loggables.get().withLogger(logger, Level.WARN).addLog(
+						"{} forward: {} of the {} records from table={} which we attempted to load via {}.{} are NULL",
+						currentTableName, forwardKey2currentReference.size() - forwardRecords.size(), forwardKey2currentReference.size(), forwardTableName, currentTableName, forwardColumnName);
+			}
+
+			for (final IDLMAware forwardRecord : forwardRecords)
+			{
+				final int forwardKey = InterfaceWrapperHelper.getId(forwardRecord);
+				final ITableRecordReference forwardReference = TableRecordReference.of(forwardTableName, forwardKey);
+
+				final AddResult addResult = result.addReferencedRecord(forwardKey2currentReference.get(forwardKey), forwardReference, forwardRecord.getDLM_Partition_ID());
+				if (AddResult.STOP.equals(addResult))
+				{
+					Loggables.get().withLogger(logger, Level.WARN)
+							.addLog("The crawler was signaled to stop when it added ReferencedRecord={} to the result. Stopping now", forwardReference);
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Loads and adds the records that reference any of the given <code>currentRecordIds</code>.
+	 *
+	 * @return <code>false</code> if the crawler was signaled to stop
+	 */
+	private boolean crawlBackward(
+			final PartitionConfig config,
+			final IContextAware ctxAware,
+			final IIterateResult result,
+			final String currentTableName,
+			final Set<Integer> currentRecordIds)
+	{
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+
+		for (final PartitionerConfigReference backwardRef : config.getReferences(currentTableName))
+		{
+			if (backwardRef.isPartitionBoundary())
+			{
+				continue;
+			}
+
+			final String backwardTableName = backwardRef.getParent().getTableName();
+			final String backwardColumnName = backwardRef.getReferencingColumnName();
+
+			// don't excluded records with DLM_Partition_ID>0 becase we might need to merge them into the partition we are currently building
+			final IQueryBuilder<IDLMAware> queryBuilder = Services.get(IQueryBL.class)
+					.createQueryBuilder(IDLMAware.class, backwardTableName, ctxAware)
+					.addInArrayFilter(backwardColumnName, currentRecordIds);
+
+			if (columnBL.isRecordIdColumnName(backwardColumnName))
+			{
+				final String referencedTableColumnName = columnBL.getTableIdColumnName(backwardTableName, backwardColumnName)
+						.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", backwardTableName, backwardColumnName));
+
+				queryBuilder.addEqualsFilter(referencedTableColumnName, adTableDAO.retrieveTableId(currentTableName));
+			}
+
+			final List<IDLMAware> backwardRecords = queryBuilder
+					.create()
+					.list();
+
+			for (final IDLMAware backwardRecord : backwardRecords)
+			{
+				InterfaceWrapperHelper.setTrxName(backwardRecord, ctxAware.getTrxName()); // we need this for MPinstance, because it explicitly ignores the trx it is loaded with in its constructor.
+
+				final ITableRecordReference backwardReference = TableRecordReference.ofOrNull(backwardRecord);
+				final int currentRecordId = InterfaceWrapperHelper.getValueOrNull(backwardRecord, backwardColumnName);
+
+				final AddResult addResult = result.addReferencingRecord(backwardReference, TableRecordReference.of(currentTableName, currentRecordId), backwardRecord.getDLM_Partition_ID());
+				if (AddResult.STOP.equals(addResult))
+				{
+					Loggables.get().addLog("The crawler was signaled to stop when it added ReferencingRecord={} the result. Stopping now", backwardReference);
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private List<IDLMAware> retrieveRecords(
+			final String tableName,
+			final Collection<Integer> recordIds,
+			final IContextAware ctxAware)
+	{
+		if (recordIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final String keyColumnName = Services.get(IColumnBL.class).getSingleKeyColumn(tableName);
+		final List<IDLMAware> records = Services.get(IQueryBL.class)
+				.createQueryBuilder(IDLMAware.class, tableName, ctxAware)
+				.addInArrayFilter(keyColumnName, recordIds)
+				.create()
+				.list();
+
+		records.forEach(record -> InterfaceWrapperHelper.setTrxName(record, ctxAware.getTrxName()));
+		return records;
+	}
+
+	/**
+	 * @return how many queued records shall be crawled together; if less or equal 1, the records are crawled one by one.
+	 */
+	private int getBatchSize()
+	{
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_BatchSize, DEFAULT_BatchSize);
+	}
+
+	/**
+	 * If the result grows beyond the configured threshold, it is stored to the DB (see {@link #storeIterateResult0(PartitionConfig, IStorableIterateResult, IContextAware)}) to release memory.
+	 */
 	private boolean shallStoreResult(final IIterateResult result)
 	{
-		// return true;
-		final int maxSize = 100000;
+		final int maxSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_StoreResultThreshold, DEFAULT_StoreResultThreshold);
 		return result.size() > maxSize;
 	}
 
@@ -0,0 +1,42 @@
+package de.metas.dlm.partitioner.impl;
+
+import org.adempiere.service.ISysConfigBL;
+import org.junit.Before;
+
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * metasfresh-dlm
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Runs all the tests of {@link PartitionerServiceCreatePartitionTests} with {@link RecordCrawlerService} crawling the queued records in batches.
+ */
+public class PartitionerServiceCreatePartitionBatchedTests extends PartitionerServiceCreatePartitionTests
+{
+	@Before
+	@Override
+	public void before()
+	{
+		super.before();
+		Services.get(ISysConfigBL.class).setValue(RecordCrawlerService.SYSCONFIG_BatchSize, 10, 0);
+	}
+}
@@ -0,0 +1,104 @@
+package de.metas.document.archive.interceptor;
+
+import org.adempiere.ad.modelvalidator.annotations.Interceptor;
+import org.adempiere.ad.modelvalidator.annotations.ModelChange;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.archive.api.IArchiveStorageFactory;
+import org.adempiere.archive.api.IArchiveStorageFactory.AccessMode;
+import org.adempiere.archive.spi.impl.ContentAddressedArchiveStorage;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.I_AD_Archive;
+import org.compiere.model.ModelValidator;
+import org.compiere.util.Ini;
+
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.document.archive.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Deletes content addressed blobs which are no longer referenced by any archive.
+ */
+@Interceptor(I_AD_Archive.class)
+class AD_Archive
+{
+	/**
+	 * Keeps the <code>ContentHash</code> in sync, also if the <code>BinaryData</code> was set by another storage.
+	 */
+	@ModelChange(timings = { ModelValidator.TYPE_BEFORE_NEW, ModelValidator.TYPE_BEFORE_CHANGE }, ifColumnsChanged = I_AD_Archive.COLUMNNAME_BinaryData)
+	public void updateContentHash(final I_AD_Archive archive)
+	{
+		archive.setContentHash(ContentAddressedArchiveStorage.extractHashOrNull(archive.getBinaryData()));
+	}
+
+	@ModelChange(timings = ModelValidator.TYPE_AFTER_DELETE)
+	public void onDelete(final I_AD_Archive archive)
+	{
+		deleteOldBlobIfUnreferencedAfterCommit(archive);
+	}
+
+	@ModelChange(timings = ModelValidator.TYPE_AFTER_CHANGE, ifColumnsChanged = I_AD_Archive.COLUMNNAME_BinaryData)
+	public void onBinaryDataChanged(final I_AD_Archive archive)
+	{
+		deleteOldBlobIfUnreferencedAfterCommit(archive);
+	}
+
+	private void deleteOldBlobIfUnreferencedAfterCommit(final I_AD_Archive archive)
+	{
+		// the blobs are only accessible on server side
+		if (Ini.isSwingClient())
+		{
+			return;
+		}
+
+		final I_AD_Archive archiveOld = InterfaceWrapperHelper.createOld(archive, I_AD_Archive.class);
+		if (!archiveOld.isFileSystem())
+		{
+			return;
+		}
+
+		final String hash = ContentAddressedArchiveStorage.extractHashOrNull(archiveOld.getBinaryData());
+		if (hash == null)
+		{
+			return;
+		}
+
+		// the deleting transaction already sees that this archive is gone; no need to go on if another archive (of any client) still references the blob
+		final String trxName = InterfaceWrapperHelper.getTrxName(archive);
+		if (ContentAddressedArchiveStorage.isBlobReferenced(hash, trxName))
+		{
+			return;
+		}
+
+		final ContentAddressedArchiveStorage storage = (ContentAddressedArchiveStorage)Services.get(IArchiveStorageFactory.class)
+				.getArchiveStorage(InterfaceWrapperHelper.getCtx(archive), IArchiveStorageFactory.STORAGETYPE_ContentAddressed, AccessMode.SERVER);
+
+		// NOTE: we delete the blob only after commit, and check the references once more, because meanwhile another transaction might have re-used it
+		Services.get(ITrxManager.class)
+				.getTrxListenerManagerOrAutoCommit(trxName)
+				.newEventListener(TrxEventTiming.AFTER_COMMIT)
+				.invokeMethodJustOnce(true)
+				.registerHandlingMethod(innerTrx -> storage.deleteBlobIfUnreferenced(hash, ITrx.TRXNAME_None));
+	}
+}
@@ -60,6 +60,24 @@ public interface IESIndexerResult
 	 */
 	int getFailuresCount();
 
+	/**
+	 * @return how many bulk requests were sent to the indexing server
+	 */
+	int getBulkRequestsCount();
+
+	/**
+	 * @return how many documents were processed per second; zero if nothing was processed
+	 */
+	default double getDocumentsPerSecond()
+	{
+		final long durationInMillis = getDurationInMillis();
+		if (durationInMillis <= 0)
+		{
+			return 0;
+		}
+		return getTotalCount() * 1000d / durationInMillis;
+	}
+
 	/**
 	 * @return true if at least one document failed processing
 	 */
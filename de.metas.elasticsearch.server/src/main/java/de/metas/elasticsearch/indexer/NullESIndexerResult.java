@@ -64,6 +64,12 @@ import javax.annotation.concurrent.Immutable;
 		return 0;
 	}
 
+	@Override
+	public int getBulkRequestsCount()
+	{
+		return 0;
+	}
+
 	@Override
 	public boolean hasFailures()
 	{
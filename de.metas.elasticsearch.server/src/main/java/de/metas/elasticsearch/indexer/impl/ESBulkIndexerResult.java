@@ -0,0 +1,192 @@
+package de.metas.elasticsearch.indexer.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Stopwatch;
+
+import de.metas.elasticsearch.indexer.IESIndexerResult;
+
+/*
+ * #%L
+ * de.metas.elasticsearch.server
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Indexer result which is collected from all the bulk requests which were executed by a {@link BulkProcessor}.
+ * <p>
+ * The bulk processor calls the listener methods from its own threads, so all the collecting and reading methods are synchronized.
+ */
+/* package */final class ESBulkIndexerResult implements IESIndexerResult, BulkProcessor.Listener
+{
+	/** Keep at most this many failure messages, so that a big reindexing with many failures doesn't end up with a huge message */
+	private static final int MAX_FAILURE_MESSAGES = 50;
+
+	private final Stopwatch stopwatch = Stopwatch.createStarted();
+
+	private int countBulkRequests = 0;
+	private int countOK = 0;
+	private int countFailures = 0;
+	private long sizeInBytes = 0;
+	private final StringBuilder failureMessages = new StringBuilder();
+	private int countFailureMessages = 0;
+
+	/**
+	 * Stops the duration stopwatch. To be called after the bulk processor was closed.
+	 */
+	public synchronized void markCompleted()
+	{
+		if (stopwatch.isRunning())
+		{
+			stopwatch.stop();
+		}
+	}
+
+	@Override
+	public void beforeBulk(final long executionId, final BulkRequest request)
+	{
+		// nothing
+	}
+
+	@Override
+	public synchronized void afterBulk(final long executionId, final BulkRequest request, final BulkResponse response)
+	{
+		countBulkRequests++;
+		sizeInBytes += request.estimatedSizeInBytes();
+
+		for (final BulkItemResponse itemResponse : response.getItems())
+		{
+			if (itemResponse.isFailed())
+			{
+				countFailures++;
+				addFailureMessage("[" + itemResponse.getItemId() + "]: index [" + itemResponse.getIndex() + "], type [" + itemResponse.getType() + "], id [" + itemResponse.getId() + "], message [" + itemResponse.getFailureMessage() + "]");
+			}
+			else
+			{
+				countOK++;
+			}
+		}
+	}
+
+	@Override
+	public synchronized void afterBulk(final long executionId, final BulkRequest request, final Throwable failure)
+	{
+		countBulkRequests++;
+		sizeInBytes += request.estimatedSizeInBytes();
+
+		final int countActions = request.numberOfActions();
+		countFailures += countActions;
+		addFailureMessage("bulk request #" + executionId + " with " + countActions + " actions failed: " + failure.getLocalizedMessage());
+	}
+
+	private void addFailureMessage(final String failureMessage)
+	{
+		countFailureMessages++;
+		if (countFailureMessages > MAX_FAILURE_MESSAGES)
+		{
+			return;
+		}
+
+		failureMessages.append("\n").append(failureMessage);
+	}
+
+	@Override
+	public synchronized String getSummary()
+	{
+		return MoreObjects.toStringHelper(this)
+				.omitNullValues()
+				.add("TotalCount", getTotalCount())
+				.add("FailuresCount", getFailuresCount())
+				.add("BulkRequestsCount", countBulkRequests)
+				.add("SizeInBytes", sizeInBytes)
+				.add("DocumentsPerSecond", getDocumentsPerSecond())
+				.add("ErrorMsg", hasFailures() ? getFailureMessage() : null)
+				.add("Duration", stopwatch.toString())
+				.toString();
+	}
+
+	@Override
+	public synchronized long getDurationInMillis()
+	{
+		return stopwatch.elapsed(TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized int getTotalCount()
+	{
+		return countOK + countFailures;
+	}
+
+	@Override
+	public synchronized int getOKCount()
+	{
+		return countOK;
+	}
+
+	@Override
+	public synchronized int getFailuresCount()
+	{
+		return countFailures;
+	}
+
+	@Override
+	public synchronized int getBulkRequestsCount()
+	{
+		return countBulkRequests;
+	}
+
+	@Override
+	public synchronized boolean hasFailures()
+	{
+		return countFailures > 0;
+	}
+
+	@Override
+	public synchronized String getFailureMessage()
+	{
+		if (!hasFailures())
+		{
+			return null;
+		}
+
+		final StringBuilder message = new StringBuilder("failure in bulk execution:");
+		message.append(failureMessages);
+		if (countFailureMessages > MAX_FAILURE_MESSAGES)
+		{
+			message.append("\n... and ").append(countFailureMessages - MAX_FAILURE_MESSAGES).append(" more failures");
+		}
+		return message.toString();
+	}
+
+	@Override
+	public void throwExceptionIfAnyFailure()
+	{
+		if (hasFailures())
+		{
+			throw new ElasticsearchException(getFailureMessage());
+		}
+	}
+}
@@ -70,6 +70,12 @@ import de.metas.elasticsearch.indexer.IESIndexerResult;
 		return esResponse.getTook().toString();
 	}
 
+	@Override
+	public int getBulkRequestsCount()
+	{
+		return 1;
+	}
+
 	@Override
 	public boolean hasFailures()
 	{
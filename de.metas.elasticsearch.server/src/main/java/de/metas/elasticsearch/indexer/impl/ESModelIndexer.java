@@ -2,9 +2,11 @@ package de.metas.elasticsearch.indexer.impl;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -13,14 +15,21 @@ import javax.annotation.concurrent.Immutable;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequestBuilder;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.slf4j.Logger;
@@ -76,6 +85,13 @@ public final class ESModelIndexer implements IESModelIndexer
 {
 	// services
 	private static final transient Logger logger = LogManager.getLogger(ESModelIndexer.class);
+
+	private static final String SYSCONFIG_BulkActions = "de.metas.elasticsearch.indexer.BulkActions";
+	private static final String SYSCONFIG_BulkSizeKB = "de.metas.elasticsearch.indexer.BulkSizeKB";
+	private static final String SYSCONFIG_BulkConcurrentRequests = "de.metas.elasticsearch.indexer.BulkConcurrentRequests";
+	private static final String SYSCONFIG_BulkMaxRetries = "de.metas.elasticsearch.indexer.BulkMaxRetries";
+	private static final long BULK_AWAIT_CLOSE_TIMEOUT_MINUTES = 10;
+
 	private final IQueryBL queryBL = Services.get(IQueryBL.class);
 	private final Client elasticsearchClient;
 	private final ObjectMapper jsonObjectMapper;
@@ -428,38 +444,112 @@ public final class ESModelIndexer implements IESModelIndexer
 		return modelDenormalizer.denormalize(includedModel);
 	}
 
+	/**
+	 * Streams the models from given data source to the index, using a {@link BulkProcessor}.
+	 * <p>
+	 * The bulk requests are flushed by number of documents and by size, and only a bounded number of them is in flight at the same time,
+	 * so the memory consumption does not depend on the number of models to index.
+	 * Items which were rejected by the server because it's overloaded are retried, using an exponential backoff.
+	 */
 	@Override
 	public IESIndexerResult addToIndex(@NonNull final ESModelIndexerDataSource dataSource)
 	{
-		final BulkRequestBuilder bulkRequest = elasticsearchClient.prepareBulk();
+		final ESBulkIndexerResult result = new ESBulkIndexerResult();
+		final BulkProcessor bulkProcessor = createBulkProcessor(result);
 
+		final Iterator<Object> models = dataSource.getModelsToIndex();
+		int countAdded = 0;
+		AdempiereException failure = null;
 		try
 		{
-			IteratorUtils.stream(dataSource.getModelsToIndex())
-					.flatMap(this::createIndexRequestsAndStream)
-					.forEach(bulkRequest::add);
-
-			if (bulkRequest.numberOfActions() <= 0)
+			while (models.hasNext())
 			{
-				return IESIndexerResult.NULL;
-			}
+				final Object model = models.next();
+				final List<IndexRequest> indexRequests = createIndexRequestsAndStream(model)
+						.map(IndexRequestBuilder::request)
+						.collect(ImmutableList.toImmutableList());
 
-			final BulkResponse bulkResponse = bulkRequest.execute().actionGet();
-			final IESIndexerResult esResponse = ESIndexerResult.of(bulkResponse);
-
-			logger.debug("Added {}", esResponse);
-			return esResponse;
+				indexRequests.forEach(bulkProcessor::add);
+				countAdded += indexRequests.size();
+			}
 		}
 		catch (final AdempiereException ex)
 		{
+			failure = ex;
 			throw ex;
 		}
 		catch (final Exception ex)
 		{
-			final int count = bulkRequest.numberOfActions();
-			final String errmsg = "Failed indexing " + count + " models because: " + ex.getLocalizedMessage()
+			final String errmsg = "Failed indexing " + countAdded + " models because: " + ex.getLocalizedMessage()
 					+ "\n Indexer: " + this;
-			throw new AdempiereException(errmsg, ex);
+			failure = new AdempiereException(errmsg, ex);
+			throw failure;
+		}
+		finally
+		{
+			IteratorUtils.closeQuietly(models);
+			try
+			{
+				closeBulkProcessor(bulkProcessor);
+			}
+			catch (final RuntimeException closeEx)
+			{
+				// don't hide the original exception, if any
+				if (failure == null)
+				{
+					throw closeEx;
+				}
+				failure.addSuppressed(closeEx);
+			}
+			finally
+			{
+				result.markCompleted();
+			}
+		}
+
+		if (countAdded <= 0)
+		{
+			return IESIndexerResult.NULL;
+		}
+
+		logger.debug("Added {}", result);
+		return result;
+	}
+
+	private BulkProcessor createBulkProcessor(@NonNull final BulkProcessor.Listener listener)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int bulkActions = sysConfigBL.getIntValue(SYSCONFIG_BulkActions, 1000);
+		final int bulkSizeKB = sysConfigBL.getIntValue(SYSCONFIG_BulkSizeKB, 5 * 1024);
+		final int concurrentRequests = sysConfigBL.getIntValue(SYSCONFIG_BulkConcurrentRequests, 1);
+		final int maxRetries = sysConfigBL.getIntValue(SYSCONFIG_BulkMaxRetries, 3);
+
+		return BulkProcessor.builder(elasticsearchClient, listener)
+				.setName(getIndexName())
+				.setBulkActions(bulkActions)
+				.setBulkSize(new ByteSizeValue(bulkSizeKB, ByteSizeUnit.KB))
+				.setConcurrentRequests(concurrentRequests)
+				.setBackoffPolicy(maxRetries > 0
+						? BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(100), maxRetries)
+						: BackoffPolicy.noBackoff())
+				.build();
+	}
+
+	private void closeBulkProcessor(final BulkProcessor bulkProcessor)
+	{
+		try
+		{
+			// flushes the remaining documents and waits for the in-flight bulk requests
+			final boolean allRequestsCompleted = bulkProcessor.awaitClose(BULK_AWAIT_CLOSE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+			if (!allRequestsCompleted)
+			{
+				logger.warn("Not all bulk requests completed within {} minutes for {}", BULK_AWAIT_CLOSE_TIMEOUT_MINUTES, this);
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new AdempiereException("Interrupted while waiting for the bulk requests to complete for " + this, e);
 		}
 	}
 
@@ -1,13 +1,23 @@
 package de.metas.handlingunits.age;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.IHandlingUnitsDAO;
 import de.metas.handlingunits.attribute.HUAttributeConstants;
 import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Attribute;
 import de.metas.handlingunits.model.X_M_HU;
 import de.metas.util.Services;
+import lombok.NonNull;
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.mm.attributes.AttributeId;
+import org.adempiere.mm.attributes.api.IAttributeDAO;
+import org.compiere.model.IQuery;
+import org.compiere.util.TimeUtil;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /*
@@ -39,14 +49,56 @@ public class HUWithAgeRepository
 			.add(X_M_HU.HUSTATUS_Active)
 			.build();
 
-	public Stream<I_M_HU> getAllWhereProductionDateIsNotEmptyAndStatusActive()
+	/**
+	 * Streams the production dates of all active HUs which have one, ordered by {@code M_HU_ID}.
+	 * <p>
+	 * Only the {@code M_HU_Attribute} records are selected, without loading the HUs.
+	 */
+	public Stream<HUWithProductionDate> streamProductionDatesOfActiveHUs()
 	{
-		return Services.get(IHandlingUnitsDAO.class)
+		final IQuery<I_M_HU> activeHUsQuery = Services.get(IHandlingUnitsDAO.class)
 				.createHUQueryBuilder()
-				.addOnlyWithAttributeNotNull(HUAttributeConstants.ATTR_ProductionDate)
 				.addHUStatusesToInclude(validHuStatuses)
 				.createQueryBuilder()
+				.create();
+
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_HU_Attribute.class)
+				.addOnlyActiveRecordsFilter()
+				.addEqualsFilter(I_M_HU_Attribute.COLUMNNAME_M_Attribute_ID, getAttributeId(HUAttributeConstants.ATTR_ProductionDate))
+				.addNotNull(I_M_HU_Attribute.COLUMNNAME_ValueDate)
+				.addInSubQueryFilter(I_M_HU_Attribute.COLUMNNAME_M_HU_ID, I_M_HU.COLUMNNAME_M_HU_ID, activeHUsQuery)
+				.orderBy(I_M_HU_Attribute.COLUMNNAME_M_HU_ID)
 				.create()
-				.iterateAndStream();
+				.iterateAndStream()
+				.map(record -> HUWithProductionDate.of(HuId.ofRepoId(record.getM_HU_ID()), TimeUtil.asLocalDateTime(record.getValueDate())));
+	}
+
+	/**
+	 * @return the current {@code Age} attribute values of the given HUs; HUs which have no {@code Age} attribute are not included.
+	 */
+	public ImmutableMap<HuId, String> getAgeValuesByHuIds(@NonNull final Collection<HuId> huIds)
+	{
+		if (huIds.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_HU_Attribute.class)
+				.addOnlyActiveRecordsFilter()
+				.addEqualsFilter(I_M_HU_Attribute.COLUMNNAME_M_Attribute_ID, getAttributeId(HUAttributeConstants.ATTR_Age))
+				.addInArrayFilter(I_M_HU_Attribute.COLUMNNAME_M_HU_ID, huIds)
+				.create()
+				.stream()
+				.collect(ImmutableMap.toImmutableMap(
+						record -> HuId.ofRepoId(record.getM_HU_ID()),
+						record -> record.getValue() != null ? record.getValue() : "",
+						(value1, value2) -> value1));
+	}
+
+	private static AttributeId getAttributeId(@NonNull final String attributeValue)
+	{
+		return Services.get(IAttributeDAO.class).retrieveAttributeIdByValue(attributeValue);
 	}
 }
@@ -0,0 +1,186 @@
+package de.metas.handlingunits.age;
+
+import static org.adempiere.model.InterfaceWrapperHelper.setThreadInheritedTrxName;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.IHandlingUnitsDAO;
+import de.metas.handlingunits.attribute.HUAttributeConstants;
+import de.metas.handlingunits.attribute.storage.IAttributeStorage;
+import de.metas.handlingunits.hutransaction.IHUTrxBL;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.logging.LogManager;
+import de.metas.util.Loggables;
+import de.metas.util.Services;
+import de.metas.util.stream.StreamUtils;
+import lombok.NonNull;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.service.ISysConfigBL;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/*
+ * #%L
+ * de.metas.handlingunits.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@Service
+public class HUWithAgeService
+{
+	private static final Logger logger = LogManager.getLogger(HUWithAgeService.class);
+
+	@VisibleForTesting
+	static final String SYSCONFIG_BatchSize = "de.metas.handlingunits.age.HUWithAgeService.BatchSize";
+	private static final int DEFAULT_BatchSize = 500;
+
+	private final HUWithAgeRepository huWithAgeRepository;
+	private final AgeAttributesService ageAttributesService;
+
+	public HUWithAgeService(
+			@NonNull final HUWithAgeRepository huWithAgeRepository,
+			@NonNull final AgeAttributesService ageAttributesService)
+	{
+		this.huWithAgeRepository = huWithAgeRepository;
+		this.ageAttributesService = ageAttributesService;
+	}
+
+	/**
+	 * Updates the {@code Age} attribute of all active HUs which have a production date.
+	 * <p>
+	 * The production dates and current ages are selected in batches, and the new ages are computed in memory.
+	 * Only the HUs whose age actually changed are loaded and updated via their attribute storage, so the attribute storage listeners are fired just for them.
+	 * <p>
+	 * Each batch is updated in one transaction, with a savepoint per HU, so that one failing HU does not affect the others.
+	 * If the batch transaction itself fails, its HUs are retried one by one, each in its own transaction.
+	 *
+	 * @return how many HUs were updated
+	 */
+	public int updateAgeAttributes()
+	{
+		final AgeValues ageValues = ageAttributesService.getAgeValues();
+		final int batchSize = getBatchSize();
+
+		return StreamUtils.dice(huWithAgeRepository.streamProductionDatesOfActiveHUs(), batchSize)
+				.mapToInt(batch -> updateAgeAttributes(batch, ageValues))
+				.sum();
+	}
+
+	private int updateAgeAttributes(
+			@NonNull final List<HUWithProductionDate> batch,
+			@NonNull final AgeValues ageValues)
+	{
+		final ImmutableMap<HuId, String> currentAgesByHuId = huWithAgeRepository.getAgeValuesByHuIds(batch.stream()
+				.map(HUWithProductionDate::getHuId)
+				.collect(ImmutableList.toImmutableList()));
+
+		final ImmutableMap.Builder<HuId, String> changedAgesByHuId = ImmutableMap.builder();
+		for (final HUWithProductionDate huWithProductionDate : batch)
+		{
+			final HuId huId = huWithProductionDate.getHuId();
+			final String age = String.valueOf(ageValues.computeAgeInMonths(huWithProductionDate.getProductionDate()));
+			if (!Objects.equals(age, currentAgesByHuId.get(huId)))
+			{
+				changedAgesByHuId.put(huId, age);
+			}
+		}
+
+		final ImmutableMap<HuId, String> changedAges = changedAgesByHuId.build();
+		if (changedAges.isEmpty())
+		{
+			return 0;
+		}
+
+		final List<I_M_HU> hus = Services.get(IHandlingUnitsDAO.class).getByIds(changedAges.keySet());
+
+		int countUpdated;
+		try
+		{
+			countUpdated = Services.get(ITrxManager.class).call(() -> updateAgeAttributes(hus, changedAges));
+		}
+		catch (final RuntimeException ex)
+		{
+			logger.warn("Failed updating the age of {} HUs in one transaction. Retrying them one by one", hus.size(), ex);
+			countUpdated = updateAgeAttributes(hus, changedAges);
+		}
+
+		Loggables.get().addLog("Updated the age of {} HUs", countUpdated);
+		return countUpdated;
+	}
+
+	private int updateAgeAttributes(
+			@NonNull final List<I_M_HU> hus,
+			@NonNull final ImmutableMap<HuId, String> agesByHuId)
+	{
+		int countUpdated = 0;
+		for (final I_M_HU hu : hus)
+		{
+			final HuId huId = HuId.ofRepoId(hu.getM_HU_ID());
+			if (updateAgeAttribute(hu, agesByHuId.get(huId)))
+			{
+				countUpdated++;
+			}
+		}
+		return countUpdated;
+	}
+
+	/**
+	 * Updates the given HU in the thread inherited transaction, if any, rolling back to a savepoint if it fails. Without a thread inherited transaction, the HU is updated in its own transaction.
+	 *
+	 * @return {@code true} if the HU was updated
+	 */
+	private boolean updateAgeAttribute(
+			@NonNull final I_M_HU hu,
+			@NonNull final String age)
+	{
+		try
+		{
+			return Services.get(IHUTrxBL.class).process(huContext -> {
+				setThreadInheritedTrxName(hu);
+
+				final IAttributeStorage storage = huContext.getHUAttributeStorageFactory().getAttributeStorage(hu);
+				if (!storage.hasAttribute(HUAttributeConstants.ATTR_Age)
+						|| Objects.equals(age, storage.getValueAsString(HUAttributeConstants.ATTR_Age)))
+				{
+					return false;
+				}
+
+				storage.setSaveOnChange(true);
+				storage.setValue(HUAttributeConstants.ATTR_Age, age);
+				return true;
+			});
+		}
+		catch (final RuntimeException ex)
+		{
+			Loggables.get().addLog("!!! Failed updating the age of M_HU_ID={}: {} !!!", hu.getM_HU_ID(), ex.getLocalizedMessage());
+			logger.warn("Failed updating the age of M_HU_ID={}. Skipped", hu.getM_HU_ID(), ex);
+			return false;
+		}
+	}
+
+	private int getBatchSize()
+	{
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_BatchSize, DEFAULT_BatchSize);
+	}
+}
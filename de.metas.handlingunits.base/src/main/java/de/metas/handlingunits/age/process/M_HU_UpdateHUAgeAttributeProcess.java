@@ -22,51 +22,20 @@ package de.metas.handlingunits.age.process;
  * #L%
  */
 
-import de.metas.handlingunits.age.AgeAttributesService;
-import de.metas.handlingunits.age.HUWithAgeRepository;
-import de.metas.handlingunits.attribute.HUAttributeConstants;
-import de.metas.handlingunits.attribute.storage.IAttributeStorage;
-import de.metas.handlingunits.attribute.storage.IAttributeStorageFactory;
-import de.metas.handlingunits.attribute.storage.IAttributeStorageFactoryService;
-import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.age.HUWithAgeService;
 import de.metas.process.JavaProcess;
 import de.metas.process.RunOutOfTrx;
-import de.metas.util.Services;
 import org.compiere.Adempiere;
 
-import java.time.LocalDateTime;
-import java.util.stream.Stream;
-
 public class M_HU_UpdateHUAgeAttributeProcess extends JavaProcess
 {
-	private final IAttributeStorageFactoryService attributeStorageFactoryService = Services.get(IAttributeStorageFactoryService.class);
-	private final IAttributeStorageFactory attributeStorageFactory = attributeStorageFactoryService.createHUAttributeStorageFactory();
-	private final HUWithAgeRepository huWithAgeRepository = Adempiere.getBean(HUWithAgeRepository.class);
-
-	private final AgeAttributesService ageAttributesService = Adempiere.getBean(AgeAttributesService.class);
+	private final HUWithAgeService huWithAgeService = Adempiere.getBean(HUWithAgeService.class);
 
 	@Override
 	@RunOutOfTrx
 	protected String doIt()
 	{
-		streamHUs().forEach(this::updateAgeAttribute);
-
-		return MSG_OK;
-	}
-
-	private Stream<I_M_HU> streamHUs()
-	{
-		return huWithAgeRepository.getAllWhereProductionDateIsNotEmptyAndStatusActive();
+		final int countUpdated = huWithAgeService.updateAgeAttributes();
+		return "@Updated@ #" + countUpdated;
 	}
-
-	private void updateAgeAttribute(final I_M_HU hu)
-	{
-		final IAttributeStorage storage = attributeStorageFactory.getAttributeStorage(hu);
-		storage.setSaveOnChange(true);
-
-		final LocalDateTime productionDate = storage.getValueAsLocalDateTime(HUAttributeConstants.ATTR_ProductionDate);
-		final int age = ageAttributesService.getAgeValues().computeAgeInMonths(productionDate);
-		storage.setValue(HUAttributeConstants.ATTR_Age, String.valueOf(age));
-	}
-
 }
@@ -1,20 +1,26 @@
 package de.metas.handlingunits.expiry;
 
 import static org.adempiere.model.InterfaceWrapperHelper.load;
+import static org.adempiere.model.InterfaceWrapperHelper.setThreadInheritedTrxName;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
-import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.mm.attributes.api.IAttributeDAO;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.model.I_M_Attribute;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.IHUContext;
 import de.metas.handlingunits.IHandlingUnitsBL;
+import de.metas.handlingunits.IHandlingUnitsDAO;
 import de.metas.handlingunits.IMutableHUContext;
 import de.metas.handlingunits.attribute.HUAttributeConstants;
 import de.metas.handlingunits.attribute.storage.IAttributeStorage;
@@ -23,6 +29,7 @@ import de.metas.handlingunits.model.I_M_HU;
 import de.metas.logging.LogManager;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
+import de.metas.util.stream.StreamUtils;
 import lombok.NonNull;
 
 /*
@@ -53,6 +60,10 @@ public class HUWithExpiryDatesService
 
 	private static final Logger logger = LogManager.getLogger(HUWithExpiryDatesService.class);
 
+	@VisibleForTesting
+	static final String SYSCONFIG_BatchSize = "de.metas.handlingunits.expiry.HUWithExpiryDatesService.BatchSize";
+	private static final int DEFAULT_BatchSize = 500;
+
 	private final HUWithExpiryDatesRepository huWithExpiryDatesRepository;
 
 	public HUWithExpiryDatesService(@NonNull final HUWithExpiryDatesRepository huWithExpiryDatesRepository)
@@ -60,28 +71,77 @@ public class HUWithExpiryDatesService
 		this.huWithExpiryDatesRepository = huWithExpiryDatesRepository;
 	}
 
-	public void markExpiredWhereWarnDateExceeded(@NonNull final LocalDateTime expiredWarnDate)
+	/**
+	 * Marks all HUs as expired whose warn date is exceeded and which are not already marked as expired.
+	 * <p>
+	 * Only the HUs which actually change are selected. They are loaded and updated in batches, one transaction per batch, with a savepoint per HU,
+	 * so that one failing HU does not affect the others. If the batch transaction itself fails, its HUs are retried one by one, each in its own transaction.
+	 *
+	 * @return how many HUs were marked as expired
+	 */
+	public int markExpiredWhereWarnDateExceeded(@NonNull final LocalDateTime expiredWarnDate)
 	{
-		huWithExpiryDatesRepository.getByWarnDateExceeded(expiredWarnDate)
-				.map(HUWithExpiryDates::getHuId)
-				.forEach(this::markExpiredInOwnTrx);
+		final int batchSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_BatchSize, DEFAULT_BatchSize);
+
+		return StreamUtils.dice(huWithExpiryDatesRepository.getByWarnDateExceeded(expiredWarnDate).map(HUWithExpiryDates::getHuId), batchSize)
+				.mapToInt(this::markExpired)
+				.sum();
 	}
 
-	private void markExpiredInOwnTrx(@NonNull final HuId huId)
+	private int markExpired(@NonNull final List<HuId> huIds)
 	{
-		final IHUTrxBL huTrxBL = Services.get(IHUTrxBL.class);
-		huTrxBL.process(huContext -> {
-			try
+		final I_M_Attribute huExpiredAttribute = retrieveHU_Expired_Attribute();
+		final List<I_M_HU> hus = Services.get(IHandlingUnitsDAO.class).getByIds(huIds);
+
+		try
+		{
+			return Services.get(ITrxManager.class).call(() -> markExpired(hus, huExpiredAttribute));
+		}
+		catch (final RuntimeException ex)
+		{
+			logger.warn("Failed marking {} HUs as expired in one transaction. Retrying them one by one", hus.size(), ex);
+			return markExpired(hus, huExpiredAttribute);
+		}
+	}
+
+	private int markExpired(@NonNull final List<I_M_HU> hus, @NonNull final I_M_Attribute huExpiredAttribute)
+	{
+		int countMarked = 0;
+		for (final I_M_HU hu : hus)
+		{
+			if (markExpired(hu, huExpiredAttribute))
 			{
-				markExpiredUsingHuContext(huId, huContext);
-				Loggables.get().addLog("Successfully processed M_HU_ID={}", huId);
+				countMarked++;
 			}
-			catch (final AdempiereException ex)
+		}
+		return countMarked;
+	}
+
+	/**
+	 * Marks the given HU in the thread inherited transaction, if any, rolling back to a savepoint if it fails. Without a thread inherited transaction, the HU is marked in its own transaction.
+	 *
+	 * @return {@code true} if the HU was marked as expired
+	 */
+	private boolean markExpired(@NonNull final I_M_HU hu, @NonNull final I_M_Attribute huExpiredAttribute)
+	{
+		try
+		{
+			final boolean marked = Services.get(IHUTrxBL.class).process(huContext -> {
+				setThreadInheritedTrxName(hu);
+				return markExpiredUsingHuContext(hu, huExpiredAttribute, huContext);
+			});
+			if (marked)
 			{
-				Loggables.get().addLog("!!! Failed processing M_HU_ID={}: {} !!!", huId, ex.getLocalizedMessage());
-				logger.warn("Failed processing M_HU_ID={}. Skipped", huId, ex);
+				Loggables.get().addLog("Successfully processed M_HU_ID={}", hu.getM_HU_ID());
 			}
-		});
+			return marked;
+		}
+		catch (final RuntimeException ex)
+		{
+			Loggables.get().addLog("!!! Failed processing M_HU_ID={}: {} !!!", hu.getM_HU_ID(), ex.getLocalizedMessage());
+			logger.warn("Failed processing M_HU_ID={}. Skipped", hu.getM_HU_ID(), ex);
+			return false;
+		}
 	}
 
 	public void markExpiredIfWarnDateExceeded(@NonNull final HuId huId)
@@ -95,23 +155,28 @@ public class HUWithExpiryDatesService
 
 		final IHandlingUnitsBL handlingUnitsBL = Services.get(IHandlingUnitsBL.class);
 		final IMutableHUContext huContext = handlingUnitsBL.createMutableHUContext(Env.getCtx());
-		markExpiredUsingHuContext(huId, huContext);
+		markExpiredUsingHuContext(load(huId, I_M_HU.class), retrieveHU_Expired_Attribute(), huContext);
 	}
 
-	private void markExpiredUsingHuContext(
-			@NonNull final HuId huId,
+	/**
+	 * @return {@code false} if the HU is already marked as expired
+	 */
+	private boolean markExpiredUsingHuContext(
+			@NonNull final I_M_HU hu,
+			@NonNull final I_M_Attribute huExpiredAttribute,
 			@NonNull final IHUContext huContext)
 	{
-		final I_M_HU hu = load(huId, I_M_HU.class);
-
 		final IAttributeStorage huAttributes = huContext
 				.getHUAttributeStorageFactory()
 				.getAttributeStorage(hu);
+		if (HUAttributeConstants.ATTR_Expired_Value_Expired.equals(huAttributes.getValueAsString(huExpiredAttribute)))
+		{
+			return false;
+		}
 
 		huAttributes.setSaveOnChange(true);
-
-		final I_M_Attribute huExpiredAttribute = retrieveHU_Expired_Attribute();
 		huAttributes.setValue(huExpiredAttribute, HUAttributeConstants.ATTR_Expired_Value_Expired);
+		return true;
 	}
 
 	private I_M_Attribute retrieveHU_Expired_Attribute()
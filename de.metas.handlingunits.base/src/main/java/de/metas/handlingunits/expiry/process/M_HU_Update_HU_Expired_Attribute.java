@@ -38,7 +38,7 @@ public class M_HU_Update_HU_Expired_Attribute extends JavaProcess
 	@RunOutOfTrx
 	protected String doIt()
 	{
-		huWithExpiryDatesService.markExpiredWhereWarnDateExceeded(LocalDate.now().atStartOfDay());
-		return MSG_OK;
+		final int countProcessed = huWithExpiryDatesService.markExpiredWhereWarnDateExceeded(LocalDate.now().atStartOfDay());
+		return "@Updated@ #" + countProcessed;
 	}
 }
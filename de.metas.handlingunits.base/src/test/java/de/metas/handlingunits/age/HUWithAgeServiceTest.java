@@ -0,0 +1,164 @@
+package de.metas.handlingunits.age;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.mm.attributes.api.impl.AttributesTestHelper;
+import org.adempiere.mm.attributes.spi.IAttributeValueContext;
+import org.adempiere.service.ISysConfigBL;
+import org.compiere.model.I_M_Attribute;
+import org.compiere.model.X_M_Attribute;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.handlingunits.AbstractHUTest;
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.IHandlingUnitsDAO;
+import de.metas.handlingunits.attribute.HUAttributeConstants;
+import de.metas.handlingunits.attribute.IAttributeValue;
+import de.metas.handlingunits.attribute.IHUAttributesBL;
+import de.metas.handlingunits.attribute.storage.IAttributeStorage;
+import de.metas.handlingunits.attribute.storage.IAttributeStorageFactoryService;
+import de.metas.handlingunits.attribute.storage.IAttributeStorageListener;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_PI;
+import de.metas.handlingunits.model.I_M_HU_PI_Version;
+import de.metas.handlingunits.model.X_M_HU;
+import de.metas.handlingunits.model.X_M_HU_PI_Attribute;
+import de.metas.handlingunits.model.X_M_HU_PI_Version;
+import de.metas.handlingunits.test.misc.builders.HUPIAttributeBuilder;
+import de.metas.util.Services;
+import de.metas.util.time.FixedTimeSource;
+import de.metas.util.time.SystemTime;
+
+/*
+ * #%L
+ * de.metas.handlingunits.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HUWithAgeServiceTest extends AbstractHUTest
+{
+	private I_M_Attribute attr_ProductionDate;
+	private I_M_Attribute attr_Age;
+	private I_M_HU_PI_Version huPIVersion;
+
+	private HUWithAgeRepository huWithAgeRepository;
+	private HUWithAgeService huWithAgeService;
+
+	@Override
+	protected void initialize()
+	{
+		SystemTime.setTimeSource(new FixedTimeSource(2019, 6, 10, 10, 0, 0));
+
+		final AttributesTestHelper attributesTestHelper = new AttributesTestHelper();
+		attr_ProductionDate = attributesTestHelper.createM_Attribute(HUAttributeConstants.ATTR_ProductionDate, X_M_Attribute.ATTRIBUTEVALUETYPE_Date, true);
+		attr_Age = attributesTestHelper.createM_Attribute(HUAttributeConstants.ATTR_Age, X_M_Attribute.ATTRIBUTEVALUETYPE_List, true);
+		helper.createAttributeListValues(attr_Age, "0", "3", "6", "12");
+
+		final I_M_HU_PI huPI = helper.createHUDefinition("TU", X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit);
+		helper.createM_HU_PI_Attribute(new HUPIAttributeBuilder(attr_ProductionDate)
+				.setM_HU_PI(huPI)
+				.setPropagationType(X_M_HU_PI_Attribute.PROPAGATIONTYPE_NoPropagation));
+		helper.createM_HU_PI_Attribute(new HUPIAttributeBuilder(attr_Age)
+				.setM_HU_PI(huPI)
+				.setPropagationType(X_M_HU_PI_Attribute.PROPAGATIONTYPE_NoPropagation));
+		huPIVersion = Services.get(IHandlingUnitsDAO.class).retrievePICurrentVersion(huPI);
+
+		huWithAgeRepository = new HUWithAgeRepository();
+		huWithAgeService = new HUWithAgeService(huWithAgeRepository, new AgeAttributesService());
+	}
+
+	/**
+	 * Three batches of two HUs each. Only the HUs whose age changed are updated, each batch in its own transaction,
+	 * and the HU whose update fails does not roll back the other HU of its batch.
+	 */
+	@Test
+	public void updateAgeAttributes()
+	{
+		Services.get(ISysConfigBL.class).setValue(HUWithAgeService.SYSCONFIG_BatchSize, 2, 0);
+
+		final HuId huUnchanged = createHU(LocalDate.of(2018, 11, 1), "6");
+		final HuId huOlder = createHU(LocalDate.of(2018, 11, 1), "0");
+		final HuId huFailing = createHU(LocalDate.of(2018, 4, 1), "0");
+		final HuId huAfterFailing = createHU(LocalDate.of(2019, 2, 1), "0");
+		final HuId huYounger = createHU(LocalDate.of(2019, 5, 1), "3");
+		final HuId huUnchanged2 = createHU(LocalDate.of(2019, 4, 1), "0");
+
+		final Map<HuId, String> trxNamesByUpdatedHuId = new HashMap<>();
+		Services.get(IAttributeStorageFactoryService.class).addAttributeStorageListener(new IAttributeStorageListener()
+		{
+			@Override
+			public void onAttributeValueChanged(
+					final IAttributeValueContext attributeValueContext,
+					final IAttributeStorage storage,
+					final IAttributeValue attributeValue,
+					final Object valueOld)
+			{
+				final HuId huId = HuId.ofRepoId(Services.get(IHUAttributesBL.class).getM_HU(storage).getM_HU_ID());
+				if (huFailing.equals(huId))
+				{
+					throw new RuntimeException("simulated failure for " + huId);
+				}
+				trxNamesByUpdatedHuId.put(huId, Services.get(ITrxManager.class).getThreadInheritedTrxName());
+			}
+		});
+
+		final int countUpdated = huWithAgeService.updateAgeAttributes();
+
+		assertThat(countUpdated).isEqualTo(3);
+		assertThat(trxNamesByUpdatedHuId).containsOnlyKeys(huOlder, huYounger, huAfterFailing);
+
+		// each batch has its own transaction; huAfterFailing shares its batch with huFailing
+		assertThat(trxNamesByUpdatedHuId.values()).doesNotContainNull().doesNotHaveDuplicates();
+
+		final ImmutableMap<HuId, String> ages = huWithAgeRepository.getAgeValuesByHuIds(ImmutableList.of(huUnchanged, huOlder, huYounger, huAfterFailing, huUnchanged2));
+		assertThat(ages).containsEntry(huUnchanged, "6");
+		assertThat(ages).containsEntry(huOlder, "6");
+		assertThat(ages).containsEntry(huYounger, "0");
+		assertThat(ages).containsEntry(huAfterFailing, "3");
+		assertThat(ages).containsEntry(huUnchanged2, "0");
+	}
+
+	private HuId createHU(final LocalDate productionDate, final String age)
+	{
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		hu.setM_HU_PI_Version(huPIVersion);
+		hu.setHUStatus(X_M_HU.HUSTATUS_Active);
+		saveRecord(hu);
+
+		final IAttributeStorage storage = helper.getHUContext().getHUAttributeStorageFactory().getAttributeStorage(hu);
+		storage.setSaveOnChange(true);
+		storage.generateInitialAttributes(ImmutableMap.of());
+		storage.setValue(attr_ProductionDate, Timestamp.valueOf(productionDate.atStartOfDay()));
+		storage.setValue(attr_Age, age);
+		storage.saveChangesIfNeeded();
+
+		return HuId.ofRepoId(hu.getM_HU_ID());
+	}
+}
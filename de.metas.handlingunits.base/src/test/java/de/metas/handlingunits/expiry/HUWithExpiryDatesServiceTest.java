@@ -0,0 +1,183 @@
+package de.metas.handlingunits.expiry;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.mm.attributes.api.impl.AttributesTestHelper;
+import org.adempiere.mm.attributes.spi.IAttributeValueContext;
+import org.adempiere.service.ISysConfigBL;
+import org.compiere.model.I_M_Attribute;
+import org.compiere.model.X_M_Attribute;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.handlingunits.AbstractHUTest;
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.IHandlingUnitsDAO;
+import de.metas.handlingunits.attribute.HUAttributeConstants;
+import de.metas.handlingunits.attribute.IAttributeValue;
+import de.metas.handlingunits.attribute.IHUAttributesBL;
+import de.metas.handlingunits.attribute.storage.IAttributeStorage;
+import de.metas.handlingunits.attribute.storage.IAttributeStorageFactoryService;
+import de.metas.handlingunits.attribute.storage.IAttributeStorageListener;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Attribute;
+import de.metas.handlingunits.model.I_M_HU_BestBefore_V;
+import de.metas.handlingunits.model.I_M_HU_PI;
+import de.metas.handlingunits.model.I_M_HU_PI_Version;
+import de.metas.handlingunits.model.X_M_HU;
+import de.metas.handlingunits.model.X_M_HU_PI_Attribute;
+import de.metas.handlingunits.model.X_M_HU_PI_Version;
+import de.metas.handlingunits.test.misc.builders.HUPIAttributeBuilder;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.handlingunits.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HUWithExpiryDatesServiceTest extends AbstractHUTest
+{
+	private static final LocalDate TODAY = LocalDate.of(2019, 6, 10);
+
+	private I_M_Attribute attr_Expired;
+	private I_M_HU_PI_Version huPIVersion;
+
+	private HUWithExpiryDatesService huWithExpiryDatesService;
+
+	@Override
+	protected void initialize()
+	{
+		attr_Expired = new AttributesTestHelper().createM_Attribute(HUAttributeConstants.ATTR_Expired, X_M_Attribute.ATTRIBUTEVALUETYPE_List, true);
+		helper.createAttributeListValues(attr_Expired, HUAttributeConstants.ATTR_Expired_Value_Expired);
+
+		final I_M_HU_PI huPI = helper.createHUDefinition("TU", X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit);
+		helper.createM_HU_PI_Attribute(new HUPIAttributeBuilder(attr_Expired)
+				.setM_HU_PI(huPI)
+				.setPropagationType(X_M_HU_PI_Attribute.PROPAGATIONTYPE_NoPropagation));
+		huPIVersion = Services.get(IHandlingUnitsDAO.class).retrievePICurrentVersion(huPI);
+
+		huWithExpiryDatesService = new HUWithExpiryDatesService(new HUWithExpiryDatesRepository());
+	}
+
+	/**
+	 * Three batches of two HUs each. Only the HUs which are not yet expired are marked, each batch in its own transaction,
+	 * and the HU whose update fails does not roll back the other HU of its batch.
+	 */
+	@Test
+	public void markExpiredWhereWarnDateExceeded()
+	{
+		Services.get(ISysConfigBL.class).setValue(HUWithExpiryDatesService.SYSCONFIG_BatchSize, 2, 0);
+
+		final HuId huExpiring = createHU(TODAY.minusDays(10), null);
+		final HuId huAlreadyExpired = createHU(TODAY.minusDays(10), HUAttributeConstants.ATTR_Expired_Value_Expired);
+		final HuId huFailing = createHU(TODAY.minusDays(5), null);
+		final HuId huAfterFailing = createHU(TODAY.minusDays(5), null);
+		final HuId huNotYetExpiring = createHU(TODAY.plusDays(5), null);
+		final HuId huExpiringToday = createHU(TODAY, null);
+		final HuId huExpiringLast = createHU(TODAY.minusDays(1), null);
+
+		final Map<HuId, String> trxNamesByMarkedHuId = new HashMap<>();
+		Services.get(IAttributeStorageFactoryService.class).addAttributeStorageListener(new IAttributeStorageListener()
+		{
+			@Override
+			public void onAttributeValueChanged(
+					final IAttributeValueContext attributeValueContext,
+					final IAttributeStorage storage,
+					final IAttributeValue attributeValue,
+					final Object valueOld)
+			{
+				final HuId huId = HuId.ofRepoId(Services.get(IHUAttributesBL.class).getM_HU(storage).getM_HU_ID());
+				if (huFailing.equals(huId))
+				{
+					throw new RuntimeException("simulated failure for " + huId);
+				}
+				trxNamesByMarkedHuId.put(huId, Services.get(ITrxManager.class).getThreadInheritedTrxName());
+			}
+		});
+
+		final int countMarked = huWithExpiryDatesService.markExpiredWhereWarnDateExceeded(TODAY.atStartOfDay());
+
+		assertThat(countMarked).isEqualTo(4);
+		assertThat(trxNamesByMarkedHuId).containsOnlyKeys(huExpiring, huAfterFailing, huExpiringToday, huExpiringLast);
+		assertThat(trxNamesByMarkedHuId.values()).doesNotContainNull();
+
+		// each batch has its own transaction; huAfterFailing shares its batch with huFailing
+		assertThat(trxNamesByMarkedHuId.get(huExpiring)).isNotEqualTo(trxNamesByMarkedHuId.get(huAfterFailing));
+		assertThat(trxNamesByMarkedHuId.get(huAfterFailing)).isNotEqualTo(trxNamesByMarkedHuId.get(huExpiringToday));
+		assertThat(trxNamesByMarkedHuId.get(huExpiringToday)).isEqualTo(trxNamesByMarkedHuId.get(huExpiringLast));
+
+		assertThat(getExpiredValue(huExpiring)).isEqualTo(HUAttributeConstants.ATTR_Expired_Value_Expired);
+		assertThat(getExpiredValue(huAlreadyExpired)).isEqualTo(HUAttributeConstants.ATTR_Expired_Value_Expired);
+		assertThat(getExpiredValue(huAfterFailing)).isEqualTo(HUAttributeConstants.ATTR_Expired_Value_Expired);
+		assertThat(getExpiredValue(huNotYetExpiring)).isNull();
+		assertThat(getExpiredValue(huExpiringToday)).isEqualTo(HUAttributeConstants.ATTR_Expired_Value_Expired);
+		assertThat(getExpiredValue(huExpiringLast)).isEqualTo(HUAttributeConstants.ATTR_Expired_Value_Expired);
+	}
+
+	/**
+	 * Creates an HU with the given {@code HU_Expired} value, and its {@code M_HU_BestBefore_V} record.
+	 * The view record is created as "not expired" even if the HU already is, like a stale view row would be.
+	 */
+	private HuId createHU(final LocalDate expiredWarnDate, final String expired)
+	{
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		hu.setM_HU_PI_Version(huPIVersion);
+		hu.setHUStatus(X_M_HU.HUSTATUS_Active);
+		saveRecord(hu);
+
+		final IAttributeStorage storage = helper.getHUContext().getHUAttributeStorageFactory().getAttributeStorage(hu);
+		storage.setSaveOnChange(true);
+		storage.generateInitialAttributes(ImmutableMap.of());
+		if (expired != null)
+		{
+			storage.setValue(attr_Expired, expired);
+		}
+		storage.saveChangesIfNeeded();
+
+		final I_M_HU_BestBefore_V bestBefore = newInstance(I_M_HU_BestBefore_V.class);
+		bestBefore.setM_HU_ID(hu.getM_HU_ID());
+		bestBefore.setHU_BestBeforeDate(Timestamp.valueOf(expiredWarnDate.plusDays(7).atStartOfDay()));
+		bestBefore.setHU_ExpiredWarnDate(Timestamp.valueOf(expiredWarnDate.atStartOfDay()));
+		saveRecord(bestBefore);
+
+		return HuId.ofRepoId(hu.getM_HU_ID());
+	}
+
+	private String getExpiredValue(final HuId huId)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_HU_Attribute.class)
+				.addEqualsFilter(I_M_HU_Attribute.COLUMNNAME_M_HU_ID, huId)
+				.addEqualsFilter(I_M_HU_Attribute.COLUMNNAME_M_Attribute_ID, attr_Expired.getM_Attribute_ID())
+				.create()
+				.firstOnlyNotNull(I_M_HU_Attribute.class)
+				.getValue();
+	}
+}
@@ -11,12 +11,16 @@ import static org.adempiere.model.InterfaceWrapperHelper.save;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
 import java.util.Objects;
+import java.util.Properties;
 
 import javax.annotation.Nullable;
 
 import org.adempiere.ad.dao.ICompositeQueryFilter;
+import org.adempiere.ad.dao.ICompositeQueryUpdater;
 import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.dao.ISqlQueryUpdater;
 import org.compiere.util.TimeUtil;
 import org.springframework.stereotype.Service;
 
@@ -32,7 +36,9 @@ import de.metas.material.dispo.commons.candidate.businesscase.DemandDetail;
 import de.metas.material.dispo.commons.candidate.businesscase.DistributionDetail;
 import de.metas.material.dispo.commons.candidate.businesscase.ProductionDetail;
 import de.metas.material.dispo.commons.candidate.businesscase.PurchaseDetail;
+import de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex;
 import de.metas.material.dispo.commons.repository.query.CandidatesQuery;
+import de.metas.material.dispo.commons.repository.query.MaterialDescriptorQuery;
 import de.metas.material.dispo.commons.repository.repohelpers.PurchaseDetailRepoHelper;
 import de.metas.material.dispo.commons.repository.repohelpers.RepositoryCommons;
 import de.metas.material.dispo.model.I_MD_Candidate;
@@ -114,6 +120,122 @@ public class CandidateRepositoryWriteService
 		return addOrUpdate(query, candidate, false);
 	}
 
+	/**
+	 * Adds the given {@code qtyDelta} to the quantity of all candidates which match the given {@code query} and sets their groupId, using one set-based update instead of loading and saving each candidate.
+	 * <p>
+	 * Like {@link #updateCandidateById(Candidate)}, the update strips the new quantity's trailing zeros and recomputes {@code QtyFulfilled} and {@code MD_Candidate_Status} from the candidates' transaction details.
+	 * <p>
+	 * Note that unlike {@link #updateCandidateById(Candidate)}, this method doesn't touch the candidates' detail records,
+	 * so it's only applicable for {@link de.metas.material.dispo.commons.candidate.CandidateType#STOCK} candidates.
+	 *
+	 * @param groupId the groupId to set; if {@code <= 0}, then the records' groupIds are left untouched, like {@link #updateCandidateById(Candidate)} would do.
+	 * @return the number of updated records
+	 */
+	public int addQtyDeltaAndSetGroupId(
+			@NonNull final CandidatesQuery query,
+			@NonNull final BigDecimal qtyDelta,
+			final int groupId)
+	{
+		if (qtyDelta.signum() == 0 && groupId <= 0)
+		{
+			return 0; // nothing to update
+		}
+
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final ICompositeQueryUpdater<I_MD_Candidate> updater = queryBL.createCompositeQueryUpdater(I_MD_Candidate.class)
+				.addQueryUpdater(new AddQtyDeltaQueryUpdater(qtyDelta));
+		if (groupId > 0)
+		{
+			updater.addSetColumnValue(I_MD_Candidate.COLUMNNAME_MD_Candidate_GroupId, groupId);
+		}
+
+		final int countUpdated = RepositoryCommons
+				.mkQueryBuilder(query)
+				.create()
+				.updateDirectly(updater);
+
+		final MaterialDescriptorQuery materialDescriptorQuery = query.getMaterialDescriptorQuery();
+		AvailableToPromiseIndex.invalidateProductAfterCommit(materialDescriptorQuery != null ? materialDescriptorQuery.getProductId() : -1);
+
+		Loggables.get().addLog(
+				"addQtyDeltaAndSetGroupId - updated {} candidates; qtyDelta={}; groupId={}; query={}",
+				countUpdated, qtyDelta, groupId, query);
+
+		return countUpdated;
+	}
+
+	/**
+	 * Adds a delta to {@code MD_Candidate.Qty} and recomputes {@code QtyFulfilled} and {@code MD_Candidate_Status} the same way {@link CandidateRepositoryWriteService#updateCandidateRecordFromCandidate(I_MD_Candidate, Candidate, boolean)} does.
+	 */
+	private static class AddQtyDeltaQueryUpdater implements ISqlQueryUpdater<I_MD_Candidate>
+	{
+		private final BigDecimal qtyDelta;
+
+		private AddQtyDeltaQueryUpdater(@NonNull final BigDecimal qtyDelta)
+		{
+			this.qtyDelta = qtyDelta;
+		}
+
+		@Override
+		public String getSql(final Properties ctx, final List<Object> params)
+		{
+			// note that all right-hand sides see the records' old values, so the new Qty is always "Qty + ?"
+			final String sqlQtyNew = "(" + I_MD_Candidate.COLUMNNAME_Qty + " + ?)";
+
+			final String sqlQtyFulfilled = "COALESCE((SELECT SUM(td." + I_MD_Candidate_Transaction_Detail.COLUMNNAME_MovementQty + ")"
+					+ " FROM " + I_MD_Candidate_Transaction_Detail.Table_Name + " td"
+					+ " WHERE td." + I_MD_Candidate_Transaction_Detail.COLUMNNAME_MD_Candidate_ID + "=" + I_MD_Candidate.Table_Name + "." + I_MD_Candidate.COLUMNNAME_MD_Candidate_ID
+					+ " AND td." + I_MD_Candidate_Transaction_Detail.COLUMNNAME_IsActive + "='Y'), 0)";
+
+			// stripZerosAfterTheDigit
+			final StringBuilder sql = new StringBuilder()
+					.append(I_MD_Candidate.COLUMNNAME_Qty).append("=")
+					.append("(CASE WHEN ").append(sqlQtyNew).append("::text LIKE '%.%'")
+					.append(" THEN rtrim(rtrim(").append(sqlQtyNew).append("::text, '0'), '.')::numeric")
+					.append(" ELSE ").append(sqlQtyNew).append(" END)");
+			params.add(qtyDelta);
+			params.add(qtyDelta);
+			params.add(qtyDelta);
+
+			sql.append(", ").append(I_MD_Candidate.COLUMNNAME_QtyFulfilled).append("=").append(sqlQtyFulfilled);
+
+			sql.append(", ").append(I_MD_Candidate.COLUMNNAME_MD_Candidate_Status).append("=")
+					.append("(CASE WHEN ").append(sqlQtyFulfilled).append(" >= ").append(sqlQtyNew)
+					.append(" THEN ? ELSE ? END)");
+			params.add(qtyDelta);
+			params.add(X_MD_Candidate.MD_CANDIDATE_STATUS_Processed);
+			params.add(X_MD_Candidate.MD_CANDIDATE_STATUS_Planned);
+
+			return sql.toString();
+		}
+
+		@Override
+		public boolean update(@NonNull final I_MD_Candidate candidateRecord)
+		{
+			final BigDecimal qtyNew = stripZerosAfterTheDigit(candidateRecord.getQty().add(qtyDelta));
+			candidateRecord.setQty(qtyNew);
+
+			final BigDecimal fulfilledQty = RepositoryCommons
+					.createCandidateDetailQueryBuilder(candidateRecord, I_MD_Candidate_Transaction_Detail.class)
+					.list()
+					.stream()
+					.map(I_MD_Candidate_Transaction_Detail::getMovementQty)
+					.reduce(ZERO, BigDecimal::add);
+			candidateRecord.setQtyFulfilled(fulfilledQty);
+
+			if (fulfilledQty.compareTo(qtyNew) >= 0)
+			{
+				candidateRecord.setMD_Candidate_Status(X_MD_Candidate.MD_CANDIDATE_STATUS_Processed);
+			}
+			else
+			{
+				candidateRecord.setMD_Candidate_Status(X_MD_Candidate.MD_CANDIDATE_STATUS_Planned);
+			}
+			return MODEL_UPDATED;
+		}
+	}
+
 	@Value
 	@Builder
 	public static class SaveResult
@@ -254,6 +376,7 @@ public class CandidateRepositoryWriteService
 				candidate,
 				preserveExistingSeqNoAndParentId);
 		save(synchedRecord); // save now, because we need to have MD_Candidate_ID > 0
+		AvailableToPromiseIndex.invalidateProductAfterCommit(synchedRecord.getM_Product_ID());
 
 		setFallBackSeqNoAndGroupIdIfNeeded(synchedRecord);
 
@@ -437,7 +560,7 @@ public class CandidateRepositoryWriteService
 		}
 	}
 
-	private BigDecimal stripZerosAfterTheDigit(final BigDecimal quantity)
+	private static BigDecimal stripZerosAfterTheDigit(final BigDecimal quantity)
 	{
 		final BigDecimal stripTrailingZeros = quantity.stripTrailingZeros();
 		if (stripTrailingZeros.scale() < 0)
@@ -660,6 +783,7 @@ public class CandidateRepositoryWriteService
 				candidateRecord.getQty());
 
 		deleteRecord(candidateRecord);
+		AvailableToPromiseIndex.invalidateProductAfterCommit(candidateRecord.getM_Product_ID());
 		return deleteResult;
 	}
 
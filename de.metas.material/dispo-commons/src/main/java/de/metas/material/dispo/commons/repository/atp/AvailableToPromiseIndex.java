@@ -0,0 +1,453 @@
+package de.metas.material.dispo.commons.repository.atp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.adempiere.service.ISysConfigBL;
+import org.compiere.model.I_M_Product;
+import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.cache.CacheMgt;
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import de.metas.material.dispo.model.I_MD_Candidate;
+import de.metas.material.dispo.model.I_MD_Candidate_ATP_QueryResult;
+import de.metas.material.dispo.model.X_MD_Candidate;
+import de.metas.material.event.commons.AttributesKey;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-commons
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory copy of the {@code MD_Candidate} stock records, which can answer an {@link AvailableToPromiseMultiQuery} like {@code de_metas_material.retrieve_atp_at_date} does.
+ * <p>
+ * The stock records are loaded per product, when they are first needed.
+ * Whoever changes the stock records of a product shall call {@link #invalidateProductAfterCommit(int)};
+ * the respective product is then dropped from the indexes of all nodes (see {@link CacheMgt}) and reloaded on the next query.
+ * <p>
+ * The index only reads committed data, so it's not used within a transaction; there the uncommitted stock records might matter.
+ */
+public final class AvailableToPromiseIndex
+{
+	private static final Logger logger = LogManager.getLogger(AvailableToPromiseIndex.class);
+
+	private static final String SYSCONFIG_Enabled = "de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex.Enabled";
+
+	/** If enabled, each query is also run against the database; if the results differ, a warning is logged and the database result is used */
+	private static final String SYSCONFIG_CheckConsistency = "de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex.CheckConsistency";
+
+	/**
+	 * We invalidate with "child records" of this table, so that the requests are neither mixed up with those of an actual {@code MD_Candidate} cache, nor with {@code M_Product} record changes.
+	 */
+	private static final String INVALIDATION_TableName = I_MD_Candidate_ATP_QueryResult.Table_Name;
+	private static final AtomicBoolean remoteInvalidationEnabled = new AtomicBoolean(false);
+	private static final String TRX_PROPERTY_ProductIdsToInvalidate = AvailableToPromiseIndex.class.getName() + ".ProductIdsToInvalidate";
+
+	private final ConcurrentHashMap<Integer, ProductStockRecords> productStockRecordsByProductId = new ConcurrentHashMap<>();
+	private final AtomicBoolean cacheResetListenerRegistered = new AtomicBoolean(false);
+
+	/* package */ AvailableToPromiseIndex()
+	{
+	}
+
+	/**
+	 * @return true if the index is enabled and there is no thread-inherited transaction
+	 */
+	public boolean isApplicable()
+	{
+		if (!isEnabled())
+		{
+			// make sure we don't return outdated records if we get enabled again
+			productStockRecordsByProductId.clear();
+			return false;
+		}
+
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		return trxManager.isNull(trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone));
+	}
+
+	public boolean isCheckConsistency()
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_CheckConsistency, false);
+	}
+
+	private static boolean isEnabled()
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		return sysConfigBL.getBooleanValue(SYSCONFIG_Enabled, false, Env.getAD_Client_ID(Env.getCtx()), Env.getAD_Org_ID(Env.getCtx()));
+	}
+
+	/**
+	 * @return the same requests (but not necessarily in the same order) which {@link AvailableToPromiseRepository} would create from {@link AvailableToPromiseSqlHelper}'s query.
+	 */
+	public ImmutableList<AddToResultGroupRequest> retrieveAddToResultGroupRequests(@NonNull final AvailableToPromiseMultiQuery multiQuery)
+	{
+		registerCacheResetListenerIfNeeded();
+
+		return multiQuery.getQueries()
+				.stream()
+				.filter(Objects::nonNull)
+				.flatMap(this::streamMatchingRecords)
+				.distinct() // same as the SQL "union distinct" of the single queries
+				.map(StockRecord::toAddToResultGroupRequest)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private Stream<StockRecord> streamMatchingRecords(@NonNull final AvailableToPromiseQuery query)
+	{
+		final Instant date = TimeUtil.asTimestamp(query.getDate()).toInstant();
+
+		return query.getProductIds()
+				.stream()
+				.map(this::getProductStockRecords)
+				.flatMap(productStockRecords -> productStockRecords.streamLatestRecordsAtDate(date))
+				.filter(record -> record.isMatching(query));
+	}
+
+	private ProductStockRecords getProductStockRecords(final int productId)
+	{
+		return productStockRecordsByProductId.computeIfAbsent(productId, AvailableToPromiseIndex::loadProductStockRecords);
+	}
+
+	private static ProductStockRecords loadProductStockRecords(final int productId)
+	{
+		final List<StockRecord> records = Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_MD_Candidate.class)
+				.addOnlyActiveRecordsFilter()
+				.addEqualsFilter(I_MD_Candidate.COLUMN_MD_Candidate_Type, X_MD_Candidate.MD_CANDIDATE_TYPE_STOCK)
+				.addEqualsFilter(I_MD_Candidate.COLUMN_M_Product_ID, productId)
+				.create()
+				.stream()
+				.map(StockRecord::ofCandidateRecord)
+				.collect(ImmutableList.toImmutableList());
+
+		logger.debug("Loaded {} stock records for M_Product_ID={}", records.size(), productId);
+		return new ProductStockRecords(records);
+	}
+
+	private void registerCacheResetListenerIfNeeded()
+	{
+		if (cacheResetListenerRegistered.getAndSet(true))
+		{
+			return;
+		}
+
+		enableRemoteInvalidationIfNeeded();
+		CacheMgt.get().addCacheResetListener(INVALIDATION_TableName, this::reset);
+	}
+
+	private long reset(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		if (multiRequest.isResetAll())
+		{
+			final int count = productStockRecordsByProductId.size();
+			productStockRecordsByProductId.clear();
+			return count;
+		}
+
+		long count = 0;
+		for (final CacheInvalidateRequest request : multiRequest.getRequests())
+		{
+			if (!INVALIDATION_TableName.equals(request.getTableNameEffective()))
+			{
+				continue;
+			}
+
+			final int productId = request.getRootRecordId();
+			if (I_M_Product.Table_Name.equals(request.getRootTableName()) && productId > 0)
+			{
+				count += productStockRecordsByProductId.remove(productId) != null ? 1 : 0;
+			}
+			else
+			{
+				count += productStockRecordsByProductId.size();
+				productStockRecordsByProductId.clear();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Drops the given product from the indexes of all nodes, after the current transaction was committed.
+	 * If there is no current transaction, the product is dropped right away.
+	 */
+	public static void invalidateProductAfterCommit(final int productId)
+	{
+		if (productId <= 0)
+		{
+			invalidateAllAfterCommit();
+			return;
+		}
+		invalidateAfterCommit(ImmutableSet.of(productId));
+	}
+
+	public static void invalidateAllAfterCommit()
+	{
+		invalidateAfterCommit(ImmutableSet.of(-1));
+	}
+
+	/**
+	 * Note: invalidates no matter if the index is enabled for the current client and org, because other nodes or clients might have it enabled.
+	 */
+	private static void invalidateAfterCommit(@NonNull final Set<Integer> productIds)
+	{
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		final ITrx trx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
+		if (!trxManager.isActive(trx))
+		{
+			invalidateNow(productIds);
+			return;
+		}
+
+		// collect the product IDs and invalidate them all at once, after commit
+		final Set<Integer> productIdsToInvalidate = trx.getProperty(TRX_PROPERTY_ProductIdsToInvalidate, innerTrx -> {
+			final Set<Integer> collector = ConcurrentHashMap.newKeySet();
+			innerTrx.getTrxListenerManager()
+					.newEventListener(TrxEventTiming.AFTER_COMMIT)
+					.invokeMethodJustOnce(true)
+					.registerHandlingMethod(committedTrx -> invalidateNow(collector));
+			return collector;
+		});
+		productIdsToInvalidate.addAll(productIds);
+	}
+
+	private static void invalidateNow(@NonNull final Set<Integer> productIds)
+	{
+		enableRemoteInvalidationIfNeeded();
+
+		final ImmutableList<CacheInvalidateRequest> requests = productIds.contains(-1)
+				? ImmutableList.of(CacheInvalidateRequest.allChildRecords(I_M_Product.Table_Name, 0, INVALIDATION_TableName))
+				: productIds.stream()
+						.map(productId -> CacheInvalidateRequest.allChildRecords(I_M_Product.Table_Name, productId, INVALIDATION_TableName))
+						.collect(ImmutableList.toImmutableList());
+
+		// there is no transaction (anymore), so this is a local reset and a broadcast, right away
+		CacheMgt.get().resetLocalNowAndBroadcastOnTrxCommit(ITrx.TRXNAME_None, CacheInvalidateMultiRequest.of(requests));
+	}
+
+	private static void enableRemoteInvalidationIfNeeded()
+	{
+		if (!remoteInvalidationEnabled.getAndSet(true))
+		{
+			CacheMgt.get().enableRemoteCacheInvalidationForTableName(INVALIDATION_TableName);
+		}
+	}
+
+	/**
+	 * The stock records of one product, grouped like in {@code de_metas_material.retrieve_atp_at_date}'s {@code DISTINCT ON}.
+	 */
+	private static final class ProductStockRecords
+	{
+		private static final Comparator<StockRecord> LATEST_FIRST = Comparator
+				.comparing(StockRecord::getDate)
+				.thenComparing(StockRecord::getSeqNo)
+				.reversed();
+
+		private final ImmutableListMultimap<StockRecordKey, StockRecord> recordsByKey;
+
+		private ProductStockRecords(@NonNull final List<StockRecord> records)
+		{
+			this.recordsByKey = records.stream()
+					.sorted(LATEST_FIRST)
+					.collect(ImmutableListMultimap.toImmutableListMultimap(StockRecord::getKey, record -> record));
+		}
+
+		/**
+		 * @return for each key, the latest record with a date not after the given {@code date}
+		 */
+		public Stream<StockRecord> streamLatestRecordsAtDate(@NonNull final Instant date)
+		{
+			return recordsByKey.asMap()
+					.values()
+					.stream()
+					.map(records -> records.stream().filter(record -> !record.getDate().isAfter(date)).findFirst().orElse(null))
+					.filter(Objects::nonNull);
+		}
+	}
+
+	@Value
+	private static class StockRecordKey
+	{
+		int warehouseId;
+		int customerId;
+		String storageAttributesKey;
+	}
+
+	@Value
+	@Builder
+	@VisibleForTesting
+	static class StockRecord
+	{
+		static StockRecord ofCandidateRecord(@NonNull final I_MD_Candidate record)
+		{
+			return StockRecord.builder()
+					.productId(record.getM_Product_ID())
+					.warehouseId(record.getM_Warehouse_ID())
+					.customerId(record.getC_BPartner_Customer_ID())
+					.storageAttributesKey(record.getStorageAttributesKey())
+					.date(TimeUtil.asInstant(record.getDateProjected()))
+					.seqNo(record.getSeqNo())
+					.qty(record.getQty())
+					.build();
+		}
+
+		int productId;
+		int warehouseId;
+		/** {@code <= 0} means "none" */
+		int customerId;
+		@Nullable
+		String storageAttributesKey;
+		@NonNull
+		Instant date;
+		int seqNo;
+		@NonNull
+		BigDecimal qty;
+
+		StockRecordKey getKey()
+		{
+			return new StockRecordKey(warehouseId, customerId, storageAttributesKey);
+		}
+
+		/**
+		 * Same filtering as {@link AvailableToPromiseSqlHelper#createDBQueryForStockQueryBuilder(AvailableToPromiseQuery)}, except for the date.
+		 */
+		boolean isMatching(@NonNull final AvailableToPromiseQuery query)
+		{
+			if (!query.getWarehouseIds().isEmpty() && !query.getWarehouseIds().contains(warehouseId))
+			{
+				return false;
+			}
+
+			if (!query.getProductIds().contains(productId))
+			{
+				return false;
+			}
+
+			final BPartnerClassifier bpartner = query.getBpartner();
+			if (bpartner.isNone() && customerId > 0)
+			{
+				return false;
+			}
+			else if (bpartner.isSpecificBPartner() && customerId > 0 && customerId != bpartner.getBpartnerId().getRepoId())
+			{
+				return false;
+			}
+
+			return isMatchingStorageAttributesKeys(query.getStorageAttributesKeys());
+		}
+
+		/** Same as {@link de.metas.material.commons.AttributesKeyQueryHelper#createORFilterForStorageAttributesKeys(List)}. */
+		private boolean isMatchingStorageAttributesKeys(@NonNull final List<AttributesKey> attributesKeys)
+		{
+			if (attributesKeys.isEmpty())
+			{
+				return true;
+			}
+
+			for (final AttributesKey attributesKey : attributesKeys)
+			{
+				if (AttributesKey.ALL.equals(attributesKey))
+				{
+					return true;
+				}
+				else if (AttributesKey.OTHER.equals(attributesKey))
+				{
+					final boolean matchesNoOtherKey = attributesKeys.stream()
+							.filter(otherKey -> !AttributesKey.OTHER.equals(otherKey))
+							.allMatch(otherKey -> storageAttributesKey != null && !isLike(storageAttributesKey, otherKey));
+					if (matchesNoOtherKey)
+					{
+						return true;
+					}
+				}
+				else if (storageAttributesKey != null && isLike(storageAttributesKey, attributesKey))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return true if the given {@code value} is SQL-{@code LIKE} {@code '%' || attributesKey.getSqlLikeString() || '%'}.
+		 */
+		@VisibleForTesting
+		static boolean isLike(@NonNull final String value, @NonNull final AttributesKey attributesKey)
+		{
+			int fromIndex = 0;
+			for (final String part : Splitter.on('%').omitEmptyStrings().split(attributesKey.getSqlLikeString()))
+			{
+				final int index = value.indexOf(part, fromIndex);
+				if (index < 0)
+				{
+					return false;
+				}
+				fromIndex = index + part.length();
+			}
+			return true;
+		}
+
+		AddToResultGroupRequest toAddToResultGroupRequest()
+		{
+			Check.assume(productId > 0, "productId > 0");
+
+			return AddToResultGroupRequest.builder()
+					.productId(productId)
+					.bpartner(BPartnerClassifier.specificOrAny(BPartnerId.ofRepoIdOrNull(customerId))) // records that have no bPartner-ID are applicable to any bpartner
+					.warehouseId(warehouseId)
+					.storageAttributesKey(AttributesKey.ofString(storageAttributesKey))
+					.qty(qty)
+					.date(date)
+					.seqNo(seqNo)
+					.build();
+		}
+	}
+}
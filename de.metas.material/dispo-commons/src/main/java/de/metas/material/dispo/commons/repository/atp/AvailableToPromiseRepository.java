@@ -10,15 +10,18 @@ import org.adempiere.service.ISysConfigBL;
 import org.compiere.model.IQuery;
 import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
+import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicates;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.bpartner.BPartnerId;
+import de.metas.logging.LogManager;
 import de.metas.material.dispo.model.I_MD_Candidate_ATP_QueryResult;
 import de.metas.material.event.commons.AttributesKey;
 import de.metas.util.Services;
@@ -50,8 +53,12 @@ import lombok.Value;
 @Service
 public class AvailableToPromiseRepository
 {
+	private static final Logger logger = LogManager.getLogger(AvailableToPromiseRepository.class);
+
 	private static final String SYSCONFIG_ATP_ATTRIBUTES_KEYS = "de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.ATP.AttributesKeys";
 
+	private final AvailableToPromiseIndex index = new AvailableToPromiseIndex();
+
 	@NonNull
 	public BigDecimal retrieveAvailableStockQtySum(@NonNull final AvailableToPromiseMultiQuery multiQuery)
 	{
@@ -73,32 +80,18 @@ public class AvailableToPromiseRepository
 				? AvailableToPromiseResult.createEmptyWithPredefinedBuckets(multiQuery)
 				: AvailableToPromiseResult.createEmpty();
 
-		final IQuery<I_MD_Candidate_ATP_QueryResult> dbQuery = createDBQueryForMaterialQueryOrNull(multiQuery);
-		if (dbQuery == null)
-		{
-			return result;
-		}
-
-		final Function<I_MD_Candidate_ATP_QueryResult, Boolean> compareByWhetherRecordHasBPartnerId = record -> record.getC_BPartner_Customer_ID() > 0;
-
-		final List<I_MD_Candidate_ATP_QueryResult> atpRecords = dbQuery.list()
+		final ImmutableList<AddToResultGroupRequest> requests = retrieveAddToResultGroupRequests(multiQuery)
 				.stream()
 				// records with dedicated bPartnerId first
 				// latest date first
 				// biggest seqNo first
 				.sorted(Comparator
-						.comparing(compareByWhetherRecordHasBPartnerId)
-						.thenComparing(I_MD_Candidate_ATP_QueryResult::getDateProjected)
-						.thenComparing(I_MD_Candidate_ATP_QueryResult::getSeqNo) // if dateProjected is equal, then SeqNo makes the difference
+						.comparing((AddToResultGroupRequest request) -> request.getBpartner().isSpecificBPartner())
+						.thenComparing(AddToResultGroupRequest::getDate)
+						.thenComparing(AddToResultGroupRequest::getSeqNo) // if date is equal, then SeqNo makes the difference
 						.reversed())
 				.collect(ImmutableList.toImmutableList());
 
-		// note: this is a dedicated step in order to ease debugging (i.e. have a chance to take a look at the atpRecords)
-		final ImmutableList<AddToResultGroupRequest> requests = atpRecords
-				.stream()
-				.map(AvailableToPromiseRepository::createAddToResultGroupRequest)
-				.collect(ImmutableList.toImmutableList());
-
 		for (final AddToResultGroupRequest request : requests)
 		{
 			if (multiQuery.isAddToPredefinedBuckets())
@@ -113,6 +106,46 @@ public class AvailableToPromiseRepository
 		return result;
 	}
 
+	private ImmutableList<AddToResultGroupRequest> retrieveAddToResultGroupRequests(@NonNull final AvailableToPromiseMultiQuery multiQuery)
+	{
+		if (!index.isApplicable())
+		{
+			return retrieveAddToResultGroupRequestsFromDB(multiQuery);
+		}
+
+		final ImmutableList<AddToResultGroupRequest> indexRequests = index.retrieveAddToResultGroupRequests(multiQuery);
+		if (!index.isCheckConsistency())
+		{
+			return indexRequests;
+		}
+
+		final ImmutableList<AddToResultGroupRequest> dbRequests = retrieveAddToResultGroupRequestsFromDB(multiQuery);
+		if (!ImmutableMultiset.copyOf(indexRequests).equals(ImmutableMultiset.copyOf(dbRequests)))
+		{
+			logger.warn("The ATP index is not consistent with the database; using the database result.\n multiQuery={}\n indexRequests={}\n dbRequests={}",
+					multiQuery, indexRequests, dbRequests);
+			return dbRequests;
+		}
+		return indexRequests;
+	}
+
+	private ImmutableList<AddToResultGroupRequest> retrieveAddToResultGroupRequestsFromDB(@NonNull final AvailableToPromiseMultiQuery multiQuery)
+	{
+		final IQuery<I_MD_Candidate_ATP_QueryResult> dbQuery = createDBQueryForMaterialQueryOrNull(multiQuery);
+		if (dbQuery == null)
+		{
+			return ImmutableList.of();
+		}
+
+		// note: this is a dedicated step in order to ease debugging (i.e. have a chance to take a look at the atpRecords)
+		final List<I_MD_Candidate_ATP_QueryResult> atpRecords = dbQuery.list();
+
+		return atpRecords
+				.stream()
+				.map(AvailableToPromiseRepository::createAddToResultGroupRequest)
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	public AvailableToPromiseResult retrieveAvailableStock(@NonNull AvailableToPromiseQuery query)
 	{
 		return retrieveAvailableStock(AvailableToPromiseMultiQuery.of(query));
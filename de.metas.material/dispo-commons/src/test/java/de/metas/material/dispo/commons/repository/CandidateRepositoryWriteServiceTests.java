@@ -33,6 +33,7 @@ import de.metas.material.dispo.commons.DispoTestUtils;
 import de.metas.material.dispo.commons.RepositoryTestHelper;
 import de.metas.material.dispo.commons.candidate.Candidate;
 import de.metas.material.dispo.commons.candidate.CandidateBusinessCase;
+import de.metas.material.dispo.commons.candidate.CandidateId;
 import de.metas.material.dispo.commons.candidate.CandidateType;
 import de.metas.material.dispo.commons.candidate.TransactionDetail;
 import de.metas.material.dispo.commons.candidate.businesscase.DemandDetail;
@@ -428,4 +429,35 @@ public class CandidateRepositoryWriteServiceTests
 		assertThat(transactionDetailRecord.getMovementQty()).isEqualByComparingTo("1");
 		assertThat(transactionDetailRecord.getM_Transaction_ID()).isEqualTo(33);
 	}
+
+	@Test
+	public void addQtyDeltaAndSetGroupId_recomputes_status()
+	{
+		final Candidate stockCandidate = Candidate.builder()
+				.type(CandidateType.STOCK)
+				.clientId(CLIENT_ID)
+				.orgId(ORG_ID)
+				.materialDescriptor(createMaterialDescriptor())
+				.transactionDetail(TransactionDetail.builder().quantity(TEN).storageAttributesKey(AttributesKey.ALL).transactionId(33).transactionDate(NOW).complete(true).build())
+				.build();
+		final CandidateId candidateId = candidateRepositoryWriteService
+				.addOrUpdateOverwriteStoredSeqNo(stockCandidate)
+				.getCandidate()
+				.getId();
+		assertThat(load(candidateId.getRepoId(), I_MD_Candidate.class).getMD_Candidate_Status()).isEqualTo(X_MD_Candidate.MD_CANDIDATE_STATUS_Processed);
+
+		candidateRepositoryWriteService.addQtyDeltaAndSetGroupId(CandidatesQuery.fromId(candidateId), new BigDecimal("5.000"), 0);
+
+		final I_MD_Candidate record = load(candidateId.getRepoId(), I_MD_Candidate.class);
+		assertThat(record.getQty()).isEqualTo(new BigDecimal("15"));
+		assertThat(record.getQtyFulfilled()).isEqualByComparingTo("10");
+		assertThat(record.getMD_Candidate_Status()).isEqualTo(X_MD_Candidate.MD_CANDIDATE_STATUS_Planned);
+
+		candidateRepositoryWriteService.addQtyDeltaAndSetGroupId(CandidatesQuery.fromId(candidateId), new BigDecimal("-5"), 30);
+
+		final I_MD_Candidate record2 = load(candidateId.getRepoId(), I_MD_Candidate.class);
+		assertThat(record2.getQty()).isEqualByComparingTo("10");
+		assertThat(record2.getMD_Candidate_GroupId()).isEqualTo(30);
+		assertThat(record2.getMD_Candidate_Status()).isEqualTo(X_MD_Candidate.MD_CANDIDATE_STATUS_Processed);
+	}
 }
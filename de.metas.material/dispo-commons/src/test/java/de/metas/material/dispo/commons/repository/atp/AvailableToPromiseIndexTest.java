@@ -0,0 +1,190 @@
+package de.metas.material.dispo.commons.repository.atp;
+
+import static de.metas.material.event.EventTestHelper.BEFORE_BEFORE_NOW;
+import static de.metas.material.event.EventTestHelper.BEFORE_NOW;
+import static de.metas.material.event.EventTestHelper.PRODUCT_ID;
+import static de.metas.material.event.EventTestHelper.WAREHOUSE_ID;
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.test.AdempiereTestWatcher;
+import org.compiere.util.TimeUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex.StockRecord;
+import de.metas.material.dispo.model.I_MD_Candidate;
+import de.metas.material.dispo.model.X_MD_Candidate;
+import de.metas.material.event.commons.AttributesKey;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-commons
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class AvailableToPromiseIndexTest
+{
+	private static final BPartnerId BPARTNER_ID_1 = BPartnerId.ofRepoId(10);
+	private static final BPartnerId BPARTNER_ID_2 = BPartnerId.ofRepoId(20);
+	private static final AttributesKey STORAGE_ATTRIBUTES_KEY = AttributesKey.ofAttributeValueIds(1, 2);
+
+	@Rule
+	public AdempiereTestWatcher adempiereTestWatcher = new AdempiereTestWatcher();
+
+	private AvailableToPromiseIndex index;
+
+	private int seqNoCounter = 1;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		index = new AvailableToPromiseIndex();
+	}
+
+	@Test
+	public void latestRecordNotAfterTheQueryDate()
+	{
+		createStockRecord(null, STORAGE_ATTRIBUTES_KEY, BEFORE_BEFORE_NOW, "10");
+		createStockRecord(null, STORAGE_ATTRIBUTES_KEY, BEFORE_NOW, "20");
+
+		final AvailableToPromiseQuery query = AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.storageAttributesKey(STORAGE_ATTRIBUTES_KEY)
+				.build();
+
+		assertThat(retrieveQtys(query)).containsExactly(new BigDecimal("20"));
+
+		final Instant betweenTheRecords = BEFORE_BEFORE_NOW.plus(5, ChronoUnit.MINUTES);
+		assertThat(retrieveQtys(query.withDateTime(TimeUtil.asLocalDateTime(betweenTheRecords)))).containsExactly(new BigDecimal("10"));
+
+		assertThat(retrieveQtys(query.withDateTime(TimeUtil.asLocalDateTime(BEFORE_BEFORE_NOW.minusSeconds(1))))).isEmpty();
+	}
+
+	@Test
+	public void bpartnerFilter()
+	{
+		createStockRecord(null, STORAGE_ATTRIBUTES_KEY, BEFORE_NOW, "10");
+		createStockRecord(BPARTNER_ID_1, STORAGE_ATTRIBUTES_KEY, BEFORE_NOW, "20");
+		createStockRecord(BPARTNER_ID_2, STORAGE_ATTRIBUTES_KEY, BEFORE_NOW, "30");
+
+		final AvailableToPromiseQuery query = AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.storageAttributesKey(AttributesKey.ALL)
+				.build();
+
+		assertThat(retrieveQtys(query.toBuilder().bpartner(BPartnerClassifier.specific(BPARTNER_ID_1)).build()))
+				.containsExactlyInAnyOrder(new BigDecimal("10"), new BigDecimal("20"));
+		assertThat(retrieveQtys(query.toBuilder().bpartner(BPartnerClassifier.none()).build()))
+				.containsExactly(new BigDecimal("10"));
+		assertThat(retrieveQtys(query.toBuilder().bpartner(BPartnerClassifier.any()).build()))
+				.containsExactlyInAnyOrder(new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("30"));
+	}
+
+	@Test
+	public void storageAttributesKeyFilter()
+	{
+		createStockRecord(null, AttributesKey.ofAttributeValueIds(1, 2), BEFORE_NOW, "10");
+		createStockRecord(null, AttributesKey.ofAttributeValueIds(3), BEFORE_NOW, "20");
+
+		final AvailableToPromiseQuery query = AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.storageAttributesKey(AttributesKey.ofAttributeValueIds(2))
+				.storageAttributesKey(AttributesKey.OTHER)
+				.build();
+
+		// the first record matches the key "2", the second one matches "other"
+		assertThat(retrieveQtys(query)).containsExactlyInAnyOrder(new BigDecimal("10"), new BigDecimal("20"));
+
+		assertThat(retrieveQtys(query.toBuilder().clearStorageAttributesKeys().storageAttributesKey(AttributesKey.ofAttributeValueIds(3)).build()))
+				.containsExactly(new BigDecimal("20"));
+	}
+
+	@Test
+	public void isLike()
+	{
+		final String storageAttributesKey = AttributesKey.ofAttributeValueIds(1, 2, 3).getAsString();
+
+		assertThat(StockRecord.isLike(storageAttributesKey, AttributesKey.ofAttributeValueIds(1, 3))).isTrue();
+		assertThat(StockRecord.isLike(storageAttributesKey, AttributesKey.ofAttributeValueIds(2))).isTrue();
+		assertThat(StockRecord.isLike(storageAttributesKey, AttributesKey.ofAttributeValueIds(4))).isFalse();
+	}
+
+	@Test
+	public void invalidateProductAfterCommit()
+	{
+		Services.get(ISysConfigBL.class).setValue("de.metas.material.dispo.commons.repository.atp.AvailableToPromiseIndex.Enabled", true, 0);
+
+		createStockRecord(null, STORAGE_ATTRIBUTES_KEY, BEFORE_BEFORE_NOW, "10");
+
+		final AvailableToPromiseQuery query = AvailableToPromiseQuery.builder()
+				.productId(PRODUCT_ID)
+				.storageAttributesKey(STORAGE_ATTRIBUTES_KEY)
+				.build();
+		assertThat(retrieveQtys(query)).containsExactly(new BigDecimal("10"));
+
+		createStockRecord(null, STORAGE_ATTRIBUTES_KEY, BEFORE_NOW, "20");
+		assertThat(retrieveQtys(query)).as("the index is not aware of the new record yet").containsExactly(new BigDecimal("10"));
+
+		AvailableToPromiseIndex.invalidateProductAfterCommit(PRODUCT_ID);
+		assertThat(retrieveQtys(query)).containsExactly(new BigDecimal("20"));
+	}
+
+	private List<BigDecimal> retrieveQtys(final AvailableToPromiseQuery query)
+	{
+		return index.retrieveAddToResultGroupRequests(AvailableToPromiseMultiQuery.of(query))
+				.stream()
+				.map(AddToResultGroupRequest::getQty)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private void createStockRecord(
+			final BPartnerId bpartnerId,
+			final AttributesKey storageAttributesKey,
+			final Instant dateProjected,
+			final String qty)
+	{
+		final I_MD_Candidate candidateRecord = newInstance(I_MD_Candidate.class);
+		candidateRecord.setMD_Candidate_Type(X_MD_Candidate.MD_CANDIDATE_TYPE_STOCK);
+		candidateRecord.setIsActive(true);
+		candidateRecord.setM_Product_ID(PRODUCT_ID);
+		candidateRecord.setM_Warehouse_ID(WAREHOUSE_ID);
+		candidateRecord.setC_BPartner_Customer_ID(BPartnerId.toRepoId(bpartnerId));
+		candidateRecord.setStorageAttributesKey(storageAttributesKey.getAsString());
+		candidateRecord.setDateProjected(TimeUtil.asTimestamp(dateProjected));
+		candidateRecord.setSeqNo(seqNoCounter++);
+		candidateRecord.setQty(new BigDecimal(qty));
+		save(candidateRecord);
+	}
+}
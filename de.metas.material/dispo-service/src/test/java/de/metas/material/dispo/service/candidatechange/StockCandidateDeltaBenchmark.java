@@ -0,0 +1,155 @@
+package de.metas.material.dispo.service.candidatechange;
+
+import static de.metas.material.event.EventTestHelper.ORG_ID;
+import static de.metas.material.event.EventTestHelper.PRODUCT_ID;
+import static de.metas.material.event.EventTestHelper.WAREHOUSE_ID;
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.TimeUtil;
+
+import com.google.common.base.Stopwatch;
+
+import de.metas.material.dispo.commons.candidate.Candidate;
+import de.metas.material.dispo.commons.candidate.CandidateType;
+import de.metas.material.dispo.commons.repository.CandidateRepositoryRetrieval;
+import de.metas.material.dispo.commons.repository.CandidateRepositoryWriteService;
+import de.metas.material.dispo.commons.repository.CandidatesQuery;
+import de.metas.material.dispo.commons.repository.MaterialDescriptorQuery;
+import de.metas.material.dispo.model.I_MD_Candidate;
+import de.metas.material.dispo.model.X_MD_Candidate;
+import de.metas.material.event.commons.AttributesKey;
+
+/*
+ * #%L
+ * metasfresh-material-dispo-service
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Manual test: measures how long it takes to apply a quantity delta to all later stock candidates of one product,
+ * using the former load-and-save-each-candidate loop and {@link CandidateRepositoryWriteService#addQtyDeltaAndSetGroupId(CandidatesQuery, BigDecimal, int)}
+ * which is used by {@link StockCandidateService#applyDeltaToMatchingLaterStockCandidates(de.metas.material.dispo.commons.repository.CandidateRepositoryWriteService.SaveResult)}.
+ * <p>
+ * Note that it runs against the in-memory test database, where a "direct" update is still executed record by record.
+ * So the numbers only show the saved per-candidate loading and mapping overhead; on a real database, the saved roundtrips come on top.
+ * <p>
+ * Usage: <code>StockCandidateDeltaBenchmark [candidatesCount...]</code> (default: 10000 100000)
+ */
+public class StockCandidateDeltaBenchmark
+{
+	public static void main(final String[] args)
+	{
+		final int[] candidatesCounts = args.length > 0
+				? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+				: new int[] { 10_000, 100_000 };
+
+		for (final int candidatesCount : candidatesCounts)
+		{
+			new StockCandidateDeltaBenchmark(candidatesCount).run();
+		}
+	}
+
+	private static final AttributesKey STORAGE_ATTRIBUTES_KEY = AttributesKey.ofAttributeValueIds(1);
+	private static final int GROUP_ID = 1;
+
+	private final int candidatesCount;
+
+	private final CandidateRepositoryRetrieval candidateRepositoryRetrieval = new CandidateRepositoryRetrieval();
+	private final CandidateRepositoryWriteService candidateRepositoryWriteService = new CandidateRepositoryWriteService();
+
+	private StockCandidateDeltaBenchmark(final int candidatesCount)
+	{
+		this.candidatesCount = candidatesCount;
+	}
+
+	private void run()
+	{
+		System.out.println("Stock candidates per product: " + candidatesCount);
+
+		setup();
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		applyDeltaOneByOne(BigDecimal.ONE);
+		printCost("One by one", stopwatch);
+
+		setup();
+		stopwatch = Stopwatch.createStarted();
+		candidateRepositoryWriteService.addQtyDeltaAndSetGroupId(createQuery(), BigDecimal.ONE, GROUP_ID);
+		printCost("Set-based", stopwatch);
+	}
+
+	private void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		final Instant start = Instant.parse("2019-01-01T00:00:00.00Z");
+		for (int i = 0; i < candidatesCount; i++)
+		{
+			final I_MD_Candidate candidateRecord = newInstance(I_MD_Candidate.class);
+			candidateRecord.setAD_Org_ID(ORG_ID);
+			candidateRecord.setMD_Candidate_Type(X_MD_Candidate.MD_CANDIDATE_TYPE_STOCK);
+			candidateRecord.setIsActive(true);
+			candidateRecord.setM_Product_ID(PRODUCT_ID);
+			candidateRecord.setM_Warehouse_ID(WAREHOUSE_ID);
+			candidateRecord.setStorageAttributesKey(STORAGE_ATTRIBUTES_KEY.getAsString());
+			candidateRecord.setDateProjected(TimeUtil.asTimestamp(start.plus(i, ChronoUnit.MINUTES)));
+			candidateRecord.setSeqNo(i + 1);
+			candidateRecord.setQty(BigDecimal.TEN);
+			save(candidateRecord);
+		}
+	}
+
+	/** The way {@link StockCandidateService} used to apply the delta. */
+	private void applyDeltaOneByOne(final BigDecimal delta)
+	{
+		final List<Candidate> candidates = candidateRepositoryRetrieval.retrieveOrderedByDateAndSeqNo(createQuery());
+		for (final Candidate candidate : candidates)
+		{
+			candidateRepositoryWriteService.updateCandidateById(candidate
+					.withQuantity(candidate.getQuantity().add(delta))
+					.withGroupId(GROUP_ID));
+		}
+	}
+
+	private static CandidatesQuery createQuery()
+	{
+		return CandidatesQuery.builder()
+				.type(CandidateType.STOCK)
+				.matchExactStorageAttributesKey(true)
+				.materialDescriptorQuery(MaterialDescriptorQuery.builder()
+						.productId(PRODUCT_ID)
+						.warehouseId(WAREHOUSE_ID)
+						.storageAttributesKey(STORAGE_ATTRIBUTES_KEY)
+						.build())
+				.build();
+	}
+
+	private static void printCost(final String name, final Stopwatch stopwatch)
+	{
+		System.out.printf("%-20s %10d ms%n", name, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+	}
+}
@@ -11,11 +11,8 @@ import java.io.OutputStream;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.pdf.PdfCopy;
-import com.lowagie.text.pdf.PdfReader;
-
 import de.metas.printing.api.IPrintingDAO;
+import de.metas.printing.api.util.PdfCollator;
 import de.metas.printing.client.engine.PrintablePDF;
 import de.metas.printing.model.I_C_Print_Job_Instructions;
 import de.metas.printing.model.I_C_Print_Package;
@@ -59,38 +56,28 @@ public class PrintPackagePDFBuilder
 		return out.toByteArray();
 	}
 
+	/**
+	 * Prints the package's PDF to given stream. The pages of each package info are written to the stream as soon as they are rendered.
+	 */
 	public void print(final OutputStream bos) throws Exception
 	{
 		final I_C_Print_Job_Instructions print_Job_Instructions = printPackage.getC_Print_Job_Instructions();
-		final Document document = new Document();
-
-		final PdfCopy copy = new PdfCopy(document, bos);
-
-		document.open();
 
 		final PrintablePDF printable = createPrintable();
 		if (printable == null)
 		{
 			return;
 		}
+
+		final PdfCollator collator = new PdfCollator(bos);
 		try 
 		{
-	
 			for (final I_C_Print_PackageInfo printPackageInfo : printingDAO.retrievePrintPackageInfos(printPackage))
 			{
-				
 				final byte[] pdf = print(printPackageInfo, printable);
-	
-				final PdfReader reader = new PdfReader(pdf);
-	
-				for (int page = 0; page < reader.getNumberOfPages();)
-				{
-					copy.addPage(copy.getImportedPage(reader, ++page));
-				}
-				copy.freeReader(reader);
-				reader.close();
+				collator.addPages(pdf);
 			}
-			document.close();
+			collator.close();
 			
 			print_Job_Instructions.setErrorMsg(null);
 			print_Job_Instructions.setStatus(X_C_Print_Job_Instructions.STATUS_Done);
@@ -37,6 +37,7 @@ import com.lowagie.text.pdf.PdfCopy;
 import com.lowagie.text.pdf.PdfReader;
 
 import de.metas.util.Check;
+import lombok.NonNull;
 
 public class PdfCollator
 {
@@ -44,6 +45,7 @@ public class PdfCollator
 	private PdfCopy pdfCopy = null;
 	private Document pdfDocument = null;
 	private boolean closed = false;
+	private int pagesCount = 0;
 
 	public PdfCollator()
 	{
@@ -79,6 +81,44 @@ public class PdfCollator
 		return pdfCopy;
 	}
 
+	/**
+	 * Adds all pages of given PDF and closes the stream.
+	 * <p>
+	 * Just this PDF is loaded in memory; its pages are written to the output stream right away.
+	 */
+	public PdfCollator addPages(@NonNull final InputStream pdfIn)
+	{
+		final PdfReader reader;
+		try (final InputStream in = pdfIn)
+		{
+			reader = new PdfReader(in);
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException(e);
+		}
+
+		return addPages(reader, 1, reader.getNumberOfPages());
+	}
+
+	/**
+	 * Adds all pages of given PDF.
+	 */
+	public PdfCollator addPages(@NonNull final byte[] pdfData)
+	{
+		final PdfReader reader;
+		try
+		{
+			reader = new PdfReader(pdfData);
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException(e);
+		}
+
+		return addPages(reader, 1, reader.getNumberOfPages());
+	}
+
 	public PdfCollator addPages(final InputStream pdfIn, final int pageFrom, final int pageTo)
 	{
 		Check.assume(pdfIn != null, "pdfIn not null");
@@ -134,6 +174,8 @@ public class PdfCollator
 			}
 		}
 
+		pagesCount += pageTo - pageFrom + 1;
+
 		//
 		// Free reader
 		try
@@ -159,6 +201,15 @@ public class PdfCollator
 
 		if (pdfCopy == null)
 		{
+			// nothing was written, but the caller expects the stream to be closed like when the PDF document is closed
+			try
+			{
+				out.close();
+			}
+			catch (final IOException e)
+			{
+				throw new AdempiereException(e);
+			}
 			return this;
 		}
 
@@ -170,6 +221,14 @@ public class PdfCollator
 		return this;
 	}
 
+	/**
+	 * @return how many pages were added so far
+	 */
+	public int getPagesCount()
+	{
+		return pagesCount;
+	}
+
 	public byte[] toByteArray()
 	{
 		if (out instanceof ByteArrayOutputStream)
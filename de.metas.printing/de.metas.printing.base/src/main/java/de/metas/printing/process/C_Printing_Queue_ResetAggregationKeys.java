@@ -23,12 +23,11 @@ package de.metas.printing.process;
  */
 
 
-import java.util.Iterator;
+import java.util.stream.Stream;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryFilter;
 import org.adempiere.model.InterfaceWrapperHelper;
-import org.apache.commons.collections4.IteratorUtils;
 import org.compiere.model.IQuery;
 
 import de.metas.printing.api.IPrintingQueueBL;
@@ -49,23 +48,20 @@ public class C_Printing_Queue_ResetAggregationKeys extends JavaProcess
 	{
 		final IQueryFilter<I_C_Printing_Queue> queryFilter = getProcessInfo().getQueryFilter();
 
-		final Iterator<I_C_Printing_Queue> iterator = Services.get(IQueryBL.class)
+		// the queue can be big, so load it page by page, seeking after the last C_Printing_Queue_ID instead of using an offset
+		final Stream<I_C_Printing_Queue> items = Services.get(IQueryBL.class)
 				.createQueryBuilder(I_C_Printing_Queue.class, getCtx(), getTrxName())
 				.filter(queryFilter)
-				.orderBy().addColumn(I_C_Printing_Queue.COLUMN_C_Printing_Queue_ID)
-				.endOrderBy()
 				.create()
-				.setOption(IQuery.OPTION_GuaranteedIteratorRequired, false)
 				.setOption(IQuery.OPTION_IteratorBufferSize, 1000)
-				.iterate(I_C_Printing_Queue.class);
+				.streamByKeyset(I_C_Printing_Queue.class);
 
 		final IPrintingQueueBL printingQueueBL = Services.get(IPrintingQueueBL.class);
-		
-		for(final I_C_Printing_Queue item: IteratorUtils.asIterable(iterator))
-		{
+
+		items.forEach(item -> {
 			printingQueueBL.setItemAggregationKey(item);
 			InterfaceWrapperHelper.save(item);
-		}
+		});
 		return "@Success@";
 	}
 }
@@ -0,0 +1,70 @@
+package de.metas.printing.api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.lowagie.text.pdf.PdfReader;
+
+/*
+ * #%L
+ * de.metas.printing.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PdfCollatorTest
+{
+	@Test
+	public void addPages_fromStreams() throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final PdfCollator collator = new PdfCollator(out)
+				.addPages(getPdfStream("01"))
+				.addPages(getPdfStream("02"))
+				.close();
+
+		assertThat(collator.getPagesCount()).isEqualTo(40);
+
+		final PdfReader reader = new PdfReader(out.toByteArray());
+		assertThat(reader.getNumberOfPages()).isEqualTo(40);
+		reader.close();
+	}
+
+	@Test
+	public void close_withoutPages()
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final PdfCollator collator = new PdfCollator(out).close();
+
+		assertThat(collator.getPagesCount()).isEqualTo(0);
+		assertThat(out.size()).isEqualTo(0);
+	}
+
+	private InputStream getPdfStream(final String suffix)
+	{
+		final String resourceName = "/document" + suffix + ".pdf";
+		final InputStream in = getClass().getResourceAsStream(resourceName);
+		assertThat(in).as("Resource %s", resourceName).isNotNull();
+		return in;
+	}
+}
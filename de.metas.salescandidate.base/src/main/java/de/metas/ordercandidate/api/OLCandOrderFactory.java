@@ -78,7 +78,7 @@ import lombok.NonNull;
  * #L%
  */
 
-class OLCandOrderFactory
+class OLCandOrderFactory implements OLCandsProcessorExecutor.OrderFactory
 {
 	private static final Logger logger = LogManager.getLogger(OLCandOrderFactory.class);
 	private final IUserDAO userDAO = Services.get(IUserDAO.class);
@@ -197,6 +197,7 @@ class OLCandOrderFactory
 		return order;
 	}
 
+	@Override
 	public void completeOrDelete()
 	{
 		final I_C_Order order = this.order;
@@ -233,6 +234,7 @@ class OLCandOrderFactory
 		}
 	}
 
+	@Override
 	public void closeCurrentOrderLine()
 	{
 		if (currentOrderLine == null)
@@ -244,6 +246,7 @@ class OLCandOrderFactory
 		currentOrderLine = null;
 	}
 
+	@Override
 	public void addOLCand(@NonNull final OLCand candidate)
 	{
 		try
@@ -1,15 +1,28 @@
 package de.metas.ordercandidate.api;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.ArrayKeyBuilder;
 import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
@@ -17,6 +30,8 @@ import org.compiere.util.Util;
 import org.compiere.util.Util.ArrayKey;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ListMultimap;
@@ -61,6 +76,14 @@ import lombok.NonNull;
 public class OLCandsProcessorExecutor
 {
 	private static final Logger logger = LogManager.getLogger(OLCandsProcessorExecutor.class);
+
+	/**
+	 * Number of threads which create the orders. If greater than one, the orders are created in parallel, each in its own transaction.
+	 */
+	@VisibleForTesting
+	static final String SYSCONFIG_ThreadsCount = "de.metas.ordercandidate.api.OLCandsProcessorExecutor.ThreadsCount";
+	private static final int DEFAULT_ThreadsCount = 1;
+
 	private final ILoggable loggable;
 
 	private final IOLCandListener olCandListeners;
@@ -74,6 +97,37 @@ public class OLCandsProcessorExecutor
 
 	private final OLCandSource candidatesSource;
 
+	private Supplier<OrderFactory> orderFactorySupplier = this::newOrderFactory;
+
+	/**
+	 * Thrown by {@link #process()} if it fails while the orders are created in parallel.
+	 * Unlike the other exceptions of {@link #process()}, it means that the caller's transaction is not the only one, i.e. the orders which were already created are committed and rolling back the caller's transaction won't remove them.
+	 */
+	public static final class OrdersPartiallyCommittedException extends AdempiereException
+	{
+		private static final long serialVersionUID = 2786126353346396357L;
+
+		private OrdersPartiallyCommittedException(final String message, final Throwable cause)
+		{
+			super(message, cause);
+		}
+	}
+
+	/**
+	 * Creates one order from the candidates which are added to it. Implemented by {@link OLCandOrderFactory}.
+	 */
+	@VisibleForTesting
+	interface OrderFactory
+	{
+		/** Adds the given candidate to the current order line, or to a new one if there is no current order line. */
+		void addOLCand(OLCand candidate);
+
+		/** Makes sure the next candidate goes to a new order line. */
+		void closeCurrentOrderLine();
+
+		void completeOrDelete();
+	}
+
 	@Builder
 	private OLCandsProcessorExecutor(
 			@NonNull final OLCandProcessorDescriptor processorDescriptor,
@@ -85,7 +139,7 @@ public class OLCandsProcessorExecutor
 		this.olCandListeners = olCandListeners;
 		this.aggregationInfo = processorDescriptor.getAggregationInfo();
 		this.groupingValuesProviders = groupingValuesProviders;
-		this.loggable = Loggables.get().withLogger(logger, Level.INFO);
+		this.loggable = new SynchronizedLoggable(Loggables.get()).withLogger(logger, Level.INFO);
 
 		this.olCandProcessorId = processorDescriptor.getId();
 		this.userInChargeId = processorDescriptor.getUserInChangeId();
@@ -100,6 +154,12 @@ public class OLCandsProcessorExecutor
 		this.candidatesSource = candidatesSource;
 	}
 
+	@VisibleForTesting
+	void setOrderFactorySupplier(@NonNull final Supplier<OrderFactory> orderFactorySupplier)
+	{
+		this.orderFactorySupplier = orderFactorySupplier;
+	}
+
 	public void process()
 	{
 		// Note: We could make life easier by constructing a ORDER and GROUP BY SQL statement,
@@ -133,10 +193,34 @@ public class OLCandsProcessorExecutor
 			grouping.put(groupingKey, candidate);
 		}
 
+		final List<OrderCandidatesGroup> orderGroups = createOrderGroups(candidates, toProcess, grouping);
+
+		final int threadsCount = getThreadsCount();
+		if (threadsCount > 1 && orderGroups.size() > 1)
+		{
+			processInParallel(orderGroups, threadsCount);
+		}
+		else
+		{
+			orderGroups.forEach(this::processOrderGroup);
+		}
+	}
+
+	/**
+	 * Splits the given candidates into groups, each of which will become one order.
+	 * Within a group, the candidates are grouped into order lines.
+	 */
+	private List<OrderCandidatesGroup> createOrderGroups(
+			@NonNull final List<OLCand> candidates,
+			@NonNull final Map<Integer, ArrayKey> toProcess,
+			@NonNull final ListMultimap<ArrayKey, OLCand> grouping)
+	{
+		final List<OrderCandidatesGroup> orderGroups = new ArrayList<>();
+
 		// 'processedIds' contains the candidates that have already been processed
 		final Set<Integer> processedIds = new HashSet<>();
 
-		OLCandOrderFactory currentOrder = null;
+		OrderCandidatesGroup currentOrderGroup = null;
 
 		// This variable is used to decide if the current candidate differs from the previous one in a way that requires a new order.
 		OLCand previousCandidate = null;
@@ -150,42 +234,154 @@ public class OLCandsProcessorExecutor
 			}
 
 			// Each group shall go to a separate order line
-			if (currentOrder != null)
+			if (currentOrderGroup != null)
 			{
-				currentOrder.closeCurrentOrderLine();
+				currentOrderGroup.closeCurrentOrderLine();
 			}
 
 			// get the group of the current unprocessed candidate
 			final ArrayKey groupingKey = toProcess.get(olCandId);
 			for (final OLCand candOfGroup : grouping.get(groupingKey))
 			{
-				if (currentOrder != null && isOrderSplit(candOfGroup, previousCandidate))
+				if (currentOrderGroup != null && isOrderSplit(candOfGroup, previousCandidate))
 				{
-					currentOrder.completeOrDelete();
-					currentOrder = null;
+					orderGroups.add(currentOrderGroup);
+					currentOrderGroup = null;
 				}
-				if (currentOrder == null)
+				if (currentOrderGroup == null)
 				{
-					currentOrder = newOrderFactory();
+					currentOrderGroup = new OrderCandidatesGroup();
 				}
 
-				currentOrder.addOLCand(candOfGroup);
+				currentOrderGroup.addOLCand(candOfGroup);
 
 				Check.assume(processedIds.add(candOfGroup.getId()), candOfGroup + " of grouping " + grouping + " is not processed twice");
 				previousCandidate = candOfGroup;
 			}
 		}
 
-		if (currentOrder != null)
+		if (currentOrderGroup != null)
 		{
-			currentOrder.completeOrDelete();
-			currentOrder = null;
+			orderGroups.add(currentOrderGroup);
+			currentOrderGroup = null;
 		}
 
 		Check.assume(processedIds.size() == candidates.size(), "All candidates have been processed");
+		return orderGroups;
 	}
 
-	private OLCandOrderFactory newOrderFactory()
+	/**
+	 * Creates one order per group, on a pool of <code>threadsCount</code> worker threads.
+	 * Each group is processed in its own transaction; within a group, the candidates are processed in the same order as in a sequential run.
+	 * <p>
+	 * The orders of the successful groups are committed, also if other groups fail.
+	 * So instead of failing the whole run, a failed group is logged and its candidates are flagged as erroneous (see {@link #markOrderGroupAsError(OrderCandidatesGroup, Exception)}).
+	 */
+	private void processInParallel(
+			@NonNull final List<OrderCandidatesGroup> orderGroups,
+			final int threadsCount)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Properties ctx = Env.getCtx();
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threadsCount, CustomizableThreadFactory.builder()
+				.setThreadNamePrefix(OLCandsProcessorExecutor.class.getSimpleName())
+				.setDaemon(true)
+				.build());
+		int countFailed = 0;
+		try
+		{
+			final List<Future<Boolean>> futures = new ArrayList<>(orderGroups.size());
+			for (final OrderCandidatesGroup orderGroup : orderGroups)
+			{
+				futures.add(executor.submit(() -> {
+					try (final IAutoCloseable ctxRestorer = Env.switchContext(Env.copyCtx(ctx));
+							final IAutoCloseable loggableRestorer = Loggables.temporarySetLoggable(loggable))
+					{
+						// the candidates were loaded in the caller's transaction
+						orderGroup.streamOLCands().forEach(candidate -> InterfaceWrapperHelper.setTrxName(candidate.unbox(), ITrx.TRXNAME_ThreadInherited));
+
+						try
+						{
+							trxManager.runInNewTrx(() -> processOrderGroup(orderGroup));
+							return true;
+						}
+						catch (final Exception ex)
+						{
+							markOrderGroupAsError(orderGroup, ex);
+							return false;
+						}
+					}
+				}));
+			}
+
+			for (final Future<Boolean> future : futures)
+			{
+				if (!future.get())
+				{
+					countFailed++;
+				}
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new OrdersPartiallyCommittedException("Interrupted while creating the orders. The orders which were already created are committed.", e);
+		}
+		catch (final ExecutionException e)
+		{
+			throw new OrdersPartiallyCommittedException("Failed creating the orders. The orders which were already created are committed.", e.getCause());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		loggable.addLog("Processed {} order groups using {} threads in {}; {} orders were committed, {} order groups failed",
+				orderGroups.size(), threadsCount, stopwatch.stop(), orderGroups.size() - countFailed, countFailed);
+	}
+
+	/**
+	 * Logs the error of the given group, whose transaction was rolled back, and flags its candidates as erroneous, so that the user can see which candidates were not processed.
+	 */
+	private void markOrderGroupAsError(@NonNull final OrderCandidatesGroup orderGroup, @NonNull final Exception ex)
+	{
+		final List<Integer> olCandIds = orderGroup.streamOLCands().map(OLCand::getId).collect(ImmutableList.toImmutableList());
+		loggable.addLog("@Error@ @C_OLCand_ID@ {}: {}", olCandIds, ex.getLocalizedMessage());
+		logger.warn("Failed creating the order for C_OLCand_IDs {}", olCandIds, ex);
+
+		Services.get(ITrxManager.class).runInNewTrx(() -> orderGroup.streamOLCands().forEach(candidate -> {
+			// discard what was changed in the rolled back transaction (e.g. the Processed flag)
+			InterfaceWrapperHelper.refresh(candidate.unbox(), true);
+			candidate.setError(ex.getLocalizedMessage(), -1);
+			InterfaceWrapperHelper.save(candidate.unbox());
+		}));
+	}
+
+	private void processOrderGroup(@NonNull final OrderCandidatesGroup orderGroup)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final OrderFactory orderFactory = orderFactorySupplier.get();
+		for (final List<OLCand> orderLineCandidates : orderGroup.getOrderLines())
+		{
+			// Each group shall go to a separate order line
+			orderFactory.closeCurrentOrderLine();
+			orderLineCandidates.forEach(orderFactory::addOLCand);
+		}
+		orderFactory.completeOrDelete();
+
+		loggable.addLog("Processed {} order line candidates into {} order lines in {}", orderGroup.getCandidatesCount(), orderGroup.getOrderLines().size(), stopwatch.stop());
+	}
+
+	private static int getThreadsCount()
+	{
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_ThreadsCount, DEFAULT_ThreadsCount);
+	}
+
+	private OrderFactory newOrderFactory()
 	{
 		return OLCandOrderFactory.builder()
 				.orderDefaults(orderDefaults)
@@ -319,4 +515,63 @@ public class OLCandsProcessorExecutor
 
 		return true;
 	}
+
+	/**
+	 * The candidates of one order, grouped by order line.
+	 */
+	private static final class OrderCandidatesGroup
+	{
+		private final List<List<OLCand>> orderLines = new ArrayList<>();
+		private List<OLCand> currentOrderLine = null;
+
+		public void addOLCand(@NonNull final OLCand candidate)
+		{
+			if (currentOrderLine == null)
+			{
+				currentOrderLine = new ArrayList<>();
+				orderLines.add(currentOrderLine);
+			}
+			currentOrderLine.add(candidate);
+		}
+
+		public void closeCurrentOrderLine()
+		{
+			currentOrderLine = null;
+		}
+
+		public List<List<OLCand>> getOrderLines()
+		{
+			return orderLines;
+		}
+
+		public Stream<OLCand> streamOLCands()
+		{
+			return orderLines.stream().flatMap(List::stream);
+		}
+
+		public int getCandidatesCount()
+		{
+			return orderLines.stream().mapToInt(List::size).sum();
+		}
+	}
+
+	/**
+	 * Makes sure that the log messages of the worker threads are not added concurrently to the (not thread-safe) process loggable.
+	 */
+	private static final class SynchronizedLoggable implements ILoggable
+	{
+		private final ILoggable delegate;
+
+		private SynchronizedLoggable(@NonNull final ILoggable delegate)
+		{
+			this.delegate = delegate;
+		}
+
+		@Override
+		public synchronized ILoggable addLog(final String msg, final Object... msgParameters)
+		{
+			delegate.addLog(msg, msgParameters);
+			return this;
+		}
+	}
 }
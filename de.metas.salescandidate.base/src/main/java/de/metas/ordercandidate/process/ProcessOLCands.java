@@ -7,6 +7,7 @@ import de.metas.adempiere.model.I_C_Order;
 import de.metas.ordercandidate.api.IOLCandBL;
 import de.metas.ordercandidate.api.OLCandProcessorDescriptor;
 import de.metas.ordercandidate.api.OLCandProcessorRepository;
+import de.metas.ordercandidate.api.OLCandsProcessorExecutor.OrdersPartiallyCommittedException;
 import de.metas.ordercandidate.model.I_C_OLCand;
 import de.metas.ordercandidate.model.I_C_OLCandProcessor;
 import de.metas.process.JavaProcess;
@@ -59,7 +60,12 @@ public class ProcessOLCands extends JavaProcess
 		catch (final Exception ex)
 		{
 			addLog("@Error@: " + ex.getLocalizedMessage());
-			addLog("@Rollback@");
+			// NOTE: if the orders were created in parallel, each order is committed on its own,
+			// so the orders which were created before the error are kept (see OLCandsProcessorExecutor's log)
+			if (!(ex instanceof OrdersPartiallyCommittedException))
+			{
+				addLog("@Rollback@");
+			}
 			throw AdempiereException.wrapIfNeeded(ex);
 
 		}
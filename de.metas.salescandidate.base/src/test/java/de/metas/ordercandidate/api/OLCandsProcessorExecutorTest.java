@@ -0,0 +1,228 @@
+package de.metas.ordercandidate.api;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.refresh;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.TimeUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.impex.model.I_AD_InputDataSource;
+import de.metas.ordercandidate.OrderCandidate_Constants;
+import de.metas.ordercandidate.api.OLCandAggregationColumn.Granularity;
+import de.metas.ordercandidate.model.I_C_OLCand;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.salescandidate.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class OLCandsProcessorExecutorTest
+{
+	private static final Timestamp DAY1 = TimeUtil.parseTimestamp("2019-07-01");
+	private static final Timestamp DAY2 = TimeUtil.parseTimestamp("2019-07-02");
+
+	private int dataDestinationId;
+	private List<OLCand> candidates;
+
+	/** The orders created by the {@link RecordingOrderFactory}s; each order is a list of order lines, each order line is a list of C_OLCand_IDs */
+	private final List<List<List<Integer>>> createdOrders = Collections.synchronizedList(new ArrayList<>());
+
+	/** Records the orders instead of creating them */
+	private class RecordingOrderFactory implements OLCandsProcessorExecutor.OrderFactory
+	{
+		private final Predicate<List<List<Integer>>> failOnComplete;
+		private final List<List<Integer>> orderLines = new ArrayList<>();
+		private List<Integer> currentOrderLine = null;
+		private boolean completed = false;
+
+		private RecordingOrderFactory(final Predicate<List<List<Integer>>> failOnComplete)
+		{
+			this.failOnComplete = failOnComplete;
+		}
+
+		@Override
+		public void addOLCand(final OLCand candidate)
+		{
+			assertThat(completed).isFalse();
+			if (currentOrderLine == null)
+			{
+				currentOrderLine = new ArrayList<>();
+				orderLines.add(currentOrderLine);
+			}
+			currentOrderLine.add(candidate.getId());
+		}
+
+		@Override
+		public void closeCurrentOrderLine()
+		{
+			currentOrderLine = null;
+		}
+
+		@Override
+		public void completeOrDelete()
+		{
+			assertThat(completed).isFalse();
+			completed = true;
+			if (failOnComplete.test(orderLines))
+			{
+				throw new AdempiereException("Failed completing the order");
+			}
+			createdOrders.add(orderLines);
+		}
+	}
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		final I_AD_InputDataSource dataDestination = newInstance(I_AD_InputDataSource.class);
+		dataDestination.setInternalName(OrderCandidate_Constants.DATA_DESTINATION_INTERNAL_NAME);
+		dataDestination.setIsDestination(true);
+		save(dataDestination);
+		dataDestinationId = dataDestination.getAD_InputDataSource_ID();
+
+		candidates = ImmutableList.of(
+				createCandidate(1, 1, DAY1),
+				createCandidate(2, 1, DAY1), // other bpartner => new order, although it's in the same line group as the first candidate
+				createCandidate(1, 2, DAY1),
+				createCandidate(1, 1, DAY1),
+				createCandidate(1, 2, DAY2), // other DatePromised => new order
+				createCandidate(1, 2, DAY2));
+	}
+
+	private OLCand createCandidate(final int bpartnerId, final int productId, final Timestamp datePromised)
+	{
+		final I_C_OLCand candidate = newInstance(I_C_OLCand.class);
+		candidate.setC_BPartner_ID(bpartnerId);
+		candidate.setM_Product_ID(productId);
+		candidate.setDatePromised(datePromised);
+		candidate.setAD_DataDestination_ID(dataDestinationId);
+		save(candidate);
+		return OLCand.of(candidate);
+	}
+
+	private OLCandsProcessorExecutor createExecutor(final int threadsCount, final Predicate<List<List<Integer>>> failOnComplete)
+	{
+		Services.get(ISysConfigBL.class).setValue(OLCandsProcessorExecutor.SYSCONFIG_ThreadsCount, threadsCount, 0);
+
+		final OLCandAggregation aggregationInfo = OLCandAggregation.of(ImmutableList.of(OLCandAggregationColumn.builder()
+				.columnName(I_C_OLCand.COLUMNNAME_DatePromised_Effective)
+				.adColumnId(1)
+				.orderBySeqNo(10)
+				.groupByColumn(true)
+				.granularity(Granularity.Day)
+				.build()));
+
+		final OLCandsProcessorExecutor executor = OLCandsProcessorExecutor.builder()
+				.processorDescriptor(OLCandProcessorDescriptor.builder()
+						.id(1)
+						.userInChangeId(100)
+						.defaults(OLCandOrderDefaults.NULL)
+						.aggregationInfo(aggregationInfo)
+						.build())
+				.olCandListeners((candidate, newOrderLine) -> {})
+				.groupingValuesProviders(candidate -> ImmutableList.<Object> of(candidate.getM_Product_ID()))
+				.candidatesSource(() -> candidates.stream())
+				.build();
+		executor.setOrderFactorySupplier(() -> new RecordingOrderFactory(failOnComplete));
+		return executor;
+	}
+
+	/** @return the orders and lines as they were created before the candidates were split into order groups */
+	private List<List<List<Integer>>> expectedOrders()
+	{
+		return ImmutableList.of(
+				ImmutableList.of(ImmutableList.of(candidateId(1))),
+				ImmutableList.of(ImmutableList.of(candidateId(2))),
+				ImmutableList.of(ImmutableList.of(candidateId(4)), ImmutableList.of(candidateId(3))),
+				ImmutableList.of(ImmutableList.of(candidateId(5), candidateId(6))));
+	}
+
+	/** @return the ID of the n-th candidate, starting with 1 */
+	private int candidateId(final int n)
+	{
+		return candidates.get(n - 1).getId();
+	}
+
+	@Test
+	public void sequential()
+	{
+		createExecutor(1, orderLines -> false).process();
+
+		assertThat(createdOrders).isEqualTo(expectedOrders());
+	}
+
+	/**
+	 * In sequential mode all orders are created in the caller's transaction, so a failure must not be reported as partially committed (i.e. the caller logs a rollback).
+	 */
+	@Test
+	public void sequential_failureIsNotPartiallyCommitted()
+	{
+		final OLCandsProcessorExecutor executor = createExecutor(1, orderLines -> orderLines.get(0).contains(candidateId(4)));
+
+		assertThatThrownBy(executor::process)
+				.isInstanceOf(AdempiereException.class)
+				.isNotInstanceOf(OLCandsProcessorExecutor.OrdersPartiallyCommittedException.class);
+	}
+
+	@Test
+	public void parallel()
+	{
+		createExecutor(4, orderLines -> false).process();
+
+		createdOrders.sort(Comparator.comparing(orderLines -> orderLines.get(0).get(0)));
+		assertThat(createdOrders).isEqualTo(expectedOrders());
+	}
+
+	@Test
+	public void parallel_failedOrderGroupIsMarkedAsError()
+	{
+		createExecutor(4, orderLines -> orderLines.get(0).contains(candidateId(4))).process();
+
+		createdOrders.sort(Comparator.comparing(orderLines -> orderLines.get(0).get(0)));
+		final List<List<List<Integer>>> expectedOrders = expectedOrders();
+		assertThat(createdOrders).containsExactly(expectedOrders.get(0), expectedOrders.get(1), expectedOrders.get(3));
+
+		for (final OLCand candidate : candidates)
+		{
+			refresh(candidate.unbox());
+			final boolean failed = candidate.getId() == candidateId(3) || candidate.getId() == candidateId(4);
+			assertThat(candidate.isError()).as("IsError of %s", candidate).isEqualTo(failed);
+		}
+	}
+}
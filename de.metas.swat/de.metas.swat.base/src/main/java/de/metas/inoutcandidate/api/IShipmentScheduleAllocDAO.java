@@ -23,7 +23,9 @@ package de.metas.inoutcandidate.api;
  */
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Properties;
 
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.compiere.model.I_M_InOutLine;
@@ -122,4 +124,12 @@ public interface IShipmentScheduleAllocDAO extends ISingletonService
 	 * Returns the quantity that is either just picked or on a just drafted shipment line.
 	 */
 	BigDecimal retrieveQtyPickedAndUnconfirmed(I_M_ShipmentSchedule shipmentSchedule);
+
+	/**
+	 * Retrieves both {@link #retrieveQtyDelivered(I_M_ShipmentSchedule)} and {@link #retrieveQtyPickedAndUnconfirmed(I_M_ShipmentSchedule)} for all the given schedules at once,
+	 * using a few grouped queries rather than two queries per schedule.
+	 *
+	 * @param trxName transaction in which the quantities are retrieved, like the single-schedule methods which use their schedule's transaction
+	 */
+	ShipmentScheduleAllocQtys retrieveAllocQtys(Properties ctx, Collection<ShipmentScheduleId> shipmentScheduleIds, String trxName);
 }
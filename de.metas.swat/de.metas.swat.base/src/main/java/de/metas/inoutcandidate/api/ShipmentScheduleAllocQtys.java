@@ -0,0 +1,69 @@
+package de.metas.inoutcandidate.api;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Delivered and picked-but-unconfirmed quantities of a batch of shipment schedules, as retrieved by {@link IShipmentScheduleAllocDAO#retrieveAllocQtys(java.util.Properties, java.util.Collection, String)}.
+ * <p>
+ * Schedules which don't have any delivered or picked quantity are not contained, so for them, zero is returned.
+ */
+@ToString
+public final class ShipmentScheduleAllocQtys
+{
+	public static final ShipmentScheduleAllocQtys EMPTY = new ShipmentScheduleAllocQtys(ImmutableMap.of(), ImmutableMap.of());
+
+	private final ImmutableMap<ShipmentScheduleId, BigDecimal> qtysDelivered;
+	private final ImmutableMap<ShipmentScheduleId, BigDecimal> qtysPickedAndUnconfirmed;
+
+	public ShipmentScheduleAllocQtys(
+			@NonNull final Map<ShipmentScheduleId, BigDecimal> qtysDelivered,
+			@NonNull final Map<ShipmentScheduleId, BigDecimal> qtysPickedAndUnconfirmed)
+	{
+		this.qtysDelivered = ImmutableMap.copyOf(qtysDelivered);
+		this.qtysPickedAndUnconfirmed = ImmutableMap.copyOf(qtysPickedAndUnconfirmed);
+	}
+
+	/**
+	 * @see IShipmentScheduleAllocDAO#retrieveQtyDelivered(de.metas.inoutcandidate.model.I_M_ShipmentSchedule)
+	 */
+	public BigDecimal getQtyDelivered(@NonNull final ShipmentScheduleId shipmentScheduleId)
+	{
+		return qtysDelivered.getOrDefault(shipmentScheduleId, BigDecimal.ZERO);
+	}
+
+	/**
+	 * @see IShipmentScheduleAllocDAO#retrieveQtyPickedAndUnconfirmed(de.metas.inoutcandidate.model.I_M_ShipmentSchedule)
+	 */
+	public BigDecimal getQtyPickedAndUnconfirmed(@NonNull final ShipmentScheduleId shipmentScheduleId)
+	{
+		return qtysPickedAndUnconfirmed.getOrDefault(shipmentScheduleId, BigDecimal.ZERO);
+	}
+}
@@ -25,7 +25,10 @@ import static java.math.BigDecimal.ZERO;
  */
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.adempiere.ad.dao.ICompositeQueryFilter;
@@ -39,8 +42,14 @@ import org.compiere.model.I_M_InOutLine;
 import org.compiere.util.Util;
 import org.slf4j.Logger;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.SetMultimap;
+
 import de.metas.inout.model.I_M_InOut;
 import de.metas.inoutcandidate.api.IShipmentScheduleAllocDAO;
+import de.metas.inoutcandidate.api.ShipmentScheduleAllocQtys;
+import de.metas.inoutcandidate.api.ShipmentScheduleId;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule_QtyPicked;
 import de.metas.logging.LogManager;
@@ -52,6 +61,9 @@ public class ShipmentScheduleAllocDAO implements IShipmentScheduleAllocDAO
 
 	private static final Logger logger = LogManager.getLogger(ShipmentScheduleAllocDAO.class);
 
+	/** Max number of IDs per {@code IN (...)} clause in {@link #retrieveAllocQtys(Properties, Collection, String)} */
+	private static final int IN_ARRAY_CHUNK_SIZE = 1000;
+
 	/**
 	 * Creates a filter which keeps {@link I_M_ShipmentSchedule_QtyPicked} all records (active or not),
 	 * for given shipment schedule, which are <b>not</b> referenced by a shipment line.
@@ -196,6 +208,68 @@ public class ShipmentScheduleAllocDAO implements IShipmentScheduleAllocDAO
 		return Util.coalesce(qty, ZERO);
 	}
 
+	@Override
+	public ShipmentScheduleAllocQtys retrieveAllocQtys(
+			final Properties ctx,
+			@NonNull final Collection<ShipmentScheduleId> shipmentScheduleIds,
+			final String trxName)
+	{
+		if (shipmentScheduleIds.isEmpty())
+		{
+			return ShipmentScheduleAllocQtys.EMPTY;
+		}
+
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final Map<ShipmentScheduleId, BigDecimal> qtysPickedAndUnconfirmed = new HashMap<>();
+		final SetMultimap<Integer, ShipmentScheduleId> inoutLineId2ShipmentScheduleIds = HashMultimap.create();
+		for (final List<Integer> shipmentScheduleRepoIds : Iterables.partition(ShipmentScheduleId.toIntSet(shipmentScheduleIds), IN_ARRAY_CHUNK_SIZE))
+		{
+			final List<I_M_ShipmentSchedule_QtyPicked> qtyPickedRecords = queryBL
+					.createQueryBuilder(I_M_ShipmentSchedule_QtyPicked.class, ctx, trxName)
+					.addOnlyActiveRecordsFilter()
+					.addInArrayFilter(I_M_ShipmentSchedule_QtyPicked.COLUMN_M_ShipmentSchedule_ID, shipmentScheduleRepoIds)
+					.create()
+					.list();
+
+			for (final I_M_ShipmentSchedule_QtyPicked qtyPickedRecord : qtyPickedRecords)
+			{
+				final ShipmentScheduleId shipmentScheduleId = ShipmentScheduleId.ofRepoId(qtyPickedRecord.getM_ShipmentSchedule_ID());
+				if (!qtyPickedRecord.isProcessed())
+				{
+					qtysPickedAndUnconfirmed.merge(shipmentScheduleId, qtyPickedRecord.getQtyPicked(), BigDecimal::add);
+				}
+				if (qtyPickedRecord.getM_InOutLine_ID() > 0)
+				{
+					// one shipment line can be referenced by many QtyPicked records of the same schedule, but it shall be counted only once
+					inoutLineId2ShipmentScheduleIds.put(qtyPickedRecord.getM_InOutLine_ID(), shipmentScheduleId);
+				}
+			}
+		}
+
+		final Map<ShipmentScheduleId, BigDecimal> qtysDelivered = new HashMap<>();
+		for (final List<Integer> inoutLineIds : Iterables.partition(inoutLineId2ShipmentScheduleIds.keySet(), IN_ARRAY_CHUNK_SIZE))
+		{
+			final List<I_M_InOutLine> inoutLines = queryBL
+					.createQueryBuilder(I_M_InOutLine.class, ctx, trxName)
+					.addOnlyActiveRecordsFilter()
+					.addInArrayFilter(I_M_InOutLine.COLUMN_M_InOutLine_ID, inoutLineIds)
+					.addEqualsFilter(I_M_InOutLine.COLUMNNAME_Processed, true)
+					.create()
+					.list();
+
+			for (final I_M_InOutLine inoutLine : inoutLines)
+			{
+				for (final ShipmentScheduleId shipmentScheduleId : inoutLineId2ShipmentScheduleIds.get(inoutLine.getM_InOutLine_ID()))
+				{
+					qtysDelivered.merge(shipmentScheduleId, inoutLine.getMovementQty(), BigDecimal::add);
+				}
+			}
+		}
+
+		return new ShipmentScheduleAllocQtys(qtysDelivered, qtysPickedAndUnconfirmed);
+	}
+
 	@Override
 	public <T extends I_M_ShipmentSchedule_QtyPicked> List<T> retrieveAllQtyPickedRecords(
 			@NonNull final I_M_ShipmentSchedule shipmentSchedule,
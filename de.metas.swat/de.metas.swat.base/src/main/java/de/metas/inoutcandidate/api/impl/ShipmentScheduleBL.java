@@ -66,6 +66,7 @@ import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.adempiere.model.I_AD_User;
 import de.metas.adempiere.model.I_M_Product;
@@ -81,6 +82,8 @@ import de.metas.inoutcandidate.api.IShipmentScheduleBL;
 import de.metas.inoutcandidate.api.IShipmentScheduleEffectiveBL;
 import de.metas.inoutcandidate.api.IShipmentSchedulePA;
 import de.metas.inoutcandidate.api.OlAndSched;
+import de.metas.inoutcandidate.api.ShipmentScheduleAllocQtys;
+import de.metas.inoutcandidate.api.ShipmentScheduleId;
 import de.metas.inoutcandidate.async.CreateMissingShipmentSchedulesWorkpackageProcessor;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.inoutcandidate.spi.IShipmentSchedulesAfterFirstPassUpdater;
@@ -208,7 +211,10 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 			updateShipmentConstraints(sched);
 		}
 
-		final ShipmentSchedulesDuringUpdate firstRun = generate(ctx, olsAndScheds, null, trxName);
+		// prefetch the delivered and picked quantities of all our schedules, instead of retrieving them schedule by schedule in each run
+		final ShipmentScheduleAllocQtys allocQtys = retrieveAllocQtys(ctx, olsAndScheds, trxName);
+
+		final ShipmentSchedulesDuringUpdate firstRun = generate(ctx, olsAndScheds, null, allocQtys, trxName);
 		firstRun.updateCompleteStatusAndSetQtyToZeroWhereNeeded();
 
 		final int removeCnt = applyCandidateProcessors(ctx, firstRun, trxName);
@@ -232,7 +238,7 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 		}
 
 		// make the second run
-		final IShipmentSchedulesDuringUpdate secondRun = generate(ctx, olsAndScheds, firstRun, trxName);
+		final IShipmentSchedulesDuringUpdate secondRun = generate(ctx, olsAndScheds, firstRun, allocQtys, trxName);
 
 		// finally update the shipment schedule entries
 		for (final OlAndSched olAndSched : olsAndScheds)
@@ -253,7 +259,7 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 
 			// task 09358: ol.qtyReserved should be as correct as QtyOrdered and QtyDelivered, but in some cases isn't. this here is a workaround to the problem
 			// task 09869: don't rely on ol anyways
-			final BigDecimal qtyDelivered = Services.get(IShipmentScheduleAllocDAO.class).retrieveQtyDelivered(sched);
+			final BigDecimal qtyDelivered = allocQtys.getQtyDelivered(ShipmentScheduleId.ofRepoId(sched.getM_ShipmentSchedule_ID()));
 			sched.setQtyDelivered(qtyDelivered);
 			sched.setQtyReserved(BigDecimal.ZERO.max(deliverRequest.getQtyOrdered().subtract(sched.getQtyDelivered())));
 
@@ -437,15 +443,40 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 
 	}
 
+	private static ShipmentScheduleAllocQtys retrieveAllocQtys(
+			final Properties ctx,
+			final List<OlAndSched> olsAndScheds,
+			final String trxName)
+	{
+		final ImmutableSet<ShipmentScheduleId> shipmentScheduleIds = olsAndScheds.stream()
+				.map(olAndSched -> ShipmentScheduleId.ofRepoId(olAndSched.getSched().getM_ShipmentSchedule_ID()))
+				.collect(ImmutableSet.toImmutableSet());
+
+		return Services.get(IShipmentScheduleAllocDAO.class).retrieveAllocQtys(ctx, shipmentScheduleIds, trxName);
+	}
+
+	@VisibleForTesting
 	ShipmentSchedulesDuringUpdate generate(
 			final Properties ctx,
 			final List<OlAndSched> lines,
 			final ShipmentSchedulesDuringUpdate firstRun,
 			final String trxName)
+	{
+		return generate(ctx, lines, firstRun, retrieveAllocQtys(ctx, lines, trxName), trxName);
+	}
+
+	/**
+	 * @param allocQtys the prefetched delivered and picked quantities of the given <code>lines</code>' shipment schedules
+	 */
+	private ShipmentSchedulesDuringUpdate generate(
+			final Properties ctx,
+			final List<OlAndSched> lines,
+			final ShipmentSchedulesDuringUpdate firstRun,
+			@NonNull final ShipmentScheduleAllocQtys allocQtys,
+			final String trxName)
 	{
 		// services
 		final IShipmentScheduleEffectiveBL shipmentScheduleEffectiveValuesBL = Services.get(IShipmentScheduleEffectiveBL.class);
-		final IShipmentScheduleAllocDAO shipmentScheduleAllocDAO = Services.get(IShipmentScheduleAllocDAO.class);
 		final IProductBL productBL = Services.get(IProductBL.class);
 
 		// if firstRun is not null, create a new instance, otherwise use firstRun
@@ -481,7 +512,7 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 			}
 			else
 			{
-				final BigDecimal qtyDelivered = Services.get(IShipmentScheduleAllocDAO.class).retrieveQtyDelivered(sched);
+				final BigDecimal qtyDelivered = allocQtys.getQtyDelivered(ShipmentScheduleId.ofRepoId(sched.getM_ShipmentSchedule_ID()));
 				qtyRequired = deliverRequest.getQtyOrdered().subtract(qtyDelivered);
 			}
 
@@ -492,7 +523,7 @@ public class ShipmentScheduleBL implements IShipmentScheduleBL
 			final BigDecimal qtyPickList;
 			{
 				// task 08123: we also take those numbers into account that are *not* on an M_InOutLine yet, but are nonetheless picked
-				qtyPickList = shipmentScheduleAllocDAO.retrieveQtyPickedAndUnconfirmed(sched);
+				qtyPickList = allocQtys.getQtyPickedAndUnconfirmed(ShipmentScheduleId.ofRepoId(sched.getM_ShipmentSchedule_ID()));
 
 				// Update shipment schedule's field
 				sched.setQtyPickList(qtyPickList);
@@ -28,10 +28,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.inoutcandidate.api.IShipmentScheduleBL;
@@ -97,7 +99,9 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 			final List<OlAndSched> collectResult = retrieveOlsAndSchedsToProcess(adPInstanceId);
 
 			logger.debug("Invoking shipmentScheduleBL to update {} shipment schedule entries.", collectResult.size());
+			final Stopwatch stopwatch = Stopwatch.createStarted();
 			shipmentScheduleBL.updateSchedules(ctx, collectResult, ITrx.TRXNAME_ThreadInherited);
+			logUpdateThroughput(collectResult.size(), stopwatch.stop());
 
 			// cleanup the marker/pointer tables
 			invalidSchedulesRepo.deleteRecomputeMarkersOutOfTrx(adPInstanceId);
@@ -120,6 +124,20 @@ public class ShipmentScheduleUpdater implements IShipmentScheduleUpdater
 		}
 	}
 
+	/**
+	 * Logs how many shipment schedules were updated per second.
+	 */
+	private static void logUpdateThroughput(final int countUpdated, final Stopwatch stopwatch)
+	{
+		if (countUpdated <= 0)
+		{
+			return;
+		}
+
+		final long durationMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		logger.info("Updated {} shipment schedules in {} ({} schedules/sec)", countUpdated, stopwatch, countUpdated * 1000L / durationMillis);
+	}
+
 	@Override
 	public boolean isRunning()
 	{
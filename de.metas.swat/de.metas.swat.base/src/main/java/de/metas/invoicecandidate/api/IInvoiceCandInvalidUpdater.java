@@ -54,6 +54,16 @@ public interface IInvoiceCandInvalidUpdater
 	 */
 	void update();
 
+	/**
+	 * @return how many invoice candidates were successfully updated by {@link #update()}
+	 */
+	int getCountUpdated();
+
+	/**
+	 * @return how many invoice candidates failed to be updated by {@link #update()}
+	 */
+	int getCountErrors();
+
 	IInvoiceCandInvalidUpdater setContext(final Properties ctx, final String trxName);
 
 	IInvoiceCandInvalidUpdater setContext(IContextAware context);
@@ -96,6 +106,13 @@ public interface IInvoiceCandInvalidUpdater
 	 */
 	IInvoiceCandInvalidUpdater setRecomputeTagToUse(InvoiceCandRecomputeTag tag);
 
+	/**
+	 * Update only the invoice candidates of the given shard.
+	 *
+	 * @param shard if null, then all invoice candidates are considered (default)
+	 */
+	IInvoiceCandInvalidUpdater setShard(InvoiceCandRecomputeShard shard);
+
 	IInvoiceCandInvalidUpdater setOnlyC_Invoice_Candidates(Iterator<? extends I_C_Invoice_Candidate> invoiceCandidates);
 
 	IInvoiceCandInvalidUpdater setOnlyC_Invoice_Candidates(Iterable<? extends I_C_Invoice_Candidate> invoiceCandidates);
@@ -124,6 +124,13 @@ public interface IInvoiceCandRecomputeTagger
 	 */
 	IInvoiceCandRecomputeTagger setLimit(int limit);
 
+	/**
+	 * Consider only the invoice candidates of the given shard.
+	 *
+	 * @param shard if null, then all invoice candidates are considered (default)
+	 */
+	IInvoiceCandRecomputeTagger setShard(InvoiceCandRecomputeShard shard);
+
 	IInvoiceCandRecomputeTagger setOnlyC_Invoice_Candidates(Iterator<? extends I_C_Invoice_Candidate> invoiceCandidates);
 
 	IInvoiceCandRecomputeTagger setOnlyC_Invoice_Candidates(Iterable<? extends I_C_Invoice_Candidate> invoiceCandidates);
@@ -0,0 +1,65 @@
+package de.metas.invoicecandidate.api;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Immutable shard of the invoice candidates to recompute.
+ * <p>
+ * An invoice candidate belongs to the shard with {@code shardNo = KeyColumn modulo shardsCount}.
+ * The key column is a stable one (like the invoice candidate's order or bill partner), so the shards are disjoint and
+ * they can be tagged and recomputed in parallel without contending for the same {@code C_Invoice_Candidate_Recompute} records.
+ */
+@Value
+public class InvoiceCandRecomputeShard
+{
+	private static final ImmutableSet<String> ALLOWED_KEY_COLUMN_NAMES = ImmutableSet.of(
+			I_C_Invoice_Candidate.COLUMNNAME_C_Order_ID,
+			I_C_Invoice_Candidate.COLUMNNAME_Bill_BPartner_ID);
+
+	int shardNo;
+	int shardsCount;
+	String keyColumnName;
+
+	@Builder
+	private InvoiceCandRecomputeShard(
+			final int shardNo,
+			final int shardsCount,
+			@NonNull final String keyColumnName)
+	{
+		Check.assume(shardsCount > 0, "shardsCount > 0 but it was {}", shardsCount);
+		Check.assume(shardNo >= 0 && shardNo < shardsCount, "0 <= shardNo < {} but it was {}", shardsCount, shardNo);
+		Check.assume(ALLOWED_KEY_COLUMN_NAMES.contains(keyColumnName), "keyColumnName shall be one of {} but it was {}", ALLOWED_KEY_COLUMN_NAMES, keyColumnName);
+
+		this.shardNo = shardNo;
+		this.shardsCount = shardsCount;
+		this.keyColumnName = keyColumnName;
+	}
+}
@@ -49,6 +49,7 @@ import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.IQueryOrderBy.Direction;
 import org.adempiere.ad.dao.IQueryOrderBy.Nulls;
 import org.adempiere.ad.dao.IQueryOrderByBuilder;
+import org.adempiere.ad.dao.impl.TypedSqlQueryFilter;
 import org.adempiere.ad.persistence.ModelDynAttributeAccessor;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
@@ -94,6 +95,7 @@ import de.metas.invoicecandidate.api.IInvoiceCandRecomputeTagger;
 import de.metas.invoicecandidate.api.IInvoiceCandUpdateSchedulerRequest;
 import de.metas.invoicecandidate.api.IInvoiceCandUpdateSchedulerService;
 import de.metas.invoicecandidate.api.IInvoiceCandidateQuery;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
 import de.metas.invoicecandidate.api.InvoiceCandRecomputeTag;
 import de.metas.invoicecandidate.api.InvoiceCandidate_Constants;
 import de.metas.invoicecandidate.model.I_C_InvoiceCandidate_InOutLine;
@@ -933,6 +935,18 @@ public class InvoiceCandDAO implements IInvoiceCandDAO
 			}
 		}
 
+		//
+		// Only the invoice candidates of a given shard
+		final InvoiceCandRecomputeShard shard = tagRequest.getShard();
+		if (shard != null)
+		{
+			final String sqlWhereClause = "EXISTS (SELECT 1 FROM " + I_C_Invoice_Candidate.Table_Name + " ic"
+					+ " WHERE ic." + I_C_Invoice_Candidate.COLUMNNAME_C_Invoice_Candidate_ID + "=" + I_C_Invoice_Candidate_Recompute.Table_Name + "." + I_C_Invoice_Candidate_Recompute.COLUMNNAME_C_Invoice_Candidate_ID
+					+ " AND mod(COALESCE(ic." + shard.getKeyColumnName() + ", 0), ?) = ?"
+					+ ")";
+			queryBuilder.filter(TypedSqlQueryFilter.of(sqlWhereClause, new Object[] { shard.getShardsCount(), shard.getShardNo() }));
+		}
+
 		//
 		// Limit maximum number of invalid invoice candidates to tag for updating
 		if (tagRequest.getLimit() > 0)
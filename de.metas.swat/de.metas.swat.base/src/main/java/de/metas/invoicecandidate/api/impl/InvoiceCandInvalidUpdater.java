@@ -49,6 +49,7 @@ import de.metas.invoicecandidate.api.IInvoiceCandDAO;
 import de.metas.invoicecandidate.api.IInvoiceCandInvalidUpdater;
 import de.metas.invoicecandidate.api.IInvoiceCandRecomputeTagger;
 import de.metas.invoicecandidate.api.IInvoiceCandidateHandlerBL;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
 import de.metas.invoicecandidate.api.InvoiceCandRecomputeTag;
 import de.metas.invoicecandidate.model.I_C_InvoiceCandidate_InOutLine;
 import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
@@ -88,6 +89,7 @@ import lombok.NonNull;
 	//
 	// State
 	private boolean executed = false;
+	private final ICUpdateResult result = new ICUpdateResult();
 
 	InvoiceCandInvalidUpdater(@NonNull final InvoiceCandBL invoiceCandBL)
 	{
@@ -158,7 +160,6 @@ import lombok.NonNull;
 
 		//
 		// Update invoice candidates in chunks
-		final ICUpdateResult result = new ICUpdateResult();
 		try (final IAutoCloseable updateInProgressCloseable = invoiceCandBL.setUpdateProcessInProgress())
 		{
 			trxItemProcessorExecutorService.<I_C_Invoice_Candidate, ICUpdateResult> createExecutor()
@@ -461,6 +462,14 @@ import lombok.NonNull;
 		return this;
 	}
 
+	@Override
+	public IInvoiceCandInvalidUpdater setShard(final InvoiceCandRecomputeShard shard)
+	{
+		assertNotExecuted();
+		icTagger.setShard(shard);
+		return this;
+	}
+
 	@Override
 	public IInvoiceCandInvalidUpdater setOnlyC_Invoice_Candidates(final Iterator<? extends I_C_Invoice_Candidate> invoiceCandidates)
 	{
@@ -477,6 +486,18 @@ import lombok.NonNull;
 		return this;
 	}
 
+	@Override
+	public int getCountUpdated()
+	{
+		return result.getCountOk();
+	}
+
+	@Override
+	public int getCountErrors()
+	{
+		return result.getCountErrors();
+	}
+
 	private final int getItemsPerBatch()
 	{
 		return sysConfigBL.getIntValue(SYSCONFIG_ItemsPerBatch, DEFAULT_ItemsPerBatch);
@@ -503,6 +524,16 @@ import lombok.NonNull;
 			countErrors++;
 		}
 
+		public int getCountOk()
+		{
+			return countOk;
+		}
+
+		public int getCountErrors()
+		{
+			return countErrors;
+		}
+
 		@Override
 		public final String toString()
 		{
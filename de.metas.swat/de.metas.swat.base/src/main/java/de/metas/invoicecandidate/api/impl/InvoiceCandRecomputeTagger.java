@@ -31,6 +31,7 @@ import java.util.Set;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.invoicecandidate.api.IInvoiceCandRecomputeTagger;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
 import de.metas.invoicecandidate.api.InvoiceCandRecomputeTag;
 import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
 import de.metas.lock.api.ILock;
@@ -52,6 +53,7 @@ import lombok.ToString;
 	private ILock _lockedBy = null;
 	private InvoiceCandRecomputeTag _taggedWith = null;
 	private int _limit = -1;
+	private InvoiceCandRecomputeShard _shard = null;
 	private Set<Integer> onlyC_Invoice_Candidate_IDs = null;
 
 	//
@@ -216,6 +218,18 @@ import lombok.ToString;
 		return _limit;
 	}
 
+	@Override
+	public InvoiceCandRecomputeTagger setShard(final InvoiceCandRecomputeShard shard)
+	{
+		this._shard = shard;
+		return this;
+	}
+
+	/* package */InvoiceCandRecomputeShard getShard()
+	{
+		return _shard;
+	}
+
 	@Override
 	public InvoiceCandRecomputeTagger setOnlyC_Invoice_Candidates(@NonNull final Iterator<? extends I_C_Invoice_Candidate> invoiceCandidates)
 	{
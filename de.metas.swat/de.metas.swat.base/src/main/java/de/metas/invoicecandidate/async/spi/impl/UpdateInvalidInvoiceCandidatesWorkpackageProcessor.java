@@ -1,20 +1,47 @@
 package de.metas.invoicecandidate.async.spi.impl;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.api.IParams;
+import org.adempiere.util.api.Params;
+import org.compiere.model.IQuery;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.async.api.IQueueDAO;
+import de.metas.async.exceptions.WorkpackageSkipRequestException;
+import de.metas.async.model.I_C_Queue_PackageProcessor;
 import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.async.model.I_C_Queue_WorkPackage_Param;
+import de.metas.async.processor.IWorkPackageQueueFactory;
 import de.metas.async.spi.WorkpackageProcessorAdapter;
 import de.metas.invoicecandidate.api.IInvoiceCandBL;
 import de.metas.invoicecandidate.api.IInvoiceCandDAO;
+import de.metas.invoicecandidate.api.IInvoiceCandInvalidUpdater;
 import de.metas.invoicecandidate.api.IInvoiceCandUpdateScheduler;
 import de.metas.invoicecandidate.api.IInvoiceCandUpdateSchedulerRequest;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
 import de.metas.invoicecandidate.api.impl.InvoiceCandUpdateSchedulerRequest;
+import de.metas.invoicecandidate.jmx.JMXInvoiceCandRecomputeShard;
 import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
 import de.metas.lock.api.ILock;
+import de.metas.lock.api.ILockAutoCloseable;
+import de.metas.lock.api.ILockManager;
+import de.metas.lock.api.LockOwner;
+import de.metas.lock.exceptions.LockFailedException;
 import de.metas.util.Check;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
@@ -48,6 +75,13 @@ import de.metas.util.Services;
  * <li>to schedule an invoice candidates update please use {@link #schedule(Properties, String)}.
  * <li>you can set the maximum number of invalid ICs to update per run, by using <code>AD_Sysconfig</code> {@value #SYSCONFIG_MaxInvoiceCandidatesToUpdate}. If there are more invalid ICs than this
  * specified maximum, then the work package processor will schedule another workpackage for the remainder.
+ * <li>you can recompute the invalid ICs in parallel, by setting <code>AD_Sysconfig</code> {@value #SYSCONFIG_ShardsCount} to a value greater than one.
+ * Then, a workpackage without shard parameters just schedules one workpackage per {@link InvoiceCandRecomputeShard} which has invalid ICs, and those workpackages update their shard's ICs independently of each other.
+ * A shard which already has a pending (i.e. not processed) workpackage is not scheduled again.
+ * Checking for pending workpackages and enqueueing is done while holding a lock on this processor's <code>C_Queue_PackageProcessor</code> record,
+ * so two workpackages can't schedule the same shard at the same time.
+ * The ICs are assigned to shards by the column which is set in <code>AD_Sysconfig</code> {@value #SYSCONFIG_ShardKeyColumnName}.
+ * How many shards are actually processed at the same time depends on the pool size of the queue processor.
  * </ul>
  *
  *
@@ -78,11 +112,25 @@ public class UpdateInvalidInvoiceCandidatesWorkpackageProcessor extends Workpack
 
 	private static final int DEFAULT_MaxInvoiceCandidatesToUpdate = 500;
 
+	@VisibleForTesting
+	static final String SYSCONFIG_ShardsCount = "de.metas.invoicecandidate.async.spi.impl.UpdateInvalidInvoiceCandidatesWorkpackageProcessor.ShardsCount";
+	private static final int DEFAULT_ShardsCount = 1;
+
+	private static final String SYSCONFIG_ShardKeyColumnName = "de.metas.invoicecandidate.async.spi.impl.UpdateInvalidInvoiceCandidatesWorkpackageProcessor.ShardKeyColumnName";
+	private static final String DEFAULT_ShardKeyColumnName = I_C_Invoice_Candidate.COLUMNNAME_Bill_BPartner_ID;
+
+	private static final String PARAMETERNAME_ShardNo = "ShardNo";
+	private static final String PARAMETERNAME_ShardsCount = "ShardsCount";
+	private static final String PARAMETERNAME_ShardKeyColumnName = "ShardKeyColumnName";
+
 	// services
 	private final transient ITrxManager trxManager = Services.get(ITrxManager.class);
 	private final transient ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
 	private final transient IInvoiceCandBL invoiceCandBL = Services.get(IInvoiceCandBL.class);
 	private final transient IInvoiceCandDAO invoiceCandDAO = Services.get(IInvoiceCandDAO.class);
+	private final transient IQueryBL queryBL = Services.get(IQueryBL.class);
+	private final transient IQueueDAO queueDAO = Services.get(IQueueDAO.class);
+	private final transient ILockManager lockManager = Services.get(ILockManager.class);
 
 	@Override
 	public final boolean isRunInTransaction()
@@ -102,39 +150,224 @@ public class UpdateInvalidInvoiceCandidatesWorkpackageProcessor extends Workpack
 		//
 		// Get parameters
 		final int maxInvoiceCandidatesToUpdate = getMaxInvoiceCandidatesToUpdate();
+		final InvoiceCandRecomputeShard shard = extractShardOrNull();
+
+		//
+		// If we shall work in parallel, but this workpackage was not assigned to a particular shard,
+		// then just schedule one workpackage for each shard which has something to update.
+		final int shardsCount = getShardsCount();
+		if (shard == null && shardsCount > 1)
+		{
+			scheduleShards(ctx, localTrxName, shardsCount);
+			return Result.SUCCESS;
+		}
 
 		//
 		// Update invalid ICs
-		invoiceCandBL.updateInvalid()
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final IInvoiceCandInvalidUpdater updater = invoiceCandBL.updateInvalid()
 				.setContext(ctx, localTrxName)
 				// Only those which are not locked at all
 				.setLockedBy(ILock.NULL)
 				.setTaggedWithNoTag()
-				.setLimit(maxInvoiceCandidatesToUpdate)
-				.update();
+				.setShard(shard)
+				.setLimit(maxInvoiceCandidatesToUpdate);
+		updater.update();
+
+		if (shard != null)
+		{
+			JMXInvoiceCandRecomputeShard.of(shard).addRun(updater.getCountUpdated(), updater.getCountErrors(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
+		}
 
 		//
 		// If we updated just a limited set of invoice candidates,
 		// then create a new workpackage to update the rest of them.
 		if (maxInvoiceCandidatesToUpdate > 0)
 		{
-			final int countRemaining = invoiceCandDAO.tagToRecompute()
-					.setContext(ctx, localTrxName)
-					.setLockedBy(ILock.NULL)
-					.setTaggedWithNoTag()
-					.countToBeTagged();
-
+			final int countRemaining = countRemaining(ctx, localTrxName, shard);
 			if (countRemaining > 0)
 			{
-				final IInvoiceCandUpdateSchedulerRequest request = InvoiceCandUpdateSchedulerRequest.of(ctx, localTrxName);
-				schedule(request);
+				if (shard != null)
+				{
+					try (final ILockAutoCloseable schedulingLock = lockShardScheduling(ctx))
+					{
+						if (retrievePendingShards(ctx).contains(shard))
+						{
+							Loggables.get().addLog("Skip scheduling another workpackage for {} remaining recompute records, because shard={} already has a pending workpackage", countRemaining, shard);
+							return Result.SUCCESS;
+						}
+						scheduleShard(ctx, localTrxName, shard);
+					}
+				}
+				else
+				{
+					final IInvoiceCandUpdateSchedulerRequest request = InvoiceCandUpdateSchedulerRequest.of(ctx, localTrxName);
+					schedule(request);
+				}
 
-				Loggables.get().addLog("Scheduled another workpackage for {} remaining recompute records", countRemaining);
+				Loggables.get().addLog("Scheduled another workpackage for {} remaining recompute records; shard={}", countRemaining, shard);
 			}
 		}
 		return Result.SUCCESS;
 	}
 
+	private int countRemaining(final Properties ctx, final String localTrxName, final InvoiceCandRecomputeShard shard)
+	{
+		return invoiceCandDAO.tagToRecompute()
+				.setContext(ctx, localTrxName)
+				.setLockedBy(ILock.NULL)
+				.setTaggedWithNoTag()
+				.setShard(shard)
+				.countToBeTagged();
+	}
+
+	private void scheduleShards(final Properties ctx, final String localTrxName, final int shardsCount)
+	{
+		final String keyColumnName = sysConfigBL.getValue(SYSCONFIG_ShardKeyColumnName, DEFAULT_ShardKeyColumnName);
+
+		try (final ILockAutoCloseable schedulingLock = lockShardScheduling(ctx))
+		{
+			final Set<InvoiceCandRecomputeShard> pendingShards = retrievePendingShards(ctx);
+
+			for (int shardNo = 0; shardNo < shardsCount; shardNo++)
+			{
+				final InvoiceCandRecomputeShard shard = InvoiceCandRecomputeShard.builder()
+						.shardNo(shardNo)
+						.shardsCount(shardsCount)
+						.keyColumnName(keyColumnName)
+						.build();
+				if (pendingShards.contains(shard))
+				{
+					Loggables.get().addLog("Skip scheduling shard={} because it already has a pending workpackage", shard);
+					continue;
+				}
+
+				final int countRemaining = countRemaining(ctx, localTrxName, shard);
+				if (countRemaining <= 0)
+				{
+					continue;
+				}
+
+				scheduleShard(ctx, localTrxName, shard);
+				Loggables.get().addLog("Scheduled workpackage for {} recompute records of shard={}", countRemaining, shard);
+			}
+		}
+	}
+
+	/**
+	 * Locks this processor's <code>C_Queue_PackageProcessor</code> record, so that no other workpackage can check for pending shards and enqueue shard workpackages until the lock is closed.
+	 *
+	 * @throws WorkpackageSkipRequestException if another workpackage is currently scheduling shards; the current workpackage will be retried later
+	 */
+	private ILockAutoCloseable lockShardScheduling(final Properties ctx)
+	{
+		final I_C_Queue_PackageProcessor packageProcessor = queueDAO.retrievePackageProcessorDefByClass(ctx, UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class);
+		try
+		{
+			return lockManager.lock()
+					.setOwner(LockOwner.newOwner(UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class.getSimpleName(), getC_Queue_WorkPackage().getC_Queue_WorkPackage_ID()))
+					.setRecordByModel(packageProcessor)
+					.setFailIfAlreadyLocked(true)
+					.setAutoCleanup(true) // remove possible stale locks, e.g. after a server crash
+					.acquire()
+					.asAutoCloseable();
+		}
+		catch (final LockFailedException e)
+		{
+			throw WorkpackageSkipRequestException.createWithThrowable("Skip processing because another workpackage is scheduling shards: " + e.getLocalizedMessage(), e);
+		}
+	}
+
+	private static void scheduleShard(final Properties ctx, final String localTrxName, final InvoiceCandRecomputeShard shard)
+	{
+		// @formatter:off
+		Services.get(IWorkPackageQueueFactory.class).getQueueForEnqueuing(ctx, UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class)
+			.newBlock()
+				.newWorkpackage()
+				.bindToTrxName(localTrxName)
+				.parameters()
+					.setParameter(PARAMETERNAME_ShardNo, shard.getShardNo())
+					.setParameter(PARAMETERNAME_ShardsCount, shard.getShardsCount())
+					.setParameter(PARAMETERNAME_ShardKeyColumnName, shard.getKeyColumnName())
+				.end()
+				.build(); // @formatter:on
+	}
+
+	/**
+	 * Loads the shard parameters of all other workpackages of this processor which are not yet processed with one query.
+	 *
+	 * @return the shards of all other workpackages of this processor which are not yet processed
+	 */
+	@VisibleForTesting
+	Set<InvoiceCandRecomputeShard> retrievePendingShards(final Properties ctx)
+	{
+		final I_C_Queue_PackageProcessor packageProcessor = queueDAO.retrievePackageProcessorDefByClass(ctx, UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class);
+
+		final IQuery<I_C_Queue_WorkPackage> pendingWorkpackagesQuery = queryBL.createQueryBuilderOutOfTrx(I_C_Queue_WorkPackage.class)
+				.addOnlyActiveRecordsFilter()
+				.addEqualsFilter(I_C_Queue_WorkPackage.COLUMNNAME_C_Queue_PackageProcessor_ID, packageProcessor.getC_Queue_PackageProcessor_ID())
+				.addEqualsFilter(I_C_Queue_WorkPackage.COLUMNNAME_Processed, false)
+				.addEqualsFilter(I_C_Queue_WorkPackage.COLUMNNAME_IsError, false)
+				.addNotEqualsFilter(I_C_Queue_WorkPackage.COLUMNNAME_C_Queue_WorkPackage_ID, getC_Queue_WorkPackage().getC_Queue_WorkPackage_ID())
+				.create();
+
+		final Map<Integer, List<I_C_Queue_WorkPackage_Param>> shardParamsByWorkpackageId = queryBL.createQueryBuilderOutOfTrx(I_C_Queue_WorkPackage_Param.class)
+				.addOnlyActiveRecordsFilter()
+				.addInArrayFilter(I_C_Queue_WorkPackage_Param.COLUMNNAME_ParameterName, PARAMETERNAME_ShardNo, PARAMETERNAME_ShardsCount, PARAMETERNAME_ShardKeyColumnName)
+				.addInSubQueryFilter(I_C_Queue_WorkPackage_Param.COLUMNNAME_C_Queue_WorkPackage_ID, I_C_Queue_WorkPackage.COLUMNNAME_C_Queue_WorkPackage_ID, pendingWorkpackagesQuery)
+				.create()
+				.stream()
+				.collect(Collectors.groupingBy(I_C_Queue_WorkPackage_Param::getC_Queue_WorkPackage_ID));
+
+		return shardParamsByWorkpackageId.values()
+				.stream()
+				.map(shardParams -> extractShardOrNull(toParams(shardParams)))
+				.filter(Objects::nonNull)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	private static IParams toParams(final List<I_C_Queue_WorkPackage_Param> shardParams)
+	{
+		final Map<String, Object> values = new HashMap<>();
+		for (final I_C_Queue_WorkPackage_Param shardParam : shardParams)
+		{
+			if (PARAMETERNAME_ShardKeyColumnName.equals(shardParam.getParameterName()))
+			{
+				values.put(shardParam.getParameterName(), shardParam.getP_String());
+			}
+			else
+			{
+				values.put(shardParam.getParameterName(), shardParam.getP_Number());
+			}
+		}
+		return Params.ofMap(values);
+	}
+
+	private InvoiceCandRecomputeShard extractShardOrNull()
+	{
+		return extractShardOrNull(getParameters());
+	}
+
+	private static InvoiceCandRecomputeShard extractShardOrNull(final IParams parameters)
+	{
+		final int shardsCount = parameters.getParameterAsInt(PARAMETERNAME_ShardsCount, -1);
+		if (shardsCount <= 0)
+		{
+			return null;
+		}
+
+		return InvoiceCandRecomputeShard.builder()
+				.shardNo(parameters.getParameterAsInt(PARAMETERNAME_ShardNo, -1))
+				.shardsCount(shardsCount)
+				.keyColumnName(parameters.getParameterAsString(PARAMETERNAME_ShardKeyColumnName))
+				.build();
+	}
+
+	private final int getShardsCount()
+	{
+		return sysConfigBL.getIntValue(SYSCONFIG_ShardsCount, DEFAULT_ShardsCount);
+	}
+
 	private final int getMaxInvoiceCandidatesToUpdate()
 	{
 		return sysConfigBL.getIntValue(SYSCONFIG_MaxInvoiceCandidatesToUpdate, DEFAULT_MaxInvoiceCandidatesToUpdate);
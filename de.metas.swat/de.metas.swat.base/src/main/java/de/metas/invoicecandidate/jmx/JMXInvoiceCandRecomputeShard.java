@@ -0,0 +1,176 @@
+package de.metas.invoicecandidate.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
+import de.metas.logging.LogManager;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Throughput statistics of one {@link InvoiceCandRecomputeShard}.
+ * <p>
+ * The MBeans are registered next to the async queue processors' MBeans, so they can be monitored together.
+ */
+public final class JMXInvoiceCandRecomputeShard implements JMXInvoiceCandRecomputeShardMBean
+{
+	/**
+	 * @return the statistics of the given shard; the MBean is registered when the shard is first requested.
+	 */
+	public static JMXInvoiceCandRecomputeShard of(@NonNull final InvoiceCandRecomputeShard shard)
+	{
+		return shardStatistics.computeIfAbsent(shard, JMXInvoiceCandRecomputeShard::createAndRegister);
+	}
+
+	private static final Logger logger = LogManager.getLogger(JMXInvoiceCandRecomputeShard.class);
+
+	private static final String JMX_DOMAIN = "de.metas.async.processor.impl.QueueProcessorsExecutor";
+
+	private static final ConcurrentHashMap<InvoiceCandRecomputeShard, JMXInvoiceCandRecomputeShard> shardStatistics = new ConcurrentHashMap<>();
+
+	private final InvoiceCandRecomputeShard shard;
+
+	private final AtomicLong countRuns = new AtomicLong();
+	private final AtomicLong countUpdated = new AtomicLong();
+	private final AtomicLong countErrors = new AtomicLong();
+	private final AtomicLong totalDurationMillis = new AtomicLong();
+	private volatile String lastRunInfo = null;
+
+	private JMXInvoiceCandRecomputeShard(@NonNull final InvoiceCandRecomputeShard shard)
+	{
+		this.shard = shard;
+	}
+
+	private static JMXInvoiceCandRecomputeShard createAndRegister(final InvoiceCandRecomputeShard shard)
+	{
+		final JMXInvoiceCandRecomputeShard mbean = new JMXInvoiceCandRecomputeShard(shard);
+
+		final String jmxName = JMX_DOMAIN + ":type=UpdateInvalidInvoiceCandidates,shard=" + shard.getShardNo() + "of" + shard.getShardsCount();
+		final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+		try
+		{
+			mbs.registerMBean(mbean, new ObjectName(jmxName));
+		}
+		catch (final InstanceAlreadyExistsException e)
+		{
+			logger.debug("MBean {} was already registered. Ignored.", jmxName);
+		}
+		catch (final Exception e)
+		{
+			logger.warn("Failed registering MBean {}. Ignored.", jmxName, e);
+		}
+
+		return mbean;
+	}
+
+	/**
+	 * Records one update run of this shard.
+	 */
+	public void addRun(final int countUpdated, final int countErrors, final long durationMillis)
+	{
+		this.countRuns.incrementAndGet();
+		this.countUpdated.addAndGet(countUpdated);
+		this.countErrors.addAndGet(countErrors);
+		this.totalDurationMillis.addAndGet(durationMillis);
+		this.lastRunInfo = Instant.now() + ": updated " + countUpdated + " invoice candidates, " + countErrors + " errors, took " + durationMillis + "ms";
+	}
+
+	@Override
+	public int getShardNo()
+	{
+		return shard.getShardNo();
+	}
+
+	@Override
+	public int getShardsCount()
+	{
+		return shard.getShardsCount();
+	}
+
+	@Override
+	public String getKeyColumnName()
+	{
+		return shard.getKeyColumnName();
+	}
+
+	@Override
+	public long getCountRuns()
+	{
+		return countRuns.get();
+	}
+
+	@Override
+	public long getCountUpdated()
+	{
+		return countUpdated.get();
+	}
+
+	@Override
+	public long getCountErrors()
+	{
+		return countErrors.get();
+	}
+
+	@Override
+	public long getTotalDurationMillis()
+	{
+		return totalDurationMillis.get();
+	}
+
+	@Override
+	public double getUpdatedPerSecond()
+	{
+		final long durationMillis = totalDurationMillis.get();
+		if (durationMillis <= 0)
+		{
+			return 0;
+		}
+		return countUpdated.get() * 1000d / durationMillis;
+	}
+
+	@Override
+	public String getLastRunInfo()
+	{
+		return lastRunInfo;
+	}
+
+	@Override
+	public void reset()
+	{
+		countRuns.set(0);
+		countUpdated.set(0);
+		countErrors.set(0);
+		totalDurationMillis.set(0);
+		lastRunInfo = null;
+	}
+}
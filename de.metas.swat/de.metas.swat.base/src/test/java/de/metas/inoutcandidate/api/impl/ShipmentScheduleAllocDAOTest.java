@@ -23,17 +23,25 @@ package de.metas.inoutcandidate.api.impl;
  */
 
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
 import java.util.Arrays;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_M_InOutLine;
 import org.compiere.util.Env;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.inoutcandidate.api.IShipmentScheduleAllocDAO;
+import de.metas.inoutcandidate.api.ShipmentScheduleAllocQtys;
+import de.metas.inoutcandidate.api.ShipmentScheduleId;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule;
 import de.metas.inoutcandidate.model.I_M_ShipmentSchedule_QtyPicked;
 import de.metas.util.Services;
@@ -90,6 +98,66 @@ public class ShipmentScheduleAllocDAOTest
 
 	}
 
+	/**
+	 * Verifies that {@link IShipmentScheduleAllocDAO#retrieveAllocQtys(java.util.Properties, java.util.Collection, String)} returns the same quantities as the respective single-schedule methods.
+	 */
+	@Test
+	public void test_retrieveAllocQtys()
+	{
+		final I_M_InOutLine processedLine = createInOutLine(new BigDecimal("3"), true);
+		final I_M_InOutLine draftLine = createInOutLine(new BigDecimal("5"), false);
+
+		final I_M_ShipmentSchedule ss1 = createM_ShipmentSchedule();
+		createShipmentScheduleQtyPickedRecord(ss1, processedLine.getM_InOutLine_ID(), new BigDecimal("1"), true);
+		createShipmentScheduleQtyPickedRecord(ss1, processedLine.getM_InOutLine_ID(), new BigDecimal("2"), true); // same shipment line, shall be counted once
+		createShipmentScheduleQtyPickedRecord(ss1, 0, new BigDecimal("7"), false);
+
+		final I_M_ShipmentSchedule ss2 = createM_ShipmentSchedule();
+		createShipmentScheduleQtyPickedRecord(ss2, draftLine.getM_InOutLine_ID(), new BigDecimal("5"), false);
+
+		final I_M_ShipmentSchedule ss3 = createM_ShipmentSchedule(); // nothing picked
+
+		final ShipmentScheduleAllocQtys allocQtys = dao.retrieveAllocQtys(Env.getCtx(), ImmutableList.of(toId(ss1), toId(ss2), toId(ss3)), ITrx.TRXNAME_None);
+
+		for (final I_M_ShipmentSchedule ss : ImmutableList.of(ss1, ss2, ss3))
+		{
+			assertThat(allocQtys.getQtyDelivered(toId(ss))).isEqualByComparingTo(dao.retrieveQtyDelivered(ss));
+			assertThat(allocQtys.getQtyPickedAndUnconfirmed(toId(ss))).isEqualByComparingTo(dao.retrieveQtyPickedAndUnconfirmed(ss));
+		}
+		assertThat(allocQtys.getQtyDelivered(toId(ss1))).isEqualByComparingTo("3");
+		assertThat(allocQtys.getQtyPickedAndUnconfirmed(toId(ss1))).isEqualByComparingTo("7");
+		assertThat(allocQtys.getQtyDelivered(toId(ss2))).isZero();
+		assertThat(allocQtys.getQtyPickedAndUnconfirmed(toId(ss2))).isEqualByComparingTo("5");
+	}
+
+	private static ShipmentScheduleId toId(final I_M_ShipmentSchedule ss)
+	{
+		return ShipmentScheduleId.ofRepoId(ss.getM_ShipmentSchedule_ID());
+	}
+
+	private I_M_InOutLine createInOutLine(final BigDecimal movementQty, final boolean processed)
+	{
+		final I_M_InOutLine inoutLine = InterfaceWrapperHelper.newInstance(I_M_InOutLine.class);
+		inoutLine.setMovementQty(movementQty);
+		inoutLine.setProcessed(processed);
+		InterfaceWrapperHelper.save(inoutLine);
+		return inoutLine;
+	}
+
+	private void createShipmentScheduleQtyPickedRecord(
+			final I_M_ShipmentSchedule ss,
+			final int inoutLineId,
+			final BigDecimal qtyPicked,
+			final boolean processed)
+	{
+		final I_M_ShipmentSchedule_QtyPicked record = InterfaceWrapperHelper.newInstance(I_M_ShipmentSchedule_QtyPicked.class, ss);
+		record.setM_ShipmentSchedule(ss);
+		record.setM_InOutLine_ID(inoutLineId);
+		record.setQtyPicked(qtyPicked);
+		record.setProcessed(processed);
+		InterfaceWrapperHelper.save(record);
+	}
+
 	private final I_M_ShipmentSchedule createM_ShipmentSchedule()
 	{
 		final I_M_ShipmentSchedule ss = InterfaceWrapperHelper.create(Env.getCtx(), I_M_ShipmentSchedule.class, ITrx.TRXNAME_None);
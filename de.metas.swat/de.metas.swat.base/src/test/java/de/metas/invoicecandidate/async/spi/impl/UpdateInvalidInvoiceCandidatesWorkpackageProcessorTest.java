@@ -0,0 +1,164 @@
+package de.metas.invoicecandidate.async.spi.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Properties;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.async.api.IQueueDAO;
+import de.metas.async.api.IWorkPackageBuilder;
+import de.metas.async.exceptions.WorkpackageSkipRequestException;
+import de.metas.async.model.I_C_Queue_PackageProcessor;
+import de.metas.async.model.I_C_Queue_WorkPackage;
+import de.metas.async.processor.IWorkPackageQueueFactory;
+import de.metas.invoicecandidate.api.InvoiceCandRecomputeShard;
+import de.metas.invoicecandidate.model.I_C_Invoice_Candidate;
+import de.metas.lock.api.ILock;
+import de.metas.lock.api.ILockManager;
+import de.metas.lock.api.LockOwner;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class UpdateInvalidInvoiceCandidatesWorkpackageProcessorTest
+{
+	private static final String KEY_COLUMN_NAME = I_C_Invoice_Candidate.COLUMNNAME_Bill_BPartner_ID;
+
+	private Properties ctx;
+	private UpdateInvalidInvoiceCandidatesWorkpackageProcessor processor;
+	private I_C_Queue_WorkPackage currentWorkpackage;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		ctx = Env.getCtx();
+		Env.setContext(ctx, Env.CTXNAME_AD_Client_ID, 1);
+
+		Services.get(ISysConfigBL.class).setValue(UpdateInvalidInvoiceCandidatesWorkpackageProcessor.SYSCONFIG_ShardsCount, 2, 0);
+
+		currentWorkpackage = newWorkpackage().build();
+
+		processor = new UpdateInvalidInvoiceCandidatesWorkpackageProcessor();
+		processor.setC_Queue_WorkPackage(currentWorkpackage);
+	}
+
+	@Test
+	public void retrievePendingShards()
+	{
+		final InvoiceCandRecomputeShard shard0 = shard(0);
+		final InvoiceCandRecomputeShard shard1 = shard(1);
+
+		enqueueShard(shard0);
+		final I_C_Queue_WorkPackage processedShard1 = enqueueShard(shard1);
+		processedShard1.setProcessed(true);
+		InterfaceWrapperHelper.save(processedShard1);
+
+		assertThat(processor.retrievePendingShards(ctx)).containsExactly(shard0);
+	}
+
+	@Test
+	public void scheduleShards_skipsShardsWhichArePending()
+	{
+		enqueueShard(shard(0));
+		enqueueShard(shard(1));
+		final int countWorkpackagesBefore = countWorkpackages();
+
+		processor.processWorkPackage(currentWorkpackage, ITrx.TRXNAME_None);
+
+		assertThat(countWorkpackages()).isEqualTo(countWorkpackagesBefore);
+	}
+
+	@Test
+	public void scheduleShards_skipsWorkpackageIfAnotherOneIsScheduling()
+	{
+		final I_C_Queue_PackageProcessor packageProcessor = Services.get(IQueueDAO.class).retrievePackageProcessorDefByClass(ctx, UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class);
+		final ILock otherSchedulingLock = Services.get(ILockManager.class).lock()
+				.setOwner(LockOwner.newOwner("OtherScheduler"))
+				.setRecordByModel(packageProcessor)
+				.setFailIfAlreadyLocked(true)
+				.setAutoCleanup(true)
+				.acquire();
+		final int countWorkpackagesBefore = countWorkpackages();
+
+		assertThatThrownBy(() -> processor.processWorkPackage(currentWorkpackage, ITrx.TRXNAME_None))
+				.isInstanceOf(WorkpackageSkipRequestException.class);
+		assertThat(countWorkpackages()).isEqualTo(countWorkpackagesBefore);
+
+		// once the other workpackage is done, the scheduling lock is free again
+		otherSchedulingLock.close();
+		enqueueShard(shard(0));
+		enqueueShard(shard(1));
+
+		processor.processWorkPackage(currentWorkpackage, ITrx.TRXNAME_None);
+
+		assertThat(Services.get(ILockManager.class).isLocked(packageProcessor)).isFalse();
+	}
+
+	private static InvoiceCandRecomputeShard shard(final int shardNo)
+	{
+		return InvoiceCandRecomputeShard.builder()
+				.shardNo(shardNo)
+				.shardsCount(2)
+				.keyColumnName(KEY_COLUMN_NAME)
+				.build();
+	}
+
+	private IWorkPackageBuilder newWorkpackage()
+	{
+		return Services.get(IWorkPackageQueueFactory.class).getQueueForEnqueuing(ctx, UpdateInvalidInvoiceCandidatesWorkpackageProcessor.class)
+				.newBlock()
+				.newWorkpackage()
+				.bindToTrxName(ITrx.TRXNAME_None);
+	}
+
+	private I_C_Queue_WorkPackage enqueueShard(final InvoiceCandRecomputeShard shard)
+	{
+		// @formatter:off
+		return newWorkpackage()
+				.parameters()
+					.setParameter("ShardNo", shard.getShardNo())
+					.setParameter("ShardsCount", shard.getShardsCount())
+					.setParameter("ShardKeyColumnName", shard.getKeyColumnName())
+				.end()
+				.build(); // @formatter:on
+	}
+
+	private int countWorkpackages()
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_C_Queue_WorkPackage.class)
+				.create()
+				.count();
+	}
+}
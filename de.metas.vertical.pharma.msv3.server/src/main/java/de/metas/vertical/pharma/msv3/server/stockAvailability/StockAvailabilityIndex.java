@@ -0,0 +1,172 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory copy of the stock availability records, indexed by PZN.
+ * <p>
+ * Readers are never blocked by a sync: each {@link Update} is applied after its transaction was committed, by replacing the whole (immutable) map.
+ * So a reader sees either all or none of the changes of a given sync event.
+ * <p>
+ * The index is loaded lazily, on first read.
+ */
+final class StockAvailabilityIndex
+{
+	private static final Logger logger = LoggerFactory.getLogger(StockAvailabilityIndex.class);
+
+	private final Supplier<List<Entry>> loader;
+
+	/** null means "not loaded yet" */
+	private volatile ImmutableMap<Long, Entry> entriesByPzn = null;
+
+	StockAvailabilityIndex(@NonNull final Supplier<List<Entry>> loader)
+	{
+		this.loader = loader;
+	}
+
+	/**
+	 * @return the available qty or <code>null</code> if there is no stock availability for given PZN
+	 */
+	public Integer getQty(final long pzn)
+	{
+		final Entry entry = getEntriesByPzn().get(pzn);
+		return entry != null ? entry.getQty() : null;
+	}
+
+	private ImmutableMap<Long, Entry> getEntriesByPzn()
+	{
+		final ImmutableMap<Long, Entry> entriesByPzn = this.entriesByPzn;
+		return entriesByPzn != null ? entriesByPzn : load();
+	}
+
+	private synchronized ImmutableMap<Long, Entry> load()
+	{
+		if (entriesByPzn == null)
+		{
+			entriesByPzn = Maps.uniqueIndex(loader.get(), Entry::getPzn);
+			logger.info("Loaded {} stock availability records", entriesByPzn.size());
+		}
+		return entriesByPzn;
+	}
+
+	/**
+	 * Applies the given update after the current transaction is committed, or right away if there is no transaction.
+	 */
+	public void applyAfterCommit(@NonNull final Update update)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCommit()
+				{
+					apply(update);
+				}
+			});
+		}
+		else
+		{
+			apply(update);
+		}
+	}
+
+	/**
+	 * NOTE: applying an update which was already loaded from database does not change anything, so it's OK if this method is called after a concurrent {@link #load()}.
+	 */
+	private synchronized void apply(final Update update)
+	{
+		if (entriesByPzn == null)
+		{
+			return; // not loaded yet; will be loaded with the update included
+		}
+
+		final Map<Long, Entry> newEntriesByPzn = new HashMap<>(entriesByPzn);
+
+		update.getDeletedPzns().forEach(pzn -> newEntriesByPzn.computeIfPresent(pzn, (k, entry) -> entry.getEventVersion() < update.getEventVersion() ? null : entry));
+
+		for (final Entry upsert : update.getUpserts())
+		{
+			newEntriesByPzn.merge(upsert.getPzn(), upsert, (existing, newEntry) -> existing.getEventVersion() > newEntry.getEventVersion() ? existing : newEntry);
+		}
+
+		if (update.isDeleteAllOlderThan())
+		{
+			newEntriesByPzn.values().removeIf(entry -> !entry.getSyncToken().equals(update.getSyncToken()) && entry.getEventVersion() < update.getEventVersion());
+		}
+
+		entriesByPzn = ImmutableMap.copyOf(newEntriesByPzn);
+	}
+
+	@Value
+	@Builder
+	static class Entry
+	{
+		long pzn;
+		int qty;
+		@NonNull
+		String syncToken;
+		int eventVersion;
+	}
+
+	/**
+	 * Changes made by one sync event. Same semantics as the changes made to the database.
+	 */
+	@Value
+	@Builder
+	static class Update
+	{
+		@NonNull
+		String syncToken;
+		int eventVersion;
+
+		@Singular
+		List<Entry> upserts;
+
+		/** Entries of these PZNs are deleted if their version is lower than {@link #getEventVersion()} */
+		@Singular
+		Set<Long> deletedPzns;
+
+		/** If true, all entries which have a different sync token and a lower version than {@link #getEventVersion()} are deleted */
+		boolean deleteAllOlderThan;
+	}
+}
@@ -1,8 +1,15 @@
 package de.metas.vertical.pharma.msv3.server.stockAvailability;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 
 import org.slf4j.Logger;
@@ -10,6 +17,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.AvailabilityType;
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityQuery;
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityQueryItem;
@@ -22,7 +34,6 @@ import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilit
 import de.metas.vertical.pharma.msv3.protocol.types.BPartnerId;
 import de.metas.vertical.pharma.msv3.protocol.types.PZN;
 import de.metas.vertical.pharma.msv3.protocol.types.Quantity;
-import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3EventVersion;
 import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3ProductExclude;
 import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3ProductExcludesUpdateEvent;
 import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3StockAvailability;
@@ -60,10 +71,17 @@ public class StockAvailabilityService
 {
 	private static final Logger logger = LoggerFactory.getLogger(StockAvailabilityService.class);
 
+	/** How many event items are loaded and saved together; shall match <code>hibernate.jdbc.batch_size</code> */
+	private static final int BATCH_SIZE = 500;
+
 	@Autowired
 	private JpaStockAvailabilityRepository stockAvailabilityRepo;
 	@Autowired
 	private JpaProductExcludeRepository productExcludeRepo;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final StockAvailabilityIndex stockAvailabilityIndex = new StockAvailabilityIndex(this::loadIndexEntries);
 
 	public StockAvailabilityResponse checkAvailability(final StockAvailabilityQuery query)
 	{
@@ -128,31 +146,32 @@ public class StockAvailabilityService
 			return Optional.empty();
 		}
 
-		final JpaStockAvailability jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(pzn.getValueAsLong());
-		if (jpaStockAvailability == null)
+		final Integer qty = stockAvailabilityIndex.getQty(pzn.getValueAsLong());
+		if (qty == null)
 		{
 			return Optional.empty();
 		}
 
-		final Quantity qty = Quantity.of(jpaStockAvailability.getMfQty());
-		return Optional.of(qty);
+		return Optional.of(Quantity.of(qty));
 	}
 
 	@Transactional
 	public void handleEvent(@NonNull final MSV3StockAvailabilityUpdatedEvent event)
 	{
 		final String mfSyncToken = event.getId();
-		final MSV3EventVersion mfEventVersion = event.getEventVersion();
+		final int mfEventVersion = event.getEventVersion().getAsInt();
+
+		final StockAvailabilityIndex.Update.UpdateBuilder indexUpdate = StockAvailabilityIndex.Update.builder()
+				.syncToken(mfSyncToken)
+				.eventVersion(mfEventVersion);
 
 		//
 		// Update
 		{
-			final AtomicInteger countUpdated = new AtomicInteger();
-
-			for (final MSV3StockAvailability eventItem : event.getItems())
+			int countUpdated = 0;
+			for (final List<MSV3StockAvailability> eventItemsBatch : Lists.partition(event.getItems(), BATCH_SIZE))
 			{
-				updateStockAvailability(eventItem, mfSyncToken, mfEventVersion);
-				countUpdated.incrementAndGet();
+				countUpdated += updateStockAvailabilities(eventItemsBatch, mfSyncToken, mfEventVersion, indexUpdate);
 			}
 			logger.debug("Updated {} stock availability records", countUpdated);
 		}
@@ -161,47 +180,102 @@ public class StockAvailabilityService
 		// Delete
 		if (event.isDeleteAllOtherItems())
 		{
-			final long countDeleted = stockAvailabilityRepo
-					.deleteInBatchByMfSyncTokenNotAndMfEventVersionLessThan(
-							mfSyncToken,
-							mfEventVersion.getAsInt());
+			final int countDeleted = stockAvailabilityRepo.deleteAllOlderThan(mfSyncToken, mfEventVersion);
+			indexUpdate.deleteAllOlderThan(true);
 			logger.debug("Deleted {} stock availability records", countDeleted);
 		}
 
+		stockAvailabilityIndex.applyAfterCommit(indexUpdate.build());
 	}
 
-	private void updateStockAvailability(
-			@NonNull final MSV3StockAvailability request,
+	/**
+	 * Deletes/inserts/updates the stock availabilities of the given event items, using one query to load the existing records and JDBC batches to save them.
+	 *
+	 * @return how many records were inserted or updated
+	 */
+	private int updateStockAvailabilities(
+			@NonNull final List<MSV3StockAvailability> eventItems,
 			final String mfSyncToken,
-			@NonNull final MSV3EventVersion mfEventVersion)
+			final int mfEventVersion,
+			@NonNull final StockAvailabilityIndex.Update.UpdateBuilder indexUpdate)
 	{
-		if (request.isDelete())
+		//
+		// Delete
+		// NOTE: deleting first is OK because the records we save below have the current version, so they would not be deleted anyway
+		final Set<Long> pznsToDelete = eventItems.stream()
+				.filter(MSV3StockAvailability::isDelete)
+				.map(MSV3StockAvailability::getPzn)
+				.collect(ImmutableSet.toImmutableSet());
+		if (!pznsToDelete.isEmpty())
 		{
-			stockAvailabilityRepo
-					.deleteInBatchByMfPznAndMfEventVersionLessThan(
-							request.getPzn(),
-							mfEventVersion.getAsInt());
+			stockAvailabilityRepo.deleteByMfPznsAndMfEventVersionLessThan(pznsToDelete, mfEventVersion);
+			indexUpdate.deletedPzns(pznsToDelete);
 		}
-		else
+
+		//
+		// Insert/Update
+		final Map<Long, MSV3StockAvailability> eventItemsToSaveByPzn = new LinkedHashMap<>();
+		eventItems.stream()
+				.filter(eventItem -> !eventItem.isDelete())
+				.forEach(eventItem -> eventItemsToSaveByPzn.put(eventItem.getPzn(), eventItem)); // last one wins
+		if (eventItemsToSaveByPzn.isEmpty())
+		{
+			return 0;
+		}
+
+		final Map<Long, JpaStockAvailability> existingRecordsByPzn = Maps.uniqueIndex(
+				stockAvailabilityRepo.findByMfPznIn(eventItemsToSaveByPzn.keySet()),
+				JpaStockAvailability::getMfPzn);
+
+		final List<JpaStockAvailability> recordsToSave = new ArrayList<>(eventItemsToSaveByPzn.size());
+		for (final MSV3StockAvailability eventItem : eventItemsToSaveByPzn.values())
 		{
-			JpaStockAvailability jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(request.getPzn());
+			JpaStockAvailability jpaStockAvailability = existingRecordsByPzn.get(eventItem.getPzn());
 			if (jpaStockAvailability == null)
 			{
 				jpaStockAvailability = new JpaStockAvailability();
-				jpaStockAvailability.setMfPzn(request.getPzn());
+				jpaStockAvailability.setMfPzn(eventItem.getPzn());
 			}
-			else if (jpaStockAvailability.getMfEventVersion() > mfEventVersion.getAsInt())
+			else if (jpaStockAvailability.getMfEventVersion() > mfEventVersion)
 			{
 				logger.debug("Discard request with mfEventVersion={} because our local record has mfEventVersion={}; request={}",
-						mfEventVersion, jpaStockAvailability.getMfEventVersion(), request);
-				return;
+						mfEventVersion, jpaStockAvailability.getMfEventVersion(), eventItem);
+				continue;
 			}
 
-			jpaStockAvailability.setMfEventVersion(mfEventVersion.getAsInt());
-			jpaStockAvailability.setMfQty(request.getQty());
+			jpaStockAvailability.setMfEventVersion(mfEventVersion);
+			jpaStockAvailability.setMfQty(eventItem.getQty());
 			jpaStockAvailability.setMfSyncToken(mfSyncToken);
-			stockAvailabilityRepo.save(jpaStockAvailability);
+			recordsToSave.add(jpaStockAvailability);
+
+			indexUpdate.upsert(toIndexEntry(jpaStockAvailability));
 		}
+
+		stockAvailabilityRepo.save(recordsToSave);
+
+		// flush this batch and detach its records, so that the persistence context does not grow with each batch
+		stockAvailabilityRepo.flush();
+		entityManager.clear();
+
+		return recordsToSave.size();
+	}
+
+	private List<StockAvailabilityIndex.Entry> loadIndexEntries()
+	{
+		return stockAvailabilityRepo.findAll()
+				.stream()
+				.map(StockAvailabilityService::toIndexEntry)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static StockAvailabilityIndex.Entry toIndexEntry(@NonNull final JpaStockAvailability jpaStockAvailability)
+	{
+		return StockAvailabilityIndex.Entry.builder()
+				.pzn(jpaStockAvailability.getMfPzn())
+				.qty(jpaStockAvailability.getMfQty())
+				.syncToken(jpaStockAvailability.getMfSyncToken())
+				.eventVersion(jpaStockAvailability.getMfEventVersion())
+				.build();
 	}
 
 	@Transactional
@@ -1,6 +1,12 @@
 package de.metas.vertical.pharma.msv3.server.stockAvailability.jpa;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /*
@@ -30,7 +36,15 @@ public interface JpaStockAvailabilityRepository extends JpaRepository<JpaStockAv
 {
 	JpaStockAvailability findByMfPzn(long pzn);
 
-	long deleteInBatchByMfSyncTokenNotAndMfEventVersionLessThan(String mfSyncToken, int mfEventVersion);
+	List<JpaStockAvailability> findByMfPznIn(Collection<Long> pzns);
+
+	/** Deletes the records of the given PZNs which are older than the given event version, with one DELETE statement. */
+	@Modifying
+	@Query("DELETE FROM JpaStockAvailability WHERE mfPzn IN (:mfPzns) AND mfEventVersion < :mfEventVersion")
+	int deleteByMfPznsAndMfEventVersionLessThan(@Param("mfPzns") Collection<Long> mfPzns, @Param("mfEventVersion") int mfEventVersion);
 
-	long deleteInBatchByMfPznAndMfEventVersionLessThan(long mfPzn, int mfEventVersion);
+	/** Deletes the records which were not synchronized with the given token and which are older than the given event version, with one DELETE statement. */
+	@Modifying
+	@Query("DELETE FROM JpaStockAvailability WHERE mfSyncToken <> :mfSyncToken AND mfEventVersion < :mfEventVersion")
+	int deleteAllOlderThan(@Param("mfSyncToken") String mfSyncToken, @Param("mfEventVersion") int mfEventVersion);
 }
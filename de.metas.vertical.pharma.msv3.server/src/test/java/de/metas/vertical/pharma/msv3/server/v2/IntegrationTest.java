@@ -238,6 +238,35 @@ public class IntegrationTest
 		testStockAvailability(PZN_4, 44, 44); // PZN_4 is still there because of its higher event version!
 	}
 
+	@Test
+	public void testStockAvailability_multipleBatches()
+	{
+		setupDummyCurrentUserForBPartnerId(1234);
+
+		createOrUpdateStockAvailability(PZN_1, 11);
+		testStockAvailability(PZN_1, 11, 11); // guard
+
+		final MSV3StockAvailabilityUpdatedEvent.MSV3StockAvailabilityUpdatedEventBuilder eventBuilder = MSV3StockAvailabilityUpdatedEvent.builder()
+				.eventVersion(MSV3EventVersion.of(++eventVersionCounter))
+				.deleteAllOtherItems(false)
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_1.getValueAsLong())
+						.delete(true)
+						.build());
+		for (int i = 1; i <= 1200; i++)
+		{
+			eventBuilder.item(MSV3StockAvailability.builder()
+					.pzn(500000000 + i)
+					.qty(i)
+					.build());
+		}
+		stockAvailabilityListener.onStockAvailabilityUpdatedEvent(eventBuilder.build());
+
+		testStockAvailability(PZN_1, 11, 0);
+		testStockAvailability(PZN.of(500000001), 1, 1);
+		testStockAvailability(PZN.of(500001200), 1200, 1200);
+	}
+
 
 	@Test
 	public void testStockAvailability_UnknownPZN()